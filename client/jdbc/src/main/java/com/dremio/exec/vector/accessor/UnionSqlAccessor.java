@@ -26,6 +26,8 @@ import com.dremio.common.types.Types;
 
 public class UnionSqlAccessor extends AbstractSqlAccessor {
 
+  private static final MajorType TYPE = Types.optional(MinorType.UNION);
+
   FieldReader reader;
 
   public UnionSqlAccessor(UnionVector vector) {
@@ -112,7 +114,7 @@ public class UnionSqlAccessor extends AbstractSqlAccessor {
 
   @Override
   public MajorType getType() {
-    return Types.optional(MinorType.UNION);
+    return TYPE;
   }
 
   @Override
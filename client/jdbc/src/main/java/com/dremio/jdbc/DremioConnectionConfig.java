@@ -65,4 +65,11 @@ public class DremioConnectionConfig extends ConnectionConfigImpl {
   public boolean isServerMetadataDisabled() {
     return Boolean.valueOf(props.getProperty("server.metadata.disabled"));
   }
+
+  // Number of batches read ahead of the application before the server is
+  // throttled, or null to use the client configuration.
+  public Integer getBatchQueueThrottlingThreshold() {
+    final String threshold = props.getProperty("batch.queue.throttling.threshold");
+    return threshold != null ? Integer.valueOf(threshold) : null;
+  }
 }
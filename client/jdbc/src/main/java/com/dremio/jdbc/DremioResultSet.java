@@ -19,6 +19,8 @@ import java.math.BigDecimal;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
+import org.apache.arrow.vector.VectorSchemaRoot;
+
 
 /**
  * Dremio-specific {@link ResultSet}.
@@ -34,6 +36,24 @@ public interface DremioResultSet extends ResultSet  {
    */
   String getQueryId() throws SQLException;
 
+  /**
+   * Gets the next non-empty batch of results as Arrow vectors, skipping the
+   * rows of the current batch which were not read yet.  The cursor is
+   * positioned on the last row of the returned batch.
+   * <p>
+   *   The returned root and its vectors belong to this result set: they are
+   *   only valid until the next call to {@link #next()} or
+   *   {@code nextBatch()}, or until this result set is closed, and must not be
+   *   closed by the caller.  Reading whole batches avoids the conversions of
+   *   the row-wise getter methods.
+   * </p>
+   *
+   * @return  the batch, or {@code null} after the last batch has been returned
+   * @throws  SQLException  if this method is called on a closed result set,
+   *          or if the results could not be read
+   */
+  VectorSchemaRoot nextBatch() throws SQLException;
+
   /**
    * {@inheritDoc}
    * <p>
@@ -27,6 +27,8 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
 import org.apache.calcite.avatica.AvaticaStatement;
 import org.apache.calcite.avatica.ColumnMetaData;
 import org.apache.calcite.avatica.Meta;
@@ -45,6 +47,7 @@ import com.dremio.exec.proto.UserBitShared.QueryType;
 import com.dremio.exec.proto.UserProtos.PreparedStatement;
 import com.dremio.exec.record.BatchSchema;
 import com.dremio.exec.record.RecordBatchLoader;
+import com.dremio.exec.record.VectorWrapper;
 import com.dremio.exec.rpc.ConnectionThrottle;
 import com.dremio.jdbc.SchemaChangeListener;
 import com.dremio.jdbc.SqlTimeoutException;
@@ -331,6 +334,10 @@ class DremioCursor implements Cursor {
   /** Holds current batch of records (none before first load). */
   private final RecordBatchLoader currentBatchHolder;
 
+  /** Vectors of current batch, as handed out by {@link #nextBatch()} (null
+   *  until first requested, and after schema changes). */
+  private VectorSchemaRoot currentBatchRoot;
+
   private final ResultsListener resultsListener;
   private SchemaChangeListener changeListener;
 
@@ -384,8 +391,13 @@ class DremioCursor implements Cursor {
     this.signature = signature;
 
     DremioClient client = connection.getClient();
-    final int batchQueueThrottlingThreshold =
-        client.getConfig().getInt(JDBC_BATCH_QUEUE_THROTTLING_THRESHOLD );
+    // (The connection may read ahead more (or fewer) batches than the client
+    // configuration allows.)
+    final Integer connectionThrottlingThreshold =
+        connection.getConfig().getBatchQueueThrottlingThreshold();
+    final int batchQueueThrottlingThreshold = connectionThrottlingThreshold != null
+        ? connectionThrottlingThreshold
+        : client.getConfig().getInt(JDBC_BATCH_QUEUE_THROTTLING_THRESHOLD );
     resultsListener = new ResultsListener(batchQueueThrottlingThreshold);
     currentBatchHolder = new RecordBatchLoader(client.getRecordAllocator());
   }
@@ -426,6 +438,7 @@ class DremioCursor implements Cursor {
       connection.getClient().cancelQuery(resultsListener.getQueryId());
     }
     resultsListener.close();
+    currentBatchRoot = null;  // (Vectors are owned by currentBatchHolder.)
     currentBatchHolder.clear();
   }
 
@@ -523,6 +536,7 @@ class DremioCursor implements Cursor {
           }
           schema = currentBatchHolder.getSchema();
           if (schemaChanged) {
+            currentBatchRoot = null;
             updateColumns();
           }
 
@@ -664,6 +678,53 @@ class DremioCursor implements Cursor {
     }
   }
 
+  /**
+   * Advances this cursor to the last row of the next non-empty batch, if any,
+   * skipping the rows of the current batch which were not read yet, or to
+   * after the sequence of rows if no next batch.
+   *
+   * @return  the vectors of the batch (null when after end of results)
+   * @see com.dremio.jdbc.DremioResultSet#nextBatch()
+   */
+  VectorSchemaRoot nextBatch() throws SQLException {
+    if ( ! initialSchemaLoaded ) {
+      throw new IllegalStateException(
+          "nextBatch() called but loadInitialSchema() was not called" );
+    }
+
+    if ( afterLastRow ) {
+      return null;
+    }
+    else if ( returnTrueForNextCallToNext ) {
+      // First batch (loaded by loadInitialSchema()) has rows not read yet.
+      returnTrueForNextCallToNext = false;
+    }
+    else {
+      do {
+        // Skip to end of current batch so that next one gets loaded.
+        currentRecordNumber = currentBatchHolder.getRecordCount() - 1;
+        if ( ! nextRowInternally() ) {
+          return null;
+        }
+      } while ( currentBatchHolder.getRecordCount() == 0 );
+    }
+
+    final int recordCount = currentBatchHolder.getRecordCount();
+    if ( currentBatchRoot == null ) {
+      final List<FieldVector> vectors = new ArrayList<>();
+      for ( VectorWrapper<?> wrapper : currentBatchHolder ) {
+        vectors.add( (FieldVector) wrapper.getValueVector() );
+      }
+      currentBatchRoot = new VectorSchemaRoot( vectors );
+    }
+    currentBatchRoot.setRowCount( recordCount );
+
+    accessors.clearLastColumnIndexedInRow();
+    currentRowNumber += recordCount;
+    currentRecordNumber = recordCount - 1;
+    return currentBatchRoot;
+  }
+
   public void cancel() {
     close();
   }
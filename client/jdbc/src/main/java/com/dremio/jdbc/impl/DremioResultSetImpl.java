@@ -39,6 +39,7 @@ import java.util.Calendar;
 import java.util.Map;
 import java.util.TimeZone;
 
+import org.apache.arrow.vector.VectorSchemaRoot;
 import org.apache.calcite.avatica.AvaticaResultSet;
 import org.apache.calcite.avatica.AvaticaSite;
 import org.apache.calcite.avatica.AvaticaStatement;
@@ -1869,6 +1870,16 @@ class DremioResultSetImpl extends AvaticaResultSet implements DremioResultSet {
     return null;
   }
 
+  @Override
+  public VectorSchemaRoot nextBatch() throws SQLException {
+    throwIfClosed();
+    if (cursor instanceof DremioCursor) {
+      return ((DremioCursor) cursor).nextBatch();
+    }
+    // (Results of metadata requests are not read from record batches.)
+    throw new SQLFeatureNotSupportedException("Batches are not available for these results.");
+  }
+
   ////////////////////////////////////////
 
   @Override
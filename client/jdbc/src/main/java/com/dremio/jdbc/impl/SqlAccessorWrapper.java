@@ -95,51 +95,58 @@ class SqlAccessorWrapper implements Accessor {
 
   @Override
   public boolean getBoolean() throws SQLException {
-    return underlyingAccessor.isNull(getCurrentRecordNumber())
+    final int rowOffset = getCurrentRecordNumber();
+    return underlyingAccessor.isNull(rowOffset)
         ? BOOLEAN_NULL_VALUE
-        : underlyingAccessor.getBoolean(getCurrentRecordNumber());
+        : underlyingAccessor.getBoolean(rowOffset);
   }
 
   @Override
   public byte getByte() throws SQLException {
-    return underlyingAccessor.isNull(getCurrentRecordNumber())
+    final int rowOffset = getCurrentRecordNumber();
+    return underlyingAccessor.isNull(rowOffset)
         ? PRIMITIVE_NUM_NULL_VALUE
-        : underlyingAccessor.getByte(getCurrentRecordNumber());
+        : underlyingAccessor.getByte(rowOffset);
   }
 
   @Override
   public short getShort() throws SQLException {
-    return underlyingAccessor.isNull(getCurrentRecordNumber())
+    final int rowOffset = getCurrentRecordNumber();
+    return underlyingAccessor.isNull(rowOffset)
         ? PRIMITIVE_NUM_NULL_VALUE
-        : underlyingAccessor.getShort(getCurrentRecordNumber());
+        : underlyingAccessor.getShort(rowOffset);
   }
 
   @Override
   public int getInt() throws SQLException {
-    return underlyingAccessor.isNull(getCurrentRecordNumber())
+    final int rowOffset = getCurrentRecordNumber();
+    return underlyingAccessor.isNull(rowOffset)
         ? PRIMITIVE_NUM_NULL_VALUE
-        : underlyingAccessor.getInt(getCurrentRecordNumber());
+        : underlyingAccessor.getInt(rowOffset);
   }
 
   @Override
   public long getLong() throws SQLException {
-    return underlyingAccessor.isNull(getCurrentRecordNumber())
+    final int rowOffset = getCurrentRecordNumber();
+    return underlyingAccessor.isNull(rowOffset)
         ? PRIMITIVE_NUM_NULL_VALUE
-        : underlyingAccessor.getLong(getCurrentRecordNumber());
+        : underlyingAccessor.getLong(rowOffset);
   }
 
   @Override
   public float getFloat() throws SQLException {
-    return underlyingAccessor.isNull(getCurrentRecordNumber())
+    final int rowOffset = getCurrentRecordNumber();
+    return underlyingAccessor.isNull(rowOffset)
         ? PRIMITIVE_NUM_NULL_VALUE
-        : underlyingAccessor.getFloat(getCurrentRecordNumber());
+        : underlyingAccessor.getFloat(rowOffset);
   }
 
   @Override
   public double getDouble() throws SQLException {
-    return underlyingAccessor.isNull(getCurrentRecordNumber())
+    final int rowOffset = getCurrentRecordNumber();
+    return underlyingAccessor.isNull(rowOffset)
         ? PRIMITIVE_NUM_NULL_VALUE
-        : underlyingAccessor.getDouble(getCurrentRecordNumber());
+        : underlyingAccessor.getDouble(rowOffset);
   }
 
   @Override
@@ -18,6 +18,7 @@ package com.dremio.jdbc;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.core.StringContains.containsString;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
@@ -26,6 +27,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 
+import org.apache.arrow.vector.VectorSchemaRoot;
 import org.junit.Test;
 
 
@@ -131,6 +133,26 @@ public class DremioResultSetTest extends JdbcWithServerTestBase {
     assertThat( "getRow() after last row", resultSet.getRow(), equalTo( 0 ) );
   }
 
+  @Test
+  public void test_nextBatch_returnsAllRows()
+    throws Exception
+  {
+    Statement statement = getConnection().createStatement();
+    DremioResultSet resultSet =
+        statement.executeQuery( "VALUES (1), (2)" ).unwrap( DremioResultSet.class );
+
+    VectorSchemaRoot batch = resultSet.nextBatch();
+    assertThat( batch.getRowCount(), equalTo( 2 ) );
+    assertThat( batch.getVector( 0 ).getObject( 0 ), equalTo( 1 ) );
+    assertThat( batch.getVector( 0 ).getObject( 1 ), equalTo( 2 ) );
+
+    // Cursor is at last row of batch:
+    assertThat( resultSet.getInt( 1 ), equalTo( 2 ) );
+
+    assertThat( resultSet.nextBatch(), nullValue() );
+    assertThat( resultSet.next(), is( false ) );
+  }
+
   // TODO:  Ideally, test other methods.
 
 }
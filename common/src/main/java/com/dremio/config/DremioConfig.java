@@ -124,6 +124,7 @@ public class DremioConfig extends NestedConfig {
   public static final String SCRATCH_PATH_STRING = "paths.scratch";
   public static final String SPILLING_PATH_STRING = "paths.spilling";
   public static final String METADATA_PATH_STRING = "paths.metadata";
+  public static final String FLIGHT_STAGING_PATH_STRING = "paths.flight_staging";
 
   public static final String ZOOKEEPER_QUORUM = "zookeeper";
   public static final String ZK_CLIENT_SESSION_TIMEOUT = "zk.client.session.timeout";
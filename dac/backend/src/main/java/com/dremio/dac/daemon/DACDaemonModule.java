@@ -815,6 +815,7 @@ public class DACDaemonModule implements DACModule {
         registry.provider(NodeEndpoint.class),
         () -> sabotContextProvider.get().getCoordinators(),
         namespaceServiceProvider,
+        registry.provider(CatalogService.class),
         registry.provider(OptionManager.class),
         registry.provider(AccelerationManager.class),
         registry.provider(SchedulerService.class),
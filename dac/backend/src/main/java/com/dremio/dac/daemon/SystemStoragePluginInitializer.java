@@ -45,6 +45,7 @@ import com.dremio.service.Initializer;
 import com.dremio.service.coordinator.ClusterCoordinator;
 import com.dremio.service.coordinator.ProjectConfig;
 import com.dremio.service.coordinator.TaskLeaderElection;
+import com.dremio.service.flight.impl.FlightIngestManager;
 import com.dremio.service.namespace.NamespaceKey;
 import com.dremio.service.namespace.NamespaceService;
 import com.dremio.service.namespace.source.proto.SourceConfig;
@@ -170,6 +171,12 @@ public class SystemStoragePluginInitializer implements Initializer<Void> {
       InternalFileConf.create(DATASET_DOWNLOAD_STORAGE_PLUGIN, downloadPath, SchemaMutability.USER_TABLE,
         CatalogService.NEVER_REFRESH_POLICY, enableAsyncForDownload, null), deferred);
 
+    if (config.getBoolean(DremioConfig.FLIGHT_SERVICE_ENABLED_BOOLEAN)) {
+      createSafe(catalogService, ns,
+        InternalFileConf.create(FlightIngestManager.STAGING_SOURCE, config.getURI(DremioConfig.FLIGHT_STAGING_PATH_STRING),
+          SchemaMutability.USER_TABLE, CatalogService.NEVER_REFRESH_POLICY_WITH_AUTO_PROMOTE, false, null), deferred);
+    }
+
     if (sabotContext.getOptionManager().getOption(ENABLE_ICEBERG_EXECUTION)) {
       final boolean enableAsyncForMetadata = enable(config, DremioConfig.DEBUG_METADATA_ASYNC_ENABLED);
       createSafe(catalogService, ns,
@@ -173,6 +173,7 @@ public class DatasetTool {
       Integer maxRecords, boolean catchExecutionError) throws DatasetVersionNotFoundException, NamespaceException, JobNotFoundException {
     JobDataFragment dataLimited = null;
     ApiErrorModel<?> error = null;
+    boolean isPartial = false;
     try (AutoCloseables.RollbackCloseable cls = new AutoCloseables.RollbackCloseable(true)) {
       if (maxRecords == null) {
         maxRecords = INITIAL_RESULTSET_SIZE;
@@ -180,7 +181,8 @@ public class DatasetTool {
 
       try {
         if (maxRecords > 0) {
-          JobDataClientUtils.waitForFinalState(jobsService, job.getJobId());
+          // the first rows of previews are stored before the job completes, the job can still fail once they are read
+          isPartial = !JobDataClientUtils.waitForStoredRecords(jobsService, job.getJobId(), maxRecords);
           dataLimited = cls.add(job.truncate(allocator, maxRecords));
         } else {
           final JobDetailsRequest request = JobDetailsRequest.newBuilder()
@@ -222,7 +224,7 @@ public class DatasetTool {
     // TODO(DX-14701) move links from BE to UI
     datasetUI.setFullPathList(tipVersion.getDataset().toPathList());
     return InitialPreviewResponse.of(newDataset(datasetUI, tipVersion.getVersion()), job.getJobId(), dataLimited, true,
-      history, error);
+      history, error, isPartial && error == null);
   }
 
   private JobDataFragment getDataOnlyWithColumns(JobId jobId, ByteString batchSchema) {
@@ -36,6 +36,8 @@ public class InitialPreviewResponse {
   private final JobId jobId;
   // initial preview can fail when the source being queried has become unavailable
   private final ApiErrorModel error;
+  // the data was read while the job was still running, which can still fail
+  private final boolean isPartial;
 
   @JsonCreator
   public InitialPreviewResponse(
@@ -45,7 +47,8 @@ public class InitialPreviewResponse {
       @JsonProperty("approximate") boolean isApproximate,
       @JsonProperty("jobId") JobId jobId,
       @JsonProperty("history") History history,
-      @JsonProperty("error") ApiErrorModel error) {
+      @JsonProperty("error") ApiErrorModel error,
+      @JsonProperty("partial") boolean isPartial) {
     this.dataset = dataset;
     this.data = data;
     this.isApproximate = isApproximate;
@@ -53,19 +56,25 @@ public class InitialPreviewResponse {
     this.history = history;
     this.jobId = jobId;
     this.error = error;
+    this.isPartial = isPartial;
   }
 
   public static InitialPreviewResponse of(DatasetUI dataset, JobId jobId, JobDataFragment data, boolean isApproximate,
       History history, ApiErrorModel error) {
+    return of(dataset, jobId, data, isApproximate, history, error, false);
+  }
+
+  public static InitialPreviewResponse of(DatasetUI dataset, JobId jobId, JobDataFragment data, boolean isApproximate,
+      History history, ApiErrorModel error, boolean isPartial) {
 
     return new InitialPreviewResponse(dataset, data, JobResource.getPaginationURL(jobId),
-      isApproximate, jobId, history, error);
+      isApproximate, jobId, history, error, isPartial);
   }
 
   public static InitialPreviewResponse of(DatasetUI dataset, boolean isApproximate,
                                           History history, ApiErrorModel error) {
     return new InitialPreviewResponse(dataset, null, null,
-      isApproximate, null, history, error);
+      isApproximate, null, history, error, false);
   }
 
   /**
@@ -123,4 +132,13 @@ public class InitialPreviewResponse {
   public ApiErrorModel getError() {
     return error;
   }
+
+  /**
+   * Was the initial data read before the job completed? The job can then still fail after the data was returned,
+   * which is reported by the state of the job.
+   * @return
+   */
+  public boolean isPartial() {
+    return isPartial;
+  }
 }
@@ -196,8 +196,13 @@ import com.dremio.exec.store.CatalogService;
 import com.dremio.exec.store.dfs.NASConf;
 import com.dremio.options.OptionManager;
 import com.dremio.options.OptionValue;
+import com.dremio.service.job.JobDetails;
+import com.dremio.service.job.JobDetailsRequest;
+import com.dremio.service.job.proto.JobState;
 import com.dremio.service.jobs.HybridJobsService;
+import com.dremio.service.jobs.JobDataClientUtils;
 import com.dremio.service.jobs.JobRequest;
+import com.dremio.service.jobs.JobsProtoUtil;
 import com.dremio.service.jobs.JobsService;
 import com.dremio.service.jobs.SqlQuery;
 import com.dremio.service.namespace.NamespaceKey;
@@ -2332,6 +2337,30 @@ public class TestServerExplore extends BaseTestServer {
     expectSuccess(reapplyInvocation(getDatasetVersionPath(testDS)));
   }
 
+  @Test
+  public void testPreviewFailingAfterFirstBatch() throws Exception {
+    // the division by zero fails on the rows that follow the first batch
+    final InitialPreviewResponse response = createDatasetFromSQL(
+      "SELECT rn, 1 / (CASE WHEN rn > 5000 THEN 0 ELSE 1 END) AS x FROM (" +
+        "SELECT ROW_NUMBER() OVER (ORDER BY l_orderkey, l_linenumber) AS rn FROM cp.\"tpch/lineitem.parquet\")",
+      Collections.emptyList());
+
+    if (response.getError() != null) {
+      // the query failed before its first rows were read
+      assertFalse(response.isPartial());
+      return;
+    }
+
+    // the first rows were read while the query was running, so the preview must not be reported as complete
+    assertTrue(response.isPartial());
+    final JobsService jobsService = l(JobsService.class);
+    JobDataClientUtils.waitForFinalState(jobsService, response.getJobId());
+    final JobDetails jobDetails = jobsService.getJobDetails(JobDetailsRequest.newBuilder()
+      .setJobId(JobsProtoUtil.toBuf(response.getJobId()))
+      .build());
+    assertEquals(JobState.FAILED, JobsProtoUtil.getLastAttempt(jobDetails).getState());
+  }
+
   private void testBIEndpoint(String endpoint, Callable<Void> biToolSetupCallback) throws Exception {
     setSpace();
     // create dataset so we get a namespace entry for the physical dataset.
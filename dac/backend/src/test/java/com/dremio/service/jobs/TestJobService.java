@@ -92,6 +92,7 @@ import com.dremio.service.job.JobCountsRequest;
 import com.dremio.service.job.JobDetailsRequest;
 import com.dremio.service.job.JobSummary;
 import com.dremio.service.job.JobsWithParentDatasetRequest;
+import com.dremio.service.job.QueryProfileRequest;
 import com.dremio.service.job.SearchJobsRequest;
 import com.dremio.service.job.VersionedDatasetPath;
 import com.dremio.service.job.proto.JobAttempt;
@@ -1142,6 +1143,48 @@ public class TestJobService extends BaseTestServer {
     context.getOptionManager().setOption(OptionValue.createLong(OptionType.SYSTEM, ExecConstants.DEBUG_RESULTS_MAX_AGE_IN_MILLISECONDS.getOptionName(), 0));
   }
 
+  @Test
+  public void testJobServedFromCachedResults() throws Exception {
+    jobsService = (HybridJobsService) l(JobsService.class);
+    final SabotContext context = l(SabotContext.class);
+    context.getOptionManager().setOption(OptionValue.createBoolean(OptionType.SYSTEM,
+      ExecConstants.JOB_RESULTS_CACHE_ENABLED.getOptionName(), true));
+    try {
+      final String sql = String.format("SELECT *, '%s' AS run FROM cp.\"json/users.json\"", randomUUID());
+      final JobRequest request = JobRequest.newBuilder()
+        .setSqlQuery(getQueryFromSQL(sql))
+        .setQueryType(QueryType.UI_RUN)
+        .build();
+      final JobId first = submitJobAndWaitUntilCompletion(request);
+      final JobId second = submitJobAndWaitUntilCompletion(request);
+
+      // the second job reads the results of the first one
+      final JobResultsStore jobResultsStore = localJobsService.getJobResultsStore();
+      assertEquals(jobResultsStore.getOutputTablePath(first), jobResultsStore.getOutputTablePath(second));
+      try (JobDataFragment firstData = JobDataClientUtils.getJobData(jobsService, l(BufferAllocator.class), first, 0, 100);
+           JobDataFragment secondData = JobDataClientUtils.getJobData(jobsService, l(BufferAllocator.class), second, 0, 100)) {
+        assertTrue(secondData.getReturnedRowCount() > 0);
+        assertEquals(firstData.getReturnedRowCount(), secondData.getReturnedRowCount());
+      }
+
+      final UserBitShared.QueryProfile profile = jobsService.getProfile(QueryProfileRequest.newBuilder()
+        .setJobId(JobsProtoUtil.toBuf(second))
+        .setAttempt(0)
+        .build());
+      assertEquals(UserBitShared.QueryResult.QueryState.COMPLETED, profile.getState());
+      assertEquals(sql, profile.getQuery());
+
+      // the results belong to the first job, cleaning up the second job keeps them
+      assertTrue(jobResultsStore.cleanup(second));
+      assertTrue(jobResultsStore.jobOutputDirectoryExists(first));
+      assertTrue(jobResultsStore.cleanup(first));
+      assertFalse(jobResultsStore.jobOutputDirectoryExists(first));
+    } finally {
+      context.getOptionManager().setOption(OptionValue.createBoolean(OptionType.SYSTEM,
+        ExecConstants.JOB_RESULTS_CACHE_ENABLED.getOptionName(), false));
+    }
+  }
+
   @Test
   public void testJobProfileCleanup() throws Exception {
     jobsService = (HybridJobsService) l(JobsService.class);
@@ -1172,6 +1215,70 @@ public class TestJobService extends BaseTestServer {
     jobsService.getJobDetails(request);
   }
 
+  @Test
+  public void testRecentJobServedFromMemory() throws Exception {
+    final Job job = createJob("R1", Arrays.asList("space1", "ds1"), "v1", "A", "space1", JobState.COMPLETED, "select * from LocalFS1.\"dac-sample1.json\"", 100L, 110L, QueryType.UI_RUN);
+    job.setCompleted(true);
+    localJobsService.storeJob(job);
+
+    // once the job is gone from the store, only the in memory index can serve it
+    l(LegacyKVStoreProvider.class).getStore(LocalJobsService.JobsStoreCreator.class).delete(job.getJobId());
+    assertEquals(job.getAttempts(), getJob(job.getJobId()).getAttempts());
+
+    try {
+      localJobsService.getJob(GetJobRequest.newBuilder()
+        .setJobId(job.getJobId())
+        .setUserName(SYSTEM_USERNAME)
+        .setFromStore(true)
+        .build());
+      fail("job should not be read from the index when asked for the store");
+    } catch (JobNotFoundException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testRecentJobReplacedOnStore() throws Exception {
+    final Job job = createJob("R2", Arrays.asList("space1", "ds1"), "v1", "A", "space1", JobState.COMPLETED, "select * from LocalFS1.\"dac-sample1.json\"", 100L, 110L, QueryType.UI_RUN);
+    job.setCompleted(true);
+    localJobsService.storeJob(job);
+    assertEquals(JobState.COMPLETED, getJob(job.getJobId()).getJobAttempt().getState());
+
+    job.getJobAttempt().setState(JobState.FAILED);
+    localJobsService.storeJob(job);
+    assertEquals(JobState.FAILED, getJob(job.getJobId()).getJobAttempt().getState());
+
+    // a job which is not completed is only read from the store
+    job.setCompleted(false);
+    localJobsService.storeJob(job);
+    l(LegacyKVStoreProvider.class).getStore(LocalJobsService.JobsStoreCreator.class).delete(job.getJobId());
+    try {
+      getJob(job.getJobId());
+      fail("job should have left the index");
+    } catch (JobNotFoundException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testRecentJobInvalidatedByProfileCleanup() throws Exception {
+    jobsService = (HybridJobsService) l(JobsService.class);
+    final JobId jobId = submitJobAndWaitUntilCompletion(JobRequest.newBuilder().setSqlQuery(getQueryFromSQL("SHOW SCHEMAS")).build());
+    assertTrue(getJob(jobId).isCompleted());
+
+    Thread.sleep(20);
+
+    final OnlineProfileCleanup onlineProfileCleanup = l(LocalJobsService.class).new OnlineProfileCleanup();
+    LocalJobsService.deleteOldJobsAndProfiles(onlineProfileCleanup, l(LegacyKVStoreProvider.class), 10);
+
+    try {
+      getJob(jobId);
+      fail("deleted job should not be served from the index");
+    } catch (JobNotFoundException e) {
+      // expected
+    }
+  }
+
   @Test
   public void testSingleFailedAttempt() throws Exception {
     final String attemptId = AttemptIdUtils.toString(new AttemptId());
@@ -59,7 +59,7 @@ public class Cast${type.from}To${type.to} implements SimpleFunction {
 
   public void eval() {
 
-      <#if type.to != "DateMilli">
+      <#if type.to == "TimeMilli">
       byte[] buf = new byte[in.end - in.start];
       in.buffer.getBytes(in.start, buf, 0, in.end - in.start);
       String input = new String(buf, com.google.common.base.Charsets.UTF_8);
@@ -70,8 +70,14 @@ public class Cast${type.from}To${type.to} implements SimpleFunction {
         out.value = com.dremio.exec.expr.fn.impl.StringFunctionHelpers.getDate(in.buffer, in.start, in.end);
 
         <#elseif type.to == "TimeStampMilli">
-        org.joda.time.format.DateTimeFormatter f = com.dremio.common.util.JodaDateUtility.getDateTimeFormatter();
-        out.value = com.dremio.common.util.DateTimes.toMillis(org.joda.time.LocalDateTime.parse(input, f));
+        out.value = com.dremio.exec.expr.fn.impl.EpochMillisUtils.parseTimestamp(in.buffer, in.start, in.end);
+        if (out.value == com.dremio.exec.expr.fn.impl.EpochMillisUtils.NOT_PARSED) {
+          byte[] buf = new byte[in.end - in.start];
+          in.buffer.getBytes(in.start, buf, 0, in.end - in.start);
+          String input = new String(buf, com.google.common.base.Charsets.UTF_8);
+          org.joda.time.format.DateTimeFormatter f = com.dremio.common.util.JodaDateUtility.getDateTimeFormatter();
+          out.value = com.dremio.common.util.DateTimes.toMillis(org.joda.time.LocalDateTime.parse(input, f));
+        }
 
         <#elseif type.to == "TimeMilli">
         org.joda.time.format.DateTimeFormatter f = com.dremio.common.util.JodaDateUtility.getTimeFormatter();
@@ -52,11 +52,13 @@ public class G${type}ToChar implements SimpleFunction {
     @Param  VarCharHolder right;
     @Inject ArrowBuf buffer;
     @Workspace org.joda.time.format.DateTimeFormatter format;
+    @Workspace java.lang.StringBuilder str;
     @Output VarCharHolder out;
     @Inject FunctionErrorContext errCtx;
 
     public void setup() {
         buffer = buffer.reallocIfNeeded(100);
+        str = new java.lang.StringBuilder(100);
 
         // Get the desired output format and create a DateTimeFormatter
         byte[] buf = new byte[right.end - right.start];
@@ -75,13 +77,27 @@ public class G${type}ToChar implements SimpleFunction {
 
     public void eval() {
 
-        // print current value in the desired format
-        String str = format.print(left.value);
+        // print current value in the desired format, reusing the builder
+        str.setLength(0);
+        format.printTo(str, left.value);
 
         out.buffer = buffer;
         out.start = 0;
         out.end = Math.min(100, str.length()); // truncate if target type has length smaller than that of input's string
-        out.buffer.setBytes(0, str.substring(0,out.end).getBytes());
+        boolean ascii = true;
+        for (int i = 0; i < out.end; i++) {
+          if (str.charAt(i) >= 0x80) {
+            ascii = false;
+            break;
+          }
+        }
+        if (ascii) {
+          for (int i = 0; i < out.end; i++) {
+            out.buffer.setByte(i, str.charAt(i));
+          }
+        } else {
+          out.buffer.setBytes(0, str.substring(0,out.end).getBytes());
+        }
     }
 }
 </#list>
@@ -87,20 +87,11 @@ public class GDateTimeTruncateFunctions {
     public void eval() {
       <#if type == "TimeMilli"> <#-- Start InputType -->
         <#if toUnit == "Hour"> <#-- Start UnitType -->
-      dateTime.setRounding(null, org.joda.time.MutableDateTime.ROUND_NONE);
-      dateTime.setMillis(right.value);
-      dateTime.setRounding(dateTime.getChronology().hourOfDay());
-      out.value = (int) dateTime.getMillis();
+      out.value = (int) com.dremio.exec.expr.fn.impl.EpochMillisUtils.truncate(right.value, com.dremio.exec.expr.fn.impl.EpochMillisUtils.MILLIS_PER_HOUR);
         <#elseif toUnit == "Minute">
-      dateTime.setRounding(null, org.joda.time.MutableDateTime.ROUND_NONE);
-      dateTime.setMillis(right.value);
-      dateTime.setRounding(dateTime.getChronology().minuteOfHour());
-      out.value = (int) dateTime.getMillis();
+      out.value = (int) com.dremio.exec.expr.fn.impl.EpochMillisUtils.truncate(right.value, com.dremio.exec.expr.fn.impl.EpochMillisUtils.MILLIS_PER_MINUTE);
         <#elseif toUnit == "Second">
-      dateTime.setRounding(null, org.joda.time.MutableDateTime.ROUND_NONE);
-      dateTime.setMillis(right.value);
-      dateTime.setRounding(dateTime.getChronology().secondOfMinute());
-      out.value = (int) dateTime.getMillis();
+      out.value = (int) com.dremio.exec.expr.fn.impl.EpochMillisUtils.truncate(right.value, com.dremio.exec.expr.fn.impl.EpochMillisUtils.MILLIS_PER_SECOND);
         <#else>
         <#-- For all other units truncate the whole thing -->
       out.value = 0;
@@ -110,28 +101,13 @@ public class GDateTimeTruncateFunctions {
       // No truncation as there is no time part in date
       out.value = right.value;
         <#elseif toUnit == "Year">
-      dateTime.setRounding(null, org.joda.time.MutableDateTime.ROUND_NONE);
-      dateTime.setMillis(right.value);
-      dateTime.setRounding(dateTime.getChronology().year());
-      out.value = dateTime.getMillis();
+      out.value = com.dremio.exec.expr.fn.impl.EpochMillisUtils.truncateToYear(right.value);
         <#elseif toUnit == "Month">
-      dateTime.setRounding(null, org.joda.time.MutableDateTime.ROUND_NONE);
-      dateTime.setMillis(right.value);
-      dateTime.setRounding(dateTime.getChronology().monthOfYear());
-      out.value = dateTime.getMillis();
+      out.value = com.dremio.exec.expr.fn.impl.EpochMillisUtils.truncateToMonth(right.value);
         <#elseif toUnit == "Week">
-      dateTime.setRounding(null, org.joda.time.MutableDateTime.ROUND_NONE);
-      dateTime.setMillis(right.value);
-      dateTime.setRounding(dateTime.getChronology().weekOfWeekyear());
-      out.value = dateTime.getMillis();
+      out.value = com.dremio.exec.expr.fn.impl.EpochMillisUtils.truncateToWeek(right.value);
         <#elseif toUnit == "Quarter">
-      dateTime.setRounding(null, org.joda.time.MutableDateTime.ROUND_NONE);
-      dateTime.setMillis(right.value);
-      int month = dateTime.getMonthOfYear();
-      dateTime.setRounding(dateTime.getChronology().year());
-      dateTime2.setMillis(dateTime.getMillis());
-      dateTime2.add(org.joda.time.DurationFieldType.months(), ((month-1)/3)*3);
-      out.value = dateTime2.getMillis();
+      out.value = com.dremio.exec.expr.fn.impl.EpochMillisUtils.truncateToQuarter(right.value);
         <#elseif toUnit == "Decade">
       dateTime.setRounding(null, org.joda.time.MutableDateTime.ROUND_NONE);
       dateTime.setMillis(right.value);
@@ -160,40 +136,21 @@ public class GDateTimeTruncateFunctions {
       <#elseif type == "TimeStampMilli">
       dateTime.setRounding(null, org.joda.time.MutableDateTime.ROUND_NONE);
         <#if toUnit == "Year"> <#--  Start UnitType -->
-      dateTime.setMillis(right.value);
-      dateTime.setRounding(dateTime.getChronology().year());
-      out.value = dateTime.getMillis();
+      out.value = com.dremio.exec.expr.fn.impl.EpochMillisUtils.truncateToYear(right.value);
         <#elseif toUnit == "Month">
-      dateTime.setMillis(right.value);
-      dateTime.setRounding(dateTime.getChronology().monthOfYear());
-      out.value = dateTime.getMillis();
+      out.value = com.dremio.exec.expr.fn.impl.EpochMillisUtils.truncateToMonth(right.value);
         <#elseif toUnit == "Day">
-      dateTime.setMillis(right.value);
-      dateTime.setRounding(dateTime.getChronology().dayOfMonth());
-      out.value = dateTime.getMillis();
+      out.value = com.dremio.exec.expr.fn.impl.EpochMillisUtils.truncate(right.value, com.dremio.exec.expr.fn.impl.EpochMillisUtils.MILLIS_PER_DAY);
         <#elseif toUnit == "Hour">
-      dateTime.setMillis(right.value);
-      dateTime.setRounding(dateTime.getChronology().hourOfDay());
-      out.value = dateTime.getMillis();
+      out.value = com.dremio.exec.expr.fn.impl.EpochMillisUtils.truncate(right.value, com.dremio.exec.expr.fn.impl.EpochMillisUtils.MILLIS_PER_HOUR);
         <#elseif toUnit == "Minute">
-      dateTime.setMillis(right.value);
-      dateTime.setRounding(dateTime.getChronology().minuteOfHour());
-      out.value = dateTime.getMillis();
+      out.value = com.dremio.exec.expr.fn.impl.EpochMillisUtils.truncate(right.value, com.dremio.exec.expr.fn.impl.EpochMillisUtils.MILLIS_PER_MINUTE);
         <#elseif toUnit == "Second">
-      dateTime.setMillis(right.value);
-      dateTime.setRounding(dateTime.getChronology().secondOfMinute());
-      out.value = dateTime.getMillis();
+      out.value = com.dremio.exec.expr.fn.impl.EpochMillisUtils.truncate(right.value, com.dremio.exec.expr.fn.impl.EpochMillisUtils.MILLIS_PER_SECOND);
         <#elseif toUnit == "Week">
-      dateTime.setMillis(right.value);
-      dateTime.setRounding(dateTime.getChronology().weekOfWeekyear());
-      out.value = dateTime.getMillis();
+      out.value = com.dremio.exec.expr.fn.impl.EpochMillisUtils.truncateToWeek(right.value);
         <#elseif toUnit == "Quarter">
-      dateTime.setMillis(right.value);
-      int month = dateTime.getMonthOfYear();
-      dateTime.setRounding(dateTime.getChronology().year());
-      dateTime2.setMillis(dateTime.getMillis());
-      dateTime2.add(org.joda.time.DurationFieldType.months(), ((month-1)/3)*3);
-      out.value = dateTime2.getMillis();
+      out.value = com.dremio.exec.expr.fn.impl.EpochMillisUtils.truncateToQuarter(right.value);
         <#elseif toUnit == "Decade">
       dateTime.setMillis(right.value);
       int year = dateTime.getYear();
@@ -47,45 +47,49 @@ public class ${className} {
 
     @Param ${fromUnit}Holder in;
     @Output BigIntHolder out;
+    <#if toUnit == "Week" || toUnit == "DOW">
     @Workspace org.joda.time.MutableDateTime dateTime;
+    </#if>
 
     public void setup() {
+    <#if toUnit == "Week" || toUnit == "DOW">
       dateTime = new org.joda.time.MutableDateTime(
           org.joda.time.chrono.DayOfWeekFromSundayChronology.getISOInstanceInUTC());
+    </#if>
     }
 
     public void eval() {
-      dateTime.setMillis(in.value);
-
+    <#-- fields computed on the epoch millis, weeks and days of week depend on the chronology -->
     <#if toUnit == "Second">
-      out.value = dateTime.getSecondOfMinute();
-      out.value += (dateTime.getMillisOfSecond()) / org.apache.arrow.vector.util.DateUtility.secondsToMillis;
+      out.value = com.dremio.exec.expr.fn.impl.EpochMillisUtils.getSecondOfMinute(in.value);
     <#elseif toUnit = "Minute">
-      out.value = dateTime.getMinuteOfHour();
+      out.value = com.dremio.exec.expr.fn.impl.EpochMillisUtils.getMinuteOfHour(in.value);
     <#elseif toUnit = "Hour">
-      out.value = dateTime.getHourOfDay();
+      out.value = com.dremio.exec.expr.fn.impl.EpochMillisUtils.getHourOfDay(in.value);
     <#elseif toUnit = "Day">
-      out.value = dateTime.getDayOfMonth();
+      out.value = com.dremio.exec.expr.fn.impl.EpochMillisUtils.getDayOfMonth(in.value);
     <#elseif toUnit = "Month">
-      out.value = dateTime.getMonthOfYear();
+      out.value = com.dremio.exec.expr.fn.impl.EpochMillisUtils.getMonthOfYear(in.value);
     <#elseif toUnit = "Year">
-      out.value = dateTime.getYear();
+      out.value = com.dremio.exec.expr.fn.impl.EpochMillisUtils.getYear(in.value);
     <#elseif toUnit = "Week">
+      dateTime.setMillis(in.value);
       out.value = dateTime.getWeekOfWeekyear();
     <#elseif toUnit = "DOW">
+      dateTime.setMillis(in.value);
       out.value = dateTime.getDayOfWeek();
     <#elseif toUnit = "DOY">
-      out.value = dateTime.getDayOfYear();
+      out.value = com.dremio.exec.expr.fn.impl.EpochMillisUtils.getDayOfYear(in.value);
     <#elseif toUnit = "Epoch">
-      out.value = dateTime.getMillis()/1000;
+      out.value = in.value/1000;
     <#elseif toUnit = "Quarter">
-      out.value = (dateTime.getMonthOfYear()-1)/3 + 1;
+      out.value = (com.dremio.exec.expr.fn.impl.EpochMillisUtils.getMonthOfYear(in.value)-1)/3 + 1;
     <#elseif toUnit = "Decade">
-      out.value = dateTime.getYear()/10;
+      out.value = com.dremio.exec.expr.fn.impl.EpochMillisUtils.getYear(in.value)/10;
     <#elseif toUnit = "Century">
-      out.value = (dateTime.getYear() - 1)/100 + 1;
+      out.value = (com.dremio.exec.expr.fn.impl.EpochMillisUtils.getYear(in.value) - 1)/100 + 1;
     <#elseif toUnit = "Millennium">
-      out.value = (dateTime.getYear() - 1)/1000 + 1;
+      out.value = (com.dremio.exec.expr.fn.impl.EpochMillisUtils.getYear(in.value) - 1)/1000 + 1;
     </#if>
     }
   }
@@ -88,6 +88,13 @@ public interface ExecConstants {
   String WORK_THRESHOLD_FOR_SPLIT_KEY = "exec.expression.split.work_per_split";
   DoubleValidator WORK_THRESHOLD_FOR_SPLIT = new RangeDoubleValidator(WORK_THRESHOLD_FOR_SPLIT_KEY, 0.0, Long.MAX_VALUE, 3.0);
 
+  // Configuration option for evaluating the sub-expressions repeated in or across expressions once, and sharing
+  // their output between the splits reading them
+  BooleanValidator SPLIT_CSE_ENABLED = new BooleanValidator("exec.expression.split.cse.enabled", true);
+
+  // Minimum work (see WORK_THRESHOLD_FOR_SPLIT) of a repeated sub-expression for it to be evaluated once as a split
+  DoubleValidator WORK_THRESHOLD_FOR_CSE = new RangeDoubleValidator("exec.expression.split.cse.work_threshold", 0.0, Long.MAX_VALUE, 2.0);
+
   PositiveLongValidator MAX_FOREMEN_PER_COORDINATOR = new PositiveLongValidator("coordinator.alive_queries.limit", Long.MAX_VALUE, 1000);
 
   BooleanValidator REST_API_RUN_QUERY_ASYNC = new BooleanValidator("dremio.coordinator.rest.run_query.async", false);
@@ -118,6 +125,20 @@ public interface ExecConstants {
   // Number above which JAVA codegen starts nesting methods
   PositiveLongValidator CODE_GEN_NESTED_METHOD_THRESHOLD = new PositiveLongValidator("exec.operator.codegen.nested_method.threshold", Integer.MAX_VALUE, 100);
 
+  // If enabled, project and filter compile their Java classes in the background and interpret the first batches
+  BooleanValidator CODE_GEN_ASYNC_COMPILE_ENABLED = new BooleanValidator("exec.operator.codegen.async_compile.enabled", true);
+
+  // Number of batches interpreted while waiting for a background compilation, before blocking on it
+  PositiveLongValidator CODE_GEN_ASYNC_MAX_INTERPRETED_BATCHES = new PositiveLongValidator("exec.operator.codegen.async_compile.max_interpreted_batches", Integer.MAX_VALUE, 16);
+
+  // Number of classes compiled in the background at the same time on a node, fragments compile their classes
+  // themselves when all the threads are busy
+  RangeLongValidator CODE_GEN_ASYNC_COMPILE_THREADS = new RangeLongValidator("exec.operator.codegen.async_compile.threads", 1, 1024, 4);
+
+  // Evaluate the Java splits made of null-if-null functions over fixed width vectors a batch at a time, off by
+  // default until it has run on more than the operator tests
+  BooleanValidator CODE_GEN_BULK_EVAL_ENABLED = new BooleanValidator("exec.operator.codegen.bulk_eval.enabled", false);
+
   /**
    * Number of constants in expression above which constants are defined inside JAVA arrays in codegen.
    * When arrays are used, each constant takes up one element in the array. Otherwise, each constant is generated as a
@@ -154,6 +175,19 @@ public interface ExecConstants {
   BooleanValidator ENABLE_VECTORIZED_HASHJOIN_SPECIFIC = new BooleanValidator("exec.operator.join.vectorize.specific", false);
   BooleanValidator ENABLE_VECTORIZED_COPIER = new BooleanValidator("exec.operator.copier.vectorize", true);
   BooleanValidator ENABLE_VECTORIZED_PARTITIONER = new BooleanValidator("exec.operator.partitioner.vectorize", true);
+
+  /**
+   * Number of records, at the start of the stream, the vectorized partitioner samples to detect skewed partition
+   * keys. Set to 0 to disable the sampling.
+   */
+  RangeLongValidator PARTITIONER_SKEW_SAMPLE_RECORDS =
+    new RangeLongValidator("exec.operator.partitioner.skew.sample_records", 0, 1 << 20, 16 * 1024);
+
+  /**
+   * Minimum fraction of the sampled records a single key must account for to be reported as a heavy hitter.
+   */
+  DoubleValidator PARTITIONER_HEAVY_HITTER_RATIO =
+    new RangeDoubleValidator("exec.operator.partitioner.skew.heavy_hitter_ratio", 0.001, 1, 0.05);
   BooleanValidator DEBUG_HASHJOIN_INSERTION = new BooleanValidator("exec.operator.join.debug-insertion", false);
 
   String OUTPUT_FORMAT_OPTION = "store.format";
@@ -299,6 +333,12 @@ public interface ExecConstants {
    */
   DoubleValidator LOAD_REDUCTION = new RangeDoubleValidator("load.reduction", 0.01, 1, .1);
 
+  /**
+   * If set to true, the parallelizer reduces the width of queries when the selected executors are already running
+   * many fragments, and favors the least loaded executors when assigning fragments without affinity.
+   */
+  BooleanValidator LOAD_AWARE_PARALLELIZATION = new BooleanValidator("planner.assignment.load_aware", true);
+
   BooleanValidator ENABLE_REATTEMPTS = new BooleanValidator("exec.reattempt.enable", true);
 
   /**
@@ -354,6 +394,12 @@ public interface ExecConstants {
   String FRAGMENT_CODEC_KEY = "planner.fragment.codec";
   EnumValidator<FragmentCodec> FRAGMENT_CODEC = new EnumValidator<>(FRAGMENT_CODEC_KEY, FragmentCodec.class, FragmentCodec.SNAPPY);
 
+  /**
+   * Enables the executor side cache of deserialized fragments, shared by queries that send the same fragment.
+   * Off by default until the operators are verified to never modify their shared configuration.
+   */
+  BooleanValidator FRAGMENT_TEMPLATE_CACHE_ENABLED = new BooleanValidator("exec.fragment.template_cache.enabled", false);
+
   String ENABLE_VERBOSE_ERRORS_KEY = "exec.errors.verbose";
   OptionValidator ENABLE_VERBOSE_ERRORS = new BooleanValidator(ENABLE_VERBOSE_ERRORS_KEY, false);
 
@@ -362,6 +408,9 @@ public interface ExecConstants {
 
   String BOOTSTRAP_STORAGE_PLUGINS_FILE = "bootstrap-storage-plugins.json";
   String MAX_LOADING_CACHE_SIZE_CONFIG = "dremio.exec.compile.cache_max_size";
+  String PERSISTENT_CODE_CACHE_ENABLED_CONFIG = "dremio.exec.compile.persistent_cache.enabled";
+  String PERSISTENT_CODE_CACHE_PATH_CONFIG = "dremio.exec.compile.persistent_cache.path";
+  String PERSISTENT_CODE_CACHE_MAX_ENTRIES_CONFIG = "dremio.exec.compile.persistent_cache.max_entries";
 
   String ENABLE_WINDOW_FUNCTIONS = "window.enable";
   OptionValidator ENABLE_WINDOW_FUNCTIONS_VALIDATOR = new BooleanValidator(ENABLE_WINDOW_FUNCTIONS, true);
@@ -414,6 +463,18 @@ public interface ExecConstants {
   LongValidator JOB_MAX_AGE_IN_DAYS = new LongValidator("jobs.max.age_in_days", 30);
   // At what hour of the day to do job cleanup - 0-23
   RangeLongValidator JOB_CLEANUP_START_HOUR = new RangeLongValidator("job.cleanup.start_at_hour", 0, 23, 1);
+  // Serve repeated queries from the stored results of an earlier job when none of the datasets they read changed
+  BooleanValidator JOB_RESULTS_CACHE_ENABLED = new BooleanValidator("jobs.results.cache.enabled", false);
+  // Size and time to live of the job results cache, read when the jobs service starts
+  PositiveLongValidator JOB_RESULTS_CACHE_MAX_ENTRIES = new PositiveLongValidator("jobs.results.cache.max_entries", Integer.MAX_VALUE, 1000);
+  PositiveLongValidator JOB_RESULTS_CACHE_TTL_SECONDS = new PositiveLongValidator("jobs.results.cache.ttl_seconds", TimeUnit.DAYS.toSeconds(1), 600);
+  // Set for preview queries: the results writer closes its first file after the first batch, so that the first rows
+  // can be read before the job completes
+  BooleanValidator JOB_RESULTS_EARLY_FIRST_BATCH = new BooleanValidator("jobs.results.early_first_batch", false);
+  // Size and time to live of the in memory index of recently finished jobs, which serves job status and details requests
+  // without reading the jobs store, read when the jobs service starts
+  PositiveLongValidator JOBS_RECENT_MAX_ENTRIES = new PositiveLongValidator("jobs.recent.max_entries", Integer.MAX_VALUE, 1000);
+  PositiveLongValidator JOBS_RECENT_TTL_SECONDS = new PositiveLongValidator("jobs.recent.ttl_seconds", TimeUnit.DAYS.toSeconds(1), 300);
 
   //Configuration used for testing or debugging
   LongValidator DEBUG_RESULTS_MAX_AGE_IN_MILLISECONDS = new LongValidator("debug.results.max.age_in_milliseconds", 0);
@@ -525,6 +586,8 @@ public interface ExecConstants {
 
   BooleanValidator PREFETCH_READER = new BooleanValidator("store.parquet.prefetch_reader", true);
   BooleanValidator READ_COLUMN_INDEXES = new BooleanValidator("store.parquet.read_column_indexes", true);
+  // Skip the row groups where no entry of the dictionary of a fully dictionary encoded column matches a pushed down filter
+  BooleanValidator PARQUET_DICTIONARY_FILTER = new BooleanValidator("store.parquet.dictionary_filter.enabled", true);
   // Increasing this will increase the number of splits that are prefetched. Unfortunately, it can also lead to multiple footer reads
   // if the future splits are from the same file
   RangeLongValidator NUM_SPLITS_TO_PREFETCH = new RangeLongValidator("store.parquet.num_splits_to_prefetch", 1, 20L, 1);
@@ -534,6 +597,8 @@ public interface ExecConstants {
   StringValidator DISABLED_GANDIVA_FUNCTIONS = new StringValidator("exec.disabled.gandiva-functions", "");
   BooleanValidator GANDIVA_TARGET_HOST_CPU = new BooleanValidator("exec.gandiva.target_host_cpu", true);
   BooleanValidator GANDIVA_OPTIMIZE = new BooleanValidator("exec.gandiva.optimize_ir", true);
+  // Maximum number of Gandiva projectors and filters shared by the fragments running on an executor, 0 to disable sharing
+  RangeLongValidator GANDIVA_MODULE_CACHE_SIZE = new RangeLongValidator("exec.gandiva.module_cache.size", 0, 100_000, 500);
   String ICEBERG_CATALOG_TYPE_KEY = "iceberg.catalog_type";
   String ICEBERG_NAMESPACE_KEY = "iceberg.namespace";
   BooleanValidator HADOOP_BLOCK_CACHE_ENABLED = new BooleanValidator("hadoop_block_affinity_cache.enabled", true);
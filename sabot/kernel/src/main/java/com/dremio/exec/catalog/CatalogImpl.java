@@ -51,6 +51,7 @@ import com.dremio.exec.dotfile.View;
 import com.dremio.exec.physical.base.WriterOptions;
 import com.dremio.exec.planner.logical.CreateTableEntry;
 import com.dremio.exec.planner.logical.ViewTable;
+import com.dremio.exec.planner.sql.ViewDefinitionCache;
 import com.dremio.exec.record.BatchSchema;
 import com.dremio.exec.store.DatasetRetrievalOptions;
 import com.dremio.exec.store.NamespaceTable;
@@ -552,6 +553,7 @@ public class CatalogImpl implements Catalog {
 
   @Override
   public void updateView(NamespaceKey key, View view, NamespaceAttribute... attributes) throws IOException {
+    ViewDefinitionCache.getInstance().invalidate(key);
     switch(getType(key, true)) {
       case SOURCE:
         asMutable(key, "does not support update view")
@@ -571,6 +573,7 @@ public class CatalogImpl implements Catalog {
 
   @Override
   public void dropView(final NamespaceKey key) throws IOException {
+    ViewDefinitionCache.getInstance().invalidate(key);
     switch (getType(key, true)) {
       case SOURCE:
         asMutable(key, "does not support view operations.").dropView(options.getSchemaConfig(), key.getPathComponents());
@@ -16,12 +16,18 @@
 package com.dremio.exec.catalog;
 
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 
 import com.dremio.connector.metadata.DatasetSplit;
 import com.dremio.connector.metadata.PartitionChunk;
 import com.dremio.connector.metadata.PartitionChunkListing;
+import com.dremio.exec.planner.logical.ViewTable;
+import com.dremio.exec.store.NamespaceTable;
 import com.dremio.service.namespace.DatasetMetadataSaver;
+import com.dremio.service.namespace.NamespaceKey;
+import com.dremio.service.namespace.dataset.proto.DatasetConfig;
 
 public final class CatalogUtil {
   private CatalogUtil() {
@@ -51,4 +57,26 @@ public final class CatalogUtil {
     }
     return recordCountFromSplits;
   }
+
+  /**
+   * Collects the tags of the tables requested when planning a query. Refreshing the metadata of a dataset or changing
+   * the definition of a view changes its tag, so the tags tell whether what was planned is still current.
+   *
+   * @return the tags, or null if one of the tables is not a dataset or view of the namespace
+   */
+  public static Map<NamespaceKey, String> getDatasetTags(Iterable<DremioTable> tables) {
+    final Map<NamespaceKey, String> tags = new HashMap<>();
+    for (DremioTable table : tables) {
+      // system tables and table functions have no tag telling whether they changed
+      if (!(table instanceof NamespaceTable) && !(table instanceof ViewTable)) {
+        return null;
+      }
+      final DatasetConfig config = table.getDatasetConfig();
+      if (config == null || config.getTag() == null) {
+        return null;
+      }
+      tags.put(new NamespaceKey(config.getFullPathList()), config.getTag());
+    }
+    return tags;
+  }
 }
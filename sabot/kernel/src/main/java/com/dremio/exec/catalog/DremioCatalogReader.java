@@ -15,10 +15,15 @@
  */
 package com.dremio.exec.catalog;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
 
 import org.apache.calcite.adapter.java.JavaTypeFactory;
 import org.apache.calcite.plan.RelOptPlanner;
@@ -59,6 +64,7 @@ import org.apache.calcite.sql.validate.SqlValidatorCatalogReader;
 import org.apache.calcite.util.Optionality;
 import org.apache.calcite.util.Util;
 
+import com.dremio.exec.store.TimedRunnable;
 import com.dremio.service.catalog.Table;
 import com.dremio.service.namespace.NamespaceKey;
 import com.google.common.base.Predicate;
@@ -71,12 +77,17 @@ import com.google.common.collect.Lists;
  * Interacts directly with Dremio's Catalog object to validate and return tables.
  */
 public class DremioCatalogReader implements SqlValidatorCatalogReader, Prepare.CatalogReader, SqlOperatorTable {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(DremioCatalogReader.class);
 
   protected final SimpleCatalog<?> catalog;
   protected final JavaTypeFactory typeFactory;
 
   private final List<List<String>> schemaPaths;
 
+  // The validator looks up the same names repeatedly (once per candidate schema path and per scope),
+  // including names which don't exist. Remember both hits and misses for the lifetime of this reader.
+  private final ConcurrentMap<List<String>, Optional<DremioPrepareTable>> tables = new ConcurrentHashMap<>();
+
   public DremioCatalogReader(
       SimpleCatalog<?> catalog,
       RelDataTypeFactory typeFactory) {
@@ -93,11 +104,59 @@ public class DremioCatalogReader implements SqlValidatorCatalogReader, Prepare.C
 
   @Override
   public DremioPrepareTable getTable(List<String> paramList) {
+    final Optional<DremioPrepareTable> cached = tables.get(paramList);
+    if (cached != null) {
+      return cached.orElse(null);
+    }
+
     final DremioTable table = catalog.getTableForQuery(new NamespaceKey(paramList));
-    if(table == null) {
-      return null;
+    final Optional<DremioPrepareTable> prepareTable = Optional.ofNullable(table)
+      .map(t -> new DremioPrepareTable(this, typeFactory, t));
+    final Optional<DremioPrepareTable> previous = tables.putIfAbsent(ImmutableList.copyOf(paramList), prepareTable);
+    return (previous != null ? previous : prepareTable).orElse(null);
+  }
+
+  /**
+   * Resolves the provided tables concurrently so that the lookups done later by the validator
+   * are served from memory. Lookup failures are ignored here: the validator repeats the lookup
+   * and reports them with the proper context.
+   *
+   * @param paths candidate table paths, as written in the query
+   * @param parallelism maximum number of concurrent lookups
+   */
+  public void prefetchTables(Collection<List<String>> paths, int parallelism) {
+    final List<List<String>> missing = paths.stream()
+      .filter(path -> !tables.containsKey(path))
+      .distinct()
+      .collect(Collectors.toList());
+    if (parallelism < 2 || missing.size() < 2) {
+      return;
+    }
+
+    final List<TimedRunnable<Void>> lookups = missing.stream()
+      .map(path -> new TimedRunnable<Void>() {
+        @Override
+        protected Void runInner() {
+          try {
+            getTable(path);
+          } catch (RuntimeException e) {
+            logger.debug("Failure while prefetching table {}", path, e);
+          }
+          return null;
+        }
+
+        @Override
+        protected IOException convertToIOException(Exception e) {
+          return new IOException(e);
+        }
+      })
+      .collect(Collectors.toList());
+
+    try {
+      TimedRunnable.run("Prefetch view tables", logger, lookups, parallelism);
+    } catch (IOException | RuntimeException e) {
+      logger.debug("Failure while prefetching tables {}", missing, e);
     }
-    return new DremioPrepareTable(this, typeFactory, table);
   }
 
   /**
@@ -39,6 +39,7 @@ import org.apache.calcite.sql2rel.InitializerContext;
 import org.apache.calcite.util.ImmutableBitSet;
 
 import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
 
 /**
@@ -57,11 +58,12 @@ public class DremioPrepareTable implements RelOptTable, PreparingTable, SqlValid
       final DremioTable table) {
     super();
     this.catalog = catalog;
-    this.rowType = new Supplier<RelDataType>(){
+    // the row type is requested many times during validation and conversion, don't recompute it.
+    this.rowType = Suppliers.memoize(new Supplier<RelDataType>(){
       @Override
       public RelDataType get() {
         return table.getRowType(dataTypeFactory);
-      }};
+      }});
     this.table = table;
   }
 
@@ -17,20 +17,34 @@ package com.dremio.exec.catalog;
 
 import java.util.List;
 
+import javax.annotation.concurrent.ThreadSafe;
+
 import com.dremio.exec.proto.UserBitShared.PlanPhaseProfile;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 
+/**
+ * Collects the time spent retrieving the metadata of each dataset of a query.
+ *
+ * The tables of a query can be looked up concurrently, so the statistics can be added from several threads.
+ */
+@ThreadSafe
 public class MetadataStatsCollector {
   private final List<PlanPhaseProfile> planPhaseProfiles = Lists.newArrayList();
 
   void addDatasetStat(String datasetPath, String type, long millisTaken) {
-    planPhaseProfiles.add(PlanPhaseProfile.newBuilder()
+    final PlanPhaseProfile profile = PlanPhaseProfile.newBuilder()
       .setPhaseName(String.format("%s: %s", datasetPath, type))
       .setDurationMillis(millisTaken)
-      .build());
+      .build();
+    synchronized (planPhaseProfiles) {
+      planPhaseProfiles.add(profile);
+    }
   }
 
   public List<PlanPhaseProfile> getPlanPhaseProfiles() {
-    return planPhaseProfiles;
+    synchronized (planPhaseProfiles) {
+      return ImmutableList.copyOf(planPhaseProfiles);
+    }
   }
 }
@@ -17,6 +17,7 @@ package com.dremio.exec.compile;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 
 import com.dremio.common.config.SabotConfig;
@@ -24,17 +25,27 @@ import com.dremio.exec.ExecConstants;
 import com.dremio.exec.exception.ClassTransformationException;
 import com.dremio.exec.expr.CodeGenerator;
 import com.dremio.options.OptionManager;
+import com.dremio.telemetry.api.metrics.Counter;
+import com.dremio.telemetry.api.metrics.Metrics;
+import com.dremio.telemetry.api.metrics.Metrics.ResetType;
+import com.dremio.telemetry.api.metrics.Timer;
+import com.dremio.telemetry.api.metrics.Timer.TimerContext;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.Lists;
 
 public class CodeCompiler {
-//  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(CodeCompiler.class);
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(CodeCompiler.class);
+
+  private static final Counter PERSISTENT_CACHE_HITS = Metrics.newCounter(Metrics.join("codegen", "persistent_cache_hits"), ResetType.NEVER);
+  private static final Counter PERSISTENT_CACHE_MISSES = Metrics.newCounter(Metrics.join("codegen", "persistent_cache_misses"), ResetType.NEVER);
+  private static final Timer COMPILE_TIMER = Metrics.newTimer(Metrics.join("codegen", "compile_time"), ResetType.NEVER);
 
   private final ClassTransformer transformer;
   private final ClassCompilerSelector selector;
   private final LoadingCache<CodeGenerator<?>, GeneratedClassEntry> cache;
+  private final PersistentClassCache persistentCache;
 
   public CodeCompiler(final SabotConfig config, final OptionManager optionManager) {
     transformer = new ClassTransformer(optionManager);
@@ -44,6 +55,7 @@ public class CodeCompiler {
         .softValues()
         .maximumSize(cacheMaxSize)
         .build(new Loader());
+    persistentCache = PersistentClassCache.create(config);
   }
 
   @SuppressWarnings("unchecked")
@@ -69,11 +81,55 @@ public class CodeCompiler {
   private class Loader extends CacheLoader<CodeGenerator<?>, GeneratedClassEntry> {
     @Override
     public GeneratedClassEntry load(final CodeGenerator<?> cg) throws Exception {
+      final String key = persistentCache == null ? null
+        : persistentCache.getKey(cg.getDefinition(), cg.getGenerifiedCode());
+      if (key != null) {
+        final Class<?> c = loadPersisted(key, cg);
+        if (c != null) {
+          PERSISTENT_CACHE_HITS.increment();
+          return new GeneratedClassEntry(c);
+        }
+        PERSISTENT_CACHE_MISSES.increment();
+      }
+
       final QueryClassLoader loader = new QueryClassLoader(selector);
-      final Class<?> c = transformer.getImplementationClass(loader, cg.getDefinition(),
+      final Class<?> c;
+      try (TimerContext timerContext = COMPILE_TIMER.start()) {
+        c = transformer.getImplementationClass(loader, cg.getDefinition(),
           cg.getGeneratedCode(), cg.getMaterializedClassName());
+      }
+      if (key != null) {
+        persistentCache.put(key, c.getName(), loader.getInjectedByteCode());
+      }
       return new GeneratedClassEntry(c);
     }
+
+    /**
+     * Loads the classes compiled for an identical code generator, possibly before a restart. The classes keep the
+     * name they were compiled with, which is fine as every entry has its own class loader.
+     */
+    private Class<?> loadPersisted(String key, CodeGenerator<?> cg) {
+      final PersistentClassCache.CachedClasses cached = persistentCache.get(key);
+      if (cached == null) {
+        return null;
+      }
+
+      final QueryClassLoader loader = new QueryClassLoader(selector);
+      try {
+        for (Map.Entry<String, byte[]> clazz : cached.getClasses().entrySet()) {
+          loader.injectByteCode(clazz.getKey(), clazz.getValue());
+        }
+        final Class<?> c = loader.findClass(cached.getClassName());
+        if (cg.getDefinition().getExternalInterface().isAssignableFrom(c)) {
+          return c;
+        }
+        logger.warn("Cached class {} does not implement {}, compiling it again", cached.getClassName(),
+          cg.getDefinition().getExternalInterface().getName());
+      } catch (IOException | ClassNotFoundException | LinkageError e) {
+        logger.warn("Unable to load cached class {}, compiling it again", cached.getClassName(), e);
+      }
+      return null;
+    }
   }
 
   private class GeneratedClassEntry {
@@ -0,0 +1,336 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.compile;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import com.dremio.common.config.SabotConfig;
+import com.dremio.common.util.DremioVersionInfo;
+import com.dremio.exec.ExecConstants;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Splitter;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+
+/**
+ * Local disk cache of the bytecode of generated classes, so that a restarted node doesn't have to compile again
+ * the classes it used before.
+ *
+ * Entries are content addressed: the key is a hash of the Dremio version, the classpath of the node, the template
+ * class (name and bytecode) and the generated source. The classpath is part of the key as generated code links
+ * against helper classes (e.g. DecimalUtils) which may change between builds of the same version, and bytecode
+ * compiled against another build could then fail at run time rather than when it is loaded. Each entry is a single file holding the name of the generated class and the bytecode of
+ * all the classes compiled from the source. Files are written atomically, and an unreadable entry is treated as a
+ * miss and deleted.
+ *
+ * The cache is disabled by default. As its entries are loaded as code, its directory must only be writable by the
+ * user running the node: it is created with owner only permissions, and a directory owned by another user or
+ * writable by others disables the cache.
+ */
+class PersistentClassCache {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(PersistentClassCache.class);
+
+  private static final String ENTRY_SUFFIX = ".classes";
+  private static final int FORMAT_VERSION = 1;
+  // check the number of entries every so many writes
+  private static final int CLEANUP_INTERVAL = 64;
+  private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rwx------");
+
+  private static final Supplier<String> CLASSPATH_HASH =
+    Suppliers.memoize(PersistentClassCache::computeClasspathHash);
+
+  private final Path directory;
+  private final int maxEntries;
+  private final ConcurrentMap<String, String> templateHashes = new ConcurrentHashMap<>();
+  private final AtomicInteger writes = new AtomicInteger();
+
+  @VisibleForTesting
+  PersistentClassCache(Path directory, int maxEntries) {
+    this.directory = directory;
+    this.maxEntries = maxEntries;
+  }
+
+  /**
+   * @return the persistent cache configured for this node, or null if it is disabled or its directory is not usable
+   */
+  static PersistentClassCache create(SabotConfig config) {
+    if (!config.getBoolean(ExecConstants.PERSISTENT_CODE_CACHE_ENABLED_CONFIG)) {
+      return null;
+    }
+
+    final Path directory = Paths.get(config.getString(ExecConstants.PERSISTENT_CODE_CACHE_PATH_CONFIG));
+    try {
+      if (!isPrivateDirectory(directory)) {
+        logger.warn("Generated code cache directory {} is writable by other users, the cache is disabled", directory);
+        return null;
+      }
+    } catch (IOException | SecurityException e) {
+      logger.warn("Unable to create the generated code cache directory {}, the cache is disabled", directory, e);
+      return null;
+    }
+    return new PersistentClassCache(directory, config.getInt(ExecConstants.PERSISTENT_CODE_CACHE_MAX_ENTRIES_CONFIG));
+  }
+
+  /**
+   * Creates the directory with owner only permissions if it does not exist.
+   *
+   * @return true if the directory is owned by the current user and not writable by others
+   */
+  @VisibleForTesting
+  static boolean isPrivateDirectory(Path directory) throws IOException {
+    if (!directory.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+      // not a POSIX file system, rely on its default permissions
+      Files.createDirectories(directory);
+      return true;
+    }
+
+    if (!Files.exists(directory)) {
+      Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+    }
+    final PosixFileAttributes attributes = Files.readAttributes(directory, PosixFileAttributes.class);
+    final Set<PosixFilePermission> permissions = attributes.permissions();
+    return attributes.isDirectory()
+      && attributes.owner().getName().equals(System.getProperty("user.name"))
+      && !permissions.contains(PosixFilePermission.GROUP_WRITE)
+      && !permissions.contains(PosixFilePermission.OTHERS_WRITE);
+  }
+
+  /**
+   * Computes the key of a generated class.
+   *
+   * @param definition template definition
+   * @param generifiedCode generated source, before the class name is materialized
+   * @return the key, or null if the template bytecode cannot be read
+   */
+  String getKey(TemplateClassDefinition<?> definition, String generifiedCode) {
+    final String templateHash = getTemplateHash(definition);
+    if (templateHash == null) {
+      return null;
+    }
+
+    final Hasher hasher = Hashing.sha256().newHasher()
+      .putString(DremioVersionInfo.getVersion(), StandardCharsets.UTF_8)
+      .putString(CLASSPATH_HASH.get(), StandardCharsets.UTF_8)
+      .putString(definition.getExternalInterface().getName(), StandardCharsets.UTF_8)
+      .putString(templateHash, StandardCharsets.UTF_8)
+      .putString(generifiedCode, StandardCharsets.UTF_8);
+    return hasher.hash().toString();
+  }
+
+  /**
+   * Hashes the name, size and modification time of the entries of the classpath, and of the files of the classpath
+   * directories, so that any rebuild of the classes the generated code links against changes the keys.
+   */
+  private static String computeClasspathHash() {
+    final Hasher hasher = Hashing.sha256().newHasher();
+    for (String element : Splitter.on(File.pathSeparatorChar).omitEmptyStrings()
+        .split(System.getProperty("java.class.path", ""))) {
+      hasher.putString(element, StandardCharsets.UTF_8);
+      final Path path = Paths.get(element);
+      try (Stream<Path> files = Files.isDirectory(path) ? Files.walk(path).sorted() : Stream.of(path)) {
+        files.forEach(file -> putFileAttributes(hasher, file));
+      } catch (IOException | RuntimeException e) {
+        logger.debug("Unable to read classpath entry {}", element, e);
+      }
+    }
+    return hasher.hash().toString();
+  }
+
+  private static void putFileAttributes(Hasher hasher, Path file) {
+    try {
+      final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+      hasher.putString(file.toString(), StandardCharsets.UTF_8)
+        .putLong(attributes.size())
+        .putLong(attributes.lastModifiedTime().toMillis());
+    } catch (IOException e) {
+      // missing entries of the classpath are ignored by the JVM too
+      hasher.putString(file.toString(), StandardCharsets.UTF_8);
+    }
+  }
+
+  private String getTemplateHash(TemplateClassDefinition<?> definition) {
+    final String templateClassName = definition.getTemplateClassName();
+    final String cached = templateHashes.get(templateClassName);
+    if (cached != null) {
+      return cached;
+    }
+
+    final String resource = templateClassName.replace('.', '/') + ".class";
+    ClassLoader classLoader = definition.getExternalInterface().getClassLoader();
+    if (classLoader == null) {
+      classLoader = ClassLoader.getSystemClassLoader();
+    }
+    try (InputStream input = classLoader.getResourceAsStream(resource)) {
+      if (input == null) {
+        return null;
+      }
+      final String hash = Hashing.sha256().hashBytes(ByteStreams.toByteArray(input)).toString();
+      templateHashes.put(templateClassName, hash);
+      return hash;
+    } catch (IOException e) {
+      logger.debug("Unable to read template class {}", templateClassName, e);
+      return null;
+    }
+  }
+
+  /**
+   * @return the cached classes for the key, or null on a miss
+   */
+  CachedClasses get(String key) {
+    final Path entry = directory.resolve(key + ENTRY_SUFFIX);
+    try (DataInputStream input = new DataInputStream(Files.newInputStream(entry))) {
+      if (input.readInt() != FORMAT_VERSION) {
+        throw new IOException("Unsupported format");
+      }
+      final String className = input.readUTF();
+      final int count = input.readInt();
+      final Map<String, byte[]> classes = new LinkedHashMap<>();
+      for (int i = 0; i < count; i++) {
+        final String name = input.readUTF();
+        final byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        classes.put(name, bytes);
+      }
+      if (!classes.containsKey(className)) {
+        throw new IOException("Missing generated class " + className);
+      }
+
+      // keeps recently used entries from being evicted
+      Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+      return new CachedClasses(className, classes);
+    } catch (NoSuchFileException e) {
+      return null;
+    } catch (IOException | RuntimeException e) {
+      logger.warn("Discarding unreadable generated code cache entry {}", entry, e);
+      deleteQuietly(entry);
+      return null;
+    }
+  }
+
+  /**
+   * Stores the classes compiled for the key. Failures are logged and otherwise ignored.
+   */
+  void put(String key, String className, Map<String, byte[]> classes) {
+    final Path entry = directory.resolve(key + ENTRY_SUFFIX);
+    Path temp = null;
+    try {
+      temp = Files.createTempFile(directory, key, ".tmp");
+      try (OutputStream os = Files.newOutputStream(temp);
+           DataOutputStream output = new DataOutputStream(os)) {
+        output.writeInt(FORMAT_VERSION);
+        output.writeUTF(className);
+        output.writeInt(classes.size());
+        for (Map.Entry<String, byte[]> clazz : classes.entrySet()) {
+          output.writeUTF(clazz.getKey());
+          output.writeInt(clazz.getValue().length);
+          output.write(clazz.getValue());
+        }
+      }
+      Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      temp = null;
+    } catch (IOException | RuntimeException e) {
+      logger.warn("Unable to store generated code cache entry {}", entry, e);
+    } finally {
+      if (temp != null) {
+        deleteQuietly(temp);
+      }
+    }
+
+    if (writes.incrementAndGet() % CLEANUP_INTERVAL == 0) {
+      evictLeastRecentlyUsed();
+    }
+  }
+
+  @VisibleForTesting
+  synchronized void evictLeastRecentlyUsed() {
+    final List<File> entries = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + ENTRY_SUFFIX)) {
+      for (Path entry : stream) {
+        entries.add(entry.toFile());
+      }
+    } catch (IOException e) {
+      logger.warn("Unable to list generated code cache directory {}", directory, e);
+      return;
+    }
+
+    if (entries.size() <= maxEntries) {
+      return;
+    }
+    entries.sort(Comparator.comparingLong(File::lastModified));
+    for (File entry : entries.subList(0, entries.size() - maxEntries)) {
+      deleteQuietly(entry.toPath());
+    }
+  }
+
+  private static void deleteQuietly(Path path) {
+    try {
+      Files.deleteIfExists(path);
+    } catch (IOException e) {
+      logger.debug("Unable to delete {}", path, e);
+    }
+  }
+
+  /**
+   * Bytecode of a generated class and of its inner classes.
+   */
+  static final class CachedClasses {
+    private final String className;
+    private final Map<String, byte[]> classes;
+
+    CachedClasses(String className, Map<String, byte[]> classes) {
+      this.className = className;
+      this.classes = classes;
+    }
+
+    String getClassName() {
+      return className;
+    }
+
+    Map<String, byte[]> getClasses() {
+      return classes;
+    }
+  }
+}
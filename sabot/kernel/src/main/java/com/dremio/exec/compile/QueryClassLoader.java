@@ -18,6 +18,7 @@ package com.dremio.exec.compile;
 import java.io.IOException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.util.Map;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -25,6 +26,7 @@ import org.codehaus.commons.compiler.CompileException;
 
 import com.dremio.exec.compile.ClassTransformer.ClassNames;
 import com.dremio.exec.exception.ClassTransformationException;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.MapMaker;
 
 public class QueryClassLoader extends URLClassLoader {
@@ -50,6 +52,13 @@ public class QueryClassLoader extends URLClassLoader {
     customClasses.put(className, classBytes);
   }
 
+  /**
+   * @return the bytecode of all the classes injected in this loader, by class name
+   */
+  public Map<String, byte[]> getInjectedByteCode() {
+    return ImmutableMap.copyOf(customClasses);
+  }
+
   @Override
   protected Class<?> findClass(String className) throws ClassNotFoundException {
     byte[] ba = customClasses.get(className);
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.expr;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.dremio.common.concurrent.NamedThreadFactory;
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * Compiles the classes of project and filter in the background, on a pool shared by the fragments of the node.
+ *
+ * The pool has no queue: once all its threads are busy, submissions are rejected and the fragment compiles the class
+ * itself, as it would without background compilation. A burst of fragments therefore never uses more than the
+ * configured number of compilation threads.
+ */
+final class BackgroundCompiler {
+  private static final long KEEP_ALIVE_SECONDS = 60;
+
+  private static final BackgroundCompiler INSTANCE = new BackgroundCompiler();
+
+  private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+    new SynchronousQueue<>(), new NamedThreadFactory("background-compile-"));
+
+  @VisibleForTesting
+  BackgroundCompiler() {
+    executor.allowCoreThreadTimeOut(true);
+  }
+
+  static BackgroundCompiler getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Starts a compilation.
+   *
+   * @param maxThreads maximum number of classes compiled at the same time on the node
+   * @param compilation compiles the class
+   * @return the compiled class, or null if all the compilation threads are busy
+   */
+  <T> Future<T> compile(int maxThreads, Supplier<T> compilation) {
+    setMaxThreads(maxThreads);
+    try {
+      return CompletableFuture.supplyAsync(compilation, executor);
+    } catch (RejectedExecutionException e) {
+      return null;
+    }
+  }
+
+  private synchronized void setMaxThreads(int maxThreads) {
+    if (executor.getMaximumPoolSize() == maxThreads) {
+      return;
+    }
+    // the core size can never exceed the maximum size
+    if (maxThreads > executor.getMaximumPoolSize()) {
+      executor.setMaximumPoolSize(maxThreads);
+      executor.setCorePoolSize(maxThreads);
+    } else {
+      executor.setCorePoolSize(maxThreads);
+      executor.setMaximumPoolSize(maxThreads);
+    }
+  }
+}
@@ -0,0 +1,398 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.expr;
+
+import java.util.List;
+import java.util.Map;
+
+import com.dremio.common.expression.CodeModelArrowHelper;
+import com.dremio.common.expression.CompleteType;
+import com.dremio.common.expression.FunctionHolderExpression;
+import com.dremio.common.expression.LogicalExpression;
+import com.dremio.common.expression.ValueExpressions;
+import com.dremio.common.expression.visitors.AbstractExprVisitor;
+import com.dremio.exec.expr.ClassGenerator.HoldingContainer;
+import com.dremio.exec.expr.annotations.FunctionTemplate.NullHandling;
+import com.dremio.exec.expr.fn.FunctionErrorContext;
+import com.dremio.exec.expr.fn.FunctionErrorContextBuilder;
+import com.dremio.exec.expr.fn.SimpleFunctionHolder;
+import com.dremio.exec.record.TypedFieldId;
+import com.dremio.sabot.exec.context.FunctionContext;
+import com.dremio.sabot.op.project.BulkProjector;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.sun.codemodel.JBlock;
+import com.sun.codemodel.JClass;
+import com.sun.codemodel.JCodeModel;
+import com.sun.codemodel.JConditional;
+import com.sun.codemodel.JExpr;
+import com.sun.codemodel.JExpression;
+import com.sun.codemodel.JForLoop;
+import com.sun.codemodel.JType;
+import com.sun.codemodel.JVar;
+
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Generates the evaluation of an expression over a whole batch, for expressions made of null-if-null simple
+ * functions over fixed width vectors and constants.
+ *
+ * Since every function returns null if and only if one of its inputs is null, the validity of the output is the
+ * AND of the validity of the inputs, computed a byte (8 records) at a time. The values are then computed in a
+ * loop reading and writing the data buffers directly, with the function bodies inlined as in the row at a time
+ * code. When the batch has no null, the null check in the loop is loop invariant, so that the JIT can unswitch
+ * it and keep the loop free of branches.
+ */
+public class BulkExpressionGenerator {
+  private static final DirectExpression RECORD_COUNT = DirectExpression.direct("recordCount");
+
+  private final ClassGenerator<BulkProjector> generator;
+  private final FunctionContext functionContext;
+  private final JCodeModel model;
+  private final JClass platform;
+
+  // addresses of the data and validity buffers of the vectors read, by field id
+  private final Map<TypedFieldId, JVar[]> inputBuffers = Maps.newHashMap();
+  // values read in the current record, by field id
+  private final Map<TypedFieldId, HoldingContainer> inputValues = Maps.newHashMap();
+  private JVar index;
+
+  public BulkExpressionGenerator(ClassGenerator<BulkProjector> generator, FunctionContext functionContext) {
+    this.generator = generator;
+    this.functionContext = functionContext;
+    this.model = generator.getModel();
+    this.platform = model.ref(PlatformDependent.class);
+  }
+
+  /**
+   * Checks if the expression is a function that can be evaluated in bulk.
+   */
+  public static boolean canEvaluateInBulk(LogicalExpression expr) {
+    return expr instanceof FunctionHolderExpr && expr.accept(new BulkEvaluableVisitor(), null);
+  }
+
+  private static boolean isSupportedType(CompleteType type) {
+    if (!type.isFixedWidthScalar()) {
+      return false;
+    }
+    switch (type.toMinorType()) {
+      case BIT:
+      case INT:
+      case BIGINT:
+      case FLOAT4:
+      case FLOAT8:
+      case DATE:
+      case TIME:
+      case TIMESTAMP:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  // number of bits to shift the record index by to get the offset of the value, -1 for bits
+  private static int getShift(CompleteType type) {
+    switch (type.toMinorType()) {
+      case BIT:
+        return -1;
+      case INT:
+      case FLOAT4:
+      case TIME:
+        return 2;
+      default:
+        return 3;
+    }
+  }
+
+  /**
+   * Adds the evaluation of the expression, writing its output to the outgoing vector.
+   *
+   * @param expr expression, for which canEvaluateInBulk() is true
+   * @param outputFieldId id of the output vector in the outgoing batch
+   */
+  public void addExpr(LogicalExpression expr, TypedFieldId outputFieldId) {
+    final JBlock block = new JBlock(true, true);
+    generator.getEvalBlock().add(block);
+    generator.nestEvalBlock(block);
+    try {
+      final List<TypedFieldId> inputs = Lists.newArrayList();
+      collectInputs(expr, inputs);
+
+      // output validity: AND of the input validity, 8 records at a time
+      final JVar outVector = generator.declareVectorValueSetupAndMember("outgoing", outputFieldId);
+      final JVar outData = block.decl(model.LONG, generator.getNextVar("outData"), outVector.invoke("getDataBufferAddress"));
+      final JVar outValidity = block.decl(model.LONG, generator.getNextVar("outValidity"), outVector.invoke("getValidityBufferAddress"));
+      final JVar validityBytes = block.decl(model.INT, generator.getNextVar("validityBytes"), RECORD_COUNT.plus(JExpr.lit(7)).shrz(JExpr.lit(3)));
+      final JVar allValid = block.decl(model.INT, generator.getNextVar("allValid"), JExpr.lit(0xFF));
+
+      final JForLoop validityLoop = block._for();
+      final JVar b = validityLoop.init(model.INT, generator.getNextVar("b"), JExpr.lit(0));
+      validityLoop.test(b.lt(validityBytes));
+      validityLoop.update(b.incr());
+      JExpression validity = JExpr.lit(0xFF);
+      for (TypedFieldId input : inputs) {
+        validity = validity.band(platform.staticInvoke("getByte").arg(inputBuffers.get(input)[1].plus(b)));
+      }
+      final JVar valid = validityLoop.body().decl(model.INT, generator.getNextVar("valid"), validity);
+      validityLoop.body().add(platform.staticInvoke("putByte").arg(outValidity.plus(b)).arg(JExpr.cast(model.BYTE, valid)));
+      validityLoop.body().assign(allValid, allValid.band(valid));
+      if (getShift(expr.getCompleteType()) < 0) {
+        // bits are or-ed in below
+        validityLoop.body().add(platform.staticInvoke("putByte").arg(outData.plus(b)).arg(JExpr.cast(model.BYTE, JExpr.lit(0))));
+      }
+
+      // values, skipping the null records unless there is none
+      final JForLoop valueLoop = block._for();
+      index = valueLoop.init(model.INT, generator.getNextVar("i"), JExpr.lit(0));
+      valueLoop.test(index.lt(RECORD_COUNT));
+      valueLoop.update(index.incr());
+      final JConditional isValid = valueLoop.body()._if(allValid.eq(JExpr.lit(0xFF))
+        .cor(isBitSet(outValidity)));
+
+      generator.nestEvalBlock(isValid._then());
+      try {
+        inputValues.clear();
+        final HoldingContainer out = expr.accept(new BulkEvaluationVisitor(), null);
+        write(isValid._then(), expr.getCompleteType(), outData, out.getValue());
+      } finally {
+        generator.unNestEvalBlock();
+      }
+    } finally {
+      generator.unNestEvalBlock();
+    }
+  }
+
+  private void collectInputs(LogicalExpression expr, List<TypedFieldId> inputs) {
+    if (expr instanceof ValueVectorReadExpression) {
+      final TypedFieldId fieldId = ((ValueVectorReadExpression) expr).getFieldId();
+      if (!inputBuffers.containsKey(fieldId)) {
+        final JVar vector = generator.declareVectorValueSetupAndMember("incoming", fieldId);
+        // the buffers change from batch to batch
+        final JBlock block = generator.getEvalBlock();
+        inputBuffers.put(fieldId, new JVar[] {
+          block.decl(model.LONG, generator.getNextVar("data"), vector.invoke("getDataBufferAddress")),
+          block.decl(model.LONG, generator.getNextVar("validity"), vector.invoke("getValidityBufferAddress"))
+        });
+      }
+      if (!inputs.contains(fieldId)) {
+        inputs.add(fieldId);
+      }
+      return;
+    }
+    if (expr instanceof FunctionHolderExpression) {
+      for (LogicalExpression arg : ((FunctionHolderExpression) expr).args) {
+        collectInputs(arg, inputs);
+      }
+    }
+  }
+
+  private JExpression isBitSet(JVar address) {
+    return platform.staticInvoke("getByte").arg(address.plus(index.shr(JExpr.lit(3))))
+      .band(JExpr.lit(1).shl(index.band(JExpr.lit(7)))).ne(JExpr.lit(0));
+  }
+
+  private JExpression read(CompleteType type, JVar data) {
+    final int shift = getShift(type);
+    if (shift < 0) {
+      return platform.staticInvoke("getByte").arg(data.plus(index.shr(JExpr.lit(3))))
+        .shr(index.band(JExpr.lit(7))).band(JExpr.lit(1));
+    }
+    final JExpression address = data.plus(JExpr.cast(model.LONG, index).shl(JExpr.lit(shift)));
+    switch (type.toMinorType()) {
+      case INT:
+      case TIME:
+        return platform.staticInvoke("getInt").arg(address);
+      case FLOAT4:
+        return model.ref(Float.class).staticInvoke("intBitsToFloat").arg(platform.staticInvoke("getInt").arg(address));
+      case FLOAT8:
+        return model.ref(Double.class).staticInvoke("longBitsToDouble").arg(platform.staticInvoke("getLong").arg(address));
+      default:
+        return platform.staticInvoke("getLong").arg(address);
+    }
+  }
+
+  private void write(JBlock block, CompleteType type, JVar data, JExpression value) {
+    final int shift = getShift(type);
+    if (shift < 0) {
+      final JExpression address = data.plus(index.shr(JExpr.lit(3)));
+      block.add(platform.staticInvoke("putByte").arg(address).arg(JExpr.cast(model.BYTE,
+        platform.staticInvoke("getByte").arg(address).bor(value.band(JExpr.lit(1)).shl(index.band(JExpr.lit(7)))))));
+      return;
+    }
+    final JExpression address = data.plus(JExpr.cast(model.LONG, index).shl(JExpr.lit(shift)));
+    switch (type.toMinorType()) {
+      case INT:
+      case TIME:
+        block.add(platform.staticInvoke("putInt").arg(address).arg(value));
+        break;
+      case FLOAT4:
+        block.add(platform.staticInvoke("putInt").arg(address).arg(model.ref(Float.class).staticInvoke("floatToRawIntBits").arg(value)));
+        break;
+      case FLOAT8:
+        block.add(platform.staticInvoke("putLong").arg(address).arg(model.ref(Double.class).staticInvoke("doubleToRawLongBits").arg(value)));
+        break;
+      default:
+        block.add(platform.staticInvoke("putLong").arg(address).arg(value));
+        break;
+    }
+  }
+
+  // declares a non null value
+  private HoldingContainer declare(CompleteType type, JExpression value) {
+    final HoldingContainer container = generator.declare(type);
+    generator.getEvalBlock().assign(container.getIsSet(), JExpr.lit(1));
+    generator.getEvalBlock().assign(container.getValue(), value);
+    return container;
+  }
+
+  // declares a constant, set up once so that the setup of the functions can read it
+  private HoldingContainer declareConstant(CompleteType type, JExpression value) {
+    final JType holderType = CodeModelArrowHelper.getHolderType(type, model);
+    final JVar var = generator.declareClassField("constant", holderType);
+    final JBlock setup = generator.getSetupBlock();
+    setup.assign(var, JExpr._new(holderType));
+    setup.assign(var.ref("isSet"), JExpr.lit(1));
+    setup.assign(var.ref("value"), value);
+    return new HoldingContainer(type, var, var.ref("value"), var.ref("isSet")).setConstant(true);
+  }
+
+  // Renders the expression for the current record. Validity is handled by the caller
+  private class BulkEvaluationVisitor extends AbstractExprVisitor<HoldingContainer, Void, RuntimeException> {
+
+    @Override
+    public HoldingContainer visitFunctionHolderExpression(FunctionHolderExpression holderExpr, Void value) {
+      final CompleteType resolvedOutput = holderExpr.getCompleteType();
+      final SimpleFunctionHolder holder = (SimpleFunctionHolder) holderExpr.getHolder();
+
+      FunctionErrorContext errorContext = null;
+      if (holder.usesErrContext()) {
+        errorContext = FunctionErrorContextBuilder.builder()
+          .build();
+        functionContext.registerFunctionErrorContext(errorContext);
+      }
+      final JVar[] workspaceVars = holder.renderStart(generator, resolvedOutput, null, errorContext);
+
+      final HoldingContainer[] args = new HoldingContainer[holderExpr.args.size()];
+      for (int i = 0; i < holderExpr.args.size(); i++) {
+        args[i] = holderExpr.args.get(i).accept(this, null);
+      }
+
+      holder.renderMiddle(generator, resolvedOutput, args, workspaceVars);
+      return holder.renderEnd(generator, resolvedOutput, args, workspaceVars);
+    }
+
+    @Override
+    public HoldingContainer visitUnknown(LogicalExpression e, Void value) {
+      if (!(e instanceof ValueVectorReadExpression)) {
+        throw new UnsupportedOperationException("Expression cannot be evaluated in bulk: " + e);
+      }
+      final TypedFieldId fieldId = ((ValueVectorReadExpression) e).getFieldId();
+      HoldingContainer container = inputValues.get(fieldId);
+      if (container == null) {
+        container = declare(e.getCompleteType(), read(e.getCompleteType(), inputBuffers.get(fieldId)[0]));
+        inputValues.put(fieldId, container);
+      }
+      return container;
+    }
+
+    @Override
+    public HoldingContainer visitBooleanConstant(ValueExpressions.BooleanExpression e, Void value) {
+      return declareConstant(e.getCompleteType(), JExpr.lit(e.getBoolean() ? 1 : 0));
+    }
+
+    @Override
+    public HoldingContainer visitIntConstant(ValueExpressions.IntExpression e, Void value) {
+      return declareConstant(e.getCompleteType(), JExpr.lit(e.getInt()));
+    }
+
+    @Override
+    public HoldingContainer visitLongConstant(ValueExpressions.LongExpression e, Void value) {
+      return declareConstant(e.getCompleteType(), JExpr.lit(e.getLong()));
+    }
+
+    @Override
+    public HoldingContainer visitFloatConstant(ValueExpressions.FloatExpression e, Void value) {
+      return declareConstant(e.getCompleteType(), JExpr.lit(e.getFloat()));
+    }
+
+    @Override
+    public HoldingContainer visitDoubleConstant(ValueExpressions.DoubleExpression e, Void value) {
+      return declareConstant(e.getCompleteType(), JExpr.lit(e.getDouble()));
+    }
+  }
+
+  // Checks if all the functions return null if and only if one of their inputs is null
+  private static class BulkEvaluableVisitor extends AbstractExprVisitor<Boolean, Void, RuntimeException> {
+
+    @Override
+    public Boolean visitFunctionHolderExpression(FunctionHolderExpression holderExpr, Void value) {
+      if (!(holderExpr instanceof FunctionHolderExpr) || !(holderExpr.getHolder() instanceof SimpleFunctionHolder)) {
+        return false;
+      }
+
+      final SimpleFunctionHolder holder = (SimpleFunctionHolder) holderExpr.getHolder();
+      if (holder.getNullHandling() != NullHandling.NULL_IF_NULL || holder.isNested() || holder.getReturnValue().isComplexWriter()
+        || !isSupportedType(holderExpr.getCompleteType())) {
+        return false;
+      }
+      for (int i = 0; i < holder.getParamCount(); i++) {
+        if (holder.isFieldReader(i)) {
+          return false;
+        }
+      }
+      for (LogicalExpression arg : holderExpr.args) {
+        if (!isSupportedType(arg.getCompleteType()) || !arg.accept(this, null)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public Boolean visitBooleanConstant(ValueExpressions.BooleanExpression e, Void value) {
+      return true;
+    }
+
+    @Override
+    public Boolean visitIntConstant(ValueExpressions.IntExpression e, Void value) {
+      return true;
+    }
+
+    @Override
+    public Boolean visitLongConstant(ValueExpressions.LongExpression e, Void value) {
+      return true;
+    }
+
+    @Override
+    public Boolean visitFloatConstant(ValueExpressions.FloatExpression e, Void value) {
+      return true;
+    }
+
+    @Override
+    public Boolean visitDoubleConstant(ValueExpressions.DoubleExpression e, Void value) {
+      return true;
+    }
+
+    @Override
+    public Boolean visitUnknown(LogicalExpression e, Void value) {
+      if (e instanceof ValueVectorReadExpression) {
+        final ValueVectorReadExpression read = (ValueVectorReadExpression) e;
+        return !read.hasReadPath() && !read.isSuperReader() && isSupportedType(read.getCompleteType());
+      }
+      return false;
+    }
+  }
+}
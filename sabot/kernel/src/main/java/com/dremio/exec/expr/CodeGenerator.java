@@ -109,6 +109,13 @@ public class CodeGenerator<T> {
     return generifiedCode.replaceAll("GenericGenerated", this.className);
   }
 
+  /**
+   * @return the generated code, before the class name is materialized
+   */
+  public String getGenerifiedCode() {
+    return generifiedCode;
+  }
+
   public TemplateClassDefinition<T> getDefinition() {
     return definition;
   }
@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.expr;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.dremio.common.expression.BooleanOperator;
+import com.dremio.common.expression.FunctionHolderExpression;
+import com.dremio.common.expression.IfExpression;
+import com.dremio.common.expression.LogicalExpression;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Finds the sub-expressions that occur more than once in a list of materialized expressions.
+ *
+ * Identical sub-expressions are numbered with the same id (hash-consing), bottom up, so that finding them is linear
+ * in the size of the expressions. Only the sub-expressions that are always evaluated are considered: the then and
+ * else expressions of an if, and the arguments after the first one of a boolean operator, are evaluated depending
+ * on a condition and cannot be shared with the other occurrences. So are the non-deterministic functions.
+ *
+ * A repeated sub-expression nested in another repeated sub-expression is only reported if it also occurs outside
+ * of it, since evaluating the outer one once already evaluates the inner one once.
+ */
+class CommonSubExpressionFinder {
+  // ids of the sub-expressions, by their description
+  private final Map<String, Integer> ids = Maps.newHashMap();
+  // by id, the number of times the sub-expression is evaluated
+  private final List<Integer> occurrences = Lists.newArrayList();
+  // by id, the work to evaluate the sub-expression, see ExpressionSplit.ExpressionWorkEstimator
+  private final List<Double> work = Lists.newArrayList();
+  // by id, true if the sub-expression does not read any vector
+  private final List<Boolean> constant = Lists.newArrayList();
+  // id of each visited node
+  private final Map<LogicalExpression, Integer> nodeIds = new IdentityHashMap<>();
+  private final double workThreshold;
+
+  CommonSubExpressionFinder(double workThreshold) {
+    this.workThreshold = workThreshold;
+  }
+
+  /**
+   * Finds the common sub-expressions.
+   *
+   * @param exprs materialized expressions, annotated with their code generation context
+   * @param commonSubExpressions populated with the common sub-expressions
+   * @param nodesWithCommonSubExpressions populated with the nodes having a common sub-expression below them
+   */
+  void find(List<LogicalExpression> exprs, Set<LogicalExpression> commonSubExpressions,
+            Set<LogicalExpression> nodesWithCommonSubExpressions) {
+    for (LogicalExpression expr : exprs) {
+      number(expr, true, true);
+    }
+    for (LogicalExpression expr : exprs) {
+      mark(expr, true, true, 0, commonSubExpressions, nodesWithCommonSubExpressions);
+    }
+  }
+
+  // children of the expressions that can be split, null for the other expressions
+  private static List<LogicalExpression> getChildren(LogicalExpression expr) {
+    if (expr instanceof FunctionHolderExpression) {
+      return ((FunctionHolderExpression) expr).args;
+    }
+    if (expr instanceof IfExpression) {
+      final IfExpression ifExpr = (IfExpression) expr;
+      return ImmutableList.of(ifExpr.ifCondition.condition, ifExpr.ifCondition.expression, ifExpr.elseExpression);
+    }
+    if (expr instanceof BooleanOperator) {
+      return ((BooleanOperator) expr).args;
+    }
+    return null;
+  }
+
+  // whether the i-th child of the node is evaluated whenever the node is
+  private static boolean isAlwaysEvaluated(LogicalExpression expr, int i) {
+    if (expr instanceof IfExpression || expr instanceof BooleanOperator) {
+      // only the condition of an if, and the first argument of a short-circuited boolean operator
+      return i == 0;
+    }
+    return true;
+  }
+
+  // numbers the node and its children, counting the occurrences of the ones always evaluated. The expressions being
+  // split are not counted, as their output cannot be read by the other splits
+  private int number(LogicalExpression expr, boolean evaluated, boolean isRoot) {
+    if (expr instanceof CodeGenContext) {
+      final int id = number(((CodeGenContext) expr).getChild(), evaluated, false);
+      nodeIds.put(expr, id);
+      if (evaluated && !isRoot) {
+        occurrences.set(id, occurrences.get(id) + 1);
+      }
+      return id;
+    }
+
+    final List<LogicalExpression> children = getChildren(expr);
+    final StringBuilder description = new StringBuilder();
+    double exprWork = 0;
+    boolean exprConstant = true;
+    if (expr instanceof FunctionHolderExpression) {
+      final FunctionHolderExpression holder = (FunctionHolderExpression) expr;
+      if (holder.isRandom()) {
+        // never the same value twice
+        description.append("random:").append(System.identityHashCode(holder)).append(':');
+        exprConstant = false;
+      }
+      description.append("fn:").append(holder.getName()).append(':').append(holder.getCompleteType());
+      exprWork = 1;
+    } else if (expr instanceof IfExpression) {
+      description.append("if:").append(expr.getCompleteType());
+      exprWork = 1;
+    } else if (expr instanceof BooleanOperator) {
+      description.append("bool:").append(((BooleanOperator) expr).getName());
+      exprWork = children.size() - 1;
+    } else {
+      // other expressions are not split, their children are not numbered
+      description.append("leaf:").append(expr);
+      exprConstant = !(expr instanceof ValueVectorReadExpression);
+    }
+
+    if (children != null) {
+      for (int i = 0; i < children.size(); i++) {
+        final int childId = number(children.get(i), evaluated && isAlwaysEvaluated(expr, i), false);
+        description.append(',').append(childId);
+        exprWork += work.get(childId);
+        exprConstant &= constant.get(childId);
+      }
+    }
+
+    final String key = description.toString();
+    final Integer id = ids.get(key);
+    if (id != null) {
+      return id;
+    }
+    final int newId = occurrences.size();
+    ids.put(key, newId);
+    occurrences.add(0);
+    work.add(exprWork);
+    constant.add(exprConstant);
+    return newId;
+  }
+
+  // marks the common sub-expressions below the node, returns true if there is any
+  private boolean mark(LogicalExpression expr, boolean evaluated, boolean isRoot, int enclosingOccurrences,
+                       Set<LogicalExpression> commonSubExpressions, Set<LogicalExpression> nodesWithCommonSubExpressions) {
+    if (expr instanceof CodeGenContext) {
+      final int id = nodeIds.get(expr);
+      final int count = occurrences.get(id);
+      boolean isCommon = false;
+      // when there are as many occurrences as of the enclosing common sub-expression, all of them are in it
+      if (evaluated && !isRoot && count > 1 && count > enclosingOccurrences && !constant.get(id)
+        && work.get(id) >= workThreshold) {
+        commonSubExpressions.add(expr);
+        isCommon = true;
+        enclosingOccurrences = count;
+      }
+      final boolean hasCommonSubExpressions = mark(((CodeGenContext) expr).getChild(), evaluated, false,
+        enclosingOccurrences, commonSubExpressions, nodesWithCommonSubExpressions);
+      if (hasCommonSubExpressions) {
+        nodesWithCommonSubExpressions.add(expr);
+      }
+      return hasCommonSubExpressions || isCommon;
+    }
+
+    final List<LogicalExpression> children = getChildren(expr);
+    if (children == null) {
+      return false;
+    }
+    boolean hasCommonSubExpressions = false;
+    for (int i = 0; i < children.size(); i++) {
+      hasCommonSubExpressions |= mark(children.get(i), evaluated && isAlwaysEvaluated(expr, i), false,
+        enclosingOccurrences, commonSubExpressions, nodesWithCommonSubExpressions);
+    }
+    return hasCommonSubExpressions;
+  }
+}
@@ -210,6 +210,15 @@ public class ExpressionSplit implements Closeable {
     this.totalReadersOfOutput++;
   }
 
+  // decrement the readers of this split, when a split reading it is dropped
+  void decrementReaders() {
+    this.totalReadersOfOutput--;
+  }
+
+  void setTotalReadersOfOutput(int totalReadersOfOutput) {
+    this.totalReadersOfOutput = totalReadersOfOutput;
+  }
+
   boolean isOriginalExpression() { return isOriginalExpression; }
 
   void setExecIteration(int iteration) {
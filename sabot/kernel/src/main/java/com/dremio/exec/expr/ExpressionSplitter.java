@@ -17,6 +17,8 @@ package com.dremio.exec.expr;
 
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.apache.arrow.gandiva.exceptions.GandivaException;
@@ -46,6 +48,8 @@ import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.op.llvm.expr.GandivaPushdownSieve;
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
 /**
  * Splits expressions, sets up the pipeline to evaluate the splits.
@@ -108,6 +112,26 @@ public class ExpressionSplitter implements AutoCloseable {
   // When there are many splits, the preferred engine must do at least this much work per split
   final double avgWorkThresholdForSplit;
 
+  // Are the splits evaluating the same expression shared
+  final boolean isCseEnabled;
+
+  // Splits added so far, by the expression they evaluate. Shared with the flipped splitter
+  final Map<String, ExpressionSplit> sharedSplits;
+
+  // Splits of current expression, by the expression they evaluate
+  final Map<String, ExpressionSplit> currentExprSharedSplits = Maps.newHashMap();
+
+  // Sub-expressions occurring more than once in the expressions to split. These are split, so that they are
+  // evaluated once
+  final Set<LogicalExpression> commonSubExpressions = Sets.newIdentityHashSet();
+
+  // Nodes having a common sub-expression below them
+  final Set<LogicalExpression> nodesWithCommonSubExpressions = Sets.newIdentityHashSet();
+
+  // number of times an existing split was read instead of creating a new one
+  int numSharedSplits = 0;
+  int currentExprNumSharedSplits = 0;
+
   public ExpressionSplitter(OperatorContext context, VectorAccessible incoming,
                             ExpressionEvaluationOptions options, boolean isDecimalV2Enabled) {
     this(context, incoming, options, new GandivaPushdownSieve(isDecimalV2Enabled, options),
@@ -117,12 +141,13 @@ public class ExpressionSplitter implements AutoCloseable {
   public ExpressionSplitter(OperatorContext context, VectorAccessible incoming, ExpressionEvaluationOptions options,
                             ExpressionSplitHelper gandivaSplitHelper, String outputPrefix,
                             boolean checkExcessiveSplits) {
-    this(context, incoming, options, gandivaSplitHelper, outputPrefix, checkExcessiveSplits, null);
+    this(context, incoming, options, gandivaSplitHelper, outputPrefix, checkExcessiveSplits, null, Maps.newHashMap());
   }
 
   private ExpressionSplitter(OperatorContext context, VectorAccessible incoming, ExpressionEvaluationOptions options,
                              ExpressionSplitHelper gandivaSplitHelper, String outputPrefix,
-                             boolean checkExcessiveSplits, VectorContainer vectorContainer) {
+                             boolean checkExcessiveSplits, VectorContainer vectorContainer,
+                             Map<String, ExpressionSplit> sharedSplits) {
     this.context = context;
     this.options = options;
     this.gandivaSplitHelper = gandivaSplitHelper;
@@ -130,6 +155,7 @@ public class ExpressionSplitter implements AutoCloseable {
     this.splitExpressions = Lists.newArrayList();
     this.currentExprSplits = Lists.newArrayList();
     this.incoming = incoming;
+    this.sharedSplits = sharedSplits;
 
     if (vectorContainer == null) {
       // Add all ValueVectors from incoming to vector
@@ -161,11 +187,12 @@ public class ExpressionSplitter implements AutoCloseable {
     }
     if (checkExcessiveSplits) {
       flipCodeGenSplitter = new ExpressionSplitter(context, incoming, options.flipPreferredCodeGen(), gandivaSplitHelper,
-        "_flipped_" + outputPrefix, false, this.vectorContainer);
+        "_flipped_" + outputPrefix, false, this.vectorContainer, sharedSplits);
     }
     this.maxSplitsPerExpression = context.getOptions().getOption(ExecConstants
       .MAX_SPLITS_PER_EXPRESSION);
     this.checkExcessiveSplits = checkExcessiveSplits;
+    this.isCseEnabled = context.getOptions().getOption(ExecConstants.SPLIT_CSE_ENABLED);
   }
 
   public int getNumExprsInGandiva() {
@@ -184,6 +211,47 @@ public class ExpressionSplitter implements AutoCloseable {
     return splitExpressions.size() - (numExprsInGandiva + numExprsInJava);
   }
 
+  // number of times the output of a split was shared instead of evaluating the same expression again
+  public int getNumSharedSplits() {
+    return numSharedSplits;
+  }
+
+  // number of batches evaluated by the interpreter while the Java code was compiled, summed over all the stages
+  public int getNumInterpretedBatches() {
+    int interpretedBatches = 0;
+    for (SplitStageExecutor executor : execPipeline) {
+      interpretedBatches += executor.getInterpretedBatches();
+    }
+    return interpretedBatches;
+  }
+
+  // number of Java splits evaluated a batch at a time, summed over all the stages
+  public int getNumBulkSplits() {
+    int bulkSplits = 0;
+    for (SplitStageExecutor executor : execPipeline) {
+      bulkSplits += executor.getBulkSplits();
+    }
+    return bulkSplits;
+  }
+
+  // number of Gandiva modules reused from the executor module cache
+  public int getNumGandivaModulesCached() {
+    int cached = 0;
+    for (SplitStageExecutor executor : execPipeline) {
+      cached += executor.getCachedGandivaModules();
+    }
+    return cached;
+  }
+
+  // number of Gandiva modules built for this splitter
+  public int getNumGandivaModulesBuilt() {
+    int built = 0;
+    for (SplitStageExecutor executor : execPipeline) {
+      built += executor.getBuiltGandivaModules();
+    }
+    return built;
+  }
+
   // Splits the given expression
   private ExpressionSplit splitExpression(NamedExpression namedExpression) throws Exception {
     SupportedEngines executionEngine = new SupportedEngines();
@@ -191,7 +259,8 @@ public class ExpressionSplitter implements AutoCloseable {
     SplitDependencyTracker myTracker = new SplitDependencyTracker(expr.getExecutionEngineForExpression(), IfExprBranch.EMPTY_LIST);
     NamedExpression newExpr = namedExpression;
 
-    boolean shouldSplit = isSplitEnabled;
+    // common sub-expressions are split out even when split is disabled, they are evaluated in the same engine
+    boolean shouldSplit = isSplitEnabled || nodesWithCommonSubExpressions.contains(expr);
 
     if (!isSplitEnabled) {
       if (expr.isSubExpressionExecutableInEngine(preferredEngine)) {
@@ -307,6 +376,42 @@ public class ExpressionSplitter implements AutoCloseable {
     return this.splitExpressions;
   }
 
+  // Add the expressions to be split, the sub-expressions they have in common are evaluated once
+  public void addExprs(VectorContainer outgoing, List<NamedExpression> namedExpressions) throws Exception {
+    findCommonSubExpressions(namedExpressions.stream().map(NamedExpression::getExpr).collect(Collectors.toList()));
+    for (NamedExpression namedExpression : namedExpressions) {
+      addExpr(outgoing, namedExpression);
+    }
+  }
+
+  private void findCommonSubExpressions(List<LogicalExpression> exprs) {
+    if (!isCseEnabled) {
+      return;
+    }
+    new CommonSubExpressionFinder(context.getOptions().getOption(ExecConstants.WORK_THRESHOLD_FOR_CSE))
+      .find(exprs, commonSubExpressions, nodesWithCommonSubExpressions);
+    logger.debug("Found {} common sub-expressions", commonSubExpressions.size());
+  }
+
+  boolean isCommonSubExpression(LogicalExpression expr) {
+    return commonSubExpressions.contains(expr);
+  }
+
+  boolean hasCommonSubExpressions(LogicalExpression expr) {
+    return nodesWithCommonSubExpressions.contains(expr);
+  }
+
+  // A node built from the given children, for e.g. an if-expression for a boolean operator, has the common
+  // sub-expressions of its children below it
+  void inheritCommonSubExpressions(LogicalExpression node, LogicalExpression... children) {
+    for (LogicalExpression child : children) {
+      if (isCommonSubExpression(child) || hasCommonSubExpressions(child)) {
+        nodesWithCommonSubExpressions.add(node);
+        return;
+      }
+    }
+  }
+
   // Add one expression to be split
   public ValueVector addExpr(VectorContainer outgoing, NamedExpression namedExpression) throws Exception {
     ExpressionSplit split = addToSplitter(incoming, namedExpression);
@@ -346,8 +451,12 @@ public class ExpressionSplitter implements AutoCloseable {
 
   private ExpressionSplit addToSplitter(VectorAccessible incoming, NamedExpression namedExpression) throws Exception {
     logger.debug("Splitting expression {}", namedExpression.getExpr());
+    // the splits of the expression may read the output of the splits already added. Only the readers from the
+    // splits that are kept must be counted
+    final int[] readersBefore = getReadersOfSharedSplits();
     ExpressionSplit split = splitExpression(new NamedExpression(namedExpression.getExpr(), namedExpression
       .getRef()));
+    ExpressionSplitter splitterForExpression = this;
     List<ExpressionSplit> splitsForExpression = currentExprSplits;
     if (currentExprSplits.size() > maxSplitsPerExpression && checkExcessiveSplits) {
       if (!isPreferredCodeGenDoingEnoughWork(currentExprSplits)) {
@@ -357,21 +466,54 @@ public class ExpressionSplitter implements AutoCloseable {
           (namedExpression.getExpr());
         final LogicalExpression exprWithChangedCodeGen = context.getClassProducer()
           .materializeAndAllowComplex(options.flipPreferredCodeGen(), originalExpr, incoming);
+        final int[] readersWithPreferred = getReadersOfSharedSplits();
+        setReadersOfSharedSplits(readersBefore);
         ExpressionSplit flippedSplit = flipCodeGenSplitter.splitExpression(new NamedExpression
           (exprWithChangedCodeGen, namedExpression.getRef()));
         if (isFlippedCodeGenBetter(flipCodeGenSplitter.currentExprSplits, currentExprSplits)) {
+          splitterForExpression = flipCodeGenSplitter;
           splitsForExpression = flipCodeGenSplitter.currentExprSplits;
           split = flippedSplit;
+        } else {
+          setReadersOfSharedSplits(readersWithPreferred);
         }
       }
     }
     printDebugInfoForSplits(namedExpression.getExpr(), split, splitsForExpression);
     splitExpressions.addAll(splitsForExpression);
-    flipCodeGenSplitter.currentExprSplits.clear();
-    this.currentExprSplits.clear();
+    sharedSplits.putAll(splitterForExpression.currentExprSharedSplits);
+    numSharedSplits += splitterForExpression.currentExprNumSharedSplits;
+    flipCodeGenSplitter.clearCurrentExpr();
+    this.clearCurrentExpr();
     return split;
   }
 
+  private void clearCurrentExpr() {
+    currentExprSplits.clear();
+    currentExprSharedSplits.clear();
+    currentExprNumSharedSplits = 0;
+  }
+
+  private int[] getReadersOfSharedSplits() {
+    if (sharedSplits.isEmpty()) {
+      return null;
+    }
+    final int[] readers = new int[splitExpressions.size()];
+    for (int i = 0; i < readers.length; i++) {
+      readers[i] = splitExpressions.get(i).getTotalReadersOfOutput();
+    }
+    return readers;
+  }
+
+  private void setReadersOfSharedSplits(int[] readers) {
+    if (readers == null) {
+      return;
+    }
+    for (int i = 0; i < readers.length; i++) {
+      splitExpressions.get(i).setTotalReadersOfOutput(readers[i]);
+    }
+  }
+
   private void verifySplitsInGandiva() throws Exception {
     if (codeGenOption != SupportedEngines.CodeGenOption.GandivaOnly) {
       return;
@@ -401,6 +543,7 @@ public class ExpressionSplitter implements AutoCloseable {
   public void setupFilter(VectorContainer outgoing, NamedExpression namedExpression,
                           Stopwatch javaCodeGenWatch,
                           Stopwatch gandivaCodeGenWatch) throws Exception {
+    findCommonSubExpressions(Lists.newArrayList(namedExpression.getExpr()));
     addToSplitter(incoming, namedExpression);
     verifySplitsInGandiva();
     createPipeline();
@@ -535,13 +678,32 @@ public class ExpressionSplitter implements AutoCloseable {
   // Adds the output field to the schema
   ExpressionSplit splitAndGenerateVectorReadExpression(CodeGenContext expr, SplitDependencyTracker
     parentTracker, SplitDependencyTracker myTracker) {
+    logger.trace("Creating a split for {}", expr);
+    expr = getExpressionInBranch(expr, myTracker);
+
+    String sharedSplitKey = getSharedSplitKey(expr);
+    if (sharedSplitKey != null) {
+      ExpressionSplit existing = currentExprSharedSplits.get(sharedSplitKey);
+      if (existing == null) {
+        existing = sharedSplits.get(sharedSplitKey);
+      }
+      if (existing != null) {
+        // the expression is already evaluated by a split, read its output instead. The splits the expression
+        // depends on are read by that split
+        logger.trace("Sharing split {}", existing);
+        for (ExpressionSplit preReq : myTracker.getTransfersIn()) {
+          preReq.decrementReaders();
+        }
+        parentTracker.addDependency(existing);
+        currentExprNumSharedSplits++;
+        return existing;
+      }
+    }
+
     String exprName = getOutputNameForSplit();
     SchemaPath path = SchemaPath.getSimplePath(exprName);
     FieldReference ref = new FieldReference(path);
 
-    logger.trace("Creating a split for {}", expr);
-    expr = getExpressionInBranch(expr, myTracker);
-
     NamedExpression newExpr = new NamedExpression(expr, ref);
     Field outputField = expr.getCompleteType().toField(ref);
     vectorContainer.addOrGet(outputField);
@@ -559,12 +721,50 @@ public class ExpressionSplitter implements AutoCloseable {
     ExpressionSplit split = new ExpressionSplit(newExpr, myTracker, fieldId, readContext, vvIn, false,
       engineForSplit, myTracker.getIfExprBranches().size(), context);
     this.currentExprSplits.add(split);
+    if (sharedSplitKey != null) {
+      currentExprSharedSplits.put(sharedSplitKey, split);
+    }
 
     logger.trace("Split created {}", split.toString());
     parentTracker.addDependency(split);
     return split;
   }
 
+  // Returns the key identifying the value computed by the expression, or null if splits evaluating it cannot be shared
+  private String getSharedSplitKey(CodeGenContext expr) {
+    if (!isCseEnabled) {
+      return null;
+    }
+    LogicalExpression originalExpr = CodeGenerationContextRemover.removeCodeGenContext(expr);
+    if (!isDeterministic(originalExpr)) {
+      return null;
+    }
+    // the read expressions of the inputs and of the other splits identify the vectors read
+    SupportedEngines.Engine engineForSplit = expr.getExecutionEngineForExpression().contains(this
+      .preferredEngine) ? this.preferredEngine : this.nonPreferredEngine;
+    return engineForSplit + ":" + originalExpr.getCompleteType() + ":" + originalExpr;
+  }
+
+  private static boolean isDeterministic(LogicalExpression expr) {
+    if (expr instanceof FunctionHolderExpression) {
+      if (((FunctionHolderExpression) expr).isRandom()) {
+        return false;
+      }
+      for (LogicalExpression arg : ((FunctionHolderExpression) expr).args) {
+        if (!isDeterministic(arg)) {
+          return false;
+        }
+      }
+      return true;
+    }
+    for (LogicalExpression child : expr) {
+      if (!isDeterministic(child)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   // Checks if the expression is a candidate for split
   // Split only functions, if expressions and boolean operators
   boolean candidateForSplit(LogicalExpression e) {
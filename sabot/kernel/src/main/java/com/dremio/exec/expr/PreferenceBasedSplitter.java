@@ -88,7 +88,7 @@ public class PreferenceBasedSplitter extends AbstractExprVisitor<CodeGenContext,
       return context;
     }
 
-    if (context.isSubExpressionExecutableInEngine(this.preferredEngine)) {
+    if (context.isSubExpressionExecutableInEngine(this.preferredEngine) && !splitter.hasCommonSubExpressions(context)) {
       // entire expression can be done by the preferred codegen option
       logger.trace("Function evaluated in preferred {}", context);
       return context;
@@ -122,6 +122,7 @@ public class PreferenceBasedSplitter extends AbstractExprVisitor<CodeGenContext,
       SplitDependencyTracker argTracker = new SplitDependencyTracker(executionEngine, myTracker.getIfExprBranches());
       CodeGenContext newArg = visitCodeGenContext((CodeGenContext)arg, argTracker);
       boolean mustSplitAtArg = true;
+      boolean isCommonSubExpression = false;
       if (holder.argConstantOnly(i++)) {
         // the i-th argument is a constant
         // Cannot split as the i-th argument will be replaced by a ValueVectorRead on a split
@@ -129,9 +130,13 @@ public class PreferenceBasedSplitter extends AbstractExprVisitor<CodeGenContext,
       } else if (!splitter.candidateForSplit(newArg.getChild())) {
         // argument not a candidate for split
         mustSplitAtArg = false;
+      } else if (splitter.isCommonSubExpression(arg) && canShareArg(newArg, fnExecType)) {
+        // the argument is also evaluated by other expressions, split it so that it is evaluated once
+        logger.trace("Splitting at common sub-expression {}", newArg);
+        isCommonSubExpression = true;
       }
 
-      if (mustSplitAtArg && newArg.isExpressionExecutableInEngine(fnExecType)) {
+      if (mustSplitAtArg && !isCommonSubExpression && newArg.isExpressionExecutableInEngine(fnExecType)) {
         // function and arg can be evaluated by the function's execution type
         if (fnExecType == this.preferredEngine) {
           // if fnExecType is preferred, no need to split
@@ -182,6 +187,13 @@ public class PreferenceBasedSplitter extends AbstractExprVisitor<CodeGenContext,
     return outputTree;
   }
 
+  // Checks if the argument can be split, and its output read by the function
+  private boolean canShareArg(CodeGenContext arg, SupportedEngines.Engine fnExecType) {
+    SupportedEngines.Engine argExecType = arg.isExpressionExecutableInEngine(this.preferredEngine) ?
+      this.preferredEngine : this.nonPreferredEngine;
+    return splitter.canSplitAt(arg, argExecType) && splitter.canSplitAt(arg, fnExecType);
+  }
+
   boolean canExecuteInAllCodeGenerators(LogicalExpression expr) {
     // Including the true and false boolean expressions because these
     // can be evaluated by both Java and Gandiva
@@ -197,7 +209,7 @@ public class PreferenceBasedSplitter extends AbstractExprVisitor<CodeGenContext,
     SplitDependencyTracker> value) throws Exception {
     CodeGenContext context = value.first;
     SplitDependencyTracker myTracker = value.second;
-    if (context.isSubExpressionExecutableInEngine(this.preferredEngine)) {
+    if (context.isSubExpressionExecutableInEngine(this.preferredEngine) && !splitter.hasCommonSubExpressions(context)) {
       // entire if can be done in preferred. No need to split
       logger.trace("Can evaluate if expression {} in preferred", context);
       return context;
@@ -429,6 +441,7 @@ public class PreferenceBasedSplitter extends AbstractExprVisitor<CodeGenContext,
       .setOutputType(exprA.getCompleteType())
       .build();
     CodeGenContext ifExprContext = new CodeGenContext(ifExpr);
+    splitter.inheritCommonSubExpressions(ifExprContext, exprA, exprB);
 
     // the else expression (false) can be evaluated in Preferred Generator.
     ifExprContext.addSupportedExecutionEngineForExpression(preferredEngine);
@@ -452,6 +465,7 @@ public class PreferenceBasedSplitter extends AbstractExprVisitor<CodeGenContext,
       .build();
 
     CodeGenContext ifExprContext = new CodeGenContext(ifExpr);
+    splitter.inheritCommonSubExpressions(ifExprContext, exprA, exprB);
     // the then expression (true) can be evaluated in Preferred Generator.
     ifExprContext.addSupportedExecutionEngineForExpression(preferredEngine);
     if (((CodeGenContext)exprA).isSubExpressionExecutableInEngine(this.preferredEngine) &&
@@ -508,7 +522,7 @@ public class PreferenceBasedSplitter extends AbstractExprVisitor<CodeGenContext,
     SplitDependencyTracker> value) throws Exception {
     CodeGenContext context = value.first;
     SplitDependencyTracker myTracker = value.second;
-    if (context.isSubExpressionExecutableInEngine(this.preferredEngine)) {
+    if (context.isSubExpressionExecutableInEngine(this.preferredEngine) && !splitter.hasCommonSubExpressions(context)) {
       return context;
     }
 
@@ -16,9 +16,12 @@
 package com.dremio.exec.expr;
 
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.apache.arrow.gandiva.exceptions.GandivaException;
 import org.apache.arrow.vector.AllocationHelper;
+import org.apache.arrow.vector.BitVector;
 import org.apache.arrow.vector.FixedWidthVector;
 import org.apache.arrow.vector.ValueVector;
 import org.apache.arrow.vector.complex.impl.ComplexWriterImpl;
@@ -31,17 +34,23 @@ import com.dremio.common.expression.SchemaPath;
 import com.dremio.common.expression.SupportedEngines;
 import com.dremio.common.logical.data.NamedExpression;
 import com.dremio.exec.ExecConstants;
+import com.dremio.exec.exception.SchemaChangeException;
+import com.dremio.exec.expr.fn.interpreter.InterpreterEvaluator;
+import com.dremio.exec.record.BatchSchema.SelectionVectorMode;
 import com.dremio.exec.record.TypedFieldId;
 import com.dremio.exec.record.VectorAccessible;
 import com.dremio.exec.record.VectorAccessibleComplexWriter;
 import com.dremio.exec.record.VectorContainer;
+import com.dremio.exec.record.selection.SelectionVector2;
 import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.op.filter.Filterer;
 import com.dremio.sabot.op.llvm.NativeFilter;
 import com.dremio.sabot.op.llvm.NativeProjectEvaluator;
 import com.dremio.sabot.op.llvm.NativeProjectorBuilder;
+import com.dremio.sabot.op.project.BulkProjector;
 import com.dremio.sabot.op.project.Projector;
 import com.google.common.base.Stopwatch;
+import com.google.common.base.Throwables;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 
@@ -80,6 +89,40 @@ class SplitStageExecutor implements AutoCloseable {
   // Java evaluator
   Projector javaProjector;
 
+  // Class generator for the Java splits evaluated a batch at a time, null if there is none
+  ClassGenerator<BulkProjector> bulkCg;
+  BulkExpressionGenerator bulkExpressionGenerator;
+
+  // Java evaluator of the splits evaluated a batch at a time
+  BulkProjector bulkProjector;
+
+  // set to true if simple Java functions can be evaluated a batch at a time
+  final boolean bulkEvaluationEnabled;
+
+  // number of Java splits evaluated a batch at a time
+  int bulkSplits;
+
+  // Creates the complex writers requested by the Java evaluator
+  Projector.ComplexWriterCreator complexWriterCreator;
+
+  // Java evaluator being compiled in the background, null once it is set up
+  Future<Projector> pendingJavaProjector;
+
+  // Java splits interpreted while the Java evaluator is being compiled
+  final List<InterpretedSplit> interpretedSplits = Lists.newArrayList();
+
+  // set to false if any Java split cannot be interpreted
+  boolean javaSplitsInterpretable = true;
+
+  // number of batches evaluated by the interpreter
+  int interpretedBatches;
+
+  // set to true if the interpreter failed, the compiled classes are used from then on
+  boolean interpretationFailed;
+
+  // number of batches to interpret while waiting for the background compilation
+  final long maxInterpretedBatches;
+
   // Vectors for intermediate output
   final List<ValueVector> allocationVectors = Lists.newArrayList();
 
@@ -108,13 +151,19 @@ class SplitStageExecutor implements AutoCloseable {
     this.preferredEngine = preferredExecType;
     this.hasOriginalExpression = false;
     this.nativeFilter = null;
-    this.nativeProjectorBuilder = NativeProjectEvaluator.builder(incoming, context.getFunctionContext(), context.getOptions().getOption(ExecConstants.GANDIVA_TARGET_HOST_CPU));
+    this.nativeProjectorBuilder = NativeProjectEvaluator.builder(incoming, context.getFunctionContext(),
+      context.getOptions().getOption(ExecConstants.GANDIVA_TARGET_HOST_CPU),
+      context.getOptions().getOption(ExecConstants.GANDIVA_MODULE_CACHE_SIZE));
     this.cg = context.getClassProducer().createGenerator(Projector.TEMPLATE_DEFINITION).getRoot();
     this.splitsForPreferredCodeGen = this.preferredEngine ==
       SupportedEngines.Engine.GANDIVA? gandivaSplits : javaSplits;
     this.splitsForNonPreferredCodeGen = this.preferredEngine ==
       SupportedEngines.Engine.GANDIVA? javaSplits : gandivaSplits;
     this.intermediateOutputs = context.createOutputVectorContainer();
+    this.maxInterpretedBatches = context.getOptions().getOption(ExecConstants.CODE_GEN_ASYNC_COMPILE_ENABLED) ?
+      context.getOptions().getOption(ExecConstants.CODE_GEN_ASYNC_MAX_INTERPRETED_BATCHES) : 0;
+    this.bulkEvaluationEnabled = context.getOptions().getOption(ExecConstants.CODE_GEN_BULK_EVAL_ENABLED)
+      && incoming.getSchema().getSelectionVectorMode() == SelectionVectorMode.NONE;
   }
 
   // Adds a split to be executed as part of this
@@ -157,9 +206,25 @@ class SplitStageExecutor implements AutoCloseable {
     logger.trace("Setting up split for {} in Java", split.toString());
     // setup in Java
     TypedFieldId fid = intermediateOutputs.getValueVectorId(SchemaPath.getSimplePath(outputField.getName()));
+    if (bulkEvaluationEnabled && vector instanceof FixedWidthVector && BulkExpressionGenerator.canEvaluateInBulk(expr)) {
+      logger.trace("Evaluating split {} a batch at a time", split.toString());
+      if (bulkCg == null) {
+        bulkCg = context.getClassProducer().createGenerator(BulkProjector.TEMPLATE_DEFINITION).getRoot();
+        bulkExpressionGenerator = new BulkExpressionGenerator(bulkCg, context.getFunctionContext());
+      }
+      bulkExpressionGenerator.addExpr(expr, fid);
+      bulkSplits++;
+      return outputField;
+    }
+
     boolean useSetSafe = !(vector instanceof FixedWidthVector);
     ValueVectorWriteExpression write = new ValueVectorWriteExpression(fid, expr, useSetSafe);
     cg.addExpr(write, ClassGenerator.BlockCreateMode.NEW_IF_TOO_LARGE, true);
+    if (javaSplitsInterpretable && InterpreterEvaluator.isInterpretable(expr)) {
+      interpretedSplits.add(new InterpretedSplit(expr, vector));
+    } else {
+      javaSplitsInterpretable = false;
+    }
 
     if (expr instanceof ValueVectorReadExpression) {
       final ValueVectorReadExpression vectorRead = (ValueVectorReadExpression) expr;
@@ -180,26 +245,104 @@ class SplitStageExecutor implements AutoCloseable {
     gandivaCodeGenWatch.stop();
 
     javaCodeGenWatch.start();
-    javaProjector = cg.getCodeGenerator().getImplementationClass();
+    complexWriterCreator = new Projector.ComplexWriterCreator(){
+      @Override
+      public ComplexWriter addComplexWriter(String name) {
+        VectorAccessibleComplexWriter vc = new VectorAccessibleComplexWriter(outgoing);
+        ComplexWriter writer = new ComplexWriterImpl(name, vc);
+        complexWriters.add(writer);
+        return writer;
+      }
+    };
+    if (javaSplitsInterpretable && !interpretedSplits.isEmpty()) {
+      // evaluate the first batches with the interpreter while the class is compiled
+      pendingJavaProjector = compileInBackground(cg.getCodeGenerator());
+    }
+    if (pendingJavaProjector == null) {
+      javaProjector = cg.getCodeGenerator().getImplementationClass();
+      setupJavaProjector();
+    }
+    if (bulkCg != null) {
+      bulkProjector = bulkCg.getCodeGenerator().getImplementationClass();
+      bulkProjector.setup(context.getFunctionContext(), incoming, intermediateOutputs);
+    }
     // CodeGenerator is no longer required since the code has been generated
     // Releasing heap memory
     cg = null;
+    bulkCg = null;
+    bulkExpressionGenerator = null;
+    javaCodeGenWatch.stop();
+  }
+
+  private void setupJavaProjector() throws SchemaChangeException {
     javaProjector.setup(
       context.getFunctionContext(),
       incoming,
       intermediateOutputs,
       Lists.newArrayList(),
-      new Projector.ComplexWriterCreator(){
-        @Override
-        public ComplexWriter addComplexWriter(String name) {
-          VectorAccessibleComplexWriter vc = new VectorAccessibleComplexWriter(outgoing);
-          ComplexWriter writer = new ComplexWriterImpl(name, vc);
-          complexWriters.add(writer);
-          return writer;
-        }
-      }
+      complexWriterCreator
     );
-    javaCodeGenWatch.stop();
+  }
+
+  // Compiles the class in the background. Returns null if all the compilation threads are busy,
+  // or if interpretation is disabled
+  private <T> Future<T> compileInBackground(CodeGenerator<T> codeGenerator) {
+    if (maxInterpretedBatches == 0) {
+      return null;
+    }
+
+    final Future<T> compiled = BackgroundCompiler.getInstance().compile(
+      (int) context.getOptions().getOption(ExecConstants.CODE_GEN_ASYNC_COMPILE_THREADS),
+      codeGenerator::getImplementationClass);
+    if (compiled == null) {
+      logger.debug("No thread to compile {} in the background", codeGenerator.getDefinition().getTemplateClassName());
+    }
+    return compiled;
+  }
+
+  // Waits for the background compilation, rethrowing its failure
+  private static <T> T getCompiled(Future<T> compiled) {
+    try {
+      return compiled.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } catch (ExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  // Checks if the batch can be evaluated by the interpreter. Once the compilation is done, or after interpreting
+  // enough batches, switches to the compiled class for good
+  private boolean shouldInterpret(Future<?> compiled) {
+    return compiled != null && !compiled.isDone() && !interpretationFailed && interpretedBatches < maxInterpretedBatches;
+  }
+
+  int getInterpretedBatches() {
+    return interpretedBatches;
+  }
+
+  int getBulkSplits() {
+    return bulkSplits;
+  }
+
+  // number of Gandiva modules reused from the module cache
+  int getCachedGandivaModules() {
+    int cached = nativeProjectEvaluator == null ? 0 : nativeProjectEvaluator.getCachedModules();
+    if (nativeFilter != null && nativeFilter.isCacheHit()) {
+      cached++;
+    }
+    return cached;
+  }
+
+  // number of Gandiva modules built by this stage
+  int getBuiltGandivaModules() {
+    int built = nativeProjectEvaluator == null ? 0 : nativeProjectEvaluator.getBuiltModules();
+    if (nativeFilter != null && !nativeFilter.isCacheHit()) {
+      built++;
+    }
+    return built;
   }
 
   // setup evaluation of projector for all splits
@@ -243,7 +386,8 @@ class SplitStageExecutor implements AutoCloseable {
       logger.trace("Setting up filter for split in Gandiva {}", finalSplit.toString());
       gandivaCodeGenWatch.start();
       nativeFilter = NativeFilter.build(finalSplit.getNamedExpression().getExpr(), incoming, outgoing.getSelectionVector2(),
-        context.getFunctionContext(), finalSplit.getOptimize(), context.getOptions().getOption(ExecConstants.GANDIVA_TARGET_HOST_CPU));
+        context.getFunctionContext(), finalSplit.getOptimize(), context.getOptions().getOption(ExecConstants.GANDIVA_TARGET_HOST_CPU),
+        context.getOptions().getOption(ExecConstants.GANDIVA_MODULE_CACHE_SIZE));
       gandivaCodeGenWatch.stop();
       this.filterFunction = new NativeTimedFilter(nativeFilter);
       return;
@@ -251,12 +395,22 @@ class SplitStageExecutor implements AutoCloseable {
 
     logger.trace("Setting up filter for split in Java {}", finalSplit.toString());
     javaCodeGenWatch.start();
+    final LogicalExpression filterExpr = finalSplit.getNamedExpression().getExpr();
     final ClassGenerator<Filterer> filterClassGen = context.getClassProducer().createGenerator(Filterer.TEMPLATE_DEFINITION2).getRoot();
-    filterClassGen.addExpr(new ReturnValueExpression(finalSplit.getNamedExpression().getExpr()), ClassGenerator.BlockCreateMode.MERGE, true);
-    final Filterer javaFilter = filterClassGen.getCodeGenerator().getImplementationClass();
-    javaFilter.setup(context.getClassProducer().getFunctionContext(), incoming, outgoing);
+    filterClassGen.addExpr(new ReturnValueExpression(filterExpr), ClassGenerator.BlockCreateMode.MERGE, true);
+    Future<Filterer> pendingJavaFilter = null;
+    if (incoming.getSchema().getSelectionVectorMode() == SelectionVectorMode.NONE
+      && InterpreterEvaluator.isInterpretable(filterExpr)) {
+      pendingJavaFilter = compileInBackground(filterClassGen.getCodeGenerator());
+    }
+    if (pendingJavaFilter != null) {
+      this.filterFunction = new InterpretedTimedFilter(filterExpr, pendingJavaFilter, outgoing);
+    } else {
+      final Filterer javaFilter = filterClassGen.getCodeGenerator().getImplementationClass();
+      javaFilter.setup(context.getClassProducer().getFunctionContext(), incoming, outgoing);
+      this.filterFunction = new JavaTimedFilter(javaFilter);
+    }
     javaCodeGenWatch.stop();
-    this.filterFunction = new JavaTimedFilter(javaFilter);
   }
 
   private void allocateNew(int recordsToConsume) {
@@ -308,7 +462,7 @@ class SplitStageExecutor implements AutoCloseable {
       nativeProjectEvaluator.evaluate(recordsToConsume);
       gandivaWatch.stop();
       javaWatch.start();
-      javaProjector.projectRecords(recordsToConsume);
+      evaluateJavaSplits(recordsToConsume);
       javaWatch.stop();
 
       setValueCount(recordsToConsume);
@@ -329,6 +483,36 @@ class SplitStageExecutor implements AutoCloseable {
     }
   }
 
+  private void evaluateJavaSplits(int recordsToConsume) throws SchemaChangeException {
+    if (bulkProjector != null) {
+      bulkProjector.projectRecords(recordsToConsume);
+    }
+
+    if (shouldInterpret(pendingJavaProjector)) {
+      try {
+        for (InterpretedSplit split : interpretedSplits) {
+          InterpreterEvaluator.evaluate(recordsToConsume, context.getFunctionContext(), incoming, split.vector, split.expr);
+        }
+        interpretedBatches++;
+        return;
+      } catch (RuntimeException e) {
+        // the compiled class reports errors the way the rest of the engine does
+        logger.debug("Interpreted evaluation failed, waiting for the compiled projector", e);
+        for (InterpretedSplit split : interpretedSplits) {
+          AllocationHelper.allocateNew(split.vector, recordsToConsume);
+        }
+        interpretationFailed = true;
+      }
+    }
+
+    if (pendingJavaProjector != null) {
+      javaProjector = getCompiled(pendingJavaProjector);
+      pendingJavaProjector = null;
+      setupJavaProjector();
+    }
+    javaProjector.projectRecords(recordsToConsume);
+  }
+
   int evaluateFilter(int recordsToConsume, Stopwatch javaWatch, Stopwatch gandivaWatch) throws Exception {
     try {
       return this.filterFunction.apply(recordsToConsume, javaWatch, gandivaWatch);
@@ -339,6 +523,12 @@ class SplitStageExecutor implements AutoCloseable {
 
   @Override
   public void close() throws Exception {
+    if (pendingJavaProjector != null) {
+      pendingJavaProjector.cancel(false);
+    }
+    if (filterFunction instanceof InterpretedTimedFilter) {
+      ((InterpretedTimedFilter) filterFunction).pendingJavaFilter.cancel(false);
+    }
     if (nativeProjectEvaluator != null) {
       nativeProjectEvaluator.close();
     }
@@ -383,6 +573,80 @@ class SplitStageExecutor implements AutoCloseable {
     }
   }
 
+  // Filters with the interpreter until the background compilation of the Java filter is done
+  class InterpretedTimedFilter implements TimedFilterFunction {
+    final LogicalExpression filterExpr;
+    final Future<Filterer> pendingJavaFilter;
+    final VectorAccessible outgoing;
+
+    InterpretedTimedFilter(LogicalExpression filterExpr, Future<Filterer> pendingJavaFilter, VectorAccessible outgoing) {
+      this.filterExpr = filterExpr;
+      this.pendingJavaFilter = pendingJavaFilter;
+      this.outgoing = outgoing;
+    }
+
+    @Override
+    public Integer apply(Integer recordsToConsume, Stopwatch javaWatch, Stopwatch gandivaWatch) throws Exception {
+      if (shouldInterpret(pendingJavaFilter)) {
+        javaWatch.start();
+        try (BitVector matches = new BitVector("_filter_", context.getAllocator())) {
+          final int outputRecords = filterBatch(recordsToConsume, matches);
+          interpretedBatches++;
+          return outputRecords;
+        } catch (RuntimeException e) {
+          logger.debug("Interpreted evaluation failed, waiting for the compiled filter", e);
+          interpretationFailed = true;
+        } finally {
+          javaWatch.stop();
+        }
+      }
+
+      javaWatch.start();
+      final Filterer javaFilter;
+      try {
+        javaFilter = getCompiled(pendingJavaFilter);
+        javaFilter.setup(context.getClassProducer().getFunctionContext(), incoming, outgoing);
+      } finally {
+        javaWatch.stop();
+      }
+      filterFunction = new JavaTimedFilter(javaFilter);
+      return filterFunction.apply(recordsToConsume, javaWatch, gandivaWatch);
+    }
+
+    private int filterBatch(int recordCount, BitVector matches) {
+      if (recordCount == 0) {
+        return 0;
+      }
+
+      matches.allocateNew(recordCount);
+      InterpreterEvaluator.evaluate(recordCount, context.getFunctionContext(), incoming, matches, filterExpr);
+
+      final SelectionVector2 outgoingSelectionVector = outgoing.getSelectionVector2();
+      outgoingSelectionVector.allocateNew(recordCount);
+      int svIndex = 0;
+      for (int i = 0; i < recordCount; i++) {
+        // null is not a match
+        if (matches.isSet(i) == 1 && matches.get(i) == 1) {
+          outgoingSelectionVector.setIndex(svIndex, (char) i);
+          svIndex++;
+        }
+      }
+      outgoingSelectionVector.setRecordCount(svIndex);
+      return svIndex;
+    }
+  }
+
+  // A Java split, and the vector the interpreter writes its output to
+  static final class InterpretedSplit {
+    final LogicalExpression expr;
+    final ValueVector vector;
+
+    InterpretedSplit(LogicalExpression expr, ValueVector vector) {
+      this.expr = expr;
+      this.vector = vector;
+    }
+  }
+
   interface TimedFilterFunction {
     Integer apply(Integer recordsToConsume, Stopwatch javaWatch, Stopwatch gandivaWatch) throws Exception;
   }
@@ -918,24 +918,27 @@ public class DecimalFunctions {
 
     @Override
     public void eval() {
-      long index = (in1.start / (org.apache.arrow.vector.DecimalVector.TYPE_WIDTH));
-      java.math.BigDecimal left = org.apache.arrow.vector.util.DecimalUtility.getBigDecimalFromArrowBuf(in1.buffer, org.apache.arrow.memory.util.LargeMemoryUtil.capAtMaxInt(index), in1.scale, org.apache.arrow.vector.DecimalVector.TYPE_WIDTH);
-
-      index = (in2.start / (org.apache.arrow.vector.DecimalVector.TYPE_WIDTH));
-      java.math.BigDecimal right = org.apache.arrow.vector.util.DecimalUtility.getBigDecimalFromArrowBuf(in2.buffer, org.apache.arrow.memory.util.LargeMemoryUtil.capAtMaxInt(index), in2.scale, org.apache.arrow.vector.DecimalVector.TYPE_WIDTH);
-
       org.apache.arrow.vector.types.pojo.ArrowType.Decimal resultTypeForOperation = org.apache.arrow.gandiva.evaluator.DecimalTypeUtil.getResultTypeForOperation(org.apache.arrow.gandiva.evaluator.DecimalTypeUtil.OperationType.ADD,
         new org.apache.arrow.vector.types.pojo.ArrowType.Decimal(in1.precision, in1.scale),
         new org.apache.arrow.vector.types.pojo.ArrowType.Decimal(in2.precision, in2.scale));
       out.precision = resultTypeForOperation.getPrecision();
       out.scale = resultTypeForOperation.getScale();
 
-      java.math.BigDecimal result = com.dremio.exec.expr.fn.impl.DecimalFunctions.addOrSubtract(false, left, right, out.precision, out.scale);
-      try {
-        org.apache.arrow.vector.util.DecimalUtility.writeBigDecimalToArrowBuf(result, buffer, 0, org.apache.arrow.vector.DecimalVector.TYPE_WIDTH);
-      } catch (RuntimeException e) {
-        throw errorContext.error(e)
-          .build();
+      if (!com.dremio.exec.util.DecimalUtils.addOrSubtractLongDecimals(false, in1.buffer.memoryAddress() + in1.start, in1.scale,
+        in2.buffer.memoryAddress() + in2.start, in2.scale, out.scale, buffer.memoryAddress())) {
+        long index = (in1.start / (org.apache.arrow.vector.DecimalVector.TYPE_WIDTH));
+        java.math.BigDecimal left = org.apache.arrow.vector.util.DecimalUtility.getBigDecimalFromArrowBuf(in1.buffer, org.apache.arrow.memory.util.LargeMemoryUtil.capAtMaxInt(index), in1.scale, org.apache.arrow.vector.DecimalVector.TYPE_WIDTH);
+
+        index = (in2.start / (org.apache.arrow.vector.DecimalVector.TYPE_WIDTH));
+        java.math.BigDecimal right = org.apache.arrow.vector.util.DecimalUtility.getBigDecimalFromArrowBuf(in2.buffer, org.apache.arrow.memory.util.LargeMemoryUtil.capAtMaxInt(index), in2.scale, org.apache.arrow.vector.DecimalVector.TYPE_WIDTH);
+
+        java.math.BigDecimal result = com.dremio.exec.expr.fn.impl.DecimalFunctions.addOrSubtract(false, left, right, out.precision, out.scale);
+        try {
+          org.apache.arrow.vector.util.DecimalUtility.writeBigDecimalToArrowBuf(result, buffer, 0, org.apache.arrow.vector.DecimalVector.TYPE_WIDTH);
+        } catch (RuntimeException e) {
+          throw errorContext.error(e)
+            .build();
+        }
       }
       out.buffer = buffer;
     }
@@ -963,24 +966,27 @@ public class DecimalFunctions {
 
     @Override
     public void eval() {
-      long index = (leftHolder.start / (org.apache.arrow.vector.DecimalVector.TYPE_WIDTH));
-      java.math.BigDecimal left = org.apache.arrow.vector.util.DecimalUtility.getBigDecimalFromArrowBuf(leftHolder.buffer, org.apache.arrow.memory.util.LargeMemoryUtil.capAtMaxInt(index), leftHolder.scale, org.apache.arrow.vector.DecimalVector.TYPE_WIDTH);
-
-      index = (rightHolder.start / (org.apache.arrow.vector.DecimalVector.TYPE_WIDTH));
-      java.math.BigDecimal right = org.apache.arrow.vector.util.DecimalUtility.getBigDecimalFromArrowBuf(rightHolder.buffer, org.apache.arrow.memory.util.LargeMemoryUtil.capAtMaxInt(index), rightHolder.scale, org.apache.arrow.vector.DecimalVector.TYPE_WIDTH);
-
       org.apache.arrow.vector.types.pojo.ArrowType.Decimal resultTypeForOperation = org.apache.arrow.gandiva.evaluator.DecimalTypeUtil.getResultTypeForOperation(org.apache.arrow.gandiva.evaluator.DecimalTypeUtil.OperationType.SUBTRACT,
         new org.apache.arrow.vector.types.pojo.ArrowType.Decimal(leftHolder.precision, leftHolder.scale),
         new org.apache.arrow.vector.types.pojo.ArrowType.Decimal(rightHolder.precision, rightHolder.scale));
       resultHolder.precision = resultTypeForOperation.getPrecision();
       resultHolder.scale = resultTypeForOperation.getScale();
 
-      java.math.BigDecimal result = com.dremio.exec.expr.fn.impl.DecimalFunctions.addOrSubtract(true, left, right, resultHolder.precision, resultHolder.scale);
-      try {
-        org.apache.arrow.vector.util.DecimalUtility.writeBigDecimalToArrowBuf(result, buffer, 0, org.apache.arrow.vector.DecimalVector.TYPE_WIDTH);
-      } catch (RuntimeException e) {
-        throw functionErrorContext.error(e)
-          .build();
+      if (!com.dremio.exec.util.DecimalUtils.addOrSubtractLongDecimals(true, leftHolder.buffer.memoryAddress() + leftHolder.start, leftHolder.scale,
+        rightHolder.buffer.memoryAddress() + rightHolder.start, rightHolder.scale, resultHolder.scale, buffer.memoryAddress())) {
+        long index = (leftHolder.start / (org.apache.arrow.vector.DecimalVector.TYPE_WIDTH));
+        java.math.BigDecimal left = org.apache.arrow.vector.util.DecimalUtility.getBigDecimalFromArrowBuf(leftHolder.buffer, org.apache.arrow.memory.util.LargeMemoryUtil.capAtMaxInt(index), leftHolder.scale, org.apache.arrow.vector.DecimalVector.TYPE_WIDTH);
+
+        index = (rightHolder.start / (org.apache.arrow.vector.DecimalVector.TYPE_WIDTH));
+        java.math.BigDecimal right = org.apache.arrow.vector.util.DecimalUtility.getBigDecimalFromArrowBuf(rightHolder.buffer, org.apache.arrow.memory.util.LargeMemoryUtil.capAtMaxInt(index), rightHolder.scale, org.apache.arrow.vector.DecimalVector.TYPE_WIDTH);
+
+        java.math.BigDecimal result = com.dremio.exec.expr.fn.impl.DecimalFunctions.addOrSubtract(true, left, right, resultHolder.precision, resultHolder.scale);
+        try {
+          org.apache.arrow.vector.util.DecimalUtility.writeBigDecimalToArrowBuf(result, buffer, 0, org.apache.arrow.vector.DecimalVector.TYPE_WIDTH);
+        } catch (RuntimeException e) {
+          throw functionErrorContext.error(e)
+            .build();
+        }
       }
       resultHolder.buffer = buffer;
     }
@@ -1007,25 +1013,28 @@ public class DecimalFunctions {
 
     @Override
     public void eval() {
-      long index = (leftHolder.start / (org.apache.arrow.vector.DecimalVector.TYPE_WIDTH));
-      java.math.BigDecimal left = org.apache.arrow.vector.util.DecimalUtility.getBigDecimalFromArrowBuf(leftHolder.buffer, org.apache.arrow.memory.util.LargeMemoryUtil.capAtMaxInt(index), leftHolder.scale, org.apache.arrow.vector.DecimalVector.TYPE_WIDTH);
-
-      index = (rightHolder.start / (org.apache.arrow.vector.DecimalVector.TYPE_WIDTH));
-      java.math.BigDecimal right = org.apache.arrow.vector.util.DecimalUtility.getBigDecimalFromArrowBuf(rightHolder.buffer, org.apache.arrow.memory.util.LargeMemoryUtil.capAtMaxInt(index), rightHolder.scale, org.apache.arrow.vector.DecimalVector.TYPE_WIDTH);
-
       org.apache.arrow.vector.types.pojo.ArrowType.Decimal resultTypeForOperation = org.apache.arrow.gandiva.evaluator.DecimalTypeUtil.getResultTypeForOperation(org.apache.arrow.gandiva.evaluator.DecimalTypeUtil.OperationType.MULTIPLY,
         new org.apache.arrow.vector.types.pojo.ArrowType.Decimal(leftHolder.precision, leftHolder.scale),
         new org.apache.arrow.vector.types.pojo.ArrowType.Decimal(rightHolder.precision, rightHolder.scale));
       resultHolder.precision = resultTypeForOperation.getPrecision();
       resultHolder.scale = resultTypeForOperation.getScale();
 
-      java.math.BigDecimal result = left.multiply(right).setScale(resultHolder.scale, java.math.BigDecimal.ROUND_HALF_UP);
-      result = com.dremio.exec.expr.fn.impl.DecimalFunctions.checkOverflow(result);
-      try {
-        org.apache.arrow.vector.util.DecimalUtility.writeBigDecimalToArrowBuf(result, buffer, 0, org.apache.arrow.vector.DecimalVector.TYPE_WIDTH);
-      } catch (RuntimeException e) {
-        throw functionErrorContext.error(e)
-          .build();
+      if (!com.dremio.exec.util.DecimalUtils.multiplyLongDecimals(leftHolder.buffer.memoryAddress() + leftHolder.start, leftHolder.scale,
+        rightHolder.buffer.memoryAddress() + rightHolder.start, rightHolder.scale, resultHolder.scale, buffer.memoryAddress())) {
+        long index = (leftHolder.start / (org.apache.arrow.vector.DecimalVector.TYPE_WIDTH));
+        java.math.BigDecimal left = org.apache.arrow.vector.util.DecimalUtility.getBigDecimalFromArrowBuf(leftHolder.buffer, org.apache.arrow.memory.util.LargeMemoryUtil.capAtMaxInt(index), leftHolder.scale, org.apache.arrow.vector.DecimalVector.TYPE_WIDTH);
+
+        index = (rightHolder.start / (org.apache.arrow.vector.DecimalVector.TYPE_WIDTH));
+        java.math.BigDecimal right = org.apache.arrow.vector.util.DecimalUtility.getBigDecimalFromArrowBuf(rightHolder.buffer, org.apache.arrow.memory.util.LargeMemoryUtil.capAtMaxInt(index), rightHolder.scale, org.apache.arrow.vector.DecimalVector.TYPE_WIDTH);
+
+        java.math.BigDecimal result = left.multiply(right).setScale(resultHolder.scale, java.math.BigDecimal.ROUND_HALF_UP);
+        result = com.dremio.exec.expr.fn.impl.DecimalFunctions.checkOverflow(result);
+        try {
+          org.apache.arrow.vector.util.DecimalUtility.writeBigDecimalToArrowBuf(result, buffer, 0, org.apache.arrow.vector.DecimalVector.TYPE_WIDTH);
+        } catch (RuntimeException e) {
+          throw functionErrorContext.error(e)
+            .build();
+        }
       }
       resultHolder.buffer = buffer;
     }
@@ -1163,13 +1172,9 @@ public class DecimalFunctions {
 
     @Override
     public void eval() {
-      long index = (leftHolder.start / (org.apache.arrow.vector.DecimalVector.TYPE_WIDTH));
-      java.math.BigDecimal left = org.apache.arrow.vector.util.DecimalUtility.getBigDecimalFromArrowBuf(leftHolder.buffer, org.apache.arrow.memory.util.LargeMemoryUtil.capAtMaxInt(index), leftHolder.scale, org.apache.arrow.vector.DecimalVector.TYPE_WIDTH);
-
-      index = (rightHolder.start / (org.apache.arrow.vector.DecimalVector.TYPE_WIDTH));
-      java.math.BigDecimal right = org.apache.arrow.vector.util.DecimalUtility.getBigDecimalFromArrowBuf(rightHolder.buffer, org.apache.arrow.memory.util.LargeMemoryUtil.capAtMaxInt(index), rightHolder.scale, org.apache.arrow.vector.DecimalVector.TYPE_WIDTH);
-
-      resultHolder.value = (left.compareTo(right) == 0) ? 1 : 0;
+      int compare = com.dremio.exec.util.DecimalUtils.compareDecimals(leftHolder.buffer, leftHolder.start, leftHolder.scale,
+        rightHolder.buffer, rightHolder.start, rightHolder.scale);
+      resultHolder.value = (compare == 0) ? 1 : 0;
     }
   }
 
@@ -1192,13 +1197,9 @@ public class DecimalFunctions {
 
     @Override
     public void eval() {
-      long index = (leftHolder.start / (org.apache.arrow.vector.DecimalVector.TYPE_WIDTH));
-      java.math.BigDecimal left = org.apache.arrow.vector.util.DecimalUtility.getBigDecimalFromArrowBuf(leftHolder.buffer, org.apache.arrow.memory.util.LargeMemoryUtil.capAtMaxInt(index), leftHolder.scale, org.apache.arrow.vector.DecimalVector.TYPE_WIDTH);
-
-      index = (rightHolder.start / (org.apache.arrow.vector.DecimalVector.TYPE_WIDTH));
-      java.math.BigDecimal right = org.apache.arrow.vector.util.DecimalUtility.getBigDecimalFromArrowBuf(rightHolder.buffer, org.apache.arrow.memory.util.LargeMemoryUtil.capAtMaxInt(index), rightHolder.scale, org.apache.arrow.vector.DecimalVector.TYPE_WIDTH);
-
-      resultHolder.value = (left.compareTo(right) != 0) ? 1 : 0;
+      int compare = com.dremio.exec.util.DecimalUtils.compareDecimals(leftHolder.buffer, leftHolder.start, leftHolder.scale,
+        rightHolder.buffer, rightHolder.start, rightHolder.scale);
+      resultHolder.value = (compare != 0) ? 1 : 0;
     }
   }
 
@@ -1221,13 +1222,9 @@ public class DecimalFunctions {
 
     @Override
     public void eval() {
-      long index = (leftHolder.start / (org.apache.arrow.vector.DecimalVector.TYPE_WIDTH));
-      java.math.BigDecimal left = org.apache.arrow.vector.util.DecimalUtility.getBigDecimalFromArrowBuf(leftHolder.buffer, org.apache.arrow.memory.util.LargeMemoryUtil.capAtMaxInt(index), leftHolder.scale, org.apache.arrow.vector.DecimalVector.TYPE_WIDTH);
-
-      index = (rightHolder.start / (org.apache.arrow.vector.DecimalVector.TYPE_WIDTH));
-      java.math.BigDecimal right = org.apache.arrow.vector.util.DecimalUtility.getBigDecimalFromArrowBuf(rightHolder.buffer, org.apache.arrow.memory.util.LargeMemoryUtil.capAtMaxInt(index), rightHolder.scale, org.apache.arrow.vector.DecimalVector.TYPE_WIDTH);
-
-      resultHolder.value = (left.compareTo(right) < 0) ? 1 : 0;
+      int compare = com.dremio.exec.util.DecimalUtils.compareDecimals(leftHolder.buffer, leftHolder.start, leftHolder.scale,
+        rightHolder.buffer, rightHolder.start, rightHolder.scale);
+      resultHolder.value = (compare < 0) ? 1 : 0;
     }
   }
 
@@ -1250,13 +1247,9 @@ public class DecimalFunctions {
 
     @Override
     public void eval() {
-      long index = (leftHolder.start / (org.apache.arrow.vector.DecimalVector.TYPE_WIDTH));
-      java.math.BigDecimal left = org.apache.arrow.vector.util.DecimalUtility.getBigDecimalFromArrowBuf(leftHolder.buffer, org.apache.arrow.memory.util.LargeMemoryUtil.capAtMaxInt(index), leftHolder.scale, org.apache.arrow.vector.DecimalVector.TYPE_WIDTH);
-
-      index = (rightHolder.start / (org.apache.arrow.vector.DecimalVector.TYPE_WIDTH));
-      java.math.BigDecimal right = org.apache.arrow.vector.util.DecimalUtility.getBigDecimalFromArrowBuf(rightHolder.buffer, org.apache.arrow.memory.util.LargeMemoryUtil.capAtMaxInt(index), rightHolder.scale, org.apache.arrow.vector.DecimalVector.TYPE_WIDTH);
-
-      resultHolder.value = (left.compareTo(right) <= 0) ? 1 : 0;
+      int compare = com.dremio.exec.util.DecimalUtils.compareDecimals(leftHolder.buffer, leftHolder.start, leftHolder.scale,
+        rightHolder.buffer, rightHolder.start, rightHolder.scale);
+      resultHolder.value = (compare <= 0) ? 1 : 0;
     }
   }
 
@@ -1279,13 +1272,9 @@ public class DecimalFunctions {
 
     @Override
     public void eval() {
-      long index = (leftHolder.start / (org.apache.arrow.vector.DecimalVector.TYPE_WIDTH));
-      java.math.BigDecimal left = org.apache.arrow.vector.util.DecimalUtility.getBigDecimalFromArrowBuf(leftHolder.buffer, org.apache.arrow.memory.util.LargeMemoryUtil.capAtMaxInt(index), leftHolder.scale, org.apache.arrow.vector.DecimalVector.TYPE_WIDTH);
-
-      index = (rightHolder.start / (org.apache.arrow.vector.DecimalVector.TYPE_WIDTH));
-      java.math.BigDecimal right = org.apache.arrow.vector.util.DecimalUtility.getBigDecimalFromArrowBuf(rightHolder.buffer, org.apache.arrow.memory.util.LargeMemoryUtil.capAtMaxInt(index), rightHolder.scale, org.apache.arrow.vector.DecimalVector.TYPE_WIDTH);
-
-      resultHolder.value = (left.compareTo(right) > 0) ? 1 : 0;
+      int compare = com.dremio.exec.util.DecimalUtils.compareDecimals(leftHolder.buffer, leftHolder.start, leftHolder.scale,
+        rightHolder.buffer, rightHolder.start, rightHolder.scale);
+      resultHolder.value = (compare > 0) ? 1 : 0;
     }
   }
 
@@ -1308,13 +1297,9 @@ public class DecimalFunctions {
 
     @Override
     public void eval() {
-      long index = (leftHolder.start / (org.apache.arrow.vector.DecimalVector.TYPE_WIDTH));
-      java.math.BigDecimal left = org.apache.arrow.vector.util.DecimalUtility.getBigDecimalFromArrowBuf(leftHolder.buffer, org.apache.arrow.memory.util.LargeMemoryUtil.capAtMaxInt(index), leftHolder.scale, org.apache.arrow.vector.DecimalVector.TYPE_WIDTH);
-
-      index = (rightHolder.start / (org.apache.arrow.vector.DecimalVector.TYPE_WIDTH));
-      java.math.BigDecimal right = org.apache.arrow.vector.util.DecimalUtility.getBigDecimalFromArrowBuf(rightHolder.buffer, org.apache.arrow.memory.util.LargeMemoryUtil.capAtMaxInt(index), rightHolder.scale, org.apache.arrow.vector.DecimalVector.TYPE_WIDTH);
-
-      resultHolder.value = (left.compareTo(right) >= 0) ? 1 : 0;
+      int compare = com.dremio.exec.util.DecimalUtils.compareDecimals(leftHolder.buffer, leftHolder.start, leftHolder.scale,
+        rightHolder.buffer, rightHolder.start, rightHolder.scale);
+      resultHolder.value = (compare >= 0) ? 1 : 0;
     }
   }
 
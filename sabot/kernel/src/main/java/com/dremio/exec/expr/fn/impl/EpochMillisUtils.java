@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.expr.fn.impl;
+
+import org.apache.arrow.memory.ArrowBuf;
+
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Calendar fields and truncations of UTC epoch milliseconds, computed with integer arithmetic in the proleptic
+ * Gregorian calendar, as ISOChronology in UTC does, without creating any Joda object.
+ *
+ * The conversions between days and dates are the ones of H. Hinnant's "chrono-Compatible Low-Level Date
+ * Algorithms", which work in 400 years eras starting on March 1st.
+ */
+public final class EpochMillisUtils {
+
+  public static final long MILLIS_PER_SECOND = 1000L;
+  public static final long MILLIS_PER_MINUTE = 60 * MILLIS_PER_SECOND;
+  public static final long MILLIS_PER_HOUR = 60 * MILLIS_PER_MINUTE;
+  public static final long MILLIS_PER_DAY = 24 * MILLIS_PER_HOUR;
+
+  /**
+   * Returned by {@link #parseTimestamp} when the text is not in one of the forms it parses.
+   */
+  public static final long NOT_PARSED = Long.MIN_VALUE;
+
+  // days from 0000-03-01 to 1970-01-01
+  private static final long EPOCH_SHIFT = 719468;
+  private static final long DAYS_PER_ERA = 146097;
+
+  private EpochMillisUtils() {
+  }
+
+  // days since 1970-01-01 of the given date
+  private static long daysFromCivil(long year, int month, int day) {
+    final long y = month <= 2 ? year - 1 : year;
+    final long era = Math.floorDiv(y, 400);
+    final long yearOfEra = y - era * 400;
+    final long dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+    final long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+    return era * DAYS_PER_ERA + dayOfEra - EPOCH_SHIFT;
+  }
+
+  // day of the era of the day since 1970-01-01
+  private static long dayOfEra(long days) {
+    return Math.floorMod(days + EPOCH_SHIFT, DAYS_PER_ERA);
+  }
+
+  // year of the era, starting on March 1st, of the day of the era
+  private static long yearOfEra(long dayOfEra) {
+    return (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+  }
+
+  // month starting from March = 0, of the day of the year starting on March 1st
+  private static long marchBasedMonth(long dayOfMarchYear) {
+    return (5 * dayOfMarchYear + 2) / 153;
+  }
+
+  public static int getYear(long millis) {
+    final long days = Math.floorDiv(millis, MILLIS_PER_DAY);
+    final long era = Math.floorDiv(days + EPOCH_SHIFT, DAYS_PER_ERA);
+    final long dayOfEra = dayOfEra(days);
+    final long yearOfEra = yearOfEra(dayOfEra);
+    final long dayOfMarchYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+    // January and February belong to the next year
+    return (int) (yearOfEra + era * 400 + (marchBasedMonth(dayOfMarchYear) >= 10 ? 1 : 0));
+  }
+
+  public static int getMonthOfYear(long millis) {
+    final long dayOfEra = dayOfEra(Math.floorDiv(millis, MILLIS_PER_DAY));
+    final long yearOfEra = yearOfEra(dayOfEra);
+    final long month = marchBasedMonth(dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100));
+    return (int) (month < 10 ? month + 3 : month - 9);
+  }
+
+  public static int getDayOfMonth(long millis) {
+    final long dayOfEra = dayOfEra(Math.floorDiv(millis, MILLIS_PER_DAY));
+    final long yearOfEra = yearOfEra(dayOfEra);
+    final long dayOfMarchYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+    return (int) (dayOfMarchYear - (153 * marchBasedMonth(dayOfMarchYear) + 2) / 5 + 1);
+  }
+
+  public static int getDayOfYear(long millis) {
+    final long days = Math.floorDiv(millis, MILLIS_PER_DAY);
+    return (int) (days - daysFromCivil(getYear(millis), 1, 1) + 1);
+  }
+
+  public static int getHourOfDay(long millis) {
+    return (int) (Math.floorMod(millis, MILLIS_PER_DAY) / MILLIS_PER_HOUR);
+  }
+
+  public static int getMinuteOfHour(long millis) {
+    return (int) (Math.floorMod(millis, MILLIS_PER_HOUR) / MILLIS_PER_MINUTE);
+  }
+
+  public static int getSecondOfMinute(long millis) {
+    return (int) (Math.floorMod(millis, MILLIS_PER_MINUTE) / MILLIS_PER_SECOND);
+  }
+
+  /**
+   * Truncates to a multiple of a unit that divides a day, e.g. MILLIS_PER_HOUR.
+   */
+  public static long truncate(long millis, long unitMillis) {
+    return Math.floorDiv(millis, unitMillis) * unitMillis;
+  }
+
+  public static long truncateToYear(long millis) {
+    return daysFromCivil(getYear(millis), 1, 1) * MILLIS_PER_DAY;
+  }
+
+  public static long truncateToQuarter(long millis) {
+    final int month = getMonthOfYear(millis);
+    return daysFromCivil(getYear(millis), ((month - 1) / 3) * 3 + 1, 1) * MILLIS_PER_DAY;
+  }
+
+  public static long truncateToMonth(long millis) {
+    return daysFromCivil(getYear(millis), getMonthOfYear(millis), 1) * MILLIS_PER_DAY;
+  }
+
+  /**
+   * Truncates to the Monday starting the ISO week.
+   */
+  public static long truncateToWeek(long millis) {
+    final long days = Math.floorDiv(millis, MILLIS_PER_DAY);
+    // 1970-01-01 is a Thursday, 3 days after a Monday
+    return (days - Math.floorMod(days + 3, 7)) * MILLIS_PER_DAY;
+  }
+
+  /**
+   * Parses "yyyy-MM-dd", "yyyy-MM-dd HH:mm:ss" and "yyyy-MM-dd HH:mm:ss.SSS" timestamps, in UTC, reading the bytes
+   * directly.
+   *
+   * @return epoch milliseconds, or {@link #NOT_PARSED} if the text is not exactly in one of these forms or is not a
+   * valid date and time, to be parsed by the general parser, which reports the errors
+   */
+  public static long parseTimestamp(ArrowBuf buffer, int start, int end) {
+    final int length = end - start;
+    if (length != 10 && length != 19 && length != 23) {
+      return NOT_PARSED;
+    }
+    final long address = buffer.memoryAddress() + start;
+    final int year = digits(address, 4);
+    final int month = digits(address + 5, 2);
+    final int day = digits(address + 8, 2);
+    if (year < 0 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)
+      || PlatformDependent.getByte(address + 4) != '-' || PlatformDependent.getByte(address + 7) != '-') {
+      return NOT_PARSED;
+    }
+    long millis = daysFromCivil(year, month, day) * MILLIS_PER_DAY;
+    if (length == 10) {
+      return millis;
+    }
+
+    final int hour = digits(address + 11, 2);
+    final int minute = digits(address + 14, 2);
+    final int second = digits(address + 17, 2);
+    if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59
+      || PlatformDependent.getByte(address + 10) != ' ' || PlatformDependent.getByte(address + 13) != ':'
+      || PlatformDependent.getByte(address + 16) != ':') {
+      return NOT_PARSED;
+    }
+    millis += hour * MILLIS_PER_HOUR + minute * MILLIS_PER_MINUTE + second * MILLIS_PER_SECOND;
+    if (length == 19) {
+      return millis;
+    }
+
+    final int fraction = digits(address + 20, 3);
+    if (fraction < 0 || PlatformDependent.getByte(address + 19) != '.') {
+      return NOT_PARSED;
+    }
+    return millis + fraction;
+  }
+
+  // value of the decimal digits at the address, -1 if one of the bytes is not a digit
+  private static int digits(long address, int count) {
+    int value = 0;
+    for (int i = 0; i < count; i++) {
+      final int digit = PlatformDependent.getByte(address + i) - '0';
+      if (digit < 0 || digit > 9) {
+        return -1;
+      }
+      value = value * 10 + digit;
+    }
+    return value;
+  }
+
+  private static int daysInMonth(int year, int month) {
+    if (month == 2) {
+      final boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+      return leap ? 29 : 28;
+    }
+    return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+  }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.expr.fn.impl;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.arrow.memory.ArrowBuf;
+
+import com.dremio.exec.expr.fn.FunctionErrorContext;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Charsets;
+
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * Matches VarChar values against a constant LIKE or regex pattern.
+ *
+ * Patterns that only consist of a literal, optionally preceded or followed by a match-anything wildcard, are matched
+ * by comparing the UTF-8 bytes of the value with the literal, without decoding the value nor running a regex. The
+ * other patterns fall back to a java.util.regex matcher.
+ */
+public abstract class SqlPatternMatcher {
+
+  /**
+   * Kind of pattern.
+   */
+  public enum Kind {
+    // the value is the literal
+    CONSTANT,
+    // the value starts with the literal
+    STARTS_WITH,
+    // the value ends with the literal
+    ENDS_WITH,
+    // the value contains the literal
+    CONTAINS,
+    // any other pattern, matched by a regex
+    COMPLEX
+  }
+
+  private static final String JAVA_REGEX_SPECIALS = "\\^$.|?*+()[]{}";
+
+  /**
+   * @param start start offset of the value in the buffer
+   * @param end end offset of the value in the buffer
+   * @param buffer buffer holding the value
+   * @return true if the value matches the pattern
+   */
+  public abstract boolean matches(int start, int end, ArrowBuf buffer);
+
+  public abstract Kind getKind();
+
+  /**
+   * Creates the matcher of a SQL LIKE pattern.
+   *
+   * @param sqlPattern LIKE pattern
+   * @param escape escape string, null if there is none
+   * @param errCtx error context
+   */
+  public static SqlPatternMatcher forLike(String sqlPattern, CharSequence escape, FunctionErrorContext errCtx) {
+    // validates the pattern and the escape string, and is the fallback
+    final String regex = RegexpUtil.sqlToRegexLike(sqlPattern, escape, errCtx);
+    final char escapeChar = escape == null ? 0 : escape.charAt(0);
+
+    final int len = sqlPattern.length();
+    int begin = 0;
+    int end = len;
+    final boolean leadingWildcard = len > 0 && sqlPattern.charAt(0) == '%' && escapeChar != '%';
+    if (leadingWildcard) {
+      begin++;
+    }
+    final StringBuilder literal = new StringBuilder(len);
+    boolean trailingWildcard = false;
+    for (int i = begin; i < end; i++) {
+      final char c = sqlPattern.charAt(i);
+      if (c == escapeChar) {
+        // sqlToRegexLike checked that a valid character follows
+        literal.append(sqlPattern.charAt(++i));
+      } else if (c == '%' && i == len - 1) {
+        trailingWildcard = true;
+      } else if (c == '%' || c == '_') {
+        return new RegexMatcher(regex, false, errCtx);
+      } else {
+        literal.append(c);
+      }
+    }
+
+    final byte[] bytes = literal.toString().getBytes(Charsets.UTF_8);
+    if (leadingWildcard && trailingWildcard) {
+      return new LiteralMatcher(Kind.CONTAINS, bytes);
+    } else if (leadingWildcard) {
+      return new LiteralMatcher(Kind.ENDS_WITH, bytes);
+    } else if (trailingWildcard) {
+      return new LiteralMatcher(Kind.STARTS_WITH, bytes);
+    }
+    return new LiteralMatcher(Kind.CONSTANT, bytes);
+  }
+
+  /**
+   * Creates the matcher finding a regex in the values, as regexp_like does.
+   *
+   * @param regex Java regex
+   * @param errCtx error context
+   */
+  public static SqlPatternMatcher forRegexFind(String regex, FunctionErrorContext errCtx) {
+    int begin = 0;
+    int end = regex.length();
+    final boolean anchored = regex.startsWith("^");
+    if (anchored) {
+      begin++;
+    }
+    // with DOTALL, a leading or trailing .* matches anything
+    if (regex.startsWith(".*", begin)) {
+      begin += 2;
+    }
+    if (end - begin >= 2 && regex.startsWith(".*", end - 2) && (end - 3 < begin || regex.charAt(end - 3) != '\\')) {
+      end -= 2;
+    }
+    for (int i = begin; i < end; i++) {
+      if (JAVA_REGEX_SPECIALS.indexOf(regex.charAt(i)) >= 0) {
+        return new RegexMatcher(regex, true, errCtx);
+      }
+    }
+
+    final byte[] bytes = regex.substring(begin, end).getBytes(Charsets.UTF_8);
+    return new LiteralMatcher(anchored && begin == 1 ? Kind.STARTS_WITH : Kind.CONTAINS, bytes);
+  }
+
+  /**
+   * Creates the matcher of the values equal to the given UTF-8 bytes.
+   */
+  public static SqlPatternMatcher forConstant(byte[] value) {
+    return new LiteralMatcher(Kind.CONSTANT, value);
+  }
+
+  /**
+   * Matches a literal, comparing bytes.
+   */
+  private static final class LiteralMatcher extends SqlPatternMatcher {
+    private final Kind kind;
+    private final byte[] literal;
+
+    private LiteralMatcher(Kind kind, byte[] literal) {
+      this.kind = kind;
+      this.literal = literal;
+    }
+
+    @Override
+    public boolean matches(int start, int end, ArrowBuf buffer) {
+      final int length = end - start;
+      if (length < literal.length) {
+        return false;
+      }
+      final long address = buffer.memoryAddress() + start;
+      switch (kind) {
+        case CONSTANT:
+          return length == literal.length && equalsAt(address, literal);
+        case STARTS_WITH:
+          return equalsAt(address, literal);
+        case ENDS_WITH:
+          return equalsAt(address + length - literal.length, literal);
+        case CONTAINS:
+          return indexOf(address, length, literal) >= 0;
+        default:
+          throw new IllegalStateException("Unexpected kind " + kind);
+      }
+    }
+
+    @Override
+    public Kind getKind() {
+      return kind;
+    }
+  }
+
+  /**
+   * Matches a regex.
+   */
+  private static final class RegexMatcher extends SqlPatternMatcher {
+    private final CharSequenceWrapper charSequenceWrapper = new CharSequenceWrapper();
+    private final Matcher matcher;
+    private final boolean find;
+
+    private RegexMatcher(String regex, boolean find, FunctionErrorContext errCtx) {
+      this.matcher = StringFunctionUtil.compilePattern(regex, Pattern.DOTALL, errCtx).matcher(charSequenceWrapper);
+      this.find = find;
+    }
+
+    @Override
+    public boolean matches(int start, int end, ArrowBuf buffer) {
+      charSequenceWrapper.setBuffer(start, end, buffer);
+      matcher.reset();
+      return find ? matcher.find() : matcher.matches();
+    }
+
+    @Override
+    public Kind getKind() {
+      return Kind.COMPLEX;
+    }
+  }
+
+  // whether the bytes at the address are the literal, compared a word at a time
+  private static boolean equalsAt(long address, byte[] literal) {
+    final int length = literal.length;
+    int i = 0;
+    for (; i + 8 <= length; i += 8) {
+      if (PlatformDependent.getLong(address + i) != PlatformDependent.getLong(literal, i)) {
+        return false;
+      }
+    }
+    for (; i < length; i++) {
+      if (PlatformDependent.getByte(address + i) != literal[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Finds the first occurrence of the literal in the bytes at the address.
+   *
+   * Candidate positions are found by looking for the first byte of the literal a word at a time: a word is only
+   * scanned byte by byte when one of its bytes may be the first byte of the literal.
+   *
+   * @return offset of the occurrence, -1 if there is none
+   */
+  @VisibleForTesting
+  static int indexOf(long address, int length, byte[] literal) {
+    if (literal.length == 0) {
+      return 0;
+    }
+    final int last = length - literal.length;
+    final byte first = literal[0];
+    final long pattern = (first & 0xFFL) * 0x0101010101010101L;
+    int i = 0;
+    while (i <= last) {
+      if (i + 8 <= length) {
+        final long word = PlatformDependent.getLong(address + i) ^ pattern;
+        // non-zero when one of the bytes of the word is zero, i.e. is the first byte of the literal
+        if (((word - 0x0101010101010101L) & ~word & 0x8080808080808080L) == 0) {
+          i += 8;
+          continue;
+        }
+      }
+      final int wordEnd = Math.min(i + 8, last + 1);
+      for (; i < wordEnd; i++) {
+        if (PlatformDependent.getByte(address + i) == first && equalsAt(address + i, literal)) {
+          return i;
+        }
+      }
+    }
+    return -1;
+  }
+}
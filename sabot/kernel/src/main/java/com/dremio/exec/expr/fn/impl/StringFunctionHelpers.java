@@ -184,6 +184,43 @@ public class StringFunctionHelpers {
     } // end of for_loop
   }
 
+  private static final long ONES = 0x0101010101010101L;
+  private static final long HIGH_BITS = 0x8080808080808080L;
+
+  /**
+   * Lower cases the ASCII letters of the input, copying it to the start of the output. Other bytes are copied as is.
+   *
+   * Eight bytes are converted at a time: the high bit of each byte of the mask is set when the byte is an ASCII
+   * letter of the case to convert, and shifted to the 0x20 bit that distinguishes the two cases.
+   */
+  public static void toLowerCase(int start, int end, ArrowBuf inBuf, ArrowBuf outBuf) {
+    convertCase(inBuf.memoryAddress() + start, outBuf.memoryAddress(), end - start, 'A', 'Z');
+  }
+
+  /**
+   * Upper cases the ASCII letters of the input, copying it to the start of the output. Other bytes are copied as is.
+   */
+  public static void toUpperCase(int start, int end, ArrowBuf inBuf, ArrowBuf outBuf) {
+    convertCase(inBuf.memoryAddress() + start, outBuf.memoryAddress(), end - start, 'a', 'z');
+  }
+
+  private static void convertCase(long in, long out, int length, int first, int last) {
+    // added to the low seven bits of each byte, sets its high bit when the byte is >= first, resp. > last
+    final long geFirst = (0x80 - first) * ONES;
+    final long gtLast = (0x7F - last) * ONES;
+    int i = 0;
+    for (; i + 8 <= length; i += 8) {
+      final long word = PlatformDependent.getLong(in + i);
+      final long low = word & ~HIGH_BITS;
+      final long mask = ((low + geFirst) ^ (low + gtLast)) & ~word & HIGH_BITS;
+      PlatformDependent.putLong(out + i, word ^ (mask >>> 2));
+    }
+    for (; i < length; i++) {
+      final byte b = PlatformDependent.getByte(in + i);
+      PlatformDependent.putByte(out + i, b >= first && b <= last ? (byte) (b ^ 0x20) : b);
+    }
+  }
+
   /**
    * Convert a VarCharHolder to a String.
    *
@@ -24,11 +24,18 @@ import java.util.regex.PatternSyntaxException;
 import org.apache.arrow.memory.ArrowBuf;
 
 import com.dremio.exec.expr.fn.FunctionErrorContext;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 import io.netty.buffer.ByteBuf;
 
 public class StringFunctionUtil {
 
+  // compiled regexes, by flags and regex
+  private static final Cache<String, Pattern> PATTERNS = CacheBuilder.newBuilder()
+    .maximumSize(1024)
+    .build();
+
   /* Decode the input bytebuf using UTF-8, and return the number of characters
    */
   public static int getUTF8CharLength(ByteBuf buffer, int start, int end, final FunctionErrorContext
@@ -65,19 +72,23 @@ public class StringFunctionUtil {
   }
 
   public static Pattern compilePattern(String regex, FunctionErrorContext errCtx) {
-    try {
-      return Pattern.compile(regex);
-    } catch (PatternSyntaxException e) {
-      throw errCtx.error()
-        .message("Invalid regex expression '%s'", regex)
-        .addContext("exception", e.getMessage())
-        .build();
-    }
+    return compilePattern(regex, 0, errCtx);
   }
 
+  /**
+   * Compiles a regex, or gets it from the patterns compiled for the previous fragments and batches. Patterns are
+   * immutable and can be shared by matchers of different threads.
+   */
   public static Pattern compilePattern(String regex, int flags, FunctionErrorContext errCtx) {
+    final String key = flags + ":" + regex;
+    final Pattern cached = PATTERNS.getIfPresent(key);
+    if (cached != null) {
+      return cached;
+    }
     try {
-      return Pattern.compile(regex, flags);
+      final Pattern pattern = Pattern.compile(regex, flags);
+      PATTERNS.put(key, pattern);
+      return pattern;
     } catch (PatternSyntaxException e) {
       throw errCtx.error()
         .message("Invalid regex expression '%s'", regex)
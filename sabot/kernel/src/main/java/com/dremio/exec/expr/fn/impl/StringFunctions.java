@@ -55,25 +55,20 @@ public class StringFunctions{
     @Param VarCharHolder input;
     @Param(constant=true) VarCharHolder pattern;
     @Output BitHolder out;
-    @Workspace java.util.regex.Matcher matcher;
-    @Workspace com.dremio.exec.expr.fn.impl.CharSequenceWrapper charSequenceWrapper;
+    @Workspace com.dremio.exec.expr.fn.impl.SqlPatternMatcher matcher;
     @Inject FunctionErrorContext errCtx;
 
     @Override
     public void setup() {
-      charSequenceWrapper = new com.dremio.exec.expr.fn.impl.CharSequenceWrapper();
-      matcher = com.dremio.exec.expr.fn.impl.StringFunctionUtil.compilePattern(com.dremio.exec.expr.fn.impl.RegexpUtil.sqlToRegexLike(
-          com.dremio.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(pattern.start,  pattern.end,  pattern.buffer), errCtx),
-          java.util.regex.Pattern.DOTALL,
-          errCtx
-      ).matcher(charSequenceWrapper);
+      matcher = com.dremio.exec.expr.fn.impl.SqlPatternMatcher.forLike(
+          com.dremio.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(pattern.start,  pattern.end,  pattern.buffer),
+          null,
+          errCtx);
     }
 
     @Override
     public void eval() {
-      charSequenceWrapper.setBuffer(input.start, input.end, input.buffer);
-      matcher.reset();
-      out.value = matcher.matches()? 1:0;
+      out.value = matcher.matches(input.start, input.end, input.buffer) ? 1 : 0;
     }
   }
 
@@ -84,26 +79,20 @@ public class StringFunctions{
     @Param(constant=true) VarCharHolder pattern;
     @Param(constant=true) VarCharHolder escape;
     @Output BitHolder out;
-    @Workspace java.util.regex.Matcher matcher;
-    @Workspace com.dremio.exec.expr.fn.impl.CharSequenceWrapper charSequenceWrapper;
+    @Workspace com.dremio.exec.expr.fn.impl.SqlPatternMatcher matcher;
     @Inject FunctionErrorContext errCtx;
 
     @Override
     public void setup() {
-      charSequenceWrapper = new com.dremio.exec.expr.fn.impl.CharSequenceWrapper();
-      matcher = com.dremio.exec.expr.fn.impl.StringFunctionUtil.compilePattern(com.dremio.exec.expr.fn.impl.RegexpUtil.sqlToRegexLike(
+      matcher = com.dremio.exec.expr.fn.impl.SqlPatternMatcher.forLike(
           com.dremio.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(pattern.start,  pattern.end,  pattern.buffer),
-          com.dremio.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(escape.start,  escape.end,  escape.buffer), errCtx),
-          java.util.regex.Pattern.DOTALL,
-          errCtx
-      ).matcher(charSequenceWrapper);
+          com.dremio.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(escape.start,  escape.end,  escape.buffer),
+          errCtx);
     }
 
     @Override
     public void eval() {
-      charSequenceWrapper.setBuffer(input.start, input.end, input.buffer);
-      matcher.reset();
-      out.value = matcher.matches()? 1:0;
+      out.value = matcher.matches(input.start, input.end, input.buffer) ? 1 : 0;
     }
   }
 
@@ -299,26 +288,20 @@ public class StringFunctions{
     @Param VarCharHolder input;
     @Param(constant=true) VarCharHolder pattern;
     @Inject ArrowBuf buffer;
-    @Workspace java.util.regex.Matcher matcher;
-    @Workspace com.dremio.exec.expr.fn.impl.CharSequenceWrapper charSequenceWrapper;
+    @Workspace com.dremio.exec.expr.fn.impl.SqlPatternMatcher matcher;
     @Output BitHolder out;
     @Inject FunctionErrorContext errCtx;
 
     @Override
     public void setup() {
-      charSequenceWrapper = new com.dremio.exec.expr.fn.impl.CharSequenceWrapper();
-      matcher = com.dremio.exec.expr.fn.impl.StringFunctionUtil.compilePattern(
+      matcher = com.dremio.exec.expr.fn.impl.SqlPatternMatcher.forRegexFind(
           com.dremio.exec.expr.fn.impl.StringFunctionHelpers.toStringFromUTF8(pattern.start,  pattern.end,  pattern.buffer),
-          java.util.regex.Pattern.DOTALL,
-          errCtx
-      ).matcher(charSequenceWrapper);
+          errCtx);
     }
 
     @Override
     public void eval() {
-      charSequenceWrapper.setBuffer(input.start, input.end, input.buffer);
-      matcher.reset();
-      out.value = matcher.find()? 1:0;
+      out.value = matcher.matches(input.start, input.end, input.buffer) ? 1 : 0;
     }
   }
 
@@ -560,16 +543,7 @@ public class StringFunctions{
       out.start = 0;
       out.end = input.end - input.start;
 
-      for (int id = input.start; id < input.end; id++) {
-        byte  currentByte = input.buffer.getByte(id);
-
-        // 'A - Z' : 0x41 - 0x5A
-        // 'a - z' : 0x61 - 0x7A
-        if (currentByte >= 0x41 && currentByte <= 0x5A) {
-          currentByte += 0x20;
-        }
-        out.buffer.setByte(id - input.start, currentByte) ;
-      }
+      com.dremio.exec.expr.fn.impl.StringFunctionHelpers.toLowerCase(input.start, input.end, input.buffer, out.buffer);
     }
   }
 
@@ -593,16 +567,7 @@ public class StringFunctions{
       out.start = 0;
       out.end = input.end - input.start;
 
-      for (int id = input.start; id < input.end; id++) {
-        byte currentByte = input.buffer.getByte(id);
-
-        // 'A - Z' : 0x41 - 0x5A
-        // 'a - z' : 0x61 - 0x7A
-        if (currentByte >= 0x61 && currentByte <= 0x7A) {
-          currentByte -= 0x20;
-        }
-        out.buffer.setByte(id - input.start, currentByte) ;
-      }
+      com.dremio.exec.expr.fn.impl.StringFunctionHelpers.toUpperCase(input.start, input.end, input.buffer, out.buffer);
     }
   }
 
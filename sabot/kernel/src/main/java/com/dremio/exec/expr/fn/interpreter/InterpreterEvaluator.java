@@ -54,6 +54,7 @@ import com.dremio.exec.expr.annotations.FunctionTemplate;
 import com.dremio.exec.expr.annotations.FunctionTemplate.NullHandling;
 import com.dremio.exec.expr.annotations.Output;
 import com.dremio.exec.expr.annotations.Param;
+import com.dremio.exec.expr.fn.BaseFunctionHolder.WorkspaceReference;
 import com.dremio.exec.expr.fn.SimpleFunctionHolder;
 import com.dremio.exec.record.VectorAccessible;
 import com.dremio.sabot.exec.context.FunctionContext;
@@ -89,6 +90,15 @@ public class InterpreterEvaluator {
 
   }
 
+  /**
+   * Checks if an expression can be evaluated by {@link #evaluate(int, FunctionContext, VectorAccessible, ValueVector, LogicalExpression)}
+   * with the same results as the generated code: the expression must produce a scalar value, and only use simple
+   * functions without workspace variables, scalar columns and constants.
+   */
+  public static boolean isInterpretable(LogicalExpression expr) {
+    return expr.getCompleteType().isScalar() && expr.accept(new InterpretableVisitor(), null);
+  }
+
   private static class InitVisitor extends AbstractExprVisitor<LogicalExpression, VectorAccessible, RuntimeException> {
 
     private FunctionContext functionContext;
@@ -149,6 +159,131 @@ public class InterpreterEvaluator {
   }
 
 
+  private static class InterpretableVisitor extends AbstractExprVisitor<Boolean, Void, RuntimeException> {
+
+    @Override
+    public Boolean visitFunctionHolderExpression(FunctionHolderExpression holderExpr, Void value) {
+      if (!(holderExpr instanceof FunctionHolderExpr) || !(holderExpr.getHolder() instanceof SimpleFunctionHolder)) {
+        return false;
+      }
+
+      final SimpleFunctionHolder holder = (SimpleFunctionHolder) holderExpr.getHolder();
+      if (holder.getReturnValue().isComplexWriter()) {
+        return false;
+      }
+      for (WorkspaceReference workspaceVar : holder.getWorkspaceVars()) {
+        // workspace variables are initialized by the generated code only
+        if (!workspaceVar.isInject()) {
+          return false;
+        }
+      }
+      for (int i = 0; i < holder.getParamCount(); i++) {
+        if (holder.isFieldReader(i) || holder.getParameters()[i].getOldType() == null) {
+          return false;
+        }
+      }
+      return visitChildren(holderExpr);
+    }
+
+    @Override
+    public Boolean visitIfExpression(IfExpression ifExpr, Void value) {
+      return visitChildren(ifExpr);
+    }
+
+    @Override
+    public Boolean visitCaseExpression(CaseExpression caseExpression, Void value) {
+      return visitChildren(caseExpression);
+    }
+
+    @Override
+    public Boolean visitBooleanOperator(BooleanOperator op, Void value) {
+      return visitChildren(op);
+    }
+
+    @Override
+    public Boolean visitIntConstant(ValueExpressions.IntExpression intExpr, Void value) {
+      return true;
+    }
+
+    @Override
+    public Boolean visitLongConstant(ValueExpressions.LongExpression intExpr, Void value) {
+      return true;
+    }
+
+    @Override
+    public Boolean visitFloatConstant(ValueExpressions.FloatExpression fExpr, Void value) {
+      return true;
+    }
+
+    @Override
+    public Boolean visitDoubleConstant(ValueExpressions.DoubleExpression dExpr, Void value) {
+      return true;
+    }
+
+    @Override
+    public Boolean visitDecimalConstant(ValueExpressions.DecimalExpression decExpr, Void value) {
+      return true;
+    }
+
+    @Override
+    public Boolean visitDateConstant(ValueExpressions.DateExpression intExpr, Void value) {
+      return true;
+    }
+
+    @Override
+    public Boolean visitTimeConstant(ValueExpressions.TimeExpression intExpr, Void value) {
+      return true;
+    }
+
+    @Override
+    public Boolean visitTimeStampConstant(ValueExpressions.TimeStampExpression intExpr, Void value) {
+      return true;
+    }
+
+    @Override
+    public Boolean visitIntervalYearConstant(ValueExpressions.IntervalYearExpression intExpr, Void value) {
+      return true;
+    }
+
+    @Override
+    public Boolean visitIntervalDayConstant(ValueExpressions.IntervalDayExpression intExpr, Void value) {
+      return true;
+    }
+
+    @Override
+    public Boolean visitBooleanConstant(ValueExpressions.BooleanExpression e, Void value) {
+      return true;
+    }
+
+    @Override
+    public Boolean visitQuotedStringConstant(ValueExpressions.QuotedString e, Void value) {
+      return true;
+    }
+
+    @Override
+    public Boolean visitNullConstant(TypedNullConstant e, Void value) {
+      return true;
+    }
+
+    @Override
+    public Boolean visitUnknown(LogicalExpression e, Void value) {
+      if (e instanceof ValueVectorReadExpression) {
+        final ValueVectorReadExpression read = (ValueVectorReadExpression) e;
+        return !read.hasReadPath() && read.getCompleteType().isScalar();
+      }
+      return false;
+    }
+
+    private Boolean visitChildren(LogicalExpression e) {
+      for (LogicalExpression child : e) {
+        if (!child.accept(this, null)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
   public static class EvalVisitor extends AbstractExprVisitor<ValueHolder, Integer, RuntimeException> {
     private VectorAccessible incoming;
     private FunctionContext functionContext;
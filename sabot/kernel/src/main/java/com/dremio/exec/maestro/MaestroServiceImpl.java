@@ -30,6 +30,7 @@ import com.dremio.common.utils.protos.QueryIdHelper;
 import com.dremio.exec.ops.QueryContext;
 import com.dremio.exec.physical.PhysicalPlan;
 import com.dremio.exec.planner.PhysicalPlanReader;
+import com.dremio.exec.planner.fragment.ExecutorLoadTracker;
 import com.dremio.exec.planner.observer.AttemptObserver;
 import com.dremio.exec.proto.CoordExecRPC;
 import com.dremio.exec.proto.CoordExecRPC.NodeQueryCompletion;
@@ -88,6 +89,8 @@ public class MaestroServiceImpl implements MaestroService {
   // single map of currently running queries
   private final ConcurrentMap<QueryId, QueryTracker> activeQueryMap = Maps.newConcurrentMap();
   private final CloseableSchedulerThreadPool closeableSchedulerThreadPool;
+  // fragments started by this coordinator on each executor
+  private final ExecutorLoadTracker executorLoadTracker = new ExecutorLoadTracker();
 
   private final Provider<MaestroForwarder> forwarder;
 
@@ -145,7 +148,7 @@ public class MaestroServiceImpl implements MaestroService {
       resourceAllocator.get(), executorSetService.get(), executorSelectionService.get(),
       executorServiceClientFactory.get(), jobTelemetryClient.get(), observer,
       listener,
-      () -> closeQuery(queryId), closeableSchedulerThreadPool);
+      () -> closeQuery(queryId), closeableSchedulerThreadPool, executorLoadTracker);
     Preconditions.checkState(activeQueryMap.putIfAbsent(queryId, queryTracker) == null,
     "query already queued for execution " + QueryIdHelper.getQueryId(queryId));
 
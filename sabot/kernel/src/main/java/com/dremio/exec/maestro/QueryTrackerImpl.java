@@ -23,6 +23,7 @@ import com.dremio.exec.ops.QueryContext;
 import com.dremio.exec.physical.PhysicalPlan;
 import com.dremio.exec.planner.PhysicalPlanReader;
 import com.dremio.exec.planner.fragment.ExecutionPlanningResources;
+import com.dremio.exec.planner.fragment.ExecutorLoadTracker;
 import com.dremio.exec.proto.CoordExecRPC.NodeQueryCompletion;
 import com.dremio.exec.proto.CoordExecRPC.NodeQueryFirstError;
 import com.dremio.exec.proto.CoordExecRPC.NodeQueryScreenCompletion;
@@ -67,6 +68,7 @@ public class QueryTrackerImpl implements QueryTracker {
   private final MaestroObserver observer;
   private final ExecutorServiceClientFactory executorServiceClientFactory;
   private final JobTelemetryClient jobTelemetryClient;
+  private final ExecutorLoadTracker executorLoadTracker;
 
   private final FragmentTracker fragmentTracker;
   private volatile ProgressTracker progressTracker;
@@ -74,6 +76,7 @@ public class QueryTrackerImpl implements QueryTracker {
   private volatile ExecutionPlan executionPlan;
   private volatile ResourceTracker resourceTracker;
   private volatile ExecutionPlanningResources executionPlanningResources;
+  private volatile ExecutorLoadTracker.Registration executorLoadRegistration;
 
   QueryTrackerImpl(
     QueryId queryId,
@@ -88,7 +91,8 @@ public class QueryTrackerImpl implements QueryTracker {
     MaestroObserver observer,
     CompletionListener listener,
     Runnable queryCloser,
-    CloseableSchedulerThreadPool closeableSchedulerThreadPool) {
+    CloseableSchedulerThreadPool closeableSchedulerThreadPool,
+    ExecutorLoadTracker executorLoadTracker) {
 
     this.queryId = queryId;
     this.context = context;
@@ -99,6 +103,7 @@ public class QueryTrackerImpl implements QueryTracker {
     this.executorServiceClientFactory = executorServiceClientFactory;
     this.jobTelemetryClient = jobTelemetryClient;
     this.observer = observer;
+    this.executorLoadTracker = executorLoadTracker;
 
     this.fragmentTracker = new FragmentTracker(queryId, listener,
       queryCloser, executorServiceClientFactory, executorSetService, closeableSchedulerThreadPool);
@@ -112,7 +117,8 @@ public class QueryTrackerImpl implements QueryTracker {
   @Override
   public void planExecution() throws ExecutionSetupException {
     executionPlanningResources = ExecutionPlanCreator.getParallelizationInfo(context, observer,
-      physicalPlan, executorSelectionService, resourceTracker.getResourceSchedulingDecisionInfo());
+      physicalPlan, executorSelectionService, resourceTracker.getResourceSchedulingDecisionInfo(),
+      executorLoadTracker);
 
     injector.injectChecked(context.getExecutionControls(),
       INJECTOR_EXECUTION_PLANNING_ERROR, ExecutionSetupException.class);
@@ -148,6 +154,8 @@ public class QueryTrackerImpl implements QueryTracker {
       FragmentStarter starter = new FragmentStarter(executorServiceClientFactory,
         resourceTracker.getResourceSchedulingDecisionInfo(),
         context.getExecutionControls());
+      // account for the fragments before they start, so that concurrently planned queries see them.
+      executorLoadRegistration = executorLoadTracker.register(executionPlan.getFragments());
       starter.start(executionPlan, MaestroObservers.of(observer, fragmentActivateObserver));
       executionPlan = null; // no longer needed
 
@@ -164,6 +172,10 @@ public class QueryTrackerImpl implements QueryTracker {
       INJECTOR_NODE_COMPLETION_ERROR, RpcException.class);
 
     fragmentTracker.nodeCompleted(completion);
+    final ExecutorLoadTracker.Registration registration = executorLoadRegistration;
+    if (registration != null) {
+      registration.release(completion.getEndpoint());
+    }
   }
 
   @Override
@@ -189,7 +201,7 @@ public class QueryTrackerImpl implements QueryTracker {
   @Override
   public void close() throws Exception {
     AutoCloseables.close(resourceTracker, fragmentTracker, progressTracker,
-      executionPlanningResources);
+      executionPlanningResources, executorLoadRegistration);
   }
 
 }
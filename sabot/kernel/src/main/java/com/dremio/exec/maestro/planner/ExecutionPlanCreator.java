@@ -29,6 +29,7 @@ import com.dremio.exec.physical.PhysicalPlan;
 import com.dremio.exec.physical.base.Root;
 import com.dremio.exec.planner.PhysicalPlanReader;
 import com.dremio.exec.planner.fragment.ExecutionPlanningResources;
+import com.dremio.exec.planner.fragment.ExecutorLoadTracker;
 import com.dremio.exec.planner.fragment.Fragment;
 import com.dremio.exec.planner.fragment.MakeFragmentsVisitor;
 import com.dremio.exec.planner.fragment.PlanFragmentFull;
@@ -65,6 +66,17 @@ public class ExecutionPlanCreator {
     final PhysicalPlan plan,
     ExecutorSelectionService executorSelectionService,
     ResourceSchedulingDecisionInfo resourceSchedulingDecisionInfo) throws ExecutionSetupException {
+    return getParallelizationInfo(queryContext, observer, plan, executorSelectionService,
+      resourceSchedulingDecisionInfo, ExecutorLoadTracker.NO_OP);
+  }
+
+  public static ExecutionPlanningResources getParallelizationInfo(
+    final QueryContext queryContext,
+    MaestroObserver observer,
+    final PhysicalPlan plan,
+    ExecutorSelectionService executorSelectionService,
+    ResourceSchedulingDecisionInfo resourceSchedulingDecisionInfo,
+    ExecutorLoadTracker executorLoadTracker) throws ExecutionSetupException {
 
     final Root rootOperator = plan.getRoot();
     final Fragment rootFragment = rootOperator.accept(MakeFragmentsVisitor.INSTANCE, null);
@@ -72,7 +84,7 @@ public class ExecutionPlanCreator {
     observer.planParallelStart();
     final Stopwatch stopwatch = Stopwatch.createStarted();
     final ExecutionPlanningResources executionPlanningResources = SimpleParallelizer.getExecutionPlanningResources(queryContext, observer, executorSelectionService,
-      resourceSchedulingDecisionInfo, rootFragment);
+      resourceSchedulingDecisionInfo, rootFragment, executorLoadTracker);
     observer.planParallelized(executionPlanningResources.getPlanningSet());
     stopwatch.stop();
     observer.planAssignmentTime(stopwatch.elapsed(TimeUnit.MILLISECONDS));
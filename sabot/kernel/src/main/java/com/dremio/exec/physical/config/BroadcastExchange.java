@@ -15,6 +15,8 @@
  */
 package com.dremio.exec.physical.config;
 
+import java.math.RoundingMode;
+
 import com.dremio.exec.physical.PhysicalOperatorSetupException;
 import com.dremio.exec.physical.base.AbstractExchange;
 import com.dremio.exec.physical.base.OpProps;
@@ -24,26 +26,55 @@ import com.dremio.exec.physical.base.Receiver;
 import com.dremio.exec.physical.base.Sender;
 import com.dremio.exec.planner.fragment.EndpointsIndex;
 import com.dremio.exec.record.BatchSchema;
+import com.google.common.math.LongMath;
 
 public class BroadcastExchange extends AbstractExchange {
 
+  private final long recordLimit;
+
   public BroadcastExchange(
       OpProps props,
       OpProps senderProps,
       OpProps receiverProps,
       BatchSchema schema,
       PhysicalOperator child) {
+    this(props, senderProps, receiverProps, schema, child, 0);
+  }
+
+  /**
+   * @param recordLimit maximum number of records all the senders may broadcast before failing the attempt,
+   *                    0 if unlimited
+   */
+  public BroadcastExchange(
+      OpProps props,
+      OpProps senderProps,
+      OpProps receiverProps,
+      BatchSchema schema,
+      PhysicalOperator child,
+      long recordLimit) {
     super(props, senderProps, receiverProps, schema, child);
+    this.recordLimit = recordLimit;
+  }
+
+  public BroadcastExchange withRecordLimit(long recordLimit) {
+    return new BroadcastExchange(props, senderProps, receiverProps, schema, child, recordLimit);
+  }
+
+  public long getRecordLimit() {
+    return recordLimit;
   }
 
   @Override
   protected PhysicalOperator getNewWithChild(PhysicalOperator child) {
-    return new BroadcastExchange(props, senderProps, receiverProps, schema, child);
+    return new BroadcastExchange(props, senderProps, receiverProps, schema, child, recordLimit);
   }
 
   @Override
   public Sender getSender(int minorFragmentId, PhysicalOperator child, EndpointsIndex.Builder builder) throws PhysicalOperatorSetupException {
-    return new BroadcastSender(senderProps, schema, child, receiverMajorFragmentId, PhysicalOperatorUtil.getIndexOrderedEndpoints(receiverLocations, builder));
+    // each sender gets an even share of the limit
+    final long senderRecordLimit = recordLimit == 0 ? 0 : LongMath.divide(recordLimit, senderLocations.size(), RoundingMode.CEILING);
+    return new BroadcastSender(senderProps, schema, child, receiverMajorFragmentId,
+      PhysicalOperatorUtil.getIndexOrderedEndpoints(receiverLocations, builder), senderRecordLimit);
   }
 
   @Override
@@ -32,6 +32,17 @@ import com.fasterxml.jackson.annotation.JsonTypeName;
 @JsonTypeName("broadcast-sender")
 public class BroadcastSender extends AbstractSender {
   private final List<MinorFragmentIndexEndpoint> destinations;
+  private final long recordLimit;
+
+  public BroadcastSender(
+      OpProps props,
+      BatchSchema schema,
+      PhysicalOperator child,
+      int receiverMajorFragmentId,
+      List<MinorFragmentIndexEndpoint> destinations
+      ) {
+    this(props, schema, child, receiverMajorFragmentId, destinations, 0);
+  }
 
   @JsonCreator
   public BroadcastSender(
@@ -39,15 +50,17 @@ public class BroadcastSender extends AbstractSender {
       @JsonProperty("schema") BatchSchema schema,
       @JsonProperty("child") PhysicalOperator child,
       @JsonProperty("receiverMajorFragmentId") int receiverMajorFragmentId,
-      @JsonProperty("destinations") List<MinorFragmentIndexEndpoint> destinations
+      @JsonProperty("destinations") List<MinorFragmentIndexEndpoint> destinations,
+      @JsonProperty("recordLimit") long recordLimit
       ) {
     super(props, schema, child, receiverMajorFragmentId);
     this.destinations = destinations;
+    this.recordLimit = recordLimit;
   }
 
   @Override
   protected PhysicalOperator getNewWithChild(PhysicalOperator child) {
-    return new BroadcastSender(props, schema, child, receiverMajorFragmentId, destinations);
+    return new BroadcastSender(props, schema, child, receiverMajorFragmentId, destinations, recordLimit);
   }
 
   @Override
@@ -60,6 +73,13 @@ public class BroadcastSender extends AbstractSender {
     return destinations;
   }
 
+  /**
+   * @return maximum number of records this sender may broadcast, 0 if unlimited
+   */
+  public long getRecordLimit() {
+    return recordLimit;
+  }
+
   @Override
   public int getOperatorType() {
     return CoreOperatorType.BROADCAST_SENDER_VALUE;
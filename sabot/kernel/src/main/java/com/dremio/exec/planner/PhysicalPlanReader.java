@@ -23,7 +23,9 @@ import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Provider;
 
@@ -35,6 +37,7 @@ import com.dremio.common.config.SabotConfig;
 import com.dremio.common.scanner.persistence.ScanResult;
 import com.dremio.common.serde.ProtobufByteStringSerDe;
 import com.dremio.common.types.TypeProtos.MajorType;
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.catalog.ConnectionReader;
 import com.dremio.exec.catalog.conf.ConnectionConf;
 import com.dremio.exec.physical.PhysicalPlan;
@@ -47,19 +50,26 @@ import com.dremio.exec.record.MajorTypeSerDe;
 import com.dremio.exec.server.SabotContext;
 import com.dremio.exec.store.CatalogService;
 import com.dremio.options.OptionList;
+import com.dremio.options.OptionManager;
 import com.dremio.service.namespace.source.proto.SourceConfig;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.BeanProperty;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.InjectableValues;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.io.CharStreams;
+import com.google.common.io.CountingInputStream;
 import com.hubspot.jackson.datatype.protobuf.ProtobufModule;
 
 import io.protostuff.ByteString;
@@ -68,12 +78,34 @@ import io.protostuff.ByteString;
 public class PhysicalPlanReader {
   static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(PhysicalPlanReader.class);
 
+  // estimated heap used by the cached fragments
+  private static final long FRAGMENT_TEMPLATES_MAX_WEIGHT = 128 * 1024 * 1024;
+  // deserialized operator trees take several times the size of their json on heap
+  private static final int FRAGMENT_TEMPLATE_HEAP_PER_JSON_BYTE = 4;
+  private static final long FRAGMENT_TEMPLATES_EXPIRE_AFTER_ACCESS_MINUTES = 30;
+  // Injected values that give operators access to live, node-level state. Fragments that use them are not shared
+  // across queries.
+  private static final Set<String> STATEFUL_INJECTABLES = ImmutableSet.of(
+      CatalogService.class.getName(),
+      SabotContext.class.getName());
+
   private final ObjectReader physicalPlanReader;
   private final ObjectMapper mapper;
   private final ObjectReader optionListReader;
   private final ObjectReader operatorReader;
   private final LogicalPlanPersistence lpPersistance;
   private final Map<String,Object> injectables;
+  private final SabotContext context;
+  // Deserialized fragments, shared across queries that run the same (cached) plan.
+  //
+  // The shared trees must never be modified: executors only read them, and MinorDataPopulator creates new operators
+  // (getNewWithChildren) before populating the minor specific attributes. The operator properties shared by the
+  // copies, such as memory limits, are only set on the coordinator, before the fragments are serialized.
+  private final Cache<FragmentKey, FragmentTemplate> fragmentTemplates = CacheBuilder.newBuilder()
+      .maximumWeight(FRAGMENT_TEMPLATES_MAX_WEIGHT)
+      .weigher((FragmentKey key, FragmentTemplate template) -> template.weight)
+      .expireAfterAccess(FRAGMENT_TEMPLATES_EXPIRE_AFTER_ACCESS_MINUTES, TimeUnit.MINUTES)
+      .build();
 
   public PhysicalPlanReader(
       SabotConfig config,
@@ -84,6 +116,7 @@ public class PhysicalPlanReader {
       SabotContext context) {
 
     this.lpPersistance = lpPersistance;
+    this.context = context;
 
     final ObjectMapper lpMapper = lpPersistance.getMapper();
 
@@ -219,6 +252,53 @@ public class PhysicalPlanReader {
     }
   }
 
+  /**
+   * Reads a fragment that is used as a template by the minor fragments of a query: the returned tree is never
+   * modified, and is shared with later queries that send the exact same fragment, unless it references live
+   * node state (catalog, plugins...).
+   */
+  public FragmentRoot readFragmentTemplate(com.google.protobuf.ByteString json, FragmentCodec codec) throws JsonProcessingException, IOException {
+    if (!isFragmentTemplateCacheEnabled()) {
+      return readFragmentOperator(json, codec);
+    }
+
+    final FragmentKey key = new FragmentKey(json, codec);
+    final FragmentTemplate cached = fragmentTemplates.getIfPresent(key);
+    if (cached != null) {
+      return cached.root;
+    }
+
+    final TrackingInjectableValues injectableValues = new TrackingInjectableValues(new HashMap<>(injectables));
+    final PhysicalOperator op;
+    final long decodedSize;
+    // count the decoded bytes while reading, the weight of the template is estimated from them
+    try (CountingInputStream input = new CountingInputStream(toInputStream(json, codec))) {
+      op = mapper.readerFor(PhysicalOperator.class).with(injectableValues).readValue(input);
+      decodedSize = input.getCount();
+    }
+    if (!(op instanceof FragmentRoot)) {
+      throw new UnsupportedOperationException(String.format("The provided json fragment doesn't have a FragmentRoot as its root operator.  The operator was %s.", op.getClass().getCanonicalName()));
+    }
+    if (!injectableValues.usedStatefulValue) {
+      fragmentTemplates.put(key, new FragmentTemplate((FragmentRoot) op, getTemplateWeight(json.size(), decodedSize)));
+    }
+    return (FragmentRoot) op;
+  }
+
+  /**
+   * Estimates the heap used by a cached fragment from the size of its decoded json, as compressed fragments are
+   * several times smaller than their json.
+   */
+  private static int getTemplateWeight(int encodedSize, long decodedSize) {
+    return (int) Math.min(Integer.MAX_VALUE, encodedSize + decodedSize * FRAGMENT_TEMPLATE_HEAP_PER_JSON_BYTE);
+  }
+
+  private boolean isFragmentTemplateCacheEnabled() {
+    // the context may not be fully initialized (or mocked) when the reader is used outside of query execution
+    final OptionManager optionManager = context == null ? null : context.getOptionManager();
+    return optionManager != null && optionManager.getOption(ExecConstants.FRAGMENT_TEMPLATE_CACHE_ENABLED);
+  }
+
   private <T> T readValue(ObjectReader reader, com.google.protobuf.ByteString json, FragmentCodec codec)
       throws IOException {
     codec = codec != null ? codec : FragmentCodec.NONE;
@@ -251,4 +331,61 @@ public class PhysicalPlanReader {
   public LogicalPlanPersistence getLpPersistance(){
     return lpPersistance;
   }
+
+  /**
+   * Injectable values that remember if an operator was given access to live node state.
+   */
+  private static final class TrackingInjectableValues extends InjectableValues.Std {
+    private boolean usedStatefulValue;
+
+    private TrackingInjectableValues(Map<String, Object> values) {
+      super(values);
+    }
+
+    @Override
+    public Object findInjectableValue(Object valueId, DeserializationContext ctxt, BeanProperty forProperty,
+                                      Object beanInstance) throws JsonMappingException {
+      if (STATEFUL_INJECTABLES.contains(valueId)) {
+        usedStatefulValue = true;
+      }
+      return super.findInjectableValue(valueId, ctxt, forProperty, beanInstance);
+    }
+  }
+
+  private static final class FragmentTemplate {
+    private final FragmentRoot root;
+    private final int weight;
+
+    private FragmentTemplate(FragmentRoot root, int weight) {
+      this.root = root;
+      this.weight = weight;
+    }
+  }
+
+  private static final class FragmentKey {
+    private final com.google.protobuf.ByteString json;
+    private final FragmentCodec codec;
+
+    private FragmentKey(com.google.protobuf.ByteString json, FragmentCodec codec) {
+      this.json = json;
+      this.codec = codec != null ? codec : FragmentCodec.NONE;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final FragmentKey that = (FragmentKey) o;
+      return codec == that.codec && json.equals(that.json);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(json, codec);
+    }
+  }
 }
@@ -292,6 +292,10 @@ public abstract class JoinRelBase extends Join {
     return this.rightKeys;
   }
 
+  public List<Boolean> getFilterNulls() {
+    return filterNulls;
+  }
+
   public RexNode getRemaining() {
     return remaining;
   }
@@ -74,7 +74,7 @@ public class CachedFragmentReader extends AbstractPhysicalVisitor<PhysicalOperat
 
     FragmentRoot root = majorIdToRootMap.computeIfAbsent(majorId, k -> {
       try {
-        return reader.readFragmentOperator(major.getFragmentJson(), major.getFragmentCodec());
+        return reader.readFragmentTemplate(major.getFragmentJson(), major.getFragmentCodec());
       } catch (final Exception e) {
         throw new RuntimeException(e);
       }
@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.planner.fragment;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.dremio.common.nodes.EndpointHelper;
+import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
+import com.google.common.math.LongMath;
+
+/**
+ * Tracks, per executor, the minor fragments and the memory that queries started by this coordinator
+ * currently hold. The {@link SimpleParallelizer} uses it to reduce parallelism when the selected executors
+ * are busy and to favor the least loaded executors when assigning fragments.
+ *
+ * Executors are tracked by their minimal endpoint, as reported in fragment assignments and node completions.
+ */
+public class ExecutorLoadTracker {
+
+  public static final ExecutorLoadTracker NO_OP = new ExecutorLoadTracker() {
+    @Override
+    public Registration register(List<PlanFragmentFull> fragments) {
+      return new Registration(this, new HashMap<>());
+    }
+  };
+
+  private final ConcurrentMap<NodeEndpoint, Load> loads = new ConcurrentHashMap<>();
+
+  /**
+   * Records the fragments of a query as running on their assigned executors.
+   *
+   * @param fragments the fragments of the query
+   * @return registration that must be used to release the executors once they are done with the query
+   */
+  public Registration register(List<PlanFragmentFull> fragments) {
+    final Map<NodeEndpoint, Load> queryLoads = new HashMap<>();
+    for (PlanFragmentFull fragment : fragments) {
+      final NodeEndpoint endpoint = EndpointHelper.getMinimalEndpoint(fragment.getMinor().getAssignment());
+      final Load queryLoad = queryLoads.computeIfAbsent(endpoint, e -> new Load());
+      queryLoad.fragments++;
+      // memory limits are enforced per query and per node, not per fragment
+      queryLoad.memory = Math.max(queryLoad.memory, fragment.getMinor().getMemMax());
+    }
+
+    for (Map.Entry<NodeEndpoint, Load> entry : queryLoads.entrySet()) {
+      loads.merge(entry.getKey(), entry.getValue().copy(), Load::plus);
+    }
+    return new Registration(this, queryLoads);
+  }
+
+  /**
+   * @return number of minor fragments started by this coordinator and still running on the executor
+   */
+  public int getRunningFragments(NodeEndpoint endpoint) {
+    final Load load = loads.get(EndpointHelper.getMinimalEndpoint(endpoint));
+    return load == null ? 0 : load.fragments;
+  }
+
+  /**
+   * @return memory reserved on the executor by queries started by this coordinator
+   */
+  public long getReservedMemory(NodeEndpoint endpoint) {
+    final Load load = loads.get(EndpointHelper.getMinimalEndpoint(endpoint));
+    return load == null ? 0 : load.memory;
+  }
+
+  private void release(NodeEndpoint endpoint, Load queryLoad) {
+    loads.computeIfPresent(endpoint, (e, current) -> current.minus(queryLoad));
+  }
+
+  /**
+   * Handle to the load of a single query.
+   */
+  public static final class Registration implements AutoCloseable {
+    private final ExecutorLoadTracker tracker;
+    private final Map<NodeEndpoint, Load> queryLoads;
+
+    private Registration(ExecutorLoadTracker tracker, Map<NodeEndpoint, Load> queryLoads) {
+      this.tracker = tracker;
+      this.queryLoads = queryLoads;
+    }
+
+    /**
+     * Releases the load of the query on the given executor, once it reported completion.
+     */
+    public synchronized void release(NodeEndpoint endpoint) {
+      final NodeEndpoint minimalEndpoint = EndpointHelper.getMinimalEndpoint(endpoint);
+      final Load queryLoad = queryLoads.remove(minimalEndpoint);
+      if (queryLoad != null) {
+        tracker.release(minimalEndpoint, queryLoad);
+      }
+    }
+
+    @Override
+    public synchronized void close() {
+      for (Map.Entry<NodeEndpoint, Load> entry : queryLoads.entrySet()) {
+        tracker.release(entry.getKey(), entry.getValue());
+      }
+      queryLoads.clear();
+    }
+  }
+
+  /**
+   * Load of an executor. Instances stored in the tracker map are never mutated.
+   */
+  private static final class Load {
+    private int fragments;
+    private long memory;
+
+    private Load copy() {
+      final Load copy = new Load();
+      copy.fragments = fragments;
+      copy.memory = memory;
+      return copy;
+    }
+
+    private Load plus(Load other) {
+      final Load sum = copy();
+      sum.fragments += other.fragments;
+      sum.memory = LongMath.saturatedAdd(sum.memory, other.memory);
+      return sum;
+    }
+
+    private Load minus(Load other) {
+      final Load difference = copy();
+      difference.fragments -= other.fragments;
+      difference.memory = Math.max(0, difference.memory - other.memory);
+      // returning null removes idle executors from the map
+      return difference.fragments <= 0 ? null : difference;
+    }
+  }
+}
@@ -15,6 +15,8 @@
  */
 package com.dremio.exec.planner.fragment;
 
+import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
+
 /**
  * Interface to implement for passing parameters to {@link FragmentParallelizer}.
  */
@@ -54,4 +56,18 @@ public interface ParallelizationParameters {
    * @return true if affinity should be ignored for leaf fragments.
    */
   boolean shouldIgnoreLeafAffinity();
+
+  /**
+   * @return Number of fragments known to be running on the given endpoint. Used to favor the least loaded endpoints.
+   */
+  default int getRunningFragments(NodeEndpoint endpoint) {
+    return 0;
+  }
+
+  /**
+   * @return Memory known to be reserved on the given endpoint.
+   */
+  default long getReservedMemory(NodeEndpoint endpoint) {
+    return 0;
+  }
 }
@@ -82,9 +82,9 @@ import com.google.protobuf.ByteString;
 
 /**
  * The simple parallelizer determines the level of parallelization of a plan based on the cost of the underlying
- * operations.  It doesn't take into account system load or other factors.  Based on the cost of the query, the
+ * operations, reduced when the cluster or the selected executors are loaded.  Based on the cost of the query, the
  * parallelization for each major fragment will be determined.  Once the amount of parallelization is done, assignment
- * is done based on round robin assignment ordered by operator affinity (locality) to available execution SabotNodes.
+ * is done based on operator affinity (locality) first, and then on the least loaded available execution SabotNodes.
  */
 public class SimpleParallelizer implements ParallelizationParameters {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(SimpleParallelizer.class);
@@ -103,6 +103,7 @@ public class SimpleParallelizer implements ParallelizationParameters {
   private ExecutorSelectionService executorSelectionService;  // NB: re-assigned in unit tests, hence not final
   private final int targetNumFragsPerNode;
   private final boolean shouldIgnoreLeafAffinity;
+  private ExecutorLoadTracker executorLoadTracker = ExecutorLoadTracker.NO_OP;
 
   public SimpleParallelizer(QueryContext context, MaestroObserver observer, ExecutorSelectionService executorSelectionService) {
     this(context, observer, executorSelectionService, null, context.getGroupResourceInformation());
@@ -206,6 +207,42 @@ public class SimpleParallelizer implements ParallelizationParameters {
     return shouldIgnoreLeafAffinity;
   }
 
+  @Override
+  public int getRunningFragments(NodeEndpoint endpoint) {
+    return executorLoadTracker.getRunningFragments(endpoint);
+  }
+
+  @Override
+  public long getReservedMemory(NodeEndpoint endpoint) {
+    return executorLoadTracker.getReservedMemory(endpoint);
+  }
+
+  /**
+   * Reduce the max width per node when the selected executors are already running many fragments started by
+   * this coordinator. Uses the same cutoff and reduction as the cluster-wide load computed from the work stats.
+   */
+  private void applyExecutorLoad(Collection<NodeEndpoint> selectedEndpoints) {
+    if (selectedEndpoints.isEmpty() || maxWidthPerNode <= 1) {
+      return;
+    }
+
+    final OptionManager optionManager = queryContext.getOptions();
+    final double averageFragments = selectedEndpoints.stream()
+      .mapToInt(executorLoadTracker::getRunningFragments)
+      .average()
+      .orElse(0);
+    final double executorLoad = averageFragments / maxWidthPerNode;
+    if (executorLoad < optionManager.getOption(ExecConstants.LOAD_CUT_OFF)) {
+      return;
+    }
+
+    final double loadFactor = Math.max(0, 1 - executorLoad * optionManager.getOption(ExecConstants.LOAD_REDUCTION));
+    final int previousMaxWidthPerNode = maxWidthPerNode;
+    maxWidthPerNode = (int) Math.max(1, maxWidthPerNode * loadFactor);
+    logger.debug("Selected executors load {} exceeded cutoff, max_width reduced from {} to {}",
+      executorLoad, previousMaxWidthPerNode, maxWidthPerNode);
+  }
+
   /**
    * Generate a set of assigned fragments based on the provided fragment tree. Do not allow parallelization stages
    * to go beyond the global max width.
@@ -296,7 +333,24 @@ public class SimpleParallelizer implements ParallelizationParameters {
                                                                          ExecutorSelectionService executorSelectionService,
                                                                          ResourceSchedulingDecisionInfo resourceSchedulingDecisionInfo,
                                                                          Fragment rootFragment) throws ExecutionSetupException {
+    return getExecutionPlanningResources(context, observer, executorSelectionService, resourceSchedulingDecisionInfo,
+      rootFragment, ExecutorLoadTracker.NO_OP);
+  }
+
+  /**
+   * Select executors, parallelize fragments and get the planning resources, taking into account the fragments
+   * already running on the executors.
+   */
+  public static ExecutionPlanningResources getExecutionPlanningResources(QueryContext context,
+                                                                         MaestroObserver observer,
+                                                                         ExecutorSelectionService executorSelectionService,
+                                                                         ResourceSchedulingDecisionInfo resourceSchedulingDecisionInfo,
+                                                                         Fragment rootFragment,
+                                                                         ExecutorLoadTracker executorLoadTracker) throws ExecutionSetupException {
     SimpleParallelizer parallelizer = new SimpleParallelizer(context, observer, executorSelectionService, resourceSchedulingDecisionInfo, context.getGroupResourceInformation());
+    if (context.getOptions().getOption(ExecConstants.LOAD_AWARE_PARALLELIZATION)) {
+      parallelizer.executorLoadTracker = executorLoadTracker;
+    }
     PlanningSet planningSet = new PlanningSet();
     parallelizer.initFragmentWrappers(rootFragment, planningSet);
     final Set<Wrapper> leafFragments = constructFragmentDependencyGraph(planningSet);
@@ -332,6 +386,7 @@ public class SimpleParallelizer implements ParallelizationParameters {
     if (selectedEndpoints.isEmpty()) {
       ExecutorSelectionUtils.throwEngineOffline(resourceSchedulingDecisionInfo.getQueueTag());
     }
+    parallelizer.applyExecutorLoad(selectedEndpoints);
 
     for (Wrapper wrapper : leafFragments) {
       parallelizer.parallelizePhase(wrapper, planningSet, selectedEndpoints);
@@ -501,6 +556,13 @@ public class SimpleParallelizer implements ParallelizationParameters {
     final List<PlanFragmentFull> fragments = Lists.newArrayList();
     EndpointsIndex.Builder builder = indexBuilder.getEndpointsIndexBuilder();
     MajorFragmentAssignmentCache majorFragmentAssignmentsCache = new MajorFragmentAssignmentCache();
+    // options are the same for all the major fragments, serialize them once.
+    final ByteString optionsData;
+    try {
+      optionsData = reader.writeJsonBytes(options, fragmentCodec);
+    } catch (JsonProcessingException e) {
+      throw new ForemanSetupException("Failure while trying to convert options into json.", e);
+    }
     // now we generate all the individual plan fragments and associated assignments. Note, we need all endpoints
     // assigned before we can materialize, so we start a new loop here rather than utilizing the previous one.
     for (Wrapper wrapper : planningSet) {
@@ -568,10 +630,8 @@ public class SimpleParallelizer implements ParallelizationParameters {
 
           // get plan as JSON
           ByteString plan;
-          ByteString optionsData;
           try {
             plan = reader.writeJsonBytes(root, fragmentCodec);
-            optionsData = reader.writeJsonBytes(options, fragmentCodec);
           } catch (JsonProcessingException e) {
             throw new ForemanSetupException("Failure while trying to convert fragment into json.", e);
           }
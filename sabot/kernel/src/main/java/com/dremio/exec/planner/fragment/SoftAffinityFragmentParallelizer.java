@@ -21,6 +21,7 @@ import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
 
@@ -191,15 +192,45 @@ public class SoftAffinityFragmentParallelizer implements FragmentParallelizer {
         endpointsWithNoAffinity = Lists.newArrayList(Sets.difference(ImmutableSet.copyOf(activeEndpoints), endpointsWithAffinity));
       }
 
-      // round robin with random start.
+      // least loaded first, round robin with random start among equally loaded endpoints.
       Collections.shuffle(endpointsWithNoAffinity, ThreadLocalRandom.current());
-      Iterator<NodeEndpoint> otherEPItr =
-          Iterators.cycle(endpointsWithNoAffinity.size() > 0 ? endpointsWithNoAffinity : endpointsWithAffinity);
-      while (endpoints.size() < width) {
-        endpoints.add(otherEPItr.next());
-      }
+      final List<NodeEndpoint> candidates = endpointsWithNoAffinity.size() > 0
+          ? endpointsWithNoAffinity : ImmutableList.copyOf(endpointsWithAffinity);
+      endpoints.addAll(assignByLoad(candidates, width - endpoints.size(), parameters));
     }
 
     return endpoints;
   }
+
+  /**
+   * Picks {@code count} endpoints out of the given candidates, one at a time, choosing the endpoint with the fewest
+   * running fragments, counting the ones already picked. Ties are broken by memory reserved on the endpoint and then
+   * by the candidate order, so without any load this degrades to a round robin over the candidates.
+   */
+  private static List<NodeEndpoint> assignByLoad(final List<NodeEndpoint> candidates, final int count,
+                                                 final ParallelizationParameters parameters) {
+    final int[] projectedLoad = new int[candidates.size()];
+    final long[] reservedMemory = new long[candidates.size()];
+    for (int i = 0; i < candidates.size(); i++) {
+      projectedLoad[i] = parameters.getRunningFragments(candidates.get(i));
+      reservedMemory[i] = parameters.getReservedMemory(candidates.get(i));
+    }
+
+    final PriorityQueue<Integer> queue = new PriorityQueue<>(Math.max(1, candidates.size()),
+        Comparator.<Integer>comparingInt(i -> projectedLoad[i])
+          .thenComparingLong(i -> reservedMemory[i])
+          .thenComparingInt(i -> i));
+    for (int i = 0; i < candidates.size(); i++) {
+      queue.add(i);
+    }
+
+    final List<NodeEndpoint> assigned = Lists.newArrayListWithCapacity(count);
+    while (assigned.size() < count) {
+      final int next = queue.poll();
+      assigned.add(candidates.get(next));
+      projectedLoad[next]++;
+      queue.add(next);
+    }
+    return assigned;
+  }
 }
@@ -99,6 +99,12 @@ public interface AttemptObserver {
    */
   default void setCacheKey(long cacheKey) {};
 
+  /**
+   * Whether the results of the query only depend on the datasets it reads, i.e. the query calls no dynamic or
+   * non-deterministic function.
+   */
+  default void planResultsCacheable(boolean cacheable) {};
+
   /**
    * Plan that is serializable, just before convertible scans are converted
    * @param serializable
@@ -119,6 +119,13 @@ public class AttemptObservers implements AttemptObserver {
     }
   }
 
+  @Override
+  public void planResultsCacheable(boolean cacheable) {
+    for (final AttemptObserver observer : observers) {
+      observer.planResultsCacheable(cacheable);
+    }
+  }
+
   @Override
   public void planSerializable(RelNode serializable) {
     for (final AttemptObserver observer : observers) {
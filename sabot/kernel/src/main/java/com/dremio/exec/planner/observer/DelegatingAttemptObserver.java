@@ -75,6 +75,11 @@ public class DelegatingAttemptObserver implements AttemptObserver {
     observer.planValidated(rowType, node, millisTaken);
   }
 
+  @Override
+  public void planResultsCacheable(boolean cacheable) {
+    observer.planResultsCacheable(cacheable);
+  }
+
   @Override
   public void planSerializable(RelNode serializable) {
     observer.planSerializable(serializable);
@@ -172,6 +172,11 @@ public class OutOfBandAttemptObserver implements AttemptObserver {
     execute(() -> innerObserver.planCacheUsed(count));
   }
 
+  @Override
+  public void planResultsCacheable(boolean cacheable) {
+    execute(() -> innerObserver.planResultsCacheable(cacheable));
+  }
+
   @Override
   public void planSerializable(final RelNode serializable) {
     execute(() -> innerObserver.planSerializable(serializable));
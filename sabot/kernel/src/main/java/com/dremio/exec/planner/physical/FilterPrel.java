@@ -76,7 +76,9 @@ public class FilterPrel extends FilterRelBase implements Prel {
 
   @Override
   public SelectionVectorMode[] getSupportedEncodings() {
-    return SelectionVectorMode.DEFAULT;
+    // the selected records of the columns read are copied by the operator itself
+    return PrelUtil.getSettings(getCluster()).isSv2ConsumersEnabled() ?
+      SelectionVectorMode.NONE_AND_TWO : SelectionVectorMode.DEFAULT;
   }
 
   /**
@@ -38,6 +38,7 @@ import com.dremio.exec.ExecConstants;
 import com.dremio.exec.expr.ExpressionTreeMaterializer;
 import com.dremio.exec.expr.fn.FunctionLookupContext;
 import com.dremio.exec.physical.base.PhysicalOperator;
+import com.dremio.exec.physical.config.BroadcastExchange;
 import com.dremio.exec.physical.config.HashJoinPOP;
 import com.dremio.exec.planner.physical.filter.RuntimeFilterInfo;
 import com.dremio.exec.record.BatchSchema;
@@ -157,7 +158,13 @@ public class HashJoinPrel extends JoinPrel {
     final List<String> rightFields = currentRight.getRowType().getFieldNames();
 
     final PhysicalOperator leftPop = ((Prel)currentLeft).getPhysicalOperator(creator);
-    final PhysicalOperator rightPop = ((Prel)currentRight).getPhysicalOperator(creator);
+    PhysicalOperator rightPop = ((Prel)currentRight).getPhysicalOperator(creator);
+    if (rightPop instanceof BroadcastExchange) {
+      // the build side was broadcast based on estimates, fail the attempt (and re-plan without broadcast)
+      // if it turns out to be much larger.
+      rightPop = ((BroadcastExchange) rightPop).withRecordLimit(
+        PrelUtil.getPlannerSettings(getCluster()).getBroadcastRuntimeRecordLimit());
+    }
 
     final List<JoinCondition> conditions = Lists.newArrayList();
 
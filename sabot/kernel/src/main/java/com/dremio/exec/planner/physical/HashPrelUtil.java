@@ -143,6 +143,16 @@ public class HashPrelUtil {
   }
 
   public static ProjectPrel addHashProject(List<DistributionField> distFields, Prel input, Integer ringCount, String hashFunctionName){
+    return addHashProject(distFields, input, ringCount, hashFunctionName, ImmutableList.of());
+  }
+
+  /**
+   * Adds a project computing the hash of the distribution fields. The hash is null for the rows where any of the
+   * null spread fields is null, which the partition sender sends round robin. Only use for fields whose null
+   * values can't match anything on the receiving side.
+   */
+  public static ProjectPrel addHashProject(List<DistributionField> distFields, Prel input, Integer ringCount,
+                                           String hashFunctionName, List<Integer> nullSpreadFieldIds){
 
     // Insert Project SqlOperatorImpl with new column that will be a hash for HashToRandomExchange fields
 
@@ -173,6 +183,20 @@ public class HashPrelUtil {
       hashExpression = rexBuilder.makeCall(SqlStdOperatorTable.MOD, ImmutableList.of(hashExpression, rexBuilder.makeExactLiteral(BigDecimal.valueOf(ringCount), intType)));
       hashExpression = rexBuilder.makeCall(SqlStdOperatorTable.ABS, Collections.singletonList(hashExpression));
     }
+
+    if (!nullSpreadFieldIds.isEmpty()) {
+      final List<RexNode> isNullChecks = Lists.newArrayListWithExpectedSize(nullSpreadFieldIds.size());
+      for (int fieldId : nullSpreadFieldIds) {
+        isNullChecks.add(rexBuilder.makeCall(SqlStdOperatorTable.IS_NULL,
+          rexBuilder.makeInputRef(childRowTypeFields.get(fieldId).getType(), fieldId)));
+      }
+      final RelDataType nullableHashType = input.getCluster().getTypeFactory()
+        .createTypeWithNullability(hashExpression.getType(), true);
+      hashExpression = rexBuilder.makeCall(nullableHashType, SqlStdOperatorTable.CASE, ImmutableList.of(
+        RexUtil.composeDisjunction(rexBuilder, isNullChecks, false),
+        rexBuilder.makeNullLiteral(nullableHashType),
+        hashExpression));
+    }
     updatedExpr.add(hashExpression);
 
     RelDataType rowType = RexUtil.createStructType(input.getCluster().getTypeFactory(), updatedExpr, outputFieldNames);
@@ -93,11 +93,16 @@ public class PlannerSettings implements Context{
   public static final LongValidator BROADCAST_THRESHOLD = new PositiveLongValidator("planner.broadcast_threshold", MAX_BROADCAST_THRESHOLD, DEFAULT_BROADCAST_THRESHOLD);
   public static final LongValidator BROADCAST_CELL_COUNT_THRESHOLD = new PositiveLongValidator("planner.broadcast_cellcount_threshold", MAX_BROADCAST_THRESHOLD, DEFAULT_CELL_COUNT_THRESHOLD);
   public static final DoubleValidator BROADCAST_FACTOR = new RangeDoubleValidator("planner.broadcast_factor", 0, Double.MAX_VALUE, 2.0d);
+  // Fraction of planner.broadcast_threshold the build side of a broadcast hash join may reach at runtime before the
+  // query is re-attempted with broadcast joins disabled. 0 disables the runtime check.
+  public static final DoubleValidator BROADCAST_RUNTIME_LIMIT_FACTOR = new RangeDoubleValidator("planner.broadcast_runtime_limit_factor", 0, Double.MAX_VALUE, 10.0d);
   public static final DoubleValidator NESTEDLOOPJOIN_FACTOR = new RangeDoubleValidator("planner.nestedloopjoin_factor", 0, Double.MAX_VALUE, 100.0d);
   public static final LongValidator NESTEDLOOPJOIN_MAX_CONDITION_NODES = new PositiveLongValidator("planner.nestedloopjoin_max_condition_nodes", Long.MAX_VALUE, 120);
   public static final BooleanValidator NLJOIN_FOR_SCALAR = new BooleanValidator("planner.enable_nljoin_for_scalar_only", false);
   public static final DoubleValidator JOIN_ROW_COUNT_ESTIMATE_FACTOR = new RangeDoubleValidator("planner.join.row_count_estimate_factor", 0, Double.MAX_VALUE, 1.0d);
   public static final BooleanValidator MUX_EXCHANGE = new BooleanValidator("planner.enable_mux_exchange", true);
+  // send the probe side rows of hash joins that have null keys round robin, instead of to a single receiver
+  public static final BooleanValidator SPREAD_NULL_PROBE_KEYS = new BooleanValidator("planner.join.spread_null_probe_keys", true);
   public static final BooleanValidator DEMUX_EXCHANGE = new BooleanValidator("planner.enable_demux_exchange", false);
   public static final LongValidator PARTITION_SENDER_THREADS_FACTOR = new LongValidator("planner.partitioner_sender_threads_factor", 2);
   public static final LongValidator PARTITION_SENDER_MAX_THREADS = new LongValidator("planner.partitioner_sender_max_threads", 8);
@@ -231,7 +236,11 @@ public class PlannerSettings implements Context{
   /**
    * Controls whether to use the cached prepared statement handles more than once. Setting it to false will remove the
    * handle when it is used the first time before it expires. Setting it to true will reuse the handle as many times as
-   * it can before it expires.
+   * it can before it expires, as long as the datasets read by its plan do not change. Plans which evaluate functions
+   * such as NOW() or RAND() when planning are always used once.
+   *
+   * The executions of a reused handle share its physical plan, and each execution sets the memory limits of the plan's
+   * operators from the resources available when it starts, so reuse stays off by default.
    */
   public static final BooleanValidator REUSE_PREPARE_HANDLES = new BooleanValidator("planner.reuse_prepare_statement_handles", false);
 
@@ -311,6 +320,19 @@ public class PlannerSettings implements Context{
    */
   public static final BooleanValidator QUERY_PLAN_CACHE_ENABLED = new BooleanValidator("planner.query_plan_cache_enabled", false);
 
+  /**
+   * Options to control the coordinator-wide cache of parsed view definitions and the parallel
+   * resolution of tables referenced by a view before it is validated. A parallelism of 1 disables prefetching.
+   */
+  public static final BooleanValidator VIEW_DEFINITION_CACHE_ENABLED = new BooleanValidator("planner.view_definition_cache.enabled", true);
+  public static final RangeLongValidator VIEW_METADATA_PREFETCH_PARALLELISM = new RangeLongValidator("planner.view_expansion.metadata_prefetch_parallelism", 1, 64, 4);
+
+  /**
+   * Option to let projects and filters consume the selection vector of a filter, instead of copying the filtered
+   * batch first
+   */
+  public static final BooleanValidator SV2_CONSUMERS_ENABLED = new BooleanValidator("planner.enable_sv2_consumers", true);
+
   private final SabotConfig sabotConfig;
   private final ExecutionControls executionControls;
   public final OptionResolver options;
@@ -403,6 +425,18 @@ public class PlannerSettings implements Context{
     return options.getOption(BROADCAST_FACTOR);
   }
 
+  /**
+   * @return maximum number of records the build side of a broadcast hash join may send at runtime, 0 if unlimited
+   */
+  public long getBroadcastRuntimeRecordLimit() {
+    final double factor = options.getOption(BROADCAST_RUNTIME_LIMIT_FACTOR);
+    if (factor == 0 || !options.getOption(ExecConstants.ENABLE_REATTEMPTS)) {
+      // exceeding the limit is only recoverable through a re-attempt
+      return 0;
+    }
+    return (long) Math.min(Long.MAX_VALUE, factor * options.getOption(BROADCAST_THRESHOLD));
+  }
+
   public double getColumnUniquenessEstimationFactor(){
     return options.getOption(COLUMN_UNIQUENESS_ESTIMATION_FACTOR);
   }
@@ -459,6 +493,18 @@ public class PlannerSettings implements Context{
     return options.getOption(QUERY_PLAN_CACHE_ENABLED);
   }
 
+  public boolean isViewDefinitionCacheEnabled() {
+    return options.getOption(VIEW_DEFINITION_CACHE_ENABLED);
+  }
+
+  public boolean isSv2ConsumersEnabled() {
+    return options.getOption(SV2_CONSUMERS_ENABLED);
+  }
+
+  public int getViewMetadataPrefetchParallelism() {
+    return (int) options.getOption(VIEW_METADATA_PREFETCH_PARALLELISM);
+  }
+
   public long getCaseExpressionsThreshold() {
     return options.getOption(CASE_EXPRESSIONS_THRESHOLD);
   }
@@ -76,7 +76,7 @@ public class ProjectPrel extends ProjectRelBase implements Prel {
     List<NamedExpression> exprs = getProjectExpressions(new ParseContext(PrelUtil.getSettings(getCluster())));
     final BatchSchema schema = ExpressionTreeMaterializer.materializeFields(exprs, childSchema,
       creator.getFunctionLookupContext(), ALLOW_COMPLEX, ALLOW_GANDIVA_FUNCTIONS)
-        .setSelectionVectorMode(childSchema.getSelectionVectorMode())
+        .setSelectionVectorMode(SelectionVectorMode.NONE)
         .build();
 
     return new Project(
@@ -97,7 +97,9 @@ public class ProjectPrel extends ProjectRelBase implements Prel {
 
   @Override
   public SelectionVectorMode[] getSupportedEncodings() {
-    return SelectionVectorMode.DEFAULT;
+    // the selected records of the columns read are copied by the operator itself
+    return PrelUtil.getSettings(getCluster()).isSv2ConsumersEnabled() ?
+      SelectionVectorMode.NONE_AND_TWO : SelectionVectorMode.DEFAULT;
   }
 
   @Override
@@ -20,6 +20,7 @@ import java.util.Collections;
 import java.util.List;
 
 import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.core.JoinRelType;
 import org.apache.calcite.rel.type.RelDataType;
 import org.apache.calcite.rel.type.RelDataTypeField;
 import org.apache.calcite.rex.RexBuilder;
@@ -29,26 +30,41 @@ import org.apache.calcite.rex.RexUtil;
 import com.dremio.exec.ExecConstants;
 import com.dremio.exec.planner.physical.DistributionTrait;
 import com.dremio.exec.planner.physical.ExchangePrel;
+import com.dremio.exec.planner.physical.HashJoinPrel;
 import com.dremio.exec.planner.physical.HashPrelUtil;
 import com.dremio.exec.planner.physical.HashToMergeExchangePrel;
 import com.dremio.exec.planner.physical.HashToRandomExchangePrel;
+import com.dremio.exec.planner.physical.JoinPrel;
 import com.dremio.exec.planner.physical.PlannerSettings;
 import com.dremio.exec.planner.physical.Prel;
 import com.dremio.exec.planner.physical.ProjectPrel;
 import com.dremio.options.OptionManager;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 
 /**
  * Inserts proper projects to evaluate the hash expression before the sender and remove it afterwards.
+ *
+ * On the probe side of inner and right hash joins, rows with a null key can't match any build row and are dropped
+ * by the join. Their hash is set to null so the vectorized partition sender spreads them round robin, instead of
+ * sending all of them to the same receiver.
  * */
 public class InsertHashProjectVisitor extends BasePrelVisitor<Prel, Void, RuntimeException> {
 
+  private final boolean spreadNullProbeKeys;
+
+  private InsertHashProjectVisitor(boolean spreadNullProbeKeys) {
+    this.spreadNullProbeKeys = spreadNullProbeKeys;
+  }
+
   public static Prel insertHashProjects(Prel prel, OptionManager options) {
     final boolean isVectorizedPartitionSender = options.getOption(ExecConstants.ENABLE_VECTORIZED_PARTITIONER);
     final boolean muxEnabled = options.getOption(PlannerSettings.MUX_EXCHANGE);
 
     if (isVectorizedPartitionSender || muxEnabled) {
-      return prel.accept(new InsertHashProjectVisitor(), null);
+      final boolean spreadNullProbeKeys = isVectorizedPartitionSender
+        && options.getOption(PlannerSettings.SPREAD_NULL_PROBE_KEYS);
+      return prel.accept(new InsertHashProjectVisitor(spreadNullProbeKeys), null);
     }
 
     return prel;
@@ -73,18 +89,81 @@ public class InsertHashProjectVisitor extends BasePrelVisitor<Prel, Void, Runtim
     return (Prel) prel.copy(prel.getTraitSet(), Collections.singletonList(((RelNode)child)));
   }
 
+  @Override
+  public Prel visitJoin(JoinPrel prel, Void value) throws RuntimeException {
+    final List<Integer> nullSpreadKeys = spreadNullProbeKeys ? getNullRejectingProbeKeys(prel) : ImmutableList.of();
+    if (nullSpreadKeys.isEmpty()) {
+      return visitPrel(prel, value);
+    }
+
+    final int probeIndex = ((HashJoinPrel) prel).isSwapped() ? 1 : 0;
+    final List<RelNode> children = Lists.newArrayList();
+    for (int i = 0; i < prel.getInputs().size(); i++) {
+      final Prel input = (Prel) prel.getInput(i);
+      if (i == probeIndex && input instanceof HashToRandomExchangePrel) {
+        children.add(visitProbeExchange((HashToRandomExchangePrel) input, nullSpreadKeys));
+      } else {
+        children.add(input.accept(this, null));
+      }
+    }
+    return (Prel) prel.copy(prel.getTraitSet(), children);
+  }
+
+  private Prel visitProbeExchange(HashToRandomExchangePrel prel, List<Integer> nullSpreadKeys) {
+    if (prel.getInput().getRowType().getFieldNames().contains(HashPrelUtil.HASH_EXPR_NAME)
+      || prel.assignFromTableFunction()
+      || !HashPrelUtil.HASH32_FUNCTION_NAME.equals(prel.getHashFunctionName())) {
+      return visitExchange(prel, null);
+    }
+    final Prel child = ((Prel) prel.getInput()).accept(this, null);
+    return visit(prel, prel.getFields(), child, prel.getHashFunctionName(), false, nullSpreadKeys);
+  }
+
+  /**
+   * @return the probe side keys whose null values never match, if the join drops the probe rows that don't match
+   */
+  private static List<Integer> getNullRejectingProbeKeys(JoinPrel prel) {
+    if (!(prel instanceof HashJoinPrel)) {
+      return ImmutableList.of();
+    }
+
+    // the hash join operator builds on the right input and probes with the left one, after swapping.
+    final HashJoinPrel join = (HashJoinPrel) prel;
+    final JoinRelType probeJoinType = join.isSwapped() ? join.getJoinType().swap() : join.getJoinType();
+    // for left and full joins, the unmatched probe rows are part of the output, which must keep the
+    // distribution of the probe side.
+    if (probeJoinType != JoinRelType.INNER && probeJoinType != JoinRelType.RIGHT) {
+      return ImmutableList.of();
+    }
+
+    final List<Integer> probeKeys = join.isSwapped() ? join.getRightKeys() : join.getLeftKeys();
+    final List<Boolean> filterNulls = join.getFilterNulls();
+    final List<Integer> nullRejectingKeys = new ArrayList<>(probeKeys.size());
+    for (int i = 0; i < probeKeys.size(); i++) {
+      if (filterNulls.get(i)) {
+        nullRejectingKeys.add(probeKeys.get(i));
+      }
+    }
+    return nullRejectingKeys;
+  }
+
   private Prel visit(ExchangePrel hashPrel, List<DistributionTrait.DistributionField> fields, Prel child) {
     return visit(hashPrel, fields, child, HashPrelUtil.HASH32_FUNCTION_NAME, false);
   }
 
   private Prel visit(ExchangePrel hashPrel, List<DistributionTrait.DistributionField> fields, Prel child,
                      String hashFunctionName, boolean assignFromTableFunction) {
+    return visit(hashPrel, fields, child, hashFunctionName, assignFromTableFunction, ImmutableList.of());
+  }
+
+  private Prel visit(ExchangePrel hashPrel, List<DistributionTrait.DistributionField> fields, Prel child,
+                     String hashFunctionName, boolean assignFromTableFunction, List<Integer> nullSpreadFieldIds) {
     final List<String> childFields = child.getRowType().getFieldNames();
 
 
     // Insert Project/TableFunction SqlOperatorImpl with new column that will be a hash for HashToRandomExchange fields
     final Prel addHashColumnPrel = assignFromTableFunction ? HashPrelUtil.addSplitAssignTableFunction(child)
-      : HashPrelUtil.addHashProject(fields, child, null, hashFunctionName);
+      : HashPrelUtil.addHashProject(fields, child, null, hashFunctionName, nullSpreadFieldIds);
     final Prel newPrel = (Prel) hashPrel.copy(hashPrel.getTraitSet(), Collections.<RelNode>singletonList(addHashColumnPrel));
 
     int validRows = newPrel.getRowType().getFieldCount() - 1;
@@ -34,6 +34,7 @@ import org.apache.calcite.sql2rel.SqlToRelConverter;
 import com.dremio.exec.catalog.DremioCatalogReader;
 import com.dremio.exec.ops.ViewExpansionContext.ViewExpansionToken;
 import com.dremio.exec.planner.acceleration.ExpansionNode;
+import com.dremio.exec.planner.physical.PlannerSettings;
 import com.dremio.exec.planner.sql.SqlConverter.RelRootPlus;
 import com.dremio.exec.record.BatchSchema;
 import com.dremio.service.namespace.NamespaceKey;
@@ -79,7 +80,8 @@ public class DremioSqlToRelConverter extends SqlToRelConverter {
                                             final String queryString,
                                             final List<String> context,
                                             final SqlConverter sqlConverter,
-                                            final BatchSchema batchSchema) {
+                                            final BatchSchema batchSchema,
+                                            final String viewVersion) {
     final DremioCatalogReader catalog;
     if(viewOwner != null) {
       catalog = sqlConverter.getCatalogReader().withSchemaPathAndUser(viewOwner, context);
@@ -87,7 +89,16 @@ public class DremioSqlToRelConverter extends SqlToRelConverter {
       catalog = sqlConverter.getCatalogReader().withSchemaPath(context);
     }
     final SqlConverter newConverter = new SqlConverter(sqlConverter, catalog);
-    final SqlNode parsedNode = newConverter.parse(queryString);
+    final PlannerSettings settings = sqlConverter.getSettings();
+    final SqlNode parsedNode;
+    if (settings.isViewDefinitionCacheEnabled()) {
+      parsedNode = ViewDefinitionCache.getInstance().getOrParse(path, viewVersion, queryString,
+        newConverter.getParserConfig(), newConverter::parse);
+    } else {
+      parsedNode = newConverter.parse(queryString);
+    }
+    // resolve the tables used by the view concurrently before the validator looks them up one by one.
+    catalog.prefetchTables(TableReferenceCollector.collect(parsedNode), settings.getViewMetadataPrefetchParallelism());
     final SqlNode validatedNode = newConverter.validate(parsedNode);
     if (path != null && sqlConverter.getSubstitutionProvider().isDefaultRawReflectionEnabled()) {
       final RelRootPlus unflattenedRoot = newConverter.toConvertibleRelRoot(validatedNode, true, false, false);
@@ -118,18 +129,28 @@ public class DremioSqlToRelConverter extends SqlToRelConverter {
   }
 
   public static RelRoot expandView(NamespaceKey path, final String viewOwner, final String queryString, final List<String> context, final SqlConverter sqlConverter, final BatchSchema batchSchema) {
+    return expandView(path, viewOwner, queryString, context, sqlConverter, batchSchema, null);
+  }
+
+  /**
+   * Expands a view.
+   *
+   * @param viewVersion version of the view definition, used to reuse a previously parsed definition. May be null.
+   */
+  public static RelRoot expandView(NamespaceKey path, final String viewOwner, final String queryString, final List<String> context,
+                                   final SqlConverter sqlConverter, final BatchSchema batchSchema, final String viewVersion) {
     ViewExpansionToken token = null;
 
     try {
       token = sqlConverter.getViewExpansionContext().reserveViewExpansionToken(viewOwner);
-      return getExpandedRelNode(path, viewOwner, queryString, context, sqlConverter, batchSchema);
+      return getExpandedRelNode(path, viewOwner, queryString, context, sqlConverter, batchSchema, viewVersion);
     } catch (RuntimeException e) {
       if (!(e.getCause() instanceof UserNotFoundException)) {
         throw e;
       }
 
       final String delegatedUser = sqlConverter.getViewExpansionContext().getQueryUser();
-      return getExpandedRelNode(path, delegatedUser, queryString, context, sqlConverter, batchSchema);
+      return getExpandedRelNode(path, delegatedUser, queryString, context, sqlConverter, batchSchema, viewVersion);
     } finally {
       if (token != null) {
         token.release();
@@ -68,8 +68,10 @@ public class ExtendedToRelContext extends NoOpExpander implements ToRelContext {
 
 
     try {
+      final String viewVersion = view.getDatasetConfig() != null ? view.getDatasetConfig().getTag() : null;
       root = DremioSqlToRelConverter.expandView(view.getPath(),
-        view.getViewOwner(), view.getView().getSql(), view.getView().getWorkspaceSchemaPath(), sqlConverter, view.getSchema());
+        view.getViewOwner(), view.getView().getSql(), view.getView().getWorkspaceSchemaPath(), sqlConverter, view.getSchema(),
+        viewVersion);
     } catch (Exception ex) {
       throw UserException.planError(ex)
           .message("Error while expanding view %s",view.getPath())
@@ -15,6 +15,8 @@
  */
 package com.dremio.exec.planner.sql;
 
+import java.util.Objects;
+
 import org.apache.calcite.avatica.util.Casing;
 import org.apache.calcite.avatica.util.Quoting;
 import org.apache.calcite.sql.parser.SqlParser;
@@ -107,4 +109,24 @@ public class ParserConfig implements SqlParser.Config {
     }
     return ParserWithCompoundIdConverter.getParserImplFactory(withCalciteComplexTypeSupport);
   }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    final ParserConfig that = (ParserConfig) o;
+    return identifierMaxLength == that.identifierMaxLength
+      && supportFullyQualifiedProjections == that.supportFullyQualifiedProjections
+      && withCalciteComplexTypeSupport == that.withCalciteComplexTypeSupport
+      && quoting == that.quoting;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(quoting, identifierMaxLength, supportFullyQualifiedProjections, withCalciteComplexTypeSupport);
+  }
 }
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.planner.sql;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.apache.calcite.sql.SqlCall;
+import org.apache.calcite.sql.SqlIdentifier;
+import org.apache.calcite.sql.SqlJoin;
+import org.apache.calcite.sql.SqlNode;
+import org.apache.calcite.sql.SqlSelect;
+import org.apache.calcite.sql.SqlWithItem;
+import org.apache.calcite.sql.util.SqlBasicVisitor;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Collects the identifiers used as tables in the FROM clauses of a parsed query, including
+ * the ones of nested sub-queries. References to common table expressions are excluded.
+ *
+ * The result is a best effort list of candidates: identifiers are not resolved against the
+ * default schema.
+ */
+final class TableReferenceCollector extends SqlBasicVisitor<Void> {
+
+  private final Set<List<String>> tables = new LinkedHashSet<>();
+  private final Set<String> withItems = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+  private TableReferenceCollector() {
+  }
+
+  static List<List<String>> collect(SqlNode node) {
+    final TableReferenceCollector collector = new TableReferenceCollector();
+    node.accept(collector);
+    return collector.tables.stream()
+      .filter(names -> names.size() > 1 || !collector.withItems.contains(names.get(0)))
+      .collect(Collectors.toList());
+  }
+
+  @Override
+  public Void visit(SqlCall call) {
+    if (call instanceof SqlSelect) {
+      addFromItem(((SqlSelect) call).getFrom());
+    } else if (call instanceof SqlWithItem) {
+      withItems.add(((SqlWithItem) call).name.getSimple());
+    }
+    return super.visit(call);
+  }
+
+  private void addFromItem(SqlNode from) {
+    if (from == null) {
+      return;
+    }
+
+    switch (from.getKind()) {
+      case IDENTIFIER:
+        tables.add(ImmutableList.copyOf(((SqlIdentifier) from).names));
+        break;
+      case JOIN:
+        addFromItem(((SqlJoin) from).getLeft());
+        addFromItem(((SqlJoin) from).getRight());
+        break;
+      case AS:
+        addFromItem(((SqlCall) from).operand(0));
+        break;
+      default:
+        // sub-queries and table functions are reached through the regular traversal.
+        break;
+    }
+  }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.planner.sql;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.apache.calcite.sql.SqlCall;
+import org.apache.calcite.sql.SqlIdentifier;
+import org.apache.calcite.sql.SqlNode;
+import org.apache.calcite.sql.SqlNodeList;
+import org.apache.calcite.sql.parser.SqlParser;
+import org.apache.calcite.sql.util.SqlBasicVisitor.ArgHandler;
+import org.apache.calcite.sql.util.SqlShuttle;
+
+import com.dremio.service.namespace.NamespaceKey;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Coordinator-wide cache of parsed view definitions.
+ *
+ * Entries are keyed by the view path and the version (tag) of its dataset config, so a view that is
+ * modified on another coordinator naturally misses the cache. Local modifications evict the entries
+ * for the view through {@link #invalidate(NamespaceKey)}.
+ *
+ * The validator rewrites the trees it is given, so the cache only hands out deep copies of the
+ * parsed definition.
+ */
+public final class ViewDefinitionCache {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ViewDefinitionCache.class);
+
+  private static final long MAX_WEIGHT = 64 * 1024 * 1024;
+  private static final long EXPIRE_AFTER_ACCESS_MINUTES = 60;
+
+  private static final ViewDefinitionCache INSTANCE = new ViewDefinitionCache(MAX_WEIGHT);
+
+  private final Cache<ViewKey, ParsedView> views;
+
+  @VisibleForTesting
+  ViewDefinitionCache(long maxWeight) {
+    this.views = CacheBuilder.newBuilder()
+      // weight by sql length, which is a good proxy of the tree size.
+      .maximumWeight(maxWeight)
+      .weigher((ViewKey key, ParsedView view) -> view.sql.length())
+      .expireAfterAccess(EXPIRE_AFTER_ACCESS_MINUTES, TimeUnit.MINUTES)
+      .build();
+  }
+
+  public static ViewDefinitionCache getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Returns a private copy of the parsed view definition, parsing it with the provided parser if
+   * the view is not cached or the cached entry no longer matches the view sql or parser settings.
+   *
+   * @param path view path
+   * @param version version of the view dataset config, or null if unknown
+   * @param sql view sql
+   * @param parserConfig parser configuration used to parse the view
+   * @param parser function used to parse the sql on a cache miss
+   * @return a parsed tree owned by the caller
+   */
+  public SqlNode getOrParse(NamespaceKey path, String version, String sql, SqlParser.Config parserConfig,
+                            Function<String, SqlNode> parser) {
+    if (path == null || version == null) {
+      return parser.apply(sql);
+    }
+
+    final ViewKey key = new ViewKey(path, version);
+    final ParsedView cached = views.getIfPresent(key);
+    if (cached != null && cached.matches(sql, parserConfig)) {
+      final SqlNode copy = copyOf(cached.node);
+      if (copy != null) {
+        return copy;
+      }
+    }
+
+    final SqlNode parsed = parser.apply(sql);
+    final SqlNode copy = copyOf(parsed);
+    if (copy != null) {
+      // keep the pristine copy, hand out the original.
+      views.put(key, new ParsedView(sql, parserConfig, copy));
+    }
+    return parsed;
+  }
+
+  /**
+   * Evicts all the cached definitions of the provided view.
+   */
+  public void invalidate(NamespaceKey path) {
+    final NamespaceKey lowerCasePath = path.asLowerCase();
+    views.asMap().keySet().removeIf(key -> key.path.asLowerCase().equals(lowerCasePath));
+  }
+
+  public void invalidateAll() {
+    views.invalidateAll();
+  }
+
+  @VisibleForTesting
+  long size() {
+    return views.size();
+  }
+
+  private static SqlNode copyOf(SqlNode node) {
+    try {
+      return node.accept(DeepCopier.INSTANCE);
+    } catch (RuntimeException e) {
+      // Some nodes cannot be recreated from their operands. Don't cache those.
+      logger.debug("Unable to copy parsed view definition {}", node, e);
+      return null;
+    }
+  }
+
+  /**
+   * Shuttle that recreates every call, list and identifier of a tree.
+   */
+  private static final class DeepCopier extends SqlShuttle {
+    private static final DeepCopier INSTANCE = new DeepCopier();
+
+    @Override
+    public SqlNode visit(SqlIdentifier id) {
+      return id.clone(id.getParserPosition());
+    }
+
+    @Override
+    public SqlNode visit(SqlNodeList nodeList) {
+      final List<SqlNode> copies = new ArrayList<>(nodeList.size());
+      for (SqlNode node : nodeList) {
+        copies.add(node == null ? null : node.accept(this));
+      }
+      return new SqlNodeList(copies, nodeList.getParserPosition());
+    }
+
+    @Override
+    public SqlNode visit(SqlCall call) {
+      final ArgHandler<SqlNode> argHandler = new CallCopyingArgHandler(call, true);
+      call.getOperator().acceptCall(this, call, false, argHandler);
+      return argHandler.result();
+    }
+  }
+
+  private static final class ViewKey {
+    private final NamespaceKey path;
+    private final String version;
+
+    private ViewKey(NamespaceKey path, String version) {
+      this.path = path;
+      this.version = version;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final ViewKey that = (ViewKey) o;
+      return path.equals(that.path) && version.equals(that.version);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(path, version);
+    }
+  }
+
+  private static final class ParsedView {
+    private final String sql;
+    private final SqlParser.Config parserConfig;
+    private final SqlNode node;
+
+    private ParsedView(String sql, SqlParser.Config parserConfig, SqlNode node) {
+      this.sql = sql;
+      this.parserConfig = parserConfig;
+      this.node = node;
+    }
+
+    private boolean matches(String sql, SqlParser.Config parserConfig) {
+      return this.sql.equals(sql) && this.parserConfig.equals(parserConfig);
+    }
+  }
+}
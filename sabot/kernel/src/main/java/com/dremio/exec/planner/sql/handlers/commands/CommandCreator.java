@@ -206,7 +206,7 @@ public class CommandCreator {
               final long handle = preparedStatement.getHandle();
               PreparedPlan plan = preparedPlans.getIfPresent(handle);
               if(plan != null){
-                if (!context.getOptions().getOption(REUSE_PREPARE_HANDLES)) {
+                if (!context.getOptions().getOption(REUSE_PREPARE_HANDLES) || !plan.isReusable()) {
                   preparedPlans.invalidate(handle);
                 }
 
@@ -220,6 +220,11 @@ public class CommandCreator {
                             .getCredentials()
                             .getUserName()));
                 }
+                // looking the datasets up again also checks that the user can still read them
+                if (plan.datasetsChanged(context.getCatalog())) {
+                  preparedPlans.invalidate(handle);
+                  return getSqlCommand(preparedStatement.getSqlQuery(), PrepareMetadataType.NONE);
+                }
                 return new PrepareToExecution(plan, observer);
               }
             }
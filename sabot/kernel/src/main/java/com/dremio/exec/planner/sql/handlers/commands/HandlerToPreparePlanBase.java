@@ -17,6 +17,7 @@ package com.dremio.exec.planner.sql.handlers.commands;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.calcite.plan.RelOptPlanner;
@@ -25,6 +26,9 @@ import org.apache.calcite.rel.RelRoot;
 import org.apache.calcite.rel.type.RelDataType;
 import org.apache.calcite.sql.SqlNode;
 
+import com.dremio.exec.catalog.CachingCatalog;
+import com.dremio.exec.catalog.Catalog;
+import com.dremio.exec.catalog.CatalogUtil;
 import com.dremio.exec.ops.QueryContext;
 import com.dremio.exec.physical.PhysicalPlan;
 import com.dremio.exec.planner.PlannerPhase;
@@ -39,6 +43,7 @@ import com.dremio.exec.planner.sql.handlers.SqlHandlerConfig;
 import com.dremio.exec.planner.sql.handlers.query.SqlToPlanHandler;
 import com.dremio.exec.proto.ExecProtos.ServerPreparedStatementState;
 import com.dremio.exec.work.foreman.ExecutionPlan;
+import com.dremio.service.namespace.NamespaceKey;
 import com.google.common.cache.Cache;
 import com.google.common.collect.ImmutableList;
 
@@ -88,7 +93,13 @@ public abstract class HandlerToPreparePlanBase<T> implements CommandRunner<T> {
       final AttemptObservers observers = AttemptObservers.of(observer, recording);
       observers.planStart(sql);
       plan = handler.getPlan(config.cloneWithNewObserver(observers), sql, sqlNode);
-      PreparedPlan prepared = new PreparedPlan(context.getQueryId(), context.getQueryUserName(), sql, plan, recording);
+      final Catalog catalog = context.getCatalog();
+      // functions such as NOW() or RAND() are evaluated when planning, so such plans are used only once
+      final boolean planCacheable = config.getConverter().getFunctionContext().getContextInformation().isPlanCacheable();
+      final Map<NamespaceKey, String> datasetTags = (planCacheable && catalog instanceof CachingCatalog)
+        ? CatalogUtil.getDatasetTags(catalog.getAllRequestedTables()) : null;
+      PreparedPlan prepared = new PreparedPlan(context.getQueryId(), context.getQueryUserName(), sql, plan, recording,
+        datasetTags);
       final Long handle = PREPARE_ID.getAndIncrement();
       state = ServerPreparedStatementState.newBuilder()
         .setHandle(handle)
@@ -15,13 +15,21 @@
  */
 package com.dremio.exec.planner.sql.handlers.commands;
 
+import java.util.Map;
+
+import com.dremio.exec.catalog.Catalog;
+import com.dremio.exec.catalog.DremioTable;
 import com.dremio.exec.physical.PhysicalPlan;
 import com.dremio.exec.planner.observer.AttemptObserver;
 import com.dremio.exec.planner.sql.handlers.commands.HandlerToPreparePlanBase.RecordingObserver;
 import com.dremio.exec.proto.UserBitShared.QueryId;
+import com.dremio.service.namespace.NamespaceKey;
 
 /**
  * Represents a previous planned query generated through creating a prepared statement.
+ *
+ * The plan can be executed again as long as every dataset and view it reads still has the tag it had when the
+ * statement was prepared: refreshing the metadata of a dataset or changing the definition of a view changes its tag.
  */
 public class PreparedPlan {
   private final QueryId prepareId;
@@ -29,16 +37,23 @@ public class PreparedPlan {
   private final String query;
   private final PhysicalPlan plan;
   private final RecordingObserver observer;
+  private final Map<NamespaceKey, String> datasetTags;
 
+  /**
+   * @param datasetTags tags of the datasets and views read by the plan when it was planned, or null if the plan reads
+   *                    tables whose changes cannot be detected
+   */
   public PreparedPlan(QueryId prepareId, String username, String query, PhysicalPlan plan,
-                      RecordingObserver observer) {
+                      RecordingObserver observer, Map<NamespaceKey, String> datasetTags) {
     this.prepareId = prepareId;
     this.username = username;
     this.query = query;
     this.plan = plan;
     this.observer = observer;
+    this.datasetTags = datasetTags;
   }
 
+
   public void replay(AttemptObserver observer){
     this.observer.replay(observer);
   }
@@ -59,4 +74,29 @@ public class PreparedPlan {
     return query;
   }
 
+  /**
+   * @return whether the plan can be executed more than once
+   */
+  public boolean isReusable() {
+    return datasetTags != null;
+  }
+
+  /**
+   * @param catalog catalog of the user executing the plan
+   * @return whether one of the datasets or views read by the plan changed since it was planned
+   */
+  public boolean datasetsChanged(Catalog catalog) {
+    if (datasetTags == null) {
+      return false;
+    }
+    for (Map.Entry<NamespaceKey, String> tag : datasetTags.entrySet()) {
+      final DremioTable table = catalog.getTable(tag.getKey());
+      if (table == null || table.getDatasetConfig() == null
+        || !tag.getValue().equals(table.getDatasetConfig().getTag())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
 }
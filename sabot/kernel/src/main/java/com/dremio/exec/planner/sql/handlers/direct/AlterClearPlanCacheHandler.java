@@ -25,6 +25,7 @@ import org.apache.calcite.tools.ValidationException;
 
 import com.dremio.common.exceptions.UserException;
 import com.dremio.exec.ops.QueryContext;
+import com.dremio.exec.planner.sql.ViewDefinitionCache;
 import com.dremio.exec.planner.sql.parser.SqlAlterClearPlanCache;
 import com.dremio.exec.work.foreman.ForemanSetupException;
 import com.dremio.options.OptionValue.OptionType;
@@ -68,6 +69,7 @@ public class AlterClearPlanCacheHandler extends SimpleDirectHandler {
       }
     }
     context.getPlanCache().getCachePlans().invalidateAll();
+    ViewDefinitionCache.getInstance().invalidateAll();
     return Collections.singletonList(SimpleCommandResult.successful("Plan cache cleared."));
   }
 
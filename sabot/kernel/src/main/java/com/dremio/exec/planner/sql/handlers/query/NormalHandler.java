@@ -133,6 +133,8 @@ public class NormalHandler implements SqlToPlanHandler {
           textPlan = "";
         }
       }
+      // the same functions that prevent caching the plan prevent reusing the results
+      config.getObserver().planResultsCacheable(supportPlanCache);
       final PhysicalOperator pop = PrelTransformer.convertToPop(config, prel);
       PhysicalPlan plan = PrelTransformer.convertToPlan(config, pop);
       logger.debug("Final Physical Plan {}", textPlan);
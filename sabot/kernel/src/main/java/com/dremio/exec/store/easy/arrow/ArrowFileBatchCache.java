@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.easy.arrow;
+
+import com.dremio.io.file.Path;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * LRU cache of the serialized record batches of Arrow files, so that paging repeatedly through the same results
+ * reads each batch from the file system once.
+ *
+ * Arrow files are never modified once written, so a batch is identified by the path of its file and its offset in
+ * the file.
+ */
+public class ArrowFileBatchCache {
+
+  private final Cache<String, byte[]> batches;
+
+  /**
+   * @param maxBytes maximum size of the cached batches
+   */
+  public ArrowFileBatchCache(long maxBytes) {
+    this.batches = CacheBuilder.newBuilder()
+      .maximumWeight(maxBytes)
+      .<String, byte[]>weigher((key, batch) -> batch.length)
+      .build();
+  }
+
+  /**
+   * @return the serialized batch starting at the offset of the file, or null if it is not cached
+   */
+  byte[] get(Path path, long offset) {
+    return batches.getIfPresent(key(path, offset));
+  }
+
+  void put(Path path, long offset, byte[] batch) {
+    batches.put(key(path, offset), batch);
+  }
+
+  private static String key(Path path, long offset) {
+    return path.toString() + '@' + offset;
+  }
+}
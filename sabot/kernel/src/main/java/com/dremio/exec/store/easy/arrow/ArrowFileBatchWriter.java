@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.easy.arrow;
+
+import static com.dremio.exec.store.easy.arrow.ArrowFormatPlugin.MAGIC_STRING;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.apache.arrow.vector.ValueVector;
+
+import com.dremio.exec.cache.VectorAccessibleSerializable;
+import com.dremio.exec.proto.UserBitShared.SerializedField;
+import com.dremio.exec.record.WritableBatch;
+import com.dremio.exec.store.easy.arrow.ArrowFileFormat.ArrowFileFooter;
+import com.dremio.exec.store.easy.arrow.ArrowFileFormat.ArrowRecordBatchSummary;
+import com.dremio.io.file.FileSystem;
+import com.dremio.io.file.Path;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Writes batches of vectors to a single Arrow format file, readable by {@link ArrowFormatPlugin}.
+ *
+ * Unlike {@link ArrowRecordWriter}, it does not run in a fragment, so that batches received outside of a query can be
+ * staged as files which queries read.
+ */
+public class ArrowFileBatchWriter implements AutoCloseable {
+
+  private final DataOutputStream outputStream;
+  private final ArrowFileFooter.Builder footerBuilder = ArrowFileFooter.newBuilder();
+
+  private long recordCount;
+
+  /**
+   * @param fields fields of the vectors of every batch written to the file
+   */
+  public ArrowFileBatchWriter(FileSystem fs, Path path, Iterable<SerializedField> fields) throws IOException {
+    this.outputStream = new DataOutputStream(fs.create(path));
+
+    // write magic word bytes
+    outputStream.write(MAGIC_STRING.getBytes());
+
+    footerBuilder.addAllField(fields);
+  }
+
+  /**
+   * Writes a batch to the file. The buffers of the vectors are transferred, and released once written.
+   */
+  public void write(Iterable<? extends ValueVector> vectors, int recordCount) throws IOException {
+    final long startOffset = outputStream.size();
+
+    final WritableBatch writableBatch = WritableBatch.getBatchNoHV(recordCount, ImmutableList.<ValueVector>copyOf(vectors),
+      false /* isSv2 */);
+    final VectorAccessibleSerializable serializer = new VectorAccessibleSerializable(writableBatch, null/*allocator*/);
+    serializer.writeToStream(outputStream);
+
+    footerBuilder.addBatch(ArrowRecordBatchSummary.newBuilder()
+      .setOffset(startOffset)
+      .setRecordCount(recordCount)
+      .build());
+    this.recordCount += recordCount;
+  }
+
+  public long getRecordCount() {
+    return recordCount;
+  }
+
+  @Override
+  public void close() throws IOException {
+    // Save the footer starting offset
+    final long footerStartOffset = outputStream.size();
+
+    // write the footer
+    footerBuilder.build().writeDelimitedTo(outputStream);
+
+    // write the foot offset
+    outputStream.writeLong(footerStartOffset);
+
+    // write magic word bytes
+    outputStream.write(MAGIC_STRING.getBytes());
+
+    outputStream.close();
+  }
+}
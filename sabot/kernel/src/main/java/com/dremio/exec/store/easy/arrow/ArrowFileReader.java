@@ -21,6 +21,8 @@ import static com.dremio.exec.store.easy.arrow.ArrowFormatPlugin.MAGIC_STRING;
 import static com.dremio.exec.store.easy.arrow.ArrowFormatPlugin.MAGIC_STRING_LENGTH;
 import static com.google.common.base.Preconditions.checkArgument;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
@@ -30,6 +32,7 @@ import java.util.List;
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.TeeInputStream;
 
 import com.dremio.common.AutoCloseables.RollbackCloseable;
 import com.dremio.common.exceptions.UserException;
@@ -69,18 +72,31 @@ public class ArrowFileReader implements AutoCloseable {
   private final ArrowFileMetadata metadata;
   private final BufferAllocator allocator;
   private final Path path;
+  private final ArrowFileBatchCache batchCache;
 
   private FSInputStream inputStream;
 
   public ArrowFileReader(final FileSystem dfs, Path basePath, final ArrowFileMetadata metadata,
                    final BufferAllocator allocator) {
+    this(dfs, basePath, metadata, allocator, null);
+  }
+
+  /**
+   * @param batchCache cache of the batches read, null to always read the batches from the file
+   */
+  public ArrowFileReader(final FileSystem dfs, Path basePath, final ArrowFileMetadata metadata,
+                   final BufferAllocator allocator, final ArrowFileBatchCache batchCache) {
     this.dfs = dfs;
     this.metadata = metadata;
     this.allocator = allocator;
     this.path = basePath.resolve(metadata.getPath());
+    this.batchCache = batchCache;
   }
 
   private void openFile() throws IOException {
+    if (inputStream != null) {
+      return;
+    }
     inputStream = dfs.open(path);
 
     if (false /* disable this until a PDFS getFileStatus() issue is fixed AssertionUtil.ASSERT_ENABLED */) {
@@ -135,8 +151,7 @@ public class ArrowFileReader implements AutoCloseable {
         "Invalid start index (%s) and limit (%s) combination. Record count in file (%s)",
         start, limit, metadata.getRecordCount());
 
-    openFile();
-
+    // the file is only opened when a batch is not cached
     final VectorAccessibleSerializable vectorAccessibleSerializable = new VectorAccessibleSerializable(allocator);
     final List<RecordBatchHolder> batches = Lists.newArrayList();
     final ArrowFileFooter footer = metadata.getFooter();
@@ -161,9 +176,7 @@ public class ArrowFileReader implements AutoCloseable {
 
       final long currentBatchCount = batchSummary.getRecordCount();
 
-      // Seek to the place where the batch starts and read
-      inputStream.setPosition(batchSummary.getOffset());
-      vectorAccessibleSerializable.readFromStream(inputStream);
+      readBatch(vectorAccessibleSerializable, batchSummary.getOffset());
       final VectorContainer vectorContainer = vectorAccessibleSerializable.get();
 
       // Find the start and end indices within the batch.
@@ -192,6 +205,29 @@ public class ArrowFileReader implements AutoCloseable {
     return batches;
   }
 
+  /**
+   * Reads the batch starting at the offset, from the cache if it holds it.
+   */
+  private void readBatch(VectorAccessibleSerializable serializable, long offset) throws IOException {
+    final byte[] cached = batchCache == null ? null : batchCache.get(path, offset);
+    if (cached != null) {
+      serializable.readFromStream(new ByteArrayInputStream(cached));
+      return;
+    }
+
+    // Seek to the place where the batch starts and read
+    openFile();
+    inputStream.setPosition(offset);
+    if (batchCache == null) {
+      serializable.readFromStream(inputStream);
+      return;
+    }
+    // keep a copy of the bytes of the batch while deserializing it
+    final ByteArrayOutputStream batch = new ByteArrayOutputStream();
+    serializable.readFromStream(new TeeInputStream(inputStream, batch));
+    batchCache.put(path, offset, batch.toByteArray());
+  }
+
   @Override
   public void close() throws IOException {
     if (inputStream != null) {
@@ -206,6 +242,7 @@ public class ArrowFileReader implements AutoCloseable {
    * @throws IOException
    */
   private RecordBatchHolder getEmptyBatch() throws IOException {
+    openFile();
     final FileAttributes fileAttributes = dfs.getFileAttributes(path);
     final long size = fileAttributes.size();
     inputStream.setPosition(size - (MAGIC_STRING_LENGTH + FOOTER_OFFSET_SIZE));
@@ -24,6 +24,7 @@ import java.util.List;
 import org.apache.arrow.vector.ValueVector;
 
 import com.dremio.common.exceptions.UserException;
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.cache.VectorAccessibleSerializable;
 import com.dremio.exec.expr.TypeHelper;
 import com.dremio.exec.proto.ExecProtos.FragmentHandle;
@@ -55,6 +56,7 @@ public class ArrowRecordWriter implements RecordWriter {
   private final OperatorContext context;
   private final List<Path> listOfFilesCreated;
   private final ArrowFileFooter.Builder footerBuilder;
+  private final boolean earlyFirstBatch;
 
   private Path location;
   private String prefix;
@@ -83,6 +85,7 @@ public class ArrowRecordWriter implements RecordWriter {
     this.location = Path.of(writerConfig.getLocation());
     this.prefix = String.format("%d_%d", handle.getMajorFragmentId(), handle.getMinorFragmentId());
     this.extension = formatConfig.outputExtension;
+    this.earlyFirstBatch = context.getOptions().getOption(ExecConstants.JOB_RESULTS_EARLY_FIRST_BATCH);
   }
 
   @Override
@@ -93,6 +96,15 @@ public class ArrowRecordWriter implements RecordWriter {
     this.outputEntryListener = outputEntryListener;
     this.writeStatsListener = writeStatsListener;
     this.fs = writerConfig.getFormatPlugin().getFsPlugin().createFS(writerConfig.getProps().getUserName(), context);
+    openNewFile();
+
+    for(final VectorWrapper<? extends ValueVector> vw : incoming) {
+      Preconditions.checkArgument(!vw.isHyper(), "Writing hyper vectors to arrow format is not supported.");
+      footerBuilder.addField(TypeHelper.getMetadata(vw.getValueVector()));
+    }
+  }
+
+  private void openNewFile() throws IOException {
     this.currentFile = fs.canonicalizePath(location.resolve(String.format("%s_%d.%s", prefix, nextFileIndex, extension)));
     this.relativePath = currentFile.getName();
     this.currentFileOutputStream = new DataOutputStream(fs.create(currentFile));
@@ -101,11 +113,6 @@ public class ArrowRecordWriter implements RecordWriter {
     // write magic word bytes
     currentFileOutputStream.write(MAGIC_STRING.getBytes());
 
-    for(final VectorWrapper<? extends ValueVector> vw : incoming) {
-      Preconditions.checkArgument(!vw.isHyper(), "Writing hyper vectors to arrow format is not supported.");
-      footerBuilder.addField(TypeHelper.getMetadata(vw.getValueVector()));
-    }
-
     nextFileIndex++;
     recordCount = 0;
   }
@@ -123,6 +130,9 @@ public class ArrowRecordWriter implements RecordWriter {
       throw UserException.dataWriteError().message("You cannot partition data written in Arrow format.").build(logger);
     }
     final int recordCount = incoming.getRecordCount();
+    if (currentFileOutputStream == null) {
+      openNewFile();
+    }
     final long startOffset = currentFileOutputStream.size();
 
     final WritableBatch writableBatch = WritableBatch.getBatchNoHVWrap(recordCount, incoming, false /* isSv2 */);
@@ -143,6 +153,11 @@ public class ArrowRecordWriter implements RecordWriter {
     this.recordCount += recordCount;
     writeStatsListener.bytesWritten(endOffset - startOffset);
 
+    if (earlyFirstBatch && nextFileIndex == 1 && this.recordCount > 0) {
+      // report the first batch in a file of its own, so that it can be read while the next batches are written
+      closeCurrentFile();
+    }
+
     return recordCount;
   }
 
@@ -186,6 +201,8 @@ public class ArrowRecordWriter implements RecordWriter {
       }
 
       ArrowFileMetadata lastFileMetadata = builder.build();
+      // the fields are the same in the footer of the next file
+      footerBuilder.clearBatch();
 
       outputEntryListener.recordsWritten(recordCount, fileSize, currentFile.toString(), lastFileMetadata.toByteArray(), null, null, null);
     }
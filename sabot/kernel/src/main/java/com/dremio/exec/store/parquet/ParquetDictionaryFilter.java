@@ -0,0 +1,240 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.Dictionary;
+import org.apache.parquet.column.EncodingStats;
+import org.apache.parquet.column.page.DictionaryPage;
+import org.apache.parquet.compression.CompressionCodecFactory;
+import org.apache.parquet.format.PageHeader;
+import org.apache.parquet.format.PageType;
+import org.apache.parquet.format.Util;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.OriginalType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+
+import com.dremio.common.expression.FunctionCall;
+import com.dremio.common.expression.LogicalExpression;
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.common.expression.ValueExpressions.QuotedString;
+import com.dremio.exec.expr.fn.FunctionErrorContextBuilder;
+import com.dremio.exec.expr.fn.impl.SqlPatternMatcher;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Charsets;
+
+/**
+ * Evaluates the equality, IN and LIKE conditions pushed into a parquet scan on the dictionaries of the filtered
+ * columns, once per dictionary entry instead of once per row.
+ *
+ * When all the data pages of a VarChar column chunk are dictionary encoded, every non-null value of the row group is
+ * an entry of the dictionary page: if no entry matches a condition, no row of the row group matches the filter, and
+ * the row group does not need to be read.
+ */
+final class ParquetDictionaryFilter {
+  private static final ParquetMetadataConverter CONVERTER = new ParquetMetadataConverter();
+
+  private ParquetDictionaryFilter() {
+  }
+
+  /**
+   * @param streamProvider provider of the streams of the file, which keeps ownership of the stream it returns
+   * @return true if one of the conditions matches no entry of the dictionary of its column in the row group
+   */
+  static boolean canSkipRowGroup(BufferAllocator allocator, InputStreamProvider streamProvider, MessageType schema,
+                                 BlockMetaData block, List<ParquetFilterCondition> conditions,
+                                 ParquetColumnResolver columnResolver, CompressionCodecFactory codecFactory)
+    throws IOException {
+    BulkInputStream in = null;
+    for (ParquetFilterCondition condition : conditions) {
+      if (!condition.getPath().getRootSegment().isLastPath()) {
+        continue;
+      }
+      final String name = condition.getPath().getRootSegment().getPath();
+      final ColumnChunkMetaData column = findColumn(block, columnResolver.getParquetColumnName(name));
+      if (column == null || !isDictionaryEncodedVarChar(column)) {
+        continue;
+      }
+      final List<SqlPatternMatcher> matchers = toMatchers(condition.getExpr(), name);
+      if (matchers == null) {
+        continue;
+      }
+
+      // a single stream provider reuses its stream for all the row groups of the file, and the readers seek to
+      // their column chunks before reading them
+      if (in == null) {
+        in = streamProvider.getStream(column);
+      }
+      final Dictionary dictionary = readDictionary(in, column, schema, codecFactory);
+      if (dictionary != null && matchingEntries(allocator, dictionary, matchers).isEmpty()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static ColumnChunkMetaData findColumn(BlockMetaData block, String name) {
+    if (name == null) {
+      return null;
+    }
+    for (ColumnChunkMetaData column : block.getColumns()) {
+      if (column.getPath().size() == 1 && column.getPath().toArray()[0].equalsIgnoreCase(name)) {
+        return column;
+      }
+    }
+    return null;
+  }
+
+  private static boolean isDictionaryEncodedVarChar(ColumnChunkMetaData column) {
+    final EncodingStats stats = column.getEncodingStats();
+    return column.getType() == PrimitiveTypeName.BINARY
+      && column.getPrimitiveType().getOriginalType() == OriginalType.UTF8
+      && stats != null && stats.hasDictionaryPages() && !stats.hasNonDictionaryEncodedPages();
+  }
+
+  /**
+   * Converts the expression of a condition into the matchers of the values it accepts: any value matching one of the
+   * matchers satisfies the condition.
+   *
+   * @param expr expression of the condition
+   * @param column name of the filtered column
+   * @return the matchers, or null if the expression is not an equality, IN or LIKE condition on the column with
+   * constant arguments
+   */
+  @VisibleForTesting
+  static List<SqlPatternMatcher> toMatchers(LogicalExpression expr, String column) {
+    if (!(expr instanceof FunctionCall)) {
+      return null;
+    }
+    final FunctionCall call = (FunctionCall) expr;
+    final List<LogicalExpression> args = call.args;
+    final List<SqlPatternMatcher> matchers = new ArrayList<>();
+    switch (call.getName().toLowerCase()) {
+      case "booleanor":
+        // IN lists are expanded into a disjunction of equalities
+        for (LogicalExpression arg : args) {
+          final List<SqlPatternMatcher> argMatchers = toMatchers(arg, column);
+          if (argMatchers == null) {
+            return null;
+          }
+          matchers.addAll(argMatchers);
+        }
+        return matchers;
+
+      case "equal":
+        if (args.size() != 2) {
+          return null;
+        }
+        final int literal = isColumn(args.get(0), column) ? 1 : isColumn(args.get(1), column) ? 0 : -1;
+        if (literal < 0 || !(args.get(literal) instanceof QuotedString)) {
+          return null;
+        }
+        matchers.add(SqlPatternMatcher.forConstant(((QuotedString) args.get(literal)).getString().getBytes(Charsets.UTF_8)));
+        return matchers;
+
+      case "like":
+        if ((args.size() != 2 && args.size() != 3) || !isColumn(args.get(0), column)
+          || !(args.get(1) instanceof QuotedString) || (args.size() == 3 && !(args.get(2) instanceof QuotedString))) {
+          return null;
+        }
+        final String escape = args.size() == 3 ? ((QuotedString) args.get(2)).getString() : null;
+        try {
+          matchers.add(SqlPatternMatcher.forLike(((QuotedString) args.get(1)).getString(), escape,
+            FunctionErrorContextBuilder.builder().build()));
+        } catch (RuntimeException e) {
+          // invalid pattern, left to the filter to report
+          return null;
+        }
+        return matchers;
+
+      default:
+        return null;
+    }
+  }
+
+  private static boolean isColumn(LogicalExpression expr, String column) {
+    return expr instanceof SchemaPath
+      && ((SchemaPath) expr).getRootSegment().isLastPath()
+      && ((SchemaPath) expr).getRootSegment().getPath().equalsIgnoreCase(column);
+  }
+
+  /**
+   * Reads the dictionary page starting the column chunk.
+   *
+   * @return the dictionary, or null if the column chunk does not start with a dictionary page
+   */
+  private static Dictionary readDictionary(BulkInputStream in, ColumnChunkMetaData column, MessageType schema,
+                                           CompressionCodecFactory codecFactory) throws IOException {
+    in.seek(column.getStartingPos());
+    final PageHeader pageHeader = Util.readPageHeader(in.asSeekableInputStream());
+    if (pageHeader.getType() != PageType.DICTIONARY_PAGE) {
+      return null;
+    }
+    final byte[] data = new byte[pageHeader.getCompressed_page_size()];
+    in.readFully(data, 0, data.length);
+    final DictionaryPage dictionaryPage = new DictionaryPage(
+      codecFactory.getDecompressor(column.getCodec()).decompress(BytesInput.from(data), pageHeader.getUncompressed_page_size()),
+      pageHeader.getDictionary_page_header().getNum_values(),
+      CONVERTER.getEncoding(pageHeader.getDictionary_page_header().getEncoding()));
+    final ColumnDescriptor descriptor = schema.getColumnDescription(column.getPath().toArray());
+    return dictionaryPage.getEncoding().initDictionary(descriptor, dictionaryPage);
+  }
+
+  /**
+   * Evaluates the matchers on each entry of a binary dictionary.
+   *
+   * @return the ids of the entries matched by at least one of the matchers
+   */
+  @VisibleForTesting
+  static BitSet matchingEntries(BufferAllocator allocator, Dictionary dictionary, List<SqlPatternMatcher> matchers) {
+    final int size = dictionary.getMaxId() + 1;
+    final Binary[] entries = new Binary[size];
+    final int[] offsets = new int[size + 1];
+    for (int i = 0; i < size; i++) {
+      entries[i] = dictionary.decodeToBinary(i);
+      offsets[i + 1] = offsets[i] + entries[i].length();
+    }
+
+    final BitSet matching = new BitSet(size);
+    // the matchers read the values from direct memory, as in the value vectors
+    try (ArrowBuf buffer = allocator.buffer(Math.max(offsets[size], 1))) {
+      for (int i = 0; i < size; i++) {
+        buffer.setBytes(offsets[i], entries[i].toByteBuffer());
+      }
+      for (int i = 0; i < size; i++) {
+        for (SqlPatternMatcher matcher : matchers) {
+          if (matcher.matches(offsets[i], offsets[i + 1], buffer)) {
+            matching.set(i);
+            break;
+          }
+        }
+      }
+    }
+    return matching;
+  }
+}
@@ -186,7 +186,7 @@ public class UnifiedParquetReader implements RecordReader {
       this.validityBuf = context.getAllocator().buffer(maxValidityBufSize);
     }
 
-    final ExecutionPath execPath = getExecutionPath();
+    final ExecutionPath execPath = isRowGroupPrunedByDictionaries() ? ExecutionPath.SKIP_ALL : getExecutionPath();
     delegates = execPath.getReaders(this);
 
     Preconditions.checkArgument(!delegates.isEmpty(), "There should be at least one delegated RecordReader");
@@ -251,6 +251,32 @@ public class UnifiedParquetReader implements RecordReader {
     }
   }
 
+  /**
+   * Checks the pushed down filter conditions against the dictionaries of the filtered columns of the row group.
+   *
+   * @return true if no row of the row group can match the filter
+   */
+  private boolean isRowGroupPrunedByDictionaries() {
+    if (filterConditions == null || filterConditions.isEmpty() || inputStreamProvider == null
+      || !context.getOptions().getOption(ExecConstants.PARQUET_DICTIONARY_FILTER)) {
+      return false;
+    }
+
+    try {
+      final boolean pruned = ParquetDictionaryFilter.canSkipRowGroup(context.getAllocator(), inputStreamProvider,
+        footer.getFileMetaData().getSchema(), footer.getBlocks().get(readEntry.getRowGroupIndex()), filterConditions,
+        columnResolver, codecFactory);
+      if (pruned) {
+        context.getStats().addLongStat(Metric.NUM_ROW_GROUPS_PRUNED_BY_DICTIONARY, 1);
+      }
+      return pruned;
+    } catch (IOException e) {
+      // the row group is read and filtered as usual
+      logger.debug("Failed to read the dictionaries of row group {} of {}", readEntry.getRowGroupIndex(), readEntry.getPath(), e);
+      return false;
+    }
+  }
+
   private RecordReader addFilterIfNecessary(RecordReader delegate) {
     if (filterConditions == null || filterConditions.isEmpty()) {
       return delegate;
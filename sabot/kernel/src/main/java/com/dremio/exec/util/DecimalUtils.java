@@ -46,6 +46,24 @@ public final class DecimalUtils {
 
   public static final int LENGTH_OF_LONG = 8;
 
+  // 10^0 to 10^18, all the powers of ten that fit in a long
+  private static final long[] LONG_POWERS_OF_TEN = new long[19];
+  // 10^0 to 10^22, all the powers of ten that are exact doubles
+  private static final double[] DOUBLE_POWERS_OF_TEN = new double[23];
+  // 2^53, largest magnitude up to which all longs are exact doubles
+  private static final long MAX_EXACT_DOUBLE = 1L << 53;
+
+  static {
+    LONG_POWERS_OF_TEN[0] = 1;
+    for (int i = 1; i < LONG_POWERS_OF_TEN.length; i++) {
+      LONG_POWERS_OF_TEN[i] = LONG_POWERS_OF_TEN[i - 1] * 10;
+    }
+    DOUBLE_POWERS_OF_TEN[0] = 1;
+    for (int i = 1; i < DOUBLE_POWERS_OF_TEN.length; i++) {
+      DOUBLE_POWERS_OF_TEN[i] = DOUBLE_POWERS_OF_TEN[i - 1] * 10;
+    }
+  }
+
   public static final String ROUND = "ROUND";
   public static final String TRUNCATE = "TRUNCATE";
 
@@ -59,6 +77,10 @@ public final class DecimalUtils {
    * @return a java.math.BigDecimal built from the DECIMAL_WIDTH bytes at srcAddr
    */
   public static BigDecimal getBigDecimalFromLEBytes(long srcAddr, byte[] buf, final int scale) {
+    final long low = PlatformDependent.getLong(srcAddr);
+    if (fitsInLong(PlatformDependent.getLong(srcAddr + LENGTH_OF_LONG), low)) {
+      return BigDecimal.valueOf(low, scale);
+    }
     // java.math.BigInteger is big endian
     // the Decimal ArrowBuf is little endian
     for (int b = 0; b < DECIMAL_WIDTH; b++) {
@@ -69,6 +91,173 @@ public final class DecimalUtils {
     return new BigDecimal(unscaledValue, scale);
   }
 
+  /**
+   * Read a Decimal value from direct memory at address 'srcAddr', as a double.
+   * Requires a temporary buffer, of width DECIMAL_WIDTH
+   * @return the double closest to the DECIMAL_WIDTH bytes at srcAddr
+   */
+  public static double getDoubleFromLEBytes(long srcAddr, byte[] buf, final int scale) {
+    final long low = PlatformDependent.getLong(srcAddr);
+    // both the unscaled value and the power of ten are exact doubles, so their quotient is correctly rounded
+    if (fitsInLong(PlatformDependent.getLong(srcAddr + LENGTH_OF_LONG), low)
+      && Math.abs(low) <= MAX_EXACT_DOUBLE && scale >= 0 && scale < DOUBLE_POWERS_OF_TEN.length) {
+      return low / DOUBLE_POWERS_OF_TEN[scale];
+    }
+    return getBigDecimalFromLEBytes(srcAddr, buf, scale).doubleValue();
+  }
+
+  /**
+   * Checks whether a 16 byte decimal, given as its low and high order longs, fits in a long, i.e. its high order
+   * long only extends the sign of its low order long.
+   */
+  public static boolean fitsInLong(long high, long low) {
+    return high == (low >> 63);
+  }
+
+  /**
+   * Adds or subtracts two 16 byte decimals with 64-bit arithmetic, when both fit in a long and so does the result.
+   * Same as {@link com.dremio.exec.expr.fn.impl.DecimalFunctions#addOrSubtract}: the values are brought to the
+   * higher scale of the two, and the result is rounded half up to the output scale.
+   *
+   * @return true if the result was written at the result address, false if the operation needs more than 64 bits
+   * and was not done
+   */
+  public static boolean addOrSubtractLongDecimals(boolean isSubtract, long leftAddr, int leftScale, long rightAddr,
+                                                  int rightScale, int outScale, long resultAddr) {
+    final long leftLow = PlatformDependent.getLong(leftAddr);
+    final long rightLow = PlatformDependent.getLong(rightAddr);
+    if (!fitsInLong(PlatformDependent.getLong(leftAddr + LENGTH_OF_LONG), leftLow)
+      || !fitsInLong(PlatformDependent.getLong(rightAddr + LENGTH_OF_LONG), rightLow)) {
+      return false;
+    }
+    final int higherScale = Math.max(leftScale, rightScale);
+    if (higherScale < outScale || higherScale - Math.min(leftScale, rightScale) >= LONG_POWERS_OF_TEN.length
+      || higherScale - outScale >= LONG_POWERS_OF_TEN.length) {
+      return false;
+    }
+    final long left = leftLow * LONG_POWERS_OF_TEN[higherScale - leftScale];
+    final long right = rightLow * LONG_POWERS_OF_TEN[higherScale - rightScale];
+    if (!isExactProduct(leftLow, LONG_POWERS_OF_TEN[higherScale - leftScale], left)
+      || !isExactProduct(rightLow, LONG_POWERS_OF_TEN[higherScale - rightScale], right)
+      || (isSubtract && right == Long.MIN_VALUE)) {
+      return false;
+    }
+    final long other = isSubtract ? -right : right;
+    final long result = left + other;
+    if (((left ^ result) & (other ^ result)) < 0) {
+      return false;
+    }
+    putLong(resultAddr, roundHalfUp(result, higherScale - outScale));
+    return true;
+  }
+
+  /**
+   * Multiplies two 16 byte decimals with 64-bit arithmetic, when both fit in a long and so does their product. The
+   * product is rounded half up to the output scale.
+   *
+   * @return true if the result was written at the result address, false if the operation needs more than 64 bits
+   * and was not done
+   */
+  public static boolean multiplyLongDecimals(long leftAddr, int leftScale, long rightAddr, int rightScale,
+                                             int outScale, long resultAddr) {
+    final long leftLow = PlatformDependent.getLong(leftAddr);
+    final long rightLow = PlatformDependent.getLong(rightAddr);
+    if (!fitsInLong(PlatformDependent.getLong(leftAddr + LENGTH_OF_LONG), leftLow)
+      || !fitsInLong(PlatformDependent.getLong(rightAddr + LENGTH_OF_LONG), rightLow)) {
+      return false;
+    }
+    final int productScale = leftScale + rightScale;
+    if (productScale < outScale || productScale - outScale >= LONG_POWERS_OF_TEN.length) {
+      return false;
+    }
+    final long product = leftLow * rightLow;
+    if (!isExactProduct(leftLow, rightLow, product)) {
+      return false;
+    }
+    putLong(resultAddr, roundHalfUp(product, productScale - outScale));
+    return true;
+  }
+
+  /**
+   * Compares two 16 byte decimals of possibly different scales. Decimals of the same scale are compared as two
+   * longs, and decimals that fit in a long are brought to the same scale with 64-bit arithmetic when possible.
+   *
+   * @return -ve if left < right, 0 if equal and +ve if left > right
+   */
+  public static int compareDecimals(ArrowBuf left, long leftStart, int leftScale,
+                                    ArrowBuf right, long rightStart, int rightScale) {
+    final long leftAddr = left.memoryAddress() + leftStart;
+    final long rightAddr = right.memoryAddress() + rightStart;
+    final long leftLow = PlatformDependent.getLong(leftAddr);
+    final long leftHigh = PlatformDependent.getLong(leftAddr + LENGTH_OF_LONG);
+    final long rightLow = PlatformDependent.getLong(rightAddr);
+    final long rightHigh = PlatformDependent.getLong(rightAddr + LENGTH_OF_LONG);
+    if (leftScale == rightScale) {
+      return compareDecimalsAsTwoLongs(leftHigh, leftLow, rightHigh, rightLow);
+    }
+
+    if (fitsInLong(leftHigh, leftLow) && fitsInLong(rightHigh, rightLow)
+      && Math.abs(leftScale - rightScale) < LONG_POWERS_OF_TEN.length) {
+      final long leftScaled;
+      final long rightScaled;
+      final boolean exact;
+      if (leftScale < rightScale) {
+        final long factor = LONG_POWERS_OF_TEN[rightScale - leftScale];
+        leftScaled = leftLow * factor;
+        rightScaled = rightLow;
+        exact = isExactProduct(leftLow, factor, leftScaled);
+      } else {
+        final long factor = LONG_POWERS_OF_TEN[leftScale - rightScale];
+        leftScaled = leftLow;
+        rightScaled = rightLow * factor;
+        exact = isExactProduct(rightLow, factor, rightScaled);
+      }
+      if (exact) {
+        return Long.compare(leftScaled, rightScaled);
+      }
+    }
+
+    return toBigDecimal(leftHigh, leftLow, leftScale).compareTo(toBigDecimal(rightHigh, rightLow, rightScale));
+  }
+
+  // the decimal of the given scale whose unscaled value has the given low and high order longs
+  private static BigDecimal toBigDecimal(long high, long low, int scale) {
+    if (fitsInLong(high, low)) {
+      return BigDecimal.valueOf(low, scale);
+    }
+    final BigInteger unscaled = BigInteger.valueOf(high).shiftLeft(64)
+      .add(BigInteger.valueOf(low >>> 1).shiftLeft(1).or(BigInteger.valueOf(low & 1)));
+    return new BigDecimal(unscaled, scale);
+  }
+
+  // same check as Math.multiplyExact, without the exception
+  private static boolean isExactProduct(long x, long y, long product) {
+    if (((Math.abs(x) | Math.abs(y)) >>> 31) != 0) {
+      return !((y != 0 && product / y != x) || (x == Long.MIN_VALUE && y == -1));
+    }
+    return true;
+  }
+
+  // divides the value by 10^scaleDelta, rounding half away from zero as BigDecimal.ROUND_HALF_UP
+  private static long roundHalfUp(long value, int scaleDelta) {
+    if (scaleDelta == 0) {
+      return value;
+    }
+    final long divisor = LONG_POWERS_OF_TEN[scaleDelta];
+    final long quotient = value / divisor;
+    final long remainder = Math.abs(value % divisor);
+    if (remainder >= divisor - remainder) {
+      return value < 0 ? quotient - 1 : quotient + 1;
+    }
+    return quotient;
+  }
+
+  // writes a long as a 16 byte decimal
+  private static void putLong(long resultAddr, long value) {
+    PlatformDependent.putLong(resultAddr, value);
+    PlatformDependent.putLong(resultAddr + LENGTH_OF_LONG, value >> 63);
+  }
+
   /**
    * Given a byte array representing a decimal in big endian format
    * Converts it to Arrow Little Endian represenation of length 16 bytes.
@@ -188,6 +377,15 @@ public final class DecimalUtils {
    */
   public static void addSignedDecimals(long resultMemoryAddress, long leftValLow,
                                        long leftValHigh, long rightValLow, long rightValHigh) {
+    // fast path, both values and their sum fit in a long
+    if (fitsInLong(leftValHigh, leftValLow) && fitsInLong(rightValHigh, rightValLow)) {
+      final long sum = leftValLow + rightValLow;
+      if (((leftValLow ^ sum) & (rightValLow ^ sum)) >= 0) {
+        putLong(resultMemoryAddress, sum);
+        return;
+      }
+    }
+
     boolean isNegative1 = leftValHigh < 0;
     boolean isNegative2 = rightValHigh < 0;
 
@@ -21,6 +21,7 @@ import com.dremio.common.utils.protos.QueryWritableBatch;
 import com.dremio.options.OptionManager;
 import com.dremio.proto.model.attempts.AttemptReason;
 import com.dremio.sabot.op.aggregate.vectorized.VectorizedHashAggOperator;
+import com.dremio.sabot.op.sender.broadcast.BroadcastOperator;
 import com.google.common.base.Preconditions;
 
 /**
@@ -35,6 +36,8 @@ abstract class BaseAttemptHandler implements ReAttemptHandler {
 
   private boolean recoveringFromOOM;
 
+  private boolean recoveringFromBroadcastLimit;
+
   private volatile boolean nonEmptyBatchSent; // did we send any data to the client ?
 
   BaseAttemptHandler(OptionManager options) {
@@ -46,6 +49,11 @@ abstract class BaseAttemptHandler implements ReAttemptHandler {
     return recoveringFromOOM;
   }
 
+  @Override
+  public boolean hasBroadcastLimitExceeded() {
+    return recoveringFromBroadcastLimit;
+  }
+
   @Override
   public void newAttempt() {}
 
@@ -107,6 +115,20 @@ abstract class BaseAttemptHandler implements ReAttemptHandler {
         return AttemptReason.INVALID_DATASET_METADATA;
       case RESOURCE_TIMEOUT:
         return AttemptReason.RESOURCE_TIMEOUT;
+      case RETRY_ATTEMPT_ERROR: {
+        if (!ex.getContextStrings().contains(BroadcastOperator.RECORD_LIMIT_EXCEEDED_MSG)) {
+          return AttemptReason.NONE;
+        }
+        if (recoveringFromBroadcastLimit) {
+          // broadcast joins are already disabled
+          logger.info("{}: couldn't recover from an oversized broadcast as broadcast joins are already disabled",
+                  attemptId);
+          return AttemptReason.NONE;
+        }
+
+        recoveringFromBroadcastLimit = true;
+        return AttemptReason.BROADCAST_LIMIT_EXCEEDED;
+      }
       default:
         return AttemptReason.NONE;
     }
@@ -175,7 +175,10 @@ public class Foreman {
 
       OptionProvider optionProvider = config;
       if (reason != AttemptReason.NONE && attemptHandler.hasOOM()) {
-        optionProvider = new LowMemOptionProvider(config);
+        optionProvider = new LowMemOptionProvider(optionProvider);
+      }
+      if (reason != AttemptReason.NONE && attemptHandler.hasBroadcastLimitExceeded()) {
+        optionProvider = new NoBroadcastOptionProvider(optionProvider);
       }
 
       attemptManager = newAttemptManager(context, attemptId, request, attemptObserver, session,
@@ -553,4 +556,25 @@ public class Foreman {
         PlannerSettings.HASHAGG.getOptionName(), false));
     }
   }
+
+  /**
+   * Disables broadcast joins after the build side of one of them turned out to be much larger than estimated.
+   */
+  private static class NoBroadcastOptionProvider implements OptionProvider {
+
+    private final OptionProvider optionProvider;
+
+    NoBroadcastOptionProvider(OptionProvider optionProvider) {
+      this.optionProvider = optionProvider;
+    }
+
+    @Override
+    public void applyOptions(OptionManager manager) {
+      if (optionProvider != null) {
+        optionProvider.applyOptions(manager);
+      }
+      manager.setOption(OptionValue.createBoolean(OptionValue.OptionType.QUERY,
+        PlannerSettings.BROADCAST.getOptionName(), false));
+    }
+  }
 }
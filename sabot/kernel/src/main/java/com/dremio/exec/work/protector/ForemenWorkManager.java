@@ -122,7 +122,8 @@ public class ForemenWorkManager implements Service, SafeExit {
           // Prepared statement handles are memory intensive. If there is memory pressure,
           // let GC release them as last resort before running OOM.
           .softValues()
-          .expireAfterWrite(Long.getLong(PREPARE_HANDLE_TIMEOUT_MS, 60_000L), TimeUnit.MILLISECONDS)
+          // handles in use stay cached, their plans are dropped when the datasets they read change
+          .expireAfterAccess(Long.getLong(PREPARE_HANDLE_TIMEOUT_MS, 60_000L), TimeUnit.MILLISECONDS)
           .build();
 
   // single map of currently running queries, mapped by their external ids.
@@ -32,6 +32,11 @@ class NoReAttemptHandler implements ReAttemptHandler {
     throw new IllegalStateException("should not be called!");
   }
 
+  @Override
+  public boolean hasBroadcastLimitExceeded() {
+    throw new IllegalStateException("should not be called!");
+  }
+
   @Override
   public AttemptReason isRecoverable(final ReAttemptContext context) {
     logger.info("{}: cannot re-attempt the query, re-attempts are disabled", context.getAttemptId());
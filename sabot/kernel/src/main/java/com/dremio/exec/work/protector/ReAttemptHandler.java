@@ -30,6 +30,11 @@ public interface ReAttemptHandler {
    */
   boolean hasOOM();
 
+  /**
+   * @return true if one of the previous attempts failed because a broadcast join build side was too large
+   */
+  boolean hasBroadcastLimitExceeded();
+
   /**
    * allows the handler to reset its internal state if needed
    */
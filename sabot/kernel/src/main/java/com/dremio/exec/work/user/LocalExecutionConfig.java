@@ -44,6 +44,7 @@ public class LocalExecutionConfig implements OptionProvider {
   private final SubstitutionSettings substitutionSettings;
   private final boolean exposeInternalSources;
   private final String engineName;
+  private final boolean earlyFirstBatch;
 
   LocalExecutionConfig(final boolean enableLeafLimits,
                        final boolean enableOutputLimits,
@@ -55,7 +56,8 @@ public class LocalExecutionConfig implements OptionProvider {
                        final boolean allowPartitionPruning,
                        final boolean exposeInternalSources,
                        final SubstitutionSettings substitutionSettings,
-                       final String engineName) {
+                       final String engineName,
+                       final boolean earlyFirstBatch) {
     this.enableLeafLimits = enableLeafLimits;
     this.enableOutputLimits = enableOutputLimits;
     this.failIfNonEmptySent = failIfNonEmptySent;
@@ -67,6 +69,7 @@ public class LocalExecutionConfig implements OptionProvider {
     this.allowPartitionPruning = allowPartitionPruning;
     this.exposeInternalSources = exposeInternalSources;
     this.engineName = engineName;
+    this.earlyFirstBatch = earlyFirstBatch;
   }
 
   public String getUsername() {
@@ -111,6 +114,10 @@ public class LocalExecutionConfig implements OptionProvider {
     manager.setOption(createString(QUERY,
         PlannerSettings.QUERY_RESULTS_STORE_TABLE.getOptionName(), queryResultsStorePath));
 
+    if (earlyFirstBatch) {
+      manager.setOption(createBoolean(QUERY, ExecConstants.JOB_RESULTS_EARLY_FIRST_BATCH.getOptionName(), true));
+    }
+
     if (!allowPartitionPruning) {
       manager.setOption(createBoolean(QUERY, PlannerSettings.ENABLE_PARTITION_PRUNING.getOptionName(), false));
     }
@@ -134,6 +141,7 @@ public class LocalExecutionConfig implements OptionProvider {
     private boolean exposeInternalSources;
     private SubstitutionSettings substitutionSettings;
     private String engineName;
+    private boolean earlyFirstBatch;
 
     private Builder() {
     }
@@ -259,6 +267,18 @@ public class LocalExecutionConfig implements OptionProvider {
       return this;
     }
 
+    /**
+     * Sets the flag to store the first batch of results as soon as it is written, so that it can be read before the
+     * query completes.
+     *
+     * @param earlyFirstBatch store the first batch early
+     * @return this builder
+     */
+    public Builder setEarlyFirstBatch(boolean earlyFirstBatch) {
+      this.earlyFirstBatch = earlyFirstBatch;
+      return this;
+    }
+
     public LocalExecutionConfig build() {
       return new LocalExecutionConfig(
           enableLeafLimits,
@@ -271,7 +291,8 @@ public class LocalExecutionConfig implements OptionProvider {
           allowPartitionPruning,
           exposeInternalSources,
           substitutionSettings,
-          engineName);
+          engineName,
+          earlyFirstBatch);
     }
   }
 
@@ -47,7 +47,10 @@ import com.dremio.service.coordinator.NodeStatusListener;
 import com.dremio.service.jobtelemetry.client.JobTelemetryExecutorClient;
 import com.dremio.service.maestroservice.MaestroClient;
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.protobuf.Empty;
 
 import io.grpc.stub.StreamObserver;
@@ -83,6 +86,8 @@ class MaestroProxyQueryTracker implements QueryTracker {
   private volatile boolean foremanDead;
   private AtomicInteger pendingMessages = new AtomicInteger(0);
   private Set<FragmentHandle> pendingFragments = null;
+  // last profile sent, without the time of the last update of its fragments
+  private ExecutorQueryProfile lastSentProfile;
 
   /**
    * Initialize with the set of fragment handles for the query before
@@ -203,8 +208,40 @@ class MaestroProxyQueryTracker implements QueryTracker {
         return Optional.empty();
       }
       profile = getExecutorQueryProfile();
+      // nothing changed on this executor since the last update, skip sending it again. The status reporter stamps
+      // every running fragment with the time of each refresh, so that time alone does not count as a change.
+      final ExecutorQueryProfile comparableProfile = withoutUpdateTimes(profile);
+      if (comparableProfile.equals(lastSentProfile)) {
+        return Optional.empty();
+      }
+      lastSentProfile = comparableProfile;
+    }
+    final ExecutorQueryProfile sentProfile = lastSentProfile;
+    final ListenableFuture<Empty> future = jobTelemetryClient.putExecutorProfile(profile);
+    Futures.addCallback(future, new FutureCallback<Empty>() {
+      @Override
+      public void onSuccess(Empty result) {
+      }
+
+      @Override
+      public void onFailure(Throwable t) {
+        // the profile did not reach the coordinator, send it again with the next update.
+        synchronized (MaestroProxyQueryTracker.this) {
+          if (lastSentProfile == sentProfile) {
+            lastSentProfile = null;
+          }
+        }
+      }
+    }, MoreExecutors.directExecutor());
+    return Optional.of(future);
+  }
+
+  private static ExecutorQueryProfile withoutUpdateTimes(ExecutorQueryProfile profile) {
+    final ExecutorQueryProfile.Builder builder = profile.toBuilder();
+    for (FragmentStatus.Builder fragment : builder.getFragmentsBuilderList()) {
+      fragment.getProfileBuilder().clearLastUpdate();
     }
-    return Optional.of(jobTelemetryClient.putExecutorProfile(profile));
+    return builder.build();
   }
 
   private ExecutorQueryProfile getExecutorQueryProfile() {
@@ -355,6 +392,7 @@ class MaestroProxyQueryTracker implements QueryTracker {
   public void sendNodeCompletion(ExecutorQueryProfile finalQueryProfile) {
     state = State.DONE;
     lastFragmentStatuses.clear(); // not required any more.
+    lastSentProfile = null;
     queryTicket = null;
     sendCompletionMessage(finalQueryProfile);
     firstErrorInQuery = null;
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.copier;
+
+import java.util.List;
+
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.ValueVector;
+
+import com.carrotsearch.hppc.IntHashSet;
+import com.dremio.common.AutoCloseables;
+import com.dremio.common.expression.LogicalExpression;
+import com.dremio.exec.expr.ValueVectorReadExpression;
+import com.dremio.exec.record.BatchSchema.SelectionVectorMode;
+import com.dremio.exec.record.VectorAccessible;
+import com.dremio.exec.record.VectorContainer;
+import com.dremio.exec.record.VectorWrapper;
+import com.dremio.exec.record.selection.SelectionVector2;
+import com.dremio.sabot.exec.context.OperatorContext;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+/**
+ * Copies the records selected by the SV2 of a batch into a batch without selection vector, for the columns read by
+ * an operator only.
+ *
+ * Lets an operator evaluating expressions consume a filtered batch without a SelectionVectorRemover copying all its
+ * columns first. The output has the same schema as the incoming batch, so that expressions materialized against
+ * it read the same field ids. The columns that are not read are left empty.
+ */
+public class SelectedColumnsCopier implements AutoCloseable {
+
+  private final VectorAccessible incoming;
+  private final VectorContainer output;
+  private final SelectionVector2 sv2;
+  private final IntHashSet readFieldIds = new IntHashSet();
+  private List<FieldBufferCopier> copiers = ImmutableList.of();
+  private List<ValueVector> copiedVectors = ImmutableList.of();
+
+  public SelectedColumnsCopier(OperatorContext context, VectorAccessible incoming) {
+    Preconditions.checkArgument(incoming.getSchema().getSelectionVectorMode() == SelectionVectorMode.TWO_BYTE);
+    this.incoming = incoming;
+    this.sv2 = incoming.getSelectionVector2();
+    this.output = context.createOutputVectorContainer(incoming.getSchema());
+    this.output.buildSchema(SelectionVectorMode.NONE);
+  }
+
+  /**
+   * @return the batch of selected records, to materialize the expressions against
+   */
+  public VectorContainer getOutput() {
+    return output;
+  }
+
+  /**
+   * Marks the columns read by a materialized expression as to be copied.
+   */
+  public void addReadColumns(LogicalExpression expr) {
+    if (expr instanceof ValueVectorReadExpression) {
+      readFieldIds.add(((ValueVectorReadExpression) expr).getFieldId().getFieldIds()[0]);
+      return;
+    }
+    for (LogicalExpression child : expr) {
+      addReadColumns(child);
+    }
+  }
+
+  /**
+   * Sets up the copy of the columns read by the expressions added so far.
+   */
+  public void setup() {
+    final List<FieldVector> inputs = Lists.newArrayList();
+    final List<FieldVector> outputs = Lists.newArrayList();
+    int fieldId = 0;
+    for (VectorWrapper<?> wrapper : output) {
+      if (readFieldIds.contains(fieldId)) {
+        outputs.add((FieldVector) wrapper.getValueVector());
+        inputs.add((FieldVector) incoming.getValueAccessorById(FieldVector.class, fieldId).getValueVector());
+      }
+      fieldId++;
+    }
+    copiers = FieldBufferCopier.getCopiers(inputs, outputs);
+    copiedVectors = ImmutableList.copyOf(outputs);
+  }
+
+  /**
+   * Copies the selected records of the current incoming batch.
+   *
+   * @param records number of selected records
+   */
+  public void copy(int records) {
+    for (FieldBufferCopier copier : copiers) {
+      copier.copy(sv2.memoryAddress(), records);
+    }
+    for (ValueVector vector : copiedVectors) {
+      vector.setValueCount(records);
+    }
+    output.setRecordCount(records);
+  }
+
+  /**
+   * @return number of columns copied for each batch
+   */
+  public int getNumCopiedColumns() {
+    return copiedVectors.size();
+  }
+
+  @Override
+  public void close() throws Exception {
+    AutoCloseables.close(output);
+  }
+}
@@ -35,8 +35,10 @@ import com.dremio.exec.record.BatchSchema.SelectionVectorMode;
 import com.dremio.exec.record.VectorAccessible;
 import com.dremio.exec.record.VectorContainer;
 import com.dremio.exec.record.VectorWrapper;
+import com.dremio.exec.record.selection.SelectionVector2;
 import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.exec.context.OperatorStats;
+import com.dremio.sabot.op.copier.SelectedColumnsCopier;
 import com.dremio.sabot.op.filter.FilterStats.Metric;
 import com.dremio.sabot.op.spi.SingleInputOperator;
 import com.google.common.base.Stopwatch;
@@ -58,6 +60,8 @@ public class FilterOperator implements SingleInputOperator {
   private Stopwatch javaCodeGenWatch = Stopwatch.createUnstarted();
   private Stopwatch gandivaCodeGenWatch = Stopwatch.createUnstarted();
   private ExpressionSplitter splitter;
+  // copies the selected records of the columns read when the input has an SV2, null otherwise
+  private SelectedColumnsCopier selectedColumnsCopier;
 
   public FilterOperator(Filter pop, OperatorContext context) throws OutOfMemoryException {
     this.config = pop;
@@ -77,7 +81,11 @@ public class FilterOperator implements SingleInputOperator {
         generateSV2Filterer(accessible);
         break;
       case TWO_BYTE:
-        throw new UnsupportedOperationException("Filter operator does not support SV2");
+        // the filter is evaluated over a copy of the selected records of the columns it reads, and its output
+        // selection vector is mapped back to the records of the input
+        selectedColumnsCopier = new SelectedColumnsCopier(context, accessible);
+        generateSV2Filterer(selectedColumnsCopier.getOutput());
+        break;
       case FOUR_BYTE:
         throw new UnsupportedOperationException("Filter operator does not support SV4");
       default:
@@ -97,7 +105,13 @@ public class FilterOperator implements SingleInputOperator {
       return;
     }
 
+    if (selectedColumnsCopier != null) {
+      selectedColumnsCopier.copy(records);
+    }
     recordCount = splitter.filterData(records, javaCodeGenWatch, gandivaCodeGenWatch);
+    if (selectedColumnsCopier != null) {
+      combineSelectionVectors();
+    }
 
     doTransfers();
     state = State.CAN_PRODUCE;
@@ -129,9 +143,12 @@ public class FilterOperator implements SingleInputOperator {
 
   @Override
   public void close() throws Exception {
-    AutoCloseables.close(output, splitter);
+    AutoCloseables.close(output, splitter, selectedColumnsCopier);
     context.getStats().addLongStat(Metric.JAVA_EXECUTE_TIME, javaCodeGenWatch.elapsed(TimeUnit.MILLISECONDS));
     context.getStats().addLongStat(Metric.GANDIVA_EXECUTE_TIME, gandivaCodeGenWatch.elapsed(TimeUnit.MILLISECONDS));
+    if (splitter != null) {
+      context.getStats().addLongStat(Metric.INTERPRETED_BATCHES, splitter.getNumInterpretedBatches());
+    }
     javaCodeGenWatch.reset();
     gandivaCodeGenWatch.reset();
   }
@@ -144,8 +161,14 @@ public class FilterOperator implements SingleInputOperator {
     stats.addLongStat(Metric.JAVA_EXPRESSIONS, splitter.getNumExprsInJava());
     stats.addLongStat(Metric.GANDIVA_EXPRESSIONS, splitter.getNumExprsInGandiva());
     stats.addLongStat(Metric.MIXED_SPLITS, splitter.getNumSplitsInBoth());
+    stats.addLongStat(Metric.SHARED_SPLITS, splitter.getNumSharedSplits());
+    if (selectedColumnsCopier != null) {
+      stats.addLongStat(Metric.SELECTED_COLUMNS_COPIED, selectedColumnsCopier.getNumCopiedColumns());
+    }
     stats.addLongStat(Metric.JAVA_BUILD_TIME, javaCodeGenWatch.elapsed(TimeUnit.MILLISECONDS));
     stats.addLongStat(Metric.GANDIVA_BUILD_TIME, gandivaCodeGenWatch.elapsed(TimeUnit.MILLISECONDS));
+    stats.addLongStat(Metric.GANDIVA_MODULES_CACHED, splitter.getNumGandivaModulesCached());
+    stats.addLongStat(Metric.GANDIVA_MODULES_BUILT, splitter.getNumGandivaModulesBuilt());
     stats.setProfileDetails(OperatorProfileDetails
       .newBuilder()
       .addAllSplitInfos(splitter.getSplitInfos())
@@ -167,12 +190,25 @@ public class FilterOperator implements SingleInputOperator {
 
   private void setupSplitter(VectorAccessible accessible) throws Exception {
     final LogicalExpression expr = context.getClassProducer().materializeAndAllowComplex(filterOptions,
-      config.getExpr(), input);
+      config.getExpr(), accessible);
+    if (selectedColumnsCopier != null) {
+      selectedColumnsCopier.addReadColumns(expr);
+      selectedColumnsCopier.setup();
+    }
     splitter = new ExpressionSplitter(context, accessible, filterOptions,
       context.getClassProducer().getFunctionLookupContext().isDecimalV2Enabled());
     splitter.setupFilter(output, new NamedExpression(expr, new FieldReference("_filter_")), javaCodeGenWatch, gandivaCodeGenWatch);
   }
 
+  // maps the selected records of the copy back to the records of the input
+  private void combineSelectionVectors() {
+    final SelectionVector2 inputSelectionVector = input.getSelectionVector2();
+    final SelectionVector2 outputSelectionVector = output.getSelectionVector2();
+    for (int i = 0; i < recordCount; i++) {
+      outputSelectionVector.setIndex(i, inputSelectionVector.getIndex(outputSelectionVector.getIndex(i)));
+    }
+  }
+
   private void doTransfers(){
     for(TransferPair t : tx){
       t.transfer();
@@ -25,7 +25,12 @@ public class FilterStats {
     GANDIVA_EXECUTE_TIME,
     JAVA_EXPRESSIONS,
     GANDIVA_EXPRESSIONS,
-    MIXED_SPLITS;
+    MIXED_SPLITS,
+    INTERPRETED_BATCHES,
+    GANDIVA_MODULES_CACHED,
+    GANDIVA_MODULES_BUILT,
+    SHARED_SPLITS,
+    SELECTED_COLUMNS_COPIED;
 
     @Override
     public int metricId() {
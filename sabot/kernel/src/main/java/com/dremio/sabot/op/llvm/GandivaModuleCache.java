@@ -0,0 +1,278 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.llvm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.apache.arrow.gandiva.exceptions.GandivaException;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.telemetry.api.metrics.Counter;
+import com.dremio.telemetry.api.metrics.Metrics;
+import com.dremio.telemetry.api.metrics.Metrics.ResetType;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.protobuf.ByteString;
+
+/**
+ * Executor wide cache of Gandiva projectors and filters, so that the fragments of a query, and the queries
+ * evaluating the same expressions, don't each build their own LLVM module.
+ *
+ * Modules are keyed by the incoming schema, the serialized expressions and the build options. They are reference
+ * counted: a module evicted from the cache is closed once the last operator using it releases it. Concurrent
+ * requests for a module being built wait for it instead of building it again.
+ *
+ * Gandiva has its own native cache of compiled modules, which this cache sits in front of rather than replaces:
+ * <ul>
+ * <li>the native cache does not coalesce concurrent misses, so the fragments of a query, which set up at the same
+ * time, would all compile the same module before any of them is cached;</li>
+ * <li>a native cache hit still serializes the expressions, crosses JNI, then parses, validates and hashes them again,
+ * which is most of the setup cost of wide projections once compilation is avoided;</li>
+ * <li>the native cache is sized by the GANDIVA_CACHE_SIZE environment variable of the process, while this cache is
+ * sized, and disabled, by an option.</li>
+ * </ul>
+ */
+public final class GandivaModuleCache {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(GandivaModuleCache.class);
+
+  private static final GandivaModuleCache INSTANCE = new GandivaModuleCache();
+
+  private static final Counter HITS = Metrics.newCounter(Metrics.join("gandiva", "module_cache", "hits"), ResetType.NEVER);
+  private static final Counter MISSES = Metrics.newCounter(Metrics.join("gandiva", "module_cache", "misses"), ResetType.NEVER);
+
+  // access ordered, iteration starts with the least recently used entry
+  private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+  @VisibleForTesting
+  GandivaModuleCache() {
+  }
+
+  public static GandivaModuleCache getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Builds a module.
+   */
+  interface ModuleBuilder<T extends AutoCloseable> {
+    T build() throws GandivaException;
+  }
+
+  /**
+   * Gets the module for the key, building it if it is not cached.
+   *
+   * @param key key of the module
+   * @param maxEntries maximum number of modules to cache, 0 to disable caching
+   * @param builder builds the module on a miss
+   * @return lease on the module, to close once the module is no longer used
+   * @throws GandivaException if the module cannot be built
+   */
+  @SuppressWarnings("unchecked")
+  <T extends AutoCloseable> Lease<T> acquire(Key key, long maxEntries, ModuleBuilder<T> builder) throws GandivaException {
+    if (maxEntries <= 0) {
+      return new Lease<>(this, null, builder.build(), false);
+    }
+
+    final Entry entry;
+    final boolean hit;
+    final List<AutoCloseable> evicted;
+    synchronized (this) {
+      final Entry existing = entries.get(key);
+      if (existing != null) {
+        entry = existing;
+        hit = true;
+        evicted = null;
+      } else {
+        entry = new Entry();
+        entries.put(key, entry);
+        hit = false;
+        evicted = evict(maxEntries);
+      }
+      entry.refCount++;
+    }
+    closeEvicted(evicted);
+
+    if (!hit) {
+      MISSES.increment();
+      try {
+        entry.module.complete(builder.build());
+      } catch (GandivaException | RuntimeException e) {
+        synchronized (this) {
+          entries.remove(key, entry);
+          entry.refCount--;
+        }
+        entry.module.completeExceptionally(e);
+        throw e;
+      }
+      return new Lease<>(this, entry, (T) entry.module.join(), false);
+    }
+
+    HITS.increment();
+    try {
+      return new Lease<>(this, entry, (T) entry.module.get(), true);
+    } catch (InterruptedException | ExecutionException e) {
+      release(entry);
+      if (e instanceof InterruptedException) {
+        Thread.currentThread().interrupt();
+      }
+      final Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+      Throwables.throwIfUnchecked(cause);
+      throw new GandivaException("Failed to build Gandiva module: " + cause.getMessage());
+    }
+  }
+
+  // removes the least recently used entries over the limit, and returns the modules no longer in use
+  private List<AutoCloseable> evict(long maxEntries) {
+    final List<AutoCloseable> toClose = new ArrayList<>();
+    final Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+    while (entries.size() > maxEntries && iterator.hasNext()) {
+      final Entry entry = iterator.next().getValue();
+      iterator.remove();
+      entry.evicted = true;
+      if (entry.refCount == 0 && entry.getModule() != null) {
+        toClose.add(entry.getModule());
+      }
+    }
+    return toClose;
+  }
+
+  private void release(Entry entry) {
+    final AutoCloseable toClose;
+    synchronized (this) {
+      entry.refCount--;
+      toClose = entry.evicted && entry.refCount == 0 ? entry.getModule() : null;
+    }
+    if (toClose != null) {
+      closeEvicted(Collections.singletonList(toClose));
+    }
+  }
+
+  private static void closeEvicted(List<AutoCloseable> modules) {
+    if (modules == null || modules.isEmpty()) {
+      return;
+    }
+    try {
+      AutoCloseables.close(modules);
+    } catch (Exception e) {
+      logger.warn("Failed to close evicted Gandiva modules", e);
+    }
+  }
+
+  @VisibleForTesting
+  synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * Identifies a Gandiva module.
+   */
+  static final class Key {
+    private final boolean filter;
+    private final Schema schema;
+    private final List<ByteString> expressions;
+    private final boolean optimize;
+    private final boolean targetHostCPU;
+
+    Key(boolean filter, Schema schema, List<ByteString> expressions, boolean optimize, boolean targetHostCPU) {
+      this.filter = filter;
+      this.schema = schema;
+      this.expressions = expressions;
+      this.optimize = optimize;
+      this.targetHostCPU = targetHostCPU;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final Key key = (Key) o;
+      return filter == key.filter
+        && optimize == key.optimize
+        && targetHostCPU == key.targetHostCPU
+        && schema.equals(key.schema)
+        && expressions.equals(key.expressions);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(filter, schema, expressions, optimize, targetHostCPU);
+    }
+  }
+
+  private static final class Entry {
+    private final CompletableFuture<AutoCloseable> module = new CompletableFuture<>();
+    // both guarded by the cache
+    private int refCount;
+    private boolean evicted;
+
+    // the module, or null if it failed to build. Only called once the module is no longer in use
+    private AutoCloseable getModule() {
+      return module.isCompletedExceptionally() ? null : module.getNow(null);
+    }
+  }
+
+  /**
+   * Use of a module by an operator.
+   */
+  static final class Lease<T extends AutoCloseable> implements AutoCloseable {
+    private final GandivaModuleCache cache;
+    private final Entry entry;
+    private final T module;
+    private final boolean cacheHit;
+    private boolean closed;
+
+    private Lease(GandivaModuleCache cache, Entry entry, T module, boolean cacheHit) {
+      this.cache = cache;
+      this.entry = entry;
+      this.module = module;
+      this.cacheHit = cacheHit;
+    }
+
+    T get() {
+      return module;
+    }
+
+    boolean isCacheHit() {
+      return cacheHit;
+    }
+
+    @Override
+    public void close() throws Exception {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      if (entry == null) {
+        module.close();
+      } else {
+        cache.release(entry);
+      }
+    }
+  }
+}
@@ -15,6 +15,7 @@
  */
 package com.dremio.sabot.op.llvm;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
@@ -34,17 +35,18 @@ import com.dremio.exec.record.selection.SelectionVector2;
 import com.dremio.sabot.exec.context.FunctionContext;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import com.google.protobuf.ByteString;
 
 /**
  * Adapter to gandiva filter.
  */
 public class NativeFilter implements AutoCloseable {
 
-  private final Filter filter;
+  private final GandivaModuleCache.Lease<Filter> filter;
   private final VectorSchemaRoot root;
   private final SelectionVector2 selectionVector;
 
-  private NativeFilter(Filter filter, VectorSchemaRoot root, SelectionVector2 selectionVector) {
+  private NativeFilter(GandivaModuleCache.Lease<Filter> filter, VectorSchemaRoot root, SelectionVector2 selectionVector) {
     this.filter = filter;
     this.root = root;
     this.selectionVector = selectionVector;
@@ -58,22 +60,33 @@ public class NativeFilter implements AutoCloseable {
    * @param functionContext
    * @param optimize - should optimize the llvm build
    * @param targetHostCPU - should generate target cpu specific instructions
+   * @param moduleCacheSize - maximum number of modules in the Gandiva module cache, 0 to always build the filter
    * @return instance of Native Filter.
    * @throws GandivaException when we fail to make the gandiva filter
    */
   static public NativeFilter build(LogicalExpression expr, VectorAccessible input,
                                    SelectionVector2 selectionVector, FunctionContext functionContext,
-                                   boolean optimize, boolean targetHostCPU) throws GandivaException {
+                                   boolean optimize, boolean targetHostCPU, long moduleCacheSize) throws GandivaException {
     Set<ReferencedField> referencedFields = Sets.newHashSet();
     Condition condition = GandivaExpressionBuilder.serializeExprToCondition(input, expr, referencedFields, functionContext);
     VectorSchemaRoot root = GandivaUtils.getSchemaRoot(input, referencedFields);
     ConfigurationBuilder.ConfigOptions configOptions = (new ConfigurationBuilder.ConfigOptions())
       .withOptimize(optimize)
       .withTargetCPU(targetHostCPU);
-    Filter filter = Filter.make(root.getSchema(), condition, configOptions);
+    GandivaModuleCache.Key key = new GandivaModuleCache.Key(true, root.getSchema(),
+      Collections.singletonList(condition.toProtobuf().toByteString()), optimize, targetHostCPU);
+    GandivaModuleCache.Lease<Filter> filter = GandivaModuleCache.getInstance().acquire(key, moduleCacheSize,
+      () -> Filter.make(root.getSchema(), condition, configOptions));
     return new NativeFilter(filter, root, selectionVector);
   }
 
+  /**
+   * @return true if the filter was reused from the module cache instead of being built
+   */
+  public boolean isCacheHit() {
+    return filter.isCacheHit();
+  }
+
   /**
    * Filter a batch of records against the expression.
    * @param recordCount - number of records to consume
@@ -97,17 +110,17 @@ public class NativeFilter implements AutoCloseable {
     ArrowBuf svBuffer = selectionVector.getBuffer(false);
     SelectionVector selectionVectorGandiva = new SelectionVectorInt16(svBuffer);
 
-    filter.evaluate(recordCount, buffers, selectionVectorGandiva);
+    filter.get().evaluate(recordCount, buffers, selectionVectorGandiva);
     selectionVector.setRecordCount(selectionVectorGandiva.getRecordCount());
     return selectionVector.getCount();
   }
 
   /**
-   * Close the underlying gandiva filter.
-   * @throws GandivaException
+   * Release the underlying gandiva filter.
+   * @throws Exception
    */
   @Override
-  public void close() throws GandivaException {
+  public void close() throws Exception {
     filter.close();
   }
 }
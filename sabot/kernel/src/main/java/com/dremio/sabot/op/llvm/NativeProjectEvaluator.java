@@ -22,8 +22,23 @@ public abstract class NativeProjectEvaluator implements AutoCloseable {
 
   public abstract void evaluate(int recordCount) throws Exception;
 
-  public static NativeProjectorBuilder builder(VectorAccessible input, FunctionContext functionContext, boolean targetHostCPU) {
-    return new NativeProjectorBuilder(input, functionContext, targetHostCPU);
+  /**
+   * @return number of Gandiva modules reused from the module cache
+   */
+  public int getCachedModules() {
+    return 0;
+  }
+
+  /**
+   * @return number of Gandiva modules built for this evaluator
+   */
+  public int getBuiltModules() {
+    return 0;
+  }
+
+  public static NativeProjectorBuilder builder(VectorAccessible input, FunctionContext functionContext, boolean targetHostCPU,
+                                               long moduleCacheSize) {
+    return new NativeProjectorBuilder(input, functionContext, targetHostCPU, moduleCacheSize);
   }
 
 
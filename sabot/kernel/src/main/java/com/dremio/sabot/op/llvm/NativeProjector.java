@@ -34,19 +34,22 @@ import com.dremio.exec.record.VectorAccessible;
 import com.dremio.sabot.exec.context.FunctionContext;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import com.google.protobuf.ByteString;
 
 public class NativeProjector implements AutoCloseable {
   private final VectorAccessible incoming;
   private List<ExpressionTree> columnExprList = new ArrayList<>();
-  private Projector projector = null;
+  private GandivaModuleCache.Lease<Projector> projector = null;
   private VectorSchemaRoot root;
   private final Schema schema;
   private final FunctionContext functionContext;
   private final Set<ReferencedField> referencedFields;
   private final boolean optimize;
   private final boolean targetHostCPU;
+  private final long moduleCacheSize;
 
-  NativeProjector(VectorAccessible incoming, Schema schema, FunctionContext functionContext, boolean optimize, boolean targetHostCPU) {
+  NativeProjector(VectorAccessible incoming, Schema schema, FunctionContext functionContext, boolean optimize, boolean targetHostCPU,
+                  long moduleCacheSize) {
     this.incoming = incoming;
     this.schema = schema;
     this.functionContext = functionContext;
@@ -54,6 +57,7 @@ public class NativeProjector implements AutoCloseable {
     referencedFields =Sets.newLinkedHashSet();
     this.optimize = optimize;
     this.targetHostCPU = targetHostCPU;
+    this.moduleCacheSize = moduleCacheSize;
   }
 
   public void add(LogicalExpression expr, FieldVector outputVector) {
@@ -68,10 +72,24 @@ public class NativeProjector implements AutoCloseable {
       .withOptimize(optimize)
       .withTargetCPU(targetHostCPU);
     referencedFields.clear();
-    projector = Projector.make(root.getSchema(), columnExprList, configOptions);
+    final List<ByteString> serializedExprs = new ArrayList<>(columnExprList.size());
+    for (ExpressionTree tree : columnExprList) {
+      serializedExprs.add(tree.toProtobuf().toByteString());
+    }
+    final GandivaModuleCache.Key key = new GandivaModuleCache.Key(false, root.getSchema(), serializedExprs, optimize, targetHostCPU);
+    final List<ExpressionTree> exprs = new ArrayList<>(columnExprList);
+    projector = GandivaModuleCache.getInstance().acquire(key, moduleCacheSize,
+      () -> Projector.make(root.getSchema(), exprs, configOptions));
     columnExprList.clear();
   }
 
+  /**
+   * @return true if the projector was reused from the module cache instead of being built
+   */
+  public boolean isCacheHit() {
+    return projector.isCacheHit();
+  }
+
   public void execute(int recordCount, List<ValueVector> outVectors) throws Exception {
     root.setRowCount(recordCount);
 
@@ -80,7 +98,7 @@ public class NativeProjector implements AutoCloseable {
       buffers.addAll(v.getFieldBuffers());
     }
 
-    projector.evaluate(recordCount, buffers, outVectors);
+    projector.get().evaluate(recordCount, buffers, outVectors);
   }
 
   @Override
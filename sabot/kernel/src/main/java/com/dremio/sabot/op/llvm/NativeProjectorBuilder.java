@@ -42,11 +42,14 @@ public class NativeProjectorBuilder {
   private final VectorAccessible incoming;
   private final FunctionContext functionContext;
   private final boolean targetHostCPU;
+  private final long moduleCacheSize;
 
-  public NativeProjectorBuilder(VectorAccessible incoming, FunctionContext functionContext, Boolean targetHostCPU) {
+  public NativeProjectorBuilder(VectorAccessible incoming, FunctionContext functionContext, Boolean targetHostCPU,
+                                long moduleCacheSize) {
     this.incoming = incoming;
     this.functionContext = functionContext;
     this.targetHostCPU = targetHostCPU;
+    this.moduleCacheSize = moduleCacheSize;
   }
 
   /**
@@ -65,8 +68,8 @@ public class NativeProjectorBuilder {
       return NO_OP;
     }
 
-    final NativeProjector projectorWithOpt = new NativeProjector(incoming, incomingSchema, functionContext, true, targetHostCPU);
-    final NativeProjector projectorWithNoOpt = new NativeProjector(incoming, incomingSchema, functionContext, false, targetHostCPU);
+    final NativeProjector projectorWithOpt = new NativeProjector(incoming, incomingSchema, functionContext, true, targetHostCPU, moduleCacheSize);
+    final NativeProjector projectorWithNoOpt = new NativeProjector(incoming, incomingSchema, functionContext, false, targetHostCPU, moduleCacheSize);
     for (ExprPairing e : exprs) {
       if (e.optimize) {
         projectorWithOpt.add(e.expr, e.outputVector);
@@ -76,15 +79,30 @@ public class NativeProjectorBuilder {
         allocationVectorsForNoOpt.add(e.outputVector);
       }
     }
+    int cachedModules = 0;
     if (!allocationVectorsForOpt.isEmpty()) {
       projectorWithOpt.build();
+      cachedModules += projectorWithOpt.isCacheHit() ? 1 : 0;
     }
     if (!allocationVectorsForNoOpt.isEmpty()) {
       projectorWithNoOpt.build();
+      cachedModules += projectorWithNoOpt.isCacheHit() ? 1 : 0;
     }
+    final int modules = (allocationVectorsForOpt.isEmpty() ? 0 : 1) + (allocationVectorsForNoOpt.isEmpty() ? 0 : 1);
+    final int modulesFromCache = cachedModules;
 
     return new NativeProjectEvaluator() {
 
+      @Override
+      public int getCachedModules() {
+        return modulesFromCache;
+      }
+
+      @Override
+      public int getBuiltModules() {
+        return modules - modulesFromCache;
+      }
+
       @Override
       public void close() throws Exception {
         List<NativeProjector> projectors = new ArrayList<>();
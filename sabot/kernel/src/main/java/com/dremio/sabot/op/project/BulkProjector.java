@@ -0,0 +1,31 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.project;
+
+import com.dremio.exec.compile.TemplateClassDefinition;
+import com.dremio.exec.exception.SchemaChangeException;
+import com.dremio.exec.record.VectorAccessible;
+import com.dremio.sabot.exec.context.FunctionContext;
+
+/**
+ * Projector evaluating fixed width expressions a batch at a time, see BulkExpressionGenerator.
+ */
+public interface BulkProjector {
+
+  void setup(FunctionContext context, VectorAccessible incoming, VectorAccessible outgoing) throws SchemaChangeException;
+  void projectRecords(int recordCount);
+  TemplateClassDefinition<BulkProjector> TEMPLATE_DEFINITION = new TemplateClassDefinition<BulkProjector>(BulkProjector.class, BulkProjectorTemplate.class);
+}
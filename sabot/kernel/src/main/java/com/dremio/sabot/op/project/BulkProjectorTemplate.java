@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.project;
+
+import javax.inject.Named;
+
+import com.dremio.exec.exception.SchemaChangeException;
+import com.dremio.exec.record.BatchSchema.SelectionVectorMode;
+import com.dremio.exec.record.VectorAccessible;
+import com.dremio.sabot.exec.context.FunctionContext;
+
+public abstract class BulkProjectorTemplate implements BulkProjector {
+
+  @Override
+  public final void setup(FunctionContext context, VectorAccessible incoming, VectorAccessible outgoing) throws SchemaChangeException {
+    if (incoming.getSchema().getSelectionVectorMode() != SelectionVectorMode.NONE) {
+      throw new UnsupportedOperationException("Unsupported selection vector mode " +
+        incoming.getSchema().getSelectionVectorMode().name());
+    }
+    doSetup(context, incoming, outgoing);
+  }
+
+  @Override
+  public final void projectRecords(int recordCount) {
+    if (recordCount > 0) {
+      doEval(recordCount);
+    }
+  }
+
+  public abstract void doSetup(@Named("context") FunctionContext context, @Named("incoming") VectorAccessible incoming, @Named("outgoing") VectorAccessible outgoing);
+  public abstract void doEval(@Named("recordCount") int recordCount);
+
+}
@@ -72,6 +72,7 @@ import com.dremio.exec.record.VectorAccessibleComplexWriter;
 import com.dremio.exec.record.VectorContainer;
 import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.sabot.exec.context.OperatorStats;
+import com.dremio.sabot.op.copier.SelectedColumnsCopier;
 import com.dremio.sabot.op.project.Projector.ComplexWriterCreator;
 import com.dremio.sabot.op.project.ProjectorStats.Metric;
 import com.dremio.sabot.op.spi.SingleInputOperator;
@@ -96,6 +97,8 @@ public class ProjectOperator implements SingleInputOperator {
   private Projector projector;
   private List<ValueVector> allocationVectors;
   private ExpressionSplitter splitter;
+  // copies the selected records of the columns read when the incoming batch has an SV2, null otherwise
+  private SelectedColumnsCopier selectedColumnsCopier;
   private final List<ComplexWriter> complexWriters = new ArrayList<>();
   private int recordsConsumedCurrentBatch;
   private BatchSchema initialSchema;
@@ -124,6 +127,20 @@ public class ProjectOperator implements SingleInputOperator {
     this.incoming = incoming;
     this.allocationVectors = Lists.newArrayList();
     final List<NamedExpression> exprs = getExpressionList();
+    if (incoming.getSchema().getSelectionVectorMode() == SelectionVectorMode.TWO_BYTE) {
+      // evaluate the expressions over a copy of the selected records of the columns they read
+      selectedColumnsCopier = new SelectedColumnsCopier(context, incoming);
+      for (NamedExpression namedExpression : exprs) {
+        if (namedExpression == null) {
+          continue;
+        }
+        selectedColumnsCopier.addReadColumns(context.getClassProducer().materializeAndAllowComplex(projectorOptions,
+          namedExpression.getExpr(), selectedColumnsCopier.getOutput()));
+      }
+      selectedColumnsCopier.setup();
+      incoming = selectedColumnsCopier.getOutput();
+      this.incoming = incoming;
+    }
     final List<TransferPair> transfers = new ArrayList<>();
 
     final ClassGenerator<Projector> cg = context.getClassProducer().createGenerator(Projector
@@ -161,10 +178,17 @@ public class ProjectOperator implements SingleInputOperator {
     OperatorStats stats = context.getStats();
     stats.addLongStat(Metric.JAVA_BUILD_TIME, javaCodeGenWatch.elapsed(TimeUnit.MILLISECONDS));
     stats.addLongStat(Metric.GANDIVA_BUILD_TIME, gandivaCodeGenWatch.elapsed(TimeUnit.MILLISECONDS));
+    stats.addLongStat(Metric.GANDIVA_MODULES_CACHED, splitter.getNumGandivaModulesCached());
+    stats.addLongStat(Metric.GANDIVA_MODULES_BUILT, splitter.getNumGandivaModulesBuilt());
     stats.addLongStat(Metric.GANDIVA_EXPRESSIONS, splitter.getNumExprsInGandiva());
     stats.addLongStat(Metric.JAVA_EXPRESSIONS, splitter.getNumExprsInJava());
     stats.addLongStat(Metric.MIXED_EXPRESSIONS, splitter.getNumExprsInBoth());
     stats.addLongStat(Metric.MIXED_SPLITS, splitter.getNumSplitsInBoth());
+    stats.addLongStat(Metric.SHARED_SPLITS, splitter.getNumSharedSplits());
+    stats.addLongStat(Metric.BULK_SPLITS, splitter.getNumBulkSplits());
+    if (selectedColumnsCopier != null) {
+      stats.addLongStat(Metric.SELECTED_COLUMNS_COPIED, selectedColumnsCopier.getNumCopiedColumns());
+    }
     stats.setProfileDetails(OperatorProfileDetails
       .newBuilder()
       .addAllSplitInfos(splitter.getSplitInfos())
@@ -234,6 +258,9 @@ public class ProjectOperator implements SingleInputOperator {
   @Override
   public void consumeData(int records) throws Exception {
     state.is(State.CAN_CONSUME);
+    if (selectedColumnsCopier != null) {
+      selectedColumnsCopier.copy(records);
+    }
     recordsConsumedCurrentBatch = records;
     state = State.CAN_PRODUCE;
   }
@@ -276,9 +303,12 @@ public class ProjectOperator implements SingleInputOperator {
 
   @Override
   public void close() throws Exception {
-    AutoCloseables.close(outgoing, splitter);
+    AutoCloseables.close(outgoing, splitter, selectedColumnsCopier);
     context.getStats().addLongStat(Metric.JAVA_EVALUATE_TIME, javaCodeGenWatch.elapsed(TimeUnit.MILLISECONDS));
     context.getStats().addLongStat(Metric.GANDIVA_EVALUATE_TIME, gandivaCodeGenWatch.elapsed(TimeUnit.MILLISECONDS));
+    if (splitter != null) {
+      context.getStats().addLongStat(Metric.INTERPRETED_BATCHES, splitter.getNumInterpretedBatches());
+    }
     javaCodeGenWatch.reset();
     gandivaCodeGenWatch.reset();
   }
@@ -402,6 +432,8 @@ public class ProjectOperator implements SingleInputOperator {
                                                                  BatchSchema targetSchema, List<NamedExpression> nonDirectExprs) throws Exception {
     ExpressionSplitter splitter = new ExpressionSplitter(context, incoming,
             options, context.getClassProducer().getFunctionLookupContext().isDecimalV2Enabled());
+    // expressions evaluated by the splitter, added together so that their common sub-expressions are evaluated once
+    final List<NamedExpression> evalExprs = Lists.newArrayList();
 
     for (int i = 0; i < exprs.size(); i++) {
       final NamedExpression namedExpression = exprs.get(i);
@@ -445,7 +477,10 @@ public class ProjectOperator implements SingleInputOperator {
         }
 
         case EVAL: {
-          splitter.addExpr(outgoing, new NamedExpression(expr, namedExpression.getRef()));
+          // add the output vector now to keep the order of the outputs
+          outgoing.addOrGet(CodeGenerationContextRemover.removeCodeGenContext(expr).getCompleteType()
+            .toField(namedExpression.getRef()));
+          evalExprs.add(new NamedExpression(expr, namedExpression.getRef()));
           if (nonDirectExprs != null) {
             nonDirectExprs.add(namedExpression);
           }
@@ -456,6 +491,7 @@ public class ProjectOperator implements SingleInputOperator {
       }
 
     }
+    splitter.addExprs(outgoing, evalExprs);
     return splitter;
   }
 
@@ -26,7 +26,13 @@ public class ProjectorStats {
     GANDIVA_BUILD_TIME,
     GANDIVA_EVALUATE_TIME,
     MIXED_EXPRESSIONS,
-    MIXED_SPLITS;
+    MIXED_SPLITS,
+    INTERPRETED_BATCHES,
+    GANDIVA_MODULES_CACHED,
+    GANDIVA_MODULES_BUILT,
+    SHARED_SPLITS,
+    SELECTED_COLUMNS_COPIED,
+    BULK_SPLITS;
 
     @Override
     public int metricId() {
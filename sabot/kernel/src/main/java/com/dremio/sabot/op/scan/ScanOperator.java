@@ -164,7 +164,8 @@ public class ScanOperator implements ProducerOperator {
     MAX_METADATA_IO_READ_TIME_NS,   // Maximum IO read time for metadata operations
     AVG_METADATA_IO_READ_TIME_NS,  // Average IO read time for metadata operations
     NUM_METADATA_IO_READ,
-    HIVE_FILE_FORMATS // File Formats in hive sub scan represented as bitmap. Indices correspond to HiveFilFormat enum
+    HIVE_FILE_FORMATS, // File Formats in hive sub scan represented as bitmap. Indices correspond to HiveFilFormat enum
+    NUM_ROW_GROUPS_PRUNED_BY_DICTIONARY // Number of row groups skipped because no dictionary entry matches the filters
     ;
 
     @Override
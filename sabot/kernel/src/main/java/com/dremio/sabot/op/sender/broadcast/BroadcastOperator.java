@@ -25,6 +25,7 @@ import org.apache.arrow.vector.compression.NoCompressionCodec;
 import org.apache.arrow.vector.ipc.message.ArrowRecordBatch;
 
 import com.dremio.common.exceptions.ExecutionSetupException;
+import com.dremio.common.exceptions.UserException;
 import com.dremio.exec.physical.config.BroadcastSender;
 import com.dremio.exec.physical.config.MinorFragmentEndpoint;
 import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
@@ -53,6 +54,8 @@ import com.google.common.primitives.Ints;
 public class BroadcastOperator extends BaseSender {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(BroadcastOperator.class);
 
+  public static final String RECORD_LIMIT_EXCEEDED_MSG = "Broadcast build side exceeded the runtime record limit";
+
   private State state = State.NEEDS_SETUP;
 
   private final BroadcastSender config;
@@ -63,10 +66,13 @@ public class BroadcastOperator extends BaseSender {
   private final OperatorContext context;
 
   private VectorAccessible incoming;
+  private long recordsSent;
 
   public enum Metric implements MetricDef {
     N_RECEIVERS,
-    BYTES_SENT;
+    BYTES_SENT,
+    RECORDS_SENT,
+    RECORD_LIMIT;
     @Override
     public int metricId() {
       return ordinal();
@@ -79,6 +85,7 @@ public class BroadcastOperator extends BaseSender {
     this.context = context;
     this.handle = context.getFragmentHandle();
     this.stats = context.getStats();
+    stats.setLongStat(Metric.RECORD_LIMIT, config.getRecordLimit());
 
     final List<MinorFragmentEndpoint> destinations = config.getDestinations(context.getEndpointsIndex());
     final ArrayListMultimap<NodeEndpoint, Integer> dests = ArrayListMultimap.create();
@@ -154,6 +161,7 @@ public class BroadcastOperator extends BaseSender {
 
   @Override
   public void consumeData(int records) {
+    checkRecordLimit(records);
 
     ArrowRecordBatch arrowRecordBatch = FragmentWritableBatch.getArrowRecordBatch(incoming);
 
@@ -195,6 +203,20 @@ public class BroadcastOperator extends BaseSender {
     }
   }
 
+  private void checkRecordLimit(int records) {
+    recordsSent += records;
+    stats.setLongStat(Metric.RECORDS_SENT, recordsSent);
+    if (config.getRecordLimit() > 0 && recordsSent > config.getRecordLimit()) {
+      // the re-attempt handler recognizes this context and re-plans the query without broadcast joins
+      throw UserException.retryAttemptError()
+        .message("Build side of a broadcast join is much larger than estimated")
+        .addContext(RECORD_LIMIT_EXCEEDED_MSG)
+        .addContext("Records sent", recordsSent)
+        .addContext("Record limit", config.getRecordLimit())
+        .build(logger);
+    }
+  }
+
   public static class Creator implements TerminalOperator.Creator<BroadcastSender> {
     @Override
     public TerminalOperator create(TunnelProvider tunnelProvider, OperatorContext context, BroadcastSender operator)
@@ -92,7 +92,11 @@ public class PartitionSenderOperator extends BaseSender {
     PRECOPY_NS,
     FLUSH_NS,
     NUM_FLUSHES,
-    BUCKET_SIZE;
+    BUCKET_SIZE,
+    SKEW_SAMPLED_RECORDS,   // number of records sampled to detect skewed keys
+    HEAVY_HITTERS,          // number of keys found in at least heavy_hitter_ratio of the sampled records
+    TOP_KEY_PERCENT,        // percentage of the sampled records that belong to the most frequent key
+    SPREAD_RECORDS;         // records sent round robin, as their key can't match on the receiving side
 
     @Override
     public int metricId() {
@@ -29,9 +29,12 @@ import org.apache.arrow.vector.types.pojo.ArrowType.ArrowTypeID;
 import org.apache.arrow.vector.types.pojo.Field;
 
 import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.IntIntHashMap;
+import com.carrotsearch.hppc.cursors.IntIntCursor;
 import com.dremio.common.AutoCloseables;
 import com.dremio.common.expression.SchemaPath;
 import com.dremio.common.util.Numbers;
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.physical.config.HashPartitionSender;
 import com.dremio.exec.physical.config.MinorFragmentEndpoint;
 import com.dremio.exec.proto.ExecProtos;
@@ -56,9 +59,14 @@ import io.netty.util.internal.PlatformDependent;
 
 /**
  * Implementation of hash partition sender that relies on vectorized copy of the data.<br>
- * Each incoming batch may be processed in multiple passes, each time copying up to numRecordsBeforeFlush rows.
+ * Each incoming batch may be processed in multiple passes, each time copying up to numRecordsBeforeFlush rows.<br>
+ * Rows with a null hash value are sent round robin to the receivers. The planner only produces null hash values for
+ * rows whose keys can't match anything on the receiving side (null keys on the probe side of a join).<br>
+ * The hash values of the first records are sampled to report skewed keys in the operator metrics.
  */
 public class VectorizedPartitionSenderOperator extends BaseSender {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(VectorizedPartitionSenderOperator.class);
+
   @VisibleForTesting
   public static final int PARTITION_MULTIPLE = 8;
 
@@ -130,6 +138,15 @@ public class VectorizedPartitionSenderOperator extends BaseSender {
    */
   private volatile boolean nobodyListening = false;
 
+  /** next partition that receives a row with a null hash value */
+  private int nextSpreadPartition;
+  private long spreadRecords;
+
+  /** number of records to sample to detect skewed keys, set to 0 once the sample has been analyzed */
+  private int remainingSampleRecords;
+  private int sampledRecords;
+  private IntIntHashMap sampledHashCounts;
+
   public VectorizedPartitionSenderOperator(final OperatorContext context,
                                            final TunnelProvider tunnelProvider,
                                            final HashPartitionSender config) {
@@ -148,6 +165,12 @@ public class VectorizedPartitionSenderOperator extends BaseSender {
     modSize = PARTITION_MULTIPLE * Numbers.nextPowerOfTwo(numReceivers);
     modLookup = new OutgoingBatch[modSize];
     batches = new OutgoingBatch[2 * numReceivers];
+
+    // start at a different receiver for each sender, so that all senders don't favor the first receivers
+    nextSpreadPartition = context.getFragmentHandle().getMinorFragmentId() % numReceivers;
+    remainingSampleRecords = numReceivers > 1
+      ? (int) context.getOptions().getOption(ExecConstants.PARTITIONER_SKEW_SAMPLE_RECORDS) : 0;
+    sampledHashCounts = remainingSampleRecords > 0 ? new IntIntHashMap() : null;
   }
 
   @Override
@@ -241,13 +264,20 @@ public class VectorizedPartitionSenderOperator extends BaseSender {
     final OutgoingBatch[] batches = this.batches;
     final int numBatches = batches.length;
     final List<MultiDestCopier> copiers = this.copiers;
+    final boolean hasNullHashes = partitionIndices.getNullCount() > 0;
+
+    if (remainingSampleRecords > 0) {
+      preCopyWatch.start();
+      sampleHashes(records, hasNullHashes);
+      preCopyWatch.stop();
+    }
 
     while (start < records) {
       preCopyWatch.start();
       // copy at most numRecordsBeforeFlush, this way we'll need at most 2 batches per destination
       // to allow delaying the flushing until after all rows for this pass have been copied
       int numRowsToCopy = Math.min(records - start, numRecordsBeforeFlush);
-      generateCopyIndices(start, numRowsToCopy);
+      generateCopyIndices(start, numRowsToCopy, hasNullHashes);
       preCopyWatch.stop();
 
       // copy
@@ -270,6 +300,7 @@ public class VectorizedPartitionSenderOperator extends BaseSender {
       numPasses++;
     }
     stats.addLongStat(Metric.NUM_COPIES, numPasses);
+    stats.setLongStat(Metric.SPREAD_RECORDS, spreadRecords);
     stats.setLongStat(Metric.PRECOPY_NS, preCopyWatch.elapsed(NANOSECONDS));
     stats.setLongStat(Metric.FLUSH_NS, flushWatch.elapsed(NANOSECONDS));
     copyWatches.updateStats(stats);
@@ -284,6 +315,11 @@ public class VectorizedPartitionSenderOperator extends BaseSender {
       return;
     }
 
+    if (remainingSampleRecords > 0) {
+      // stream ended before the sample was complete
+      analyzeSample();
+    }
+
     // flush everything
     flushWatch.start();
     for (OutgoingBatch batch : batches) {
@@ -338,7 +374,51 @@ public class VectorizedPartitionSenderOperator extends BaseSender {
     stats.stopWait();
   }
 
-  private void generateCopyIndices(final int start, final int numRowsToCopy) {
+  /**
+   * Counts the hash values of the incoming records until enough records have been sampled.
+   */
+  private void sampleHashes(final int records, final boolean hasNullHashes) {
+    final int numRecordsToSample = Math.min(records, remainingSampleRecords);
+    final long srcAddr = partitionIndices.getDataBufferAddress();
+    final IntIntHashMap counts = sampledHashCounts;
+    for (int i = 0; i < numRecordsToSample; i++) {
+      if (hasNullHashes && partitionIndices.isNull(i)) {
+        // those rows are spread, they can't cause skew
+        continue;
+      }
+      counts.addTo(PlatformDependent.getInt(srcAddr + i * 4), 1);
+      sampledRecords++;
+    }
+
+    remainingSampleRecords -= numRecordsToSample;
+    if (remainingSampleRecords == 0) {
+      analyzeSample();
+    }
+  }
+
+  private void analyzeSample() {
+    remainingSampleRecords = 0;
+    final long threshold = (long) Math.ceil(sampledRecords * context.getOptions().getOption(ExecConstants.PARTITIONER_HEAVY_HITTER_RATIO));
+    int heavyHitters = 0;
+    int topCount = 0;
+    for (IntIntCursor cursor : sampledHashCounts) {
+      if (cursor.value >= threshold) {
+        heavyHitters++;
+      }
+      topCount = Math.max(topCount, cursor.value);
+    }
+    sampledHashCounts = null;
+
+    stats.setLongStat(Metric.SKEW_SAMPLED_RECORDS, sampledRecords);
+    stats.setLongStat(Metric.HEAVY_HITTERS, heavyHitters);
+    stats.setLongStat(Metric.TOP_KEY_PERCENT, sampledRecords == 0 ? 0 : (topCount * 100L) / sampledRecords);
+    if (heavyHitters > 0) {
+      logger.debug("Partition sender {} found {} heavy hitters in {} sampled records, top key accounts for {} records",
+        context.getFragmentHandle().getMinorFragmentId(), heavyHitters, sampledRecords, topCount);
+    }
+  }
+
+  private void generateCopyIndices(final int start, final int numRowsToCopy, final boolean hasNullHashes) {
     long srcAddr = partitionIndices.getDataBufferAddress() + start*4;
     long dstAddr = copyIndices.getDataBufferAddress();
 
@@ -348,8 +428,15 @@ public class VectorizedPartitionSenderOperator extends BaseSender {
 
     //populate using the destination (batchIdx, rowIdx) for each incoming row
     final long max = srcAddr + numRowsToCopy*4;
-    for (; srcAddr < max; srcAddr+=4, dstAddr+=4) {
-      final int partition = (PlatformDependent.getInt(srcAddr) & 0x7FFFFFFF) & mod; // abs(hash) % modSize
+    for (int index = start; srcAddr < max; srcAddr+=4, dstAddr+=4, index++) {
+      final int partition;
+      if (hasNullHashes && partitionIndices.isNull(index)) {
+        partition = nextSpreadPartition;
+        nextSpreadPartition = nextSpreadPartition + 1 == numReceivers ? 0 : nextSpreadPartition + 1;
+        spreadRecords++;
+      } else {
+        partition = (PlatformDependent.getInt(srcAddr) & 0x7FFFFFFF) & mod; // abs(hash) % modSize
+      }
       final OutgoingBatch batch = modLookup[partition];
       final int compound = batch.preCopyRow();
       PlatformDependent.putInt(dstAddr, compound);
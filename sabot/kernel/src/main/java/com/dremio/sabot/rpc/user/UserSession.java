@@ -193,6 +193,33 @@ public class UserSession {
       return new Builder();
     }
 
+    /**
+     * Creates a builder for a session with the same settings as the given session.
+     */
+    public static Builder newBuilder(UserSession session) {
+      final Builder builder = new Builder();
+      final UserSession copy = builder.userSession;
+      copy.supportComplexTypes = session.supportComplexTypes;
+      copy.credentials = session.credentials;
+      copy.defaultSchemaPath = session.defaultSchemaPath;
+      copy.sessionOptionManager = session.sessionOptionManager;
+      copy.optionManager = session.optionManager;
+      copy.clientInfos = session.clientInfos;
+      copy.useLegacyCatalogName = session.useLegacyCatalogName;
+      copy.impersonationTarget = session.impersonationTarget;
+      copy.initialQuoting = session.initialQuoting;
+      copy.supportFullyQualifiedProjections = session.supportFullyQualifiedProjections;
+      copy.routingTag = session.routingTag;
+      copy.routingQueue = session.routingQueue;
+      copy.routingEngine = session.routingEngine;
+      copy.recordBatchFormat = session.recordBatchFormat;
+      copy.exposeInternalSources = session.exposeInternalSources;
+      copy.tracingEnabled = session.tracingEnabled;
+      copy.substitutionSettings = session.substitutionSettings;
+      copy.maxMetadataCount = session.maxMetadataCount;
+      return builder;
+    }
+
     public Builder withSessionOptionManager(SessionOptionManager sessionOptionManager, OptionManager fallback) {
       userSession.sessionOptionManager = sessionOptionManager;
       userSession.optionManager = OptionManagerWrapper.Builder.newBuilder()
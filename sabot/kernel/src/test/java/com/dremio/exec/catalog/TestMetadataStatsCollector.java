@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.catalog;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link MetadataStatsCollector}
+ */
+public class TestMetadataStatsCollector {
+  private static final int THREADS = 4;
+  private static final int STATS_PER_THREAD = 10_000;
+
+  @Test
+  public void testConcurrentStatsAreAllCollected() throws Exception {
+    final MetadataStatsCollector collector = new MetadataStatsCollector();
+    final CountDownLatch start = new CountDownLatch(1);
+    final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    try {
+      final List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < THREADS; t++) {
+        final String dataset = "dataset" + t;
+        futures.add(executor.submit(() -> {
+          start.await();
+          for (int i = 0; i < STATS_PER_THREAD; i++) {
+            collector.addDatasetStat(dataset, "CACHED_METADATA", i);
+          }
+          return null;
+        }));
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get(1, TimeUnit.MINUTES);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals(THREADS * STATS_PER_THREAD, collector.getPlanPhaseProfiles().size());
+  }
+}
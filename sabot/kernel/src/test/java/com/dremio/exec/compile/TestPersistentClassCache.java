@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.compile;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.ImmutableMap;
+
+public class TestPersistentClassCache {
+
+  private static final TemplateClassDefinition<ExampleInner> DEFINITION =
+    new TemplateClassDefinition<>(ExampleInner.class, ExampleTemplateWithInner.class);
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testKeys() throws Exception {
+    final PersistentClassCache cache = new PersistentClassCache(folder.newFolder().toPath(), 10);
+
+    final String key = cache.getKey(DEFINITION, "class GenericGenerated {}");
+    assertNotNull(key);
+    assertEquals(key, cache.getKey(DEFINITION, "class GenericGenerated {}"));
+    assertNotEquals(key, cache.getKey(DEFINITION, "class GenericGenerated { int a; }"));
+  }
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    final Path directory = folder.newFolder().toPath();
+    final PersistentClassCache cache = new PersistentClassCache(directory, 10);
+    final Map<String, byte[]> classes = ImmutableMap.of(
+      "com.dremio.s.ExampleInnerGen1", new byte[] {1, 2, 3},
+      "com.dremio.s.ExampleInnerGen1$Inner", new byte[] {4, 5});
+
+    assertNull(cache.get("key"));
+    cache.put("key", "com.dremio.s.ExampleInnerGen1", classes);
+
+    // entries survive a restart
+    final PersistentClassCache.CachedClasses cached = new PersistentClassCache(directory, 10).get("key");
+    assertNotNull(cached);
+    assertEquals("com.dremio.s.ExampleInnerGen1", cached.getClassName());
+    assertEquals(classes.keySet(), cached.getClasses().keySet());
+    for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+      assertArrayEquals(entry.getValue(), cached.getClasses().get(entry.getKey()));
+    }
+  }
+
+  @Test
+  public void testCorruptedEntry() throws Exception {
+    final Path directory = folder.newFolder().toPath();
+    final PersistentClassCache cache = new PersistentClassCache(directory, 10);
+    final Path entry = directory.resolve("key.classes");
+    Files.write(entry, new byte[] {0, 0, 0, 1, 0});
+
+    assertNull(cache.get("key"));
+    assertFalse(Files.exists(entry));
+  }
+
+  @Test
+  public void testEviction() throws Exception {
+    final Path directory = folder.newFolder().toPath();
+    final PersistentClassCache cache = new PersistentClassCache(directory, 2);
+    for (int i = 0; i < 3; i++) {
+      cache.put("key" + i, "Gen", ImmutableMap.of("Gen", new byte[] {(byte) i}));
+      // make sure entries have distinct modification times
+      final File file = directory.resolve("key" + i + ".classes").toFile();
+      file.setLastModified(1000L * (i + 1));
+    }
+
+    cache.evictLeastRecentlyUsed();
+    assertNull(cache.get("key0"));
+    assertNotNull(cache.get("key1"));
+    assertNotNull(cache.get("key2"));
+  }
+
+  @Test
+  public void testDirectoryPermissions() throws Exception {
+    final Path root = folder.newFolder().toPath();
+    assumeTrue(root.getFileSystem().supportedFileAttributeViews().contains("posix"));
+
+    final Path directory = root.resolve("codegen");
+    assertTrue(PersistentClassCache.isPrivateDirectory(directory));
+    final Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(directory);
+    assertFalse(permissions.contains(PosixFilePermission.GROUP_WRITE));
+    assertFalse(permissions.contains(PosixFilePermission.OTHERS_WRITE));
+
+    // a directory other users can write to is not used
+    Files.setPosixFilePermissions(directory, PosixFilePermissions.fromString("rwxrwxrwx"));
+    assertFalse(PersistentClassCache.isPrivateDirectory(directory));
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.expr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link BackgroundCompiler}
+ */
+public class TestBackgroundCompiler {
+
+  @Test
+  public void testBusyThreadsRejectCompilations() throws Exception {
+    final BackgroundCompiler compiler = new BackgroundCompiler();
+    final CountDownLatch release = new CountDownLatch(1);
+
+    final Future<String> first = compiler.compile(1, () -> {
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return "first";
+    });
+    assertNotNull(first);
+
+    // the only thread is busy, the fragment compiles the class itself
+    assertNull(compiler.compile(1, () -> "second"));
+
+    // more threads accept more compilations
+    final Future<String> third = compiler.compile(2, () -> "third");
+    assertNotNull(third);
+    assertEquals("third", third.get(10, TimeUnit.SECONDS));
+
+    release.countDown();
+    assertEquals("first", first.get(10, TimeUnit.SECONDS));
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.expr.fn.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.LocalDateTime;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.common.util.DateTimes;
+import com.dremio.common.util.JodaDateUtility;
+import com.dremio.test.AllocatorRule;
+import com.dremio.test.DremioTest;
+
+/**
+ * Unit tests for EpochMillisUtils, against the Joda implementation
+ */
+public class TestEpochMillisUtils extends DremioTest {
+  private BufferAllocator allocator;
+
+  @Rule
+  public final AllocatorRule allocatorRule = AllocatorRule.defaultAllocator();
+
+  @Before
+  public void setup() {
+    this.allocator = allocatorRule.newAllocator("test-epoch-millis-utils", 0, Long.MAX_VALUE);
+  }
+
+  @After
+  public void close() throws Exception {
+    AutoCloseables.close(allocator);
+  }
+
+  private static void checkFields(long millis) {
+    final DateTime dateTime = new DateTime(millis, DateTimeZone.UTC);
+    final String message = dateTime.toString();
+    assertEquals(message, dateTime.getYear(), EpochMillisUtils.getYear(millis));
+    assertEquals(message, dateTime.getMonthOfYear(), EpochMillisUtils.getMonthOfYear(millis));
+    assertEquals(message, dateTime.getDayOfMonth(), EpochMillisUtils.getDayOfMonth(millis));
+    assertEquals(message, dateTime.getDayOfYear(), EpochMillisUtils.getDayOfYear(millis));
+    assertEquals(message, dateTime.getHourOfDay(), EpochMillisUtils.getHourOfDay(millis));
+    assertEquals(message, dateTime.getMinuteOfHour(), EpochMillisUtils.getMinuteOfHour(millis));
+    assertEquals(message, dateTime.getSecondOfMinute(), EpochMillisUtils.getSecondOfMinute(millis));
+
+    assertEquals(message, dateTime.year().roundFloorCopy().getMillis(), EpochMillisUtils.truncateToYear(millis));
+    assertEquals(message, dateTime.monthOfYear().roundFloorCopy().getMillis(), EpochMillisUtils.truncateToMonth(millis));
+    assertEquals(message, dateTime.weekOfWeekyear().roundFloorCopy().getMillis(), EpochMillisUtils.truncateToWeek(millis));
+    assertEquals(message, dateTime.dayOfMonth().roundFloorCopy().getMillis(),
+      EpochMillisUtils.truncate(millis, EpochMillisUtils.MILLIS_PER_DAY));
+    assertEquals(message, dateTime.hourOfDay().roundFloorCopy().getMillis(),
+      EpochMillisUtils.truncate(millis, EpochMillisUtils.MILLIS_PER_HOUR));
+
+    final DateTime quarter = dateTime.year().roundFloorCopy().plusMonths(((dateTime.getMonthOfYear() - 1) / 3) * 3);
+    assertEquals(message, quarter.getMillis(), EpochMillisUtils.truncateToQuarter(millis));
+  }
+
+  @Test
+  public void testFields() {
+    checkFields(0);
+    checkFields(-1);
+    checkFields(951782400000L); // 2000-02-29
+    checkFields(951868800000L - 1); // 2000-02-29T23:59:59.999
+    checkFields(-62167219200000L); // 0000-01-01
+    checkFields(253402300799999L); // 9999-12-31T23:59:59.999
+
+    final Random random = new Random(42);
+    for (int i = 0; i < 100_000; i++) {
+      // between about year -5000 and year 7000
+      checkFields((long) ((random.nextDouble() - 0.5) * 400_000_000_000_000L));
+    }
+  }
+
+  private long parse(String text) {
+    final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+    try (ArrowBuf buf = allocator.buffer(bytes.length + 1)) {
+      buf.setByte(0, ' ');
+      buf.setBytes(1, bytes);
+      return EpochMillisUtils.parseTimestamp(buf, 1, bytes.length + 1);
+    }
+  }
+
+  private void checkParse(String text) {
+    final long expected = DateTimes.toMillis(LocalDateTime.parse(text, JodaDateUtility.getDateTimeFormatter()));
+    assertEquals(text, expected, parse(text));
+  }
+
+  @Test
+  public void testParseTimestamp() {
+    checkParse("2021-03-04");
+    checkParse("1969-12-31 23:59:59");
+    checkParse("2000-02-29 12:34:56.789");
+    checkParse("0001-01-01 00:00:00.000");
+    checkParse("9999-12-31 23:59:59.999");
+
+    // left to the general parser
+    assertEquals(EpochMillisUtils.NOT_PARSED, parse("2021-3-4"));
+    assertEquals(EpochMillisUtils.NOT_PARSED, parse("2021-02-29"));
+    assertEquals(EpochMillisUtils.NOT_PARSED, parse("2021-01-01T00:00:00"));
+    assertEquals(EpochMillisUtils.NOT_PARSED, parse("2021-01-01 24:00:00"));
+    assertEquals(EpochMillisUtils.NOT_PARSED, parse("2021-01-01 00:00:00.1"));
+    assertEquals(EpochMillisUtils.NOT_PARSED, parse("2021-01-01 00:00:00 UTC"));
+  }
+}
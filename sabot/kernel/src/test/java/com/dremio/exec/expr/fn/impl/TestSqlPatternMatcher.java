@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.expr.fn.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.test.AllocatorRule;
+import com.dremio.test.DremioTest;
+
+/**
+ * Unit tests for SqlPatternMatcher, and the case conversion of StringFunctionHelpers
+ */
+public class TestSqlPatternMatcher extends DremioTest {
+  private BufferAllocator allocator;
+
+  @Rule
+  public final AllocatorRule allocatorRule = AllocatorRule.defaultAllocator();
+
+  @Before
+  public void setup() {
+    this.allocator = allocatorRule.newAllocator("test-sql-pattern-matcher", 0, Long.MAX_VALUE);
+  }
+
+  @After
+  public void close() throws Exception {
+    AutoCloseables.close(allocator);
+  }
+
+  // matches the value against the matcher, with the value stored after some other bytes
+  private boolean matches(SqlPatternMatcher matcher, String value) {
+    final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    try (ArrowBuf buf = allocator.buffer(bytes.length + 3)) {
+      buf.setBytes(0, new byte[] {'x', 'y', 'z'});
+      buf.setBytes(3, bytes);
+      return matcher.matches(3, 3 + bytes.length, buf);
+    }
+  }
+
+  private void testLike(String pattern, String escape, SqlPatternMatcher.Kind kind, String value, boolean expected) {
+    final SqlPatternMatcher matcher = SqlPatternMatcher.forLike(pattern, escape, null);
+    assertEquals(kind, matcher.getKind());
+    assertEquals(pattern + " / " + value, expected, matches(matcher, value));
+  }
+
+  @Test
+  public void testLike() {
+    testLike("abc", null, SqlPatternMatcher.Kind.CONSTANT, "abc", true);
+    testLike("abc", null, SqlPatternMatcher.Kind.CONSTANT, "abcd", false);
+    testLike("abc%", null, SqlPatternMatcher.Kind.STARTS_WITH, "abcd", true);
+    testLike("abc%", null, SqlPatternMatcher.Kind.STARTS_WITH, "xabc", false);
+    testLike("%abc", null, SqlPatternMatcher.Kind.ENDS_WITH, "xxabc", true);
+    testLike("%abc", null, SqlPatternMatcher.Kind.ENDS_WITH, "abcx", false);
+    testLike("%error%", null, SqlPatternMatcher.Kind.CONTAINS, "2021-01-01 some error\noccurred", true);
+    testLike("%error%", null, SqlPatternMatcher.Kind.CONTAINS, "2021-01-01 some erro", false);
+    testLike("%é%", null, SqlPatternMatcher.Kind.CONTAINS, "café", true);
+    testLike("%", null, SqlPatternMatcher.Kind.CONTAINS, "", true);
+    testLike("a#%b%", "#", SqlPatternMatcher.Kind.STARTS_WITH, "a%bc", true);
+    testLike("a#%b%", "#", SqlPatternMatcher.Kind.STARTS_WITH, "axbc", false);
+    testLike("a_c", null, SqlPatternMatcher.Kind.COMPLEX, "abc", true);
+    testLike("a%c", null, SqlPatternMatcher.Kind.COMPLEX, "abbbc", true);
+    testLike("a.c%", null, SqlPatternMatcher.Kind.STARTS_WITH, "abc", false);
+  }
+
+  private void testRegex(String regex, SqlPatternMatcher.Kind kind, String value, boolean expected) {
+    final SqlPatternMatcher matcher = SqlPatternMatcher.forRegexFind(regex, null);
+    assertEquals(kind, matcher.getKind());
+    assertEquals(regex + " / " + value, expected, matches(matcher, value));
+  }
+
+  @Test
+  public void testRegexFind() {
+    testRegex("^a.*", SqlPatternMatcher.Kind.STARTS_WITH, "abc", true);
+    testRegex("^a.*", SqlPatternMatcher.Kind.STARTS_WITH, "bac", false);
+    testRegex(".*b", SqlPatternMatcher.Kind.CONTAINS, "abc", true);
+    testRegex("timeout", SqlPatternMatcher.Kind.CONTAINS, "connection timeout after 10s", true);
+    testRegex("timeout", SqlPatternMatcher.Kind.CONTAINS, "connection time out", false);
+    testRegex("a\\.*", SqlPatternMatcher.Kind.COMPLEX, "a..", true);
+    testRegex("b$", SqlPatternMatcher.Kind.COMPLEX, "ab", true);
+    testRegex("[0-9]+ms", SqlPatternMatcher.Kind.COMPLEX, "took 15ms", true);
+  }
+
+  @Test
+  public void testIndexOf() {
+    final String value = "0123456789abcdefghij0123456789";
+    try (ArrowBuf buf = allocator.buffer(value.length())) {
+      buf.setBytes(0, value.getBytes(StandardCharsets.UTF_8));
+      for (int i = 0; i < value.length(); i++) {
+        for (int len = 1; i + len <= value.length(); len++) {
+          final String literal = value.substring(i, i + len);
+          assertEquals(literal, value.indexOf(literal),
+            SqlPatternMatcher.indexOf(buf.memoryAddress(), value.length(), literal.getBytes(StandardCharsets.UTF_8)));
+        }
+      }
+      assertEquals(-1, SqlPatternMatcher.indexOf(buf.memoryAddress(), value.length(), "k".getBytes(StandardCharsets.UTF_8)));
+    }
+  }
+
+  @Test
+  public void testCaseConversion() {
+    final String value = "Hello, World! Ünïcode stays [as] is @ 2021_z";
+    final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    try (ArrowBuf in = allocator.buffer(bytes.length);
+         ArrowBuf out = allocator.buffer(bytes.length)) {
+      in.setBytes(0, bytes);
+      final byte[] converted = new byte[bytes.length];
+
+      StringFunctionHelpers.toUpperCase(0, bytes.length, in, out);
+      out.getBytes(0, converted);
+      assertEquals("HELLO, WORLD! ÜNïCODE STAYS [AS] IS @ 2021_Z", new String(converted, StandardCharsets.UTF_8));
+
+      StringFunctionHelpers.toLowerCase(0, bytes.length, in, out);
+      out.getBytes(0, converted);
+      assertEquals("hello, world! Ünïcode stays [as] is @ 2021_z", new String(converted, StandardCharsets.UTF_8));
+    }
+  }
+}
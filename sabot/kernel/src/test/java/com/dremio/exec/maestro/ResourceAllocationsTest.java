@@ -47,6 +47,7 @@ import com.dremio.exec.physical.PhysicalPlan;
 import com.dremio.exec.physical.base.PhysicalOperator;
 import com.dremio.exec.planner.PhysicalPlanReader;
 import com.dremio.exec.planner.fragment.ExecutionPlanningResources;
+import com.dremio.exec.planner.fragment.ExecutorLoadTracker;
 import com.dremio.exec.planner.fragment.PlanFragmentFull;
 import com.dremio.exec.planner.fragment.PlanningSet;
 import com.dremio.exec.planner.logical.Rel;
@@ -185,7 +186,7 @@ public class ResourceAllocationsTest extends BaseTestQuery {
 
     QueryTrackerImpl foreman = new QueryTrackerImpl(null, queryContext, plan, pPlanReader,
       resourceAllocator, null, executorSelectionService, null,
-      null, AbstractMaestroObserver.NOOP, null, null, closeableSchedulerThreadPool);
+      null, AbstractMaestroObserver.NOOP, null, null, closeableSchedulerThreadPool, ExecutorLoadTracker.NO_OP);
     foreman.allocateResources();
 
     final ExecutionPlanningResources executionPlanningResources = ExecutionPlanCreator.getParallelizationInfo(queryContext,
@@ -16,6 +16,8 @@
 package com.dremio.exec.physical.config;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.net.URI;
@@ -26,15 +28,19 @@ import org.mockito.Mockito;
 import com.dremio.common.config.LogicalPlanPersistence;
 import com.dremio.common.store.StoragePluginConfig;
 import com.dremio.common.util.FileUtils;
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.ExecTest;
 import com.dremio.exec.catalog.ConnectionReader;
 import com.dremio.exec.physical.PhysicalPlan;
+import com.dremio.exec.physical.base.FragmentRoot;
 import com.dremio.exec.planner.PhysicalPlanReader;
+import com.dremio.exec.proto.CoordExecRPC.FragmentCodec;
 import com.dremio.exec.proto.CoordinationProtos;
 import com.dremio.exec.server.SabotContext;
 import com.dremio.exec.store.CatalogService;
 import com.dremio.exec.store.dfs.FileSystemConfig;
 import com.dremio.exec.store.dfs.SchemaMutability;
+import com.dremio.options.OptionManager;
 import com.dremio.service.DirectProvider;
 import com.dremio.test.DremioTest;
 import com.fasterxml.jackson.annotation.JsonCreator;
@@ -42,7 +48,9 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.google.common.base.Charsets;
+import com.google.common.collect.Iterables;
 import com.google.common.io.Files;
+import com.google.protobuf.ByteString;
 
 public class TestParsePhysicalPlan extends ExecTest {
   static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(TestParsePhysicalPlan.class);
@@ -61,6 +69,28 @@ public class TestParsePhysicalPlan extends ExecTest {
     String unparse = plan.unparse(writer);
   }
 
+  @Test
+  public void reuseFragmentTemplates() throws Exception {
+    LogicalPlanPersistence lpp = new LogicalPlanPersistence(DEFAULT_SABOT_CONFIG, CLASSPATH_SCAN_RESULT);
+    SabotContext sabotContext = Mockito.mock(SabotContext.class);
+    Mockito.when(sabotContext.getConnectionReaderProvider())
+      .thenReturn(DirectProvider.wrap(ConnectionReader.of(DremioTest.CLASSPATH_SCAN_RESULT, DremioTest.DEFAULT_SABOT_CONFIG)));
+    OptionManager optionManager = Mockito.mock(OptionManager.class);
+    Mockito.when(optionManager.getOption(ExecConstants.FRAGMENT_TEMPLATE_CACHE_ENABLED)).thenReturn(true);
+    Mockito.when(sabotContext.getOptionManager()).thenReturn(optionManager);
+
+    PhysicalPlanReader reader = new PhysicalPlanReader(DEFAULT_SABOT_CONFIG, CLASSPATH_SCAN_RESULT, lpp, CoordinationProtos.NodeEndpoint.getDefaultInstance(), DirectProvider.wrap(Mockito.mock(CatalogService.class)), sabotContext);
+    PhysicalPlan plan = reader.readPhysicalPlan(Files.toString(FileUtils.getResourceAsFile("/physical_test1.json"), Charsets.UTF_8));
+    FragmentRoot root = (FragmentRoot) Iterables.find(plan.getSortedOperators(), op -> op instanceof FragmentRoot);
+    ByteString json = reader.writeJsonBytes(root, FragmentCodec.SNAPPY);
+
+    FragmentRoot first = reader.readFragmentTemplate(json, FragmentCodec.SNAPPY);
+    assertSame(first, reader.readFragmentTemplate(ByteString.copyFrom(json.toByteArray()), FragmentCodec.SNAPPY));
+
+    Mockito.when(optionManager.getOption(ExecConstants.FRAGMENT_TEMPLATE_CACHE_ENABLED)).thenReturn(false);
+    assertNotSame(first, reader.readFragmentTemplate(json, FragmentCodec.SNAPPY));
+  }
+
   @Test
   public void ensureFilesystemIsType() throws Exception {
     LogicalPlanPersistence lpp = new LogicalPlanPersistence(DEFAULT_SABOT_CONFIG, CLASSPATH_SCAN_RESULT);
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.planner.fragment;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.dremio.exec.proto.CoordExecRPC.PlanFragmentMajor;
+import com.dremio.exec.proto.CoordExecRPC.PlanFragmentMinor;
+import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
+import com.dremio.exec.proto.ExecProtos.FragmentHandle;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Tests for {@link ExecutorLoadTracker}
+ */
+public class TestExecutorLoadTracker {
+
+  private static final NodeEndpoint EP1 = NodeEndpoint.newBuilder().setAddress("node1").setFabricPort(45678).build();
+  private static final NodeEndpoint EP2 = NodeEndpoint.newBuilder().setAddress("node2").setFabricPort(45678).build();
+
+  private static PlanFragmentFull fragment(int minorId, NodeEndpoint endpoint, long memMax) {
+    final PlanFragmentMajor major = PlanFragmentMajor.newBuilder()
+      .setHandle(FragmentHandle.newBuilder().setMajorFragmentId(0).build())
+      .build();
+    final PlanFragmentMinor minor = PlanFragmentMinor.newBuilder()
+      .setMajorFragmentId(0)
+      .setMinorFragmentId(minorId)
+      .setAssignment(endpoint)
+      .setMemMax(memMax)
+      .build();
+    return new PlanFragmentFull(major, minor);
+  }
+
+  @Test
+  public void testRegisterAndRelease() {
+    final ExecutorLoadTracker tracker = new ExecutorLoadTracker();
+    final List<PlanFragmentFull> query1 = ImmutableList.of(
+      fragment(0, EP1, 100), fragment(1, EP1, 100), fragment(2, EP2, 100));
+    final List<PlanFragmentFull> query2 = ImmutableList.of(fragment(0, EP1, 50));
+
+    final ExecutorLoadTracker.Registration registration1 = tracker.register(query1);
+    final ExecutorLoadTracker.Registration registration2 = tracker.register(query2);
+    assertEquals(3, tracker.getRunningFragments(EP1));
+    assertEquals(1, tracker.getRunningFragments(EP2));
+    // memory is reserved once per query and node
+    assertEquals(150, tracker.getReservedMemory(EP1));
+
+    registration1.release(EP1);
+    assertEquals(1, tracker.getRunningFragments(EP1));
+    assertEquals(50, tracker.getReservedMemory(EP1));
+    assertEquals(1, tracker.getRunningFragments(EP2));
+
+    // releasing twice has no effect
+    registration1.release(EP1);
+    assertEquals(1, tracker.getRunningFragments(EP1));
+
+    registration1.close();
+    registration2.close();
+    assertEquals(0, tracker.getRunningFragments(EP1));
+    assertEquals(0, tracker.getRunningFragments(EP2));
+    assertEquals(0, tracker.getReservedMemory(EP1));
+  }
+
+  @Test
+  public void testNoOp() throws Exception {
+    final ExecutorLoadTracker.Registration registration =
+      ExecutorLoadTracker.NO_OP.register(ImmutableList.of(fragment(0, EP1, 100)));
+    assertEquals(0, ExecutorLoadTracker.NO_OP.getRunningFragments(EP1));
+    registration.release(EP1);
+    registration.close();
+  }
+}
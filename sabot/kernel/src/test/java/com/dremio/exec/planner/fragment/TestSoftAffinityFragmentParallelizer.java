@@ -17,6 +17,7 @@ package com.dremio.exec.planner.fragment;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.when;
 
@@ -354,4 +355,63 @@ public class TestSoftAffinityFragmentParallelizer {
   public void testSelectionWithNoneInEngineAffined() throws Exception {
     nodesFromSelectedWithAffinity(10, 3, 4, 6);
   }
+
+  @Test
+  public void testLeastLoadedEndpointsFavored() throws Exception {
+    final List<CoordinationProtos.NodeEndpoint> activeEndpoints = ImmutableList.of(N1_EP1, N2_EP1, N3_EP1);
+    final Map<CoordinationProtos.NodeEndpoint, Integer> runningFragments = ImmutableMap.of(N1_EP1, 4, N2_EP1, 1);
+    final ParallelizationParameters defaults = newParameters(3, 5, 20, 1.2, false);
+    final ParallelizationParameters params = new ParallelizationParameters() {
+      @Override
+      public long getSliceTarget() {
+        return defaults.getSliceTarget();
+      }
+
+      @Override
+      public int getMaxWidthPerNode() {
+        return defaults.getMaxWidthPerNode();
+      }
+
+      @Override
+      public int getMaxGlobalWidth() {
+        return defaults.getMaxGlobalWidth();
+      }
+
+      @Override
+      public double getAffinityFactor() {
+        return defaults.getAffinityFactor();
+      }
+
+      @Override
+      public boolean useNewAssignmentCreator() {
+        return true;
+      }
+
+      @Override
+      public double getAssignmentCreatorBalanceFactor() {
+        return defaults.getAssignmentCreatorBalanceFactor();
+      }
+
+      @Override
+      public boolean shouldIgnoreLeafAffinity() {
+        return false;
+      }
+
+      @Override
+      public int getRunningFragments(CoordinationProtos.NodeEndpoint endpoint) {
+        return runningFragments.getOrDefault(endpoint, 0);
+      }
+    };
+
+    final List<CoordinationProtos.NodeEndpoint> endpoints = SoftAffinityFragmentParallelizer.INSTANCE
+      .findEndpoints(activeEndpoints, ImmutableMap.of(), 5, params);
+    assertEquals(5, endpoints.size());
+
+    // loads are levelled: 4 + 0, 1 + 2 and 0 + 3
+    final Map<CoordinationProtos.NodeEndpoint, Integer> assigned = new HashMap<>();
+    endpoints.forEach(ep -> assigned.merge(ep, 1, Integer::sum));
+    assertNull(assigned.get(N1_EP1));
+    assertEquals(Integer.valueOf(2), assigned.get(N2_EP1));
+    assertEquals(Integer.valueOf(3), assigned.get(N3_EP1));
+  }
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.planner.physical.visitor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.dremio.PlanTestBase;
+import com.dremio.exec.planner.physical.HashPrelUtil;
+import com.dremio.exec.planner.physical.PlannerSettings;
+
+/**
+ * Tests for the hash expressions {@link InsertHashProjectVisitor} adds below hash exchanges.
+ */
+public class TestInsertHashProjectVisitor extends PlanTestBase {
+
+  // the hash of the probe rows whose key is null is null, so that the partition sender spreads them
+  private static final Pattern NULL_SPREAD_HASH = Pattern.compile(
+    HashPrelUtil.HASH_EXPR_NAME + "=\\[CASE\\(IS NULL\\(\\$[0-9]+\\), null:INTEGER, hash32");
+  private static final Pattern HASH = Pattern.compile(HashPrelUtil.HASH_EXPR_NAME + "=\\[");
+
+  private static final String JOIN_QUERY = "SELECT n.n_name, r.r_name " +
+    "FROM cp.\"tpch/nation.parquet\" n %s JOIN cp.\"tpch/region.parquet\" r ON n.n_regionkey = r.r_regionkey";
+
+  @Before
+  public void setupOptions() throws Exception {
+    // produce plans with hash exchanges on both sides of the join
+    test("ALTER SESSION SET \"planner.slice_target\"=1");
+    test("ALTER SESSION SET \"planner.enable_broadcast_join\"=false");
+  }
+
+  @After
+  public void resetOptions() throws Exception {
+    test("ALTER SESSION RESET ALL");
+  }
+
+  @Test
+  public void testInnerJoinSpreadsNullProbeKeys() throws Exception {
+    final String plan = getPlan(String.format(JOIN_QUERY, "INNER"));
+
+    assertTrue(plan, count(HASH, plan) >= 2);
+    // only the probe side is rewritten, the build side rows with a null key are dropped
+    assertEquals(plan, 1, count(NULL_SPREAD_HASH, plan));
+  }
+
+  @Test
+  public void testFullJoinKeepsNullProbeKeys() throws Exception {
+    final String plan = getPlan(String.format(JOIN_QUERY, "FULL"));
+
+    assertTrue(plan, count(HASH, plan) >= 2);
+    // unmatched probe rows are part of the output
+    assertEquals(plan, 0, count(NULL_SPREAD_HASH, plan));
+  }
+
+  @Test
+  public void testSpreadNullProbeKeysDisabled() throws Exception {
+    test("ALTER SESSION SET \"" + PlannerSettings.SPREAD_NULL_PROBE_KEYS.getOptionName() + "\"=false");
+    final String plan = getPlan(String.format(JOIN_QUERY, "INNER"));
+
+    assertTrue(plan, count(HASH, plan) >= 2);
+    assertEquals(plan, 0, count(NULL_SPREAD_HASH, plan));
+  }
+
+  private static String getPlan(String query) throws Exception {
+    return getPlanInString("EXPLAIN PLAN FOR " + query, OPTIQ_FORMAT);
+  }
+
+  private static int count(Pattern pattern, String plan) {
+    final Matcher matcher = pattern.matcher(plan);
+    int count = 0;
+    while (matcher.find()) {
+      count++;
+    }
+    return count;
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.planner.sql;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.apache.calcite.sql.SqlNode;
+import org.apache.calcite.sql.SqlSelect;
+import org.apache.calcite.sql.dialect.CalciteSqlDialect;
+import org.junit.Test;
+
+import com.dremio.exec.planner.physical.PlannerSettings;
+import com.dremio.service.namespace.NamespaceKey;
+import com.google.common.collect.ImmutableList;
+
+public class TestViewDefinitionCache {
+
+  private static final ParserConfig CONFIG = new ParserConfig(ParserConfig.QUOTING, 100,
+    PlannerSettings.FULL_NESTED_SCHEMA_SUPPORT.getDefault().getBoolVal());
+  private static final NamespaceKey VIEW = new NamespaceKey(ImmutableList.of("space", "v1"));
+  private static final String SQL = "select a, b from src.t1 where a > 10";
+
+  private static String toSql(SqlNode node) {
+    return node.toSqlString(CalciteSqlDialect.DEFAULT).getSql();
+  }
+
+  private static Function<String, SqlNode> countingParser(AtomicInteger count) {
+    return sql -> {
+      count.incrementAndGet();
+      return SqlConverter.parseSingleStatementImpl(sql, CONFIG, true);
+    };
+  }
+
+  @Test
+  public void testHitReturnsCopy() {
+    final ViewDefinitionCache cache = new ViewDefinitionCache(1024);
+    final AtomicInteger parses = new AtomicInteger();
+
+    final SqlNode first = cache.getOrParse(VIEW, "1", SQL, CONFIG, countingParser(parses));
+    final SqlNode second = cache.getOrParse(VIEW, "1", SQL, CONFIG, countingParser(parses));
+
+    assertEquals(1, parses.get());
+    assertNotSame(first, second);
+    assertEquals(toSql(first), toSql(second));
+
+    // mutating a returned tree must not affect the cached definition
+    ((SqlSelect) second).setWhere(null);
+    final SqlNode third = cache.getOrParse(VIEW, "1", SQL, CONFIG, countingParser(parses));
+    assertEquals(1, parses.get());
+    assertEquals(toSql(first), toSql(third));
+  }
+
+  @Test
+  public void testVersionAndSqlChanges() {
+    final ViewDefinitionCache cache = new ViewDefinitionCache(1024);
+    final AtomicInteger parses = new AtomicInteger();
+
+    cache.getOrParse(VIEW, "1", SQL, CONFIG, countingParser(parses));
+    cache.getOrParse(VIEW, "2", SQL, CONFIG, countingParser(parses));
+    assertEquals(2, parses.get());
+
+    final SqlNode changed = cache.getOrParse(VIEW, "2", "select a from src.t2", CONFIG, countingParser(parses));
+    assertEquals(3, parses.get());
+    assertTrue(toSql(changed).contains("t2"));
+
+    // unknown versions are never cached
+    cache.getOrParse(VIEW, null, SQL, CONFIG, countingParser(parses));
+    cache.getOrParse(VIEW, null, SQL, CONFIG, countingParser(parses));
+    assertEquals(5, parses.get());
+  }
+
+  @Test
+  public void testInvalidate() {
+    final ViewDefinitionCache cache = new ViewDefinitionCache(1024);
+    final AtomicInteger parses = new AtomicInteger();
+
+    cache.getOrParse(VIEW, "1", SQL, CONFIG, countingParser(parses));
+    cache.getOrParse(VIEW, "2", SQL, CONFIG, countingParser(parses));
+    cache.getOrParse(new NamespaceKey(ImmutableList.of("space", "v2")), "1", SQL, CONFIG, countingParser(parses));
+    assertEquals(3, cache.size());
+
+    cache.invalidate(new NamespaceKey(ImmutableList.of("SPACE", "V1")));
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void testCollectTableReferences() {
+    final SqlNode node = SqlConverter.parseSingleStatementImpl(
+      "with cte as (select * from src.t1) "
+        + "select * from cte join src.t2 as x on cte.a = x.a "
+        + "where cte.b in (select b from t3)", CONFIG, true);
+
+    final List<List<String>> tables = TableReferenceCollector.collect(node);
+    assertEquals(ImmutableList.of(
+      ImmutableList.of("src", "t1"),
+      ImmutableList.of("src", "t2"),
+      ImmutableList.of("t3")), tables);
+  }
+}
@@ -33,6 +33,8 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.dremio.exec.catalog.Catalog;
+import com.dremio.exec.catalog.DremioTable;
 import com.dremio.exec.ops.QueryContext;
 import com.dremio.exec.planner.observer.AttemptObserver;
 import com.dremio.exec.proto.ExecProtos.ServerPreparedStatementState;
@@ -43,8 +45,12 @@ import com.dremio.exec.work.protector.UserRequest;
 import com.dremio.options.OptionManager;
 import com.dremio.sabot.rpc.user.UserSession;
 import com.dremio.service.Pointer;
+import com.dremio.service.namespace.NamespaceKey;
+import com.dremio.service.namespace.dataset.proto.DatasetConfig;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 
 /**
  * CommandCreator tests.
@@ -54,6 +60,7 @@ public class CommandCreatorTest {
   private static final String USERNAME1 = "testuser1";
   private static final String USERNAME2 = "testuser2";
   private static final String QUERY = "q";
+  private static final NamespaceKey DATASET = new NamespaceKey(ImmutableList.of("source", "table"));
   private final CommandRunner expectedCommand = mock(CommandRunner.class);
 
   private final ServerPreparedStatementState serverPreparedStatementState = ServerPreparedStatementState.newBuilder()
@@ -77,6 +84,7 @@ public class CommandCreatorTest {
   private final QueryContext queryContext = mock(QueryContext.class);
   private final OptionManager optionManager = mock(OptionManager.class);
   private final AttemptObserver attemptObserver = mock(AttemptObserver.class);
+  private final Catalog catalog = mock(Catalog.class);
   private final Cache<Long, PreparedPlan> plans = CacheBuilder.newBuilder().build();
 
   @Before
@@ -84,6 +92,7 @@ public class CommandCreatorTest {
     when(queryContext.getExecutionControls()).thenReturn(mock(ExecutionControls.class));
     when(queryContext.getSession()).thenReturn(userSession);
     when(queryContext.getOptions()).thenReturn(optionManager);
+    when(queryContext.getCatalog()).thenReturn(catalog);
   }
 
   @After
@@ -112,7 +121,7 @@ public class CommandCreatorTest {
     setSessionUser1();
     setReusePreparedHandles();
 
-    final PreparedPlan preparedPlan = new PreparedPlan(prepareId, USERNAME1, QUERY, null, null);
+    final PreparedPlan preparedPlan = new PreparedPlan(prepareId, USERNAME1, QUERY, null, null, ImmutableMap.of());
     plans.put(serverPreparedStatementState.getHandle(), preparedPlan);
 
     final PrepareToExecution expectedCommand = new PrepareToExecution(preparedPlan, attemptObserver);
@@ -135,7 +144,7 @@ public class CommandCreatorTest {
     setSessionUser1();
     setNotReusePreparedHandles();
 
-    final PreparedPlan preparedPlan = new PreparedPlan(prepareId, USERNAME1, QUERY, null, null);
+    final PreparedPlan preparedPlan = new PreparedPlan(prepareId, USERNAME1, QUERY, null, null, ImmutableMap.of());
     plans.put(serverPreparedStatementState.getHandle(), preparedPlan);
 
     final PrepareToExecution expectedCommand = new PrepareToExecution(preparedPlan, attemptObserver);
@@ -152,13 +161,72 @@ public class CommandCreatorTest {
     assertNull(plans.getIfPresent(serverPreparedStatementState.getHandle()));
   }
 
+  @Test
+  public void testFoundCachedPlanReusedWhileDatasetsUnchanged() throws ForemanException {
+    // Arrange
+    setSessionUser1();
+    setReusePreparedHandles();
+    setDatasetTag("1");
+
+    final PreparedPlan preparedPlan = new PreparedPlan(prepareId, USERNAME1, QUERY, null, null,
+      ImmutableMap.of(DATASET, "1"));
+    plans.put(serverPreparedStatementState.getHandle(), preparedPlan);
+
+    // Act
+    CommandRunner<?> actualCommand = buildCommandCreator(0).toCommand();
+
+    // Assert
+    assertEquals(PrepareToExecution.class, actualCommand.getClass());
+    assertNotNull(plans.getIfPresent(serverPreparedStatementState.getHandle()));
+  }
+
+  @Test
+  public void testFoundCachedPlanWithChangedDatasetExecutesSqlCommand() throws ForemanException {
+    // Arrange
+    setSessionUser1();
+    setReusePreparedHandles();
+    setDatasetTag("2");
+
+    final PreparedPlan preparedPlan = new PreparedPlan(prepareId, USERNAME1, QUERY, null, null,
+      ImmutableMap.of(DATASET, "1"));
+    plans.put(serverPreparedStatementState.getHandle(), preparedPlan);
+
+    final CommandCreator commandCreator = spy(buildCommandCreator(0));
+    doReturn(expectedCommand).when(commandCreator).getSqlCommand(any(), any());
+
+    // Act
+    CommandRunner<?> actualCommand = commandCreator.toCommand();
+
+    // Assert
+    assertEquals(expectedCommand, actualCommand);
+    assertNull(plans.getIfPresent(serverPreparedStatementState.getHandle()));
+  }
+
+  @Test
+  public void testFoundCachedPlanNotReusableInvalidatedAfterOneUse() throws ForemanException {
+    // Arrange
+    setSessionUser1();
+    setReusePreparedHandles();
+
+    // plans reading tables without tags, such as system tables
+    final PreparedPlan preparedPlan = new PreparedPlan(prepareId, USERNAME1, QUERY, null, null, null);
+    plans.put(serverPreparedStatementState.getHandle(), preparedPlan);
+
+    // Act
+    CommandRunner<?> actualCommand = buildCommandCreator(0).toCommand();
+
+    // Assert
+    assertEquals(PrepareToExecution.class, actualCommand.getClass());
+    assertNull(plans.getIfPresent(serverPreparedStatementState.getHandle()));
+  }
+
   @Test
   public void testCachedPlanExistsButNotUsedOnAttempt2() throws ForemanException {
     // Arrange
     setSessionUser1();
     setReusePreparedHandles();
 
-    final PreparedPlan preparedPlan = new PreparedPlan(prepareId, USERNAME1, QUERY, null, null);
+    final PreparedPlan preparedPlan = new PreparedPlan(prepareId, USERNAME1, QUERY, null, null, ImmutableMap.of());
     plans.put(serverPreparedStatementState.getHandle(), preparedPlan);
 
     final PrepareToExecution expectedCommand = new PrepareToExecution(preparedPlan, attemptObserver);
@@ -180,7 +248,7 @@ public class CommandCreatorTest {
     setSessionUser2();
     setReusePreparedHandles();
 
-    final PreparedPlan preparedPlan = new PreparedPlan(prepareId, USERNAME1, QUERY, null, null);
+    final PreparedPlan preparedPlan = new PreparedPlan(prepareId, USERNAME1, QUERY, null, null, ImmutableMap.of());
     plans.put(serverPreparedStatementState.getHandle(), preparedPlan);
 
     final CommandCreator commandCreator = buildCommandCreator(0);
@@ -195,7 +263,7 @@ public class CommandCreatorTest {
     setSessionUser2();
     setNotReusePreparedHandles();
 
-    final PreparedPlan preparedPlan = new PreparedPlan(prepareId, USERNAME1, QUERY, null, null);
+    final PreparedPlan preparedPlan = new PreparedPlan(prepareId, USERNAME1, QUERY, null, null, ImmutableMap.of());
     plans.put(serverPreparedStatementState.getHandle(), preparedPlan);
 
     final CommandCreator commandCreator = buildCommandCreator(0);
@@ -214,6 +282,14 @@ public class CommandCreatorTest {
       UserBitShared.UserCredentials.newBuilder().setUserName(USERNAME2).build());
   }
 
+  private void setDatasetTag(String tag) {
+    final DremioTable table = mock(DremioTable.class);
+    when(table.getDatasetConfig()).thenReturn(new DatasetConfig()
+      .setFullPathList(DATASET.getPathComponents())
+      .setTag(tag));
+    when(catalog.getTable(DATASET)).thenReturn(table);
+  }
+
   private void setReusePreparedHandles() {
     when(optionManager.getOption(eq(REUSE_PREPARE_HANDLES))).thenReturn(true);
   }
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.easy.arrow;
+
+import static com.dremio.exec.store.easy.arrow.ArrowFormatPlugin.FOOTER_OFFSET_SIZE;
+import static com.dremio.exec.store.easy.arrow.ArrowFormatPlugin.MAGIC_STRING;
+import static com.dremio.exec.store.easy.arrow.ArrowFormatPlugin.MAGIC_STRING_LENGTH;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.DataInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.hadoop.conf.Configuration;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.dremio.exec.expr.TypeHelper;
+import com.dremio.exec.hadoop.HadoopFileSystem;
+import com.dremio.exec.record.RecordBatchHolder;
+import com.dremio.io.FSInputStream;
+import com.dremio.io.file.FileSystem;
+import com.dremio.io.file.Path;
+import com.dremio.test.AllocatorRule;
+import com.dremio.test.DremioTest;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Tests for {@link ArrowFileBatchWriter}
+ */
+public class TestArrowFileBatchWriter extends DremioTest {
+  private static final Configuration FS_CONF = new Configuration();
+  private static final String FILE_NAME = "0." + ArrowFormatPluginConfig.DEFAULT_EXTENSIONS.get(0);
+
+  static {
+    // to accommodate MapR profile that sets default FS to maprfs, while we use local FS for testing here
+    FS_CONF.set("fs.default.name", "file:///");
+  }
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Rule
+  public final AllocatorRule allocatorRule = AllocatorRule.defaultAllocator();
+
+  @Test
+  public void testWrittenBatchesAreReadBack() throws Exception {
+    final FileSystem fs = HadoopFileSystem.getLocal(FS_CONF);
+    final Path basePath = Path.of(folder.getRoot().toURI());
+
+    try (BufferAllocator allocator = allocatorRule.newAllocator("test-arrow-file-batch-writer", 0, Long.MAX_VALUE);
+         IntVector ids = new IntVector("id", allocator);
+         VarCharVector names = new VarCharVector("name", allocator)) {
+      final List<ValueVector> vectors = ImmutableList.of(ids, names);
+
+      try (ArrowFileBatchWriter writer = new ArrowFileBatchWriter(fs, basePath.resolve(FILE_NAME),
+        ImmutableList.of(TypeHelper.getMetadata(ids), TypeHelper.getMetadata(names)))) {
+        fill(ids, names, 0, 2);
+        writer.write(vectors, 2);
+        fill(ids, names, 2, 3);
+        writer.write(vectors, 3);
+        assertEquals(5, writer.getRecordCount());
+      }
+
+      final ArrowFileMetadata metadata = ArrowFileReader.toBean(ArrowFileFormat.ArrowFileMetadata.newBuilder()
+        .setPath(FILE_NAME)
+        .setRecordCount(5)
+        .setFooter(readFooter(fs, basePath.resolve(FILE_NAME)))
+        .build());
+      assertEquals(2, metadata.getFooter().getBatchList().size());
+
+      try (ArrowFileReader reader = new ArrowFileReader(fs, basePath, metadata, allocator)) {
+        final List<RecordBatchHolder> batches = reader.read(0, 5);
+        try {
+          assertEquals(2, batches.size());
+          int expected = 0;
+          for (RecordBatchHolder batch : batches) {
+            final IntVector readIds = (IntVector) batch.getData().getVectors().get(0);
+            final VarCharVector readNames = (VarCharVector) batch.getData().getVectors().get(1);
+            for (int i = batch.getStart(); i < batch.getEnd(); i++, expected++) {
+              assertEquals(expected, readIds.get(i));
+              assertEquals("name" + expected, readNames.getObject(i).toString());
+            }
+          }
+          assertEquals(5, expected);
+        } finally {
+          for (RecordBatchHolder batch : batches) {
+            batch.getData().close();
+          }
+        }
+      }
+    }
+  }
+
+  private static void fill(IntVector ids, VarCharVector names, int start, int count) {
+    ids.allocateNew(count);
+    names.allocateNew(count);
+    for (int i = 0; i < count; i++) {
+      ids.set(i, start + i);
+      names.setSafe(i, ("name" + (start + i)).getBytes(StandardCharsets.UTF_8));
+    }
+    ids.setValueCount(count);
+    names.setValueCount(count);
+  }
+
+  private static ArrowFileFormat.ArrowFileFooter readFooter(FileSystem fs, Path path) throws Exception {
+    final long size = fs.getFileAttributes(path).size();
+    try (FSInputStream inputStream = fs.open(path)) {
+      final byte[] magic = new byte[MAGIC_STRING_LENGTH];
+      new DataInputStream(inputStream).readFully(magic);
+      assertArrayEquals(MAGIC_STRING.getBytes(), magic);
+
+      inputStream.setPosition(size - (MAGIC_STRING_LENGTH + FOOTER_OFFSET_SIZE));
+      final long footerOffset = new DataInputStream(inputStream).readLong();
+      inputStream.setPosition(footerOffset);
+      return ArrowFileFormat.ArrowFileFooter.parseDelimitedFrom(inputStream);
+    }
+  }
+}
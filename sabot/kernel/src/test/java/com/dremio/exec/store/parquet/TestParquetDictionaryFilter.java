@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.BitSet;
+import java.util.List;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.parquet.column.Dictionary;
+import org.apache.parquet.column.Encoding;
+import org.apache.parquet.io.api.Binary;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.dremio.common.AutoCloseables;
+import com.dremio.common.expression.FunctionCallFactory;
+import com.dremio.common.expression.LogicalExpression;
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.common.expression.ValueExpressions.QuotedString;
+import com.dremio.exec.expr.fn.impl.SqlPatternMatcher;
+import com.dremio.test.AllocatorRule;
+import com.dremio.test.DremioTest;
+
+/**
+ * Unit tests for ParquetDictionaryFilter
+ */
+public class TestParquetDictionaryFilter extends DremioTest {
+  private static final LogicalExpression COLUMN = SchemaPath.getSimplePath("city");
+
+  private BufferAllocator allocator;
+
+  @Rule
+  public final AllocatorRule allocatorRule = AllocatorRule.defaultAllocator();
+
+  @Before
+  public void setup() {
+    this.allocator = allocatorRule.newAllocator("test-parquet-dictionary-filter", 0, Long.MAX_VALUE);
+  }
+
+  @After
+  public void close() throws Exception {
+    AutoCloseables.close(allocator);
+  }
+
+  private static Dictionary dictionary(String... entries) {
+    return new Dictionary(Encoding.PLAIN_DICTIONARY) {
+      @Override
+      public Binary decodeToBinary(int id) {
+        return Binary.fromString(entries[id]);
+      }
+
+      @Override
+      public int getMaxId() {
+        return entries.length - 1;
+      }
+    };
+  }
+
+  private BitSet matching(LogicalExpression expr, Dictionary dictionary) {
+    final List<SqlPatternMatcher> matchers = ParquetDictionaryFilter.toMatchers(expr, "CITY");
+    return ParquetDictionaryFilter.matchingEntries(allocator, dictionary, matchers);
+  }
+
+  private static BitSet bits(int... ids) {
+    final BitSet bits = new BitSet();
+    for (int id : ids) {
+      bits.set(id);
+    }
+    return bits;
+  }
+
+  @Test
+  public void testMatchingEntries() {
+    final Dictionary dictionary = dictionary("Paris", "Lyon", "", "Zürich", "Parisot");
+
+    assertEquals(bits(0), matching(FunctionCallFactory.createExpression("equal", COLUMN, new QuotedString("Paris")), dictionary));
+    assertEquals(bits(3), matching(FunctionCallFactory.createExpression("equal", new QuotedString("Zürich"), COLUMN), dictionary));
+    assertEquals(bits(), matching(FunctionCallFactory.createExpression("equal", COLUMN, new QuotedString("Nice")), dictionary));
+
+    final LogicalExpression in = FunctionCallFactory.createBooleanOperator("or",
+      FunctionCallFactory.createExpression("equal", COLUMN, new QuotedString("Lyon")),
+      FunctionCallFactory.createExpression("equal", COLUMN, new QuotedString("")),
+      FunctionCallFactory.createExpression("equal", COLUMN, new QuotedString("Nice")));
+    assertEquals(bits(1, 2), matching(in, dictionary));
+
+    assertEquals(bits(0, 4), matching(FunctionCallFactory.createExpression("like", COLUMN, new QuotedString("Par%")), dictionary));
+    assertEquals(bits(1, 4), matching(FunctionCallFactory.createExpression("like", COLUMN, new QuotedString("%_%o%")), dictionary));
+    assertEquals(bits(), matching(FunctionCallFactory.createExpression("like", COLUMN, new QuotedString("%x%")), dictionary));
+  }
+
+  @Test
+  public void testUnsupportedConditions() {
+    assertNull(ParquetDictionaryFilter.toMatchers(
+      FunctionCallFactory.createExpression("not_equal", COLUMN, new QuotedString("Paris")), "city"));
+    assertNull(ParquetDictionaryFilter.toMatchers(
+      FunctionCallFactory.createExpression("equal", SchemaPath.getSimplePath("country"), new QuotedString("France")), "city"));
+    assertNull(ParquetDictionaryFilter.toMatchers(
+      FunctionCallFactory.createExpression("equal", COLUMN, SchemaPath.getSimplePath("country")), "city"));
+    assertNull(ParquetDictionaryFilter.toMatchers(FunctionCallFactory.createBooleanOperator("or",
+      FunctionCallFactory.createExpression("equal", COLUMN, new QuotedString("Paris")),
+      FunctionCallFactory.createExpression("isnull", COLUMN)), "city"));
+    // invalid escape
+    assertNull(ParquetDictionaryFilter.toMatchers(
+      FunctionCallFactory.createExpression("like", COLUMN, new QuotedString("a%"), new QuotedString("ab")), "city"));
+  }
+}
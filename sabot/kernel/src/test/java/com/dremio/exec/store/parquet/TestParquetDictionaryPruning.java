@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.exec.store.parquet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.DirectoryStream;
+import java.util.Collections;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.compression.CompressionCodecFactory;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.hadoop.CodecFactory;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.dremio.BaseTestQuery;
+import com.dremio.common.expression.FunctionCallFactory;
+import com.dremio.common.expression.LogicalExpression;
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.common.expression.ValueExpressions.QuotedString;
+import com.dremio.exec.ExecConstants;
+import com.dremio.io.file.FileAttributes;
+import com.dremio.io.file.Path;
+import com.dremio.io.file.PathFilters;
+import com.dremio.parquet.reader.ParquetDirectByteBufferAllocator;
+
+/**
+ * Tests pruning row groups with the dictionaries of a parquet file written by Dremio.
+ */
+public class TestParquetDictionaryPruning extends BaseTestQuery {
+  private static final String TABLE = "dictionary_pruning";
+  private static final SchemaPath COLUMN = SchemaPath.getSimplePath("n_name");
+
+  @BeforeClass
+  public static void createTable() throws Exception {
+    test("ALTER SESSION SET \"" + ExecConstants.PARQUET_WRITER_ENABLE_DICTIONARY_ENCODING + "\" = true");
+    test("CREATE TABLE dfs_test." + TABLE + " AS SELECT n_nationkey, n_name FROM cp.\"tpch/nation.parquet\"");
+    test("ALTER SESSION RESET \"" + ExecConstants.PARQUET_WRITER_ENABLE_DICTIONARY_ENCODING + "\"");
+  }
+
+  @AfterClass
+  public static void dropTable() throws Exception {
+    test("DROP TABLE dfs_test." + TABLE);
+  }
+
+  @Test
+  public void testCanSkipRowGroup() throws Exception {
+    assertTrue(canSkipRowGroup(equal("NOWHERE")));
+    assertTrue(canSkipRowGroup(FunctionCallFactory.createExpression("like", COLUMN, new QuotedString("NOWHERE%"))));
+    assertTrue(canSkipRowGroup(FunctionCallFactory.createBooleanOperator("or", equal("NOWHERE"), equal("ELSEWHERE"))));
+
+    assertFalse(canSkipRowGroup(equal("CHINA")));
+    assertFalse(canSkipRowGroup(FunctionCallFactory.createExpression("like", COLUMN, new QuotedString("UNITED%"))));
+    assertFalse(canSkipRowGroup(FunctionCallFactory.createBooleanOperator("or", equal("NOWHERE"), equal("PERU"))));
+  }
+
+  @Test
+  public void testQueries() throws Exception {
+    testBuilder()
+      .unOrdered()
+      .sqlQuery("SELECT n_nationkey FROM dfs_test." + TABLE + " WHERE n_name = 'NOWHERE'")
+      .expectsEmptyResultSet()
+      .go();
+
+    testBuilder()
+      .unOrdered()
+      .sqlQuery("SELECT n_nationkey FROM dfs_test." + TABLE + " WHERE n_name LIKE 'UNITED%'")
+      .baselineColumns("n_nationkey")
+      .baselineValues(23)
+      .baselineValues(24)
+      .go();
+  }
+
+  private static LogicalExpression equal(String value) {
+    return FunctionCallFactory.createExpression("equal", COLUMN, new QuotedString(value));
+  }
+
+  private static boolean canSkipRowGroup(LogicalExpression expr) throws Exception {
+    final Path file = getParquetFile();
+    final long fileLength = localFs.getFileAttributes(file).size();
+    final long maxFooterLen = ExecConstants.PARQUET_MAX_FOOTER_LEN_VALIDATOR.getDefault().getNumVal();
+    final ParquetMetadata footer = SingletonParquetFooterCache.readFooter(localFs, file,
+      ParquetMetadataConverter.NO_FILTER, maxFooterLen);
+    assertEquals(1, footer.getBlocks().size());
+    final BlockMetaData block = footer.getBlocks().get(0);
+    final ParquetFilterCondition condition = new ParquetFilterCondition(COLUMN, null, expr, 0);
+
+    try (BufferAllocator allocator = getSabotContext().getAllocator().newChildAllocator("dictionary-pruning", 0, Long.MAX_VALUE);
+         InputStreamProvider streamProvider = new SingleStreamProvider(localFs, file, fileLength, maxFooterLen, false,
+           null, null, false)) {
+      final CompressionCodecFactory codecFactory = CodecFactory.createDirectCodecFactory(new Configuration(),
+        new ParquetDirectByteBufferAllocator(allocator), 0);
+      try {
+        return ParquetDictionaryFilter.canSkipRowGroup(allocator, streamProvider, footer.getFileMetaData().getSchema(),
+          block, Collections.singletonList(condition), new ParquetColumnDefaultResolver(Collections.singletonList(COLUMN)),
+          codecFactory);
+      } finally {
+        codecFactory.release();
+      }
+    }
+  }
+
+  private static Path getParquetFile() throws Exception {
+    final Path tableDir = Path.of(getDfsTestTmpSchemaLocation()).resolve(TABLE);
+    try (DirectoryStream<FileAttributes> files = localFs.list(tableDir, PathFilters.endsWith(".parquet"))) {
+      return files.iterator().next().getPath();
+    }
+  }
+}
@@ -208,4 +208,76 @@ public class DecimalUtilsTest extends DremioTest {
     return false;
   }
 
+  private static final BigDecimal[] LONG_FAST_PATH_VALUES = new BigDecimal[] {
+    new BigDecimal("0.00"), new BigDecimal("1.25"), new BigDecimal("-1.25"), new BigDecimal("12345.675"),
+    new BigDecimal("-0.005"), new BigDecimal("92233720368547758.07"), new BigDecimal("-92233720368547758.08"),
+    new BigDecimal("0.000000000000000001"), new BigDecimal("99999999999999999999.99")};
+
+  private ArrowBuf toBuffer(BigDecimal value) {
+    final ArrowBuf buf = testAllocator.buffer(DecimalUtils.DECIMAL_WIDTH);
+    final byte[] bytes = DecimalUtils.convertBigDecimalToArrowByteArray(value);
+    buf.setBytes(0, bytes, 0, bytes.length);
+    return buf;
+  }
+
+  @Test
+  public void testLongDecimalArithmetic() {
+    try (ArrowBuf result = testAllocator.buffer(DecimalUtils.DECIMAL_WIDTH)) {
+      for (BigDecimal left : LONG_FAST_PATH_VALUES) {
+        for (BigDecimal right : LONG_FAST_PATH_VALUES) {
+          try (ArrowBuf leftBuf = toBuffer(left);
+               ArrowBuf rightBuf = toBuffer(right)) {
+            final int higherScale = Math.max(left.scale(), right.scale());
+            for (int outScale = higherScale; outScale >= Math.max(0, higherScale - 3); outScale--) {
+              for (boolean isSubtract : new boolean[] {false, true}) {
+                if (DecimalUtils.addOrSubtractLongDecimals(isSubtract, leftBuf.memoryAddress(), left.scale(),
+                  rightBuf.memoryAddress(), right.scale(), outScale, result.memoryAddress())) {
+                  final BigDecimal expected = (isSubtract ? left.subtract(right) : left.add(right))
+                    .setScale(outScale, BigDecimal.ROUND_HALF_UP);
+                  Assert.assertEquals(left + (isSubtract ? " - " : " + ") + right, expected,
+                    DecimalUtility.getBigDecimalFromArrowBuf(result, 0, outScale, DecimalVector.TYPE_WIDTH));
+                }
+              }
+            }
+
+            final int productScale = left.scale() + right.scale();
+            for (int outScale = productScale; outScale >= Math.max(0, productScale - 3); outScale--) {
+              if (DecimalUtils.multiplyLongDecimals(leftBuf.memoryAddress(), left.scale(), rightBuf.memoryAddress(),
+                right.scale(), outScale, result.memoryAddress())) {
+                final BigDecimal expected = left.multiply(right).setScale(outScale, BigDecimal.ROUND_HALF_UP);
+                Assert.assertEquals(left + " * " + right, expected,
+                  DecimalUtility.getBigDecimalFromArrowBuf(result, 0, outScale, DecimalVector.TYPE_WIDTH));
+              }
+            }
+
+            Assert.assertEquals(left + " <=> " + right, Integer.signum(left.compareTo(right)),
+              Integer.signum(DecimalUtils.compareDecimals(leftBuf, 0, left.scale(), rightBuf, 0, right.scale())));
+          }
+        }
+      }
+
+      // common cases take the fast path
+      try (ArrowBuf leftBuf = toBuffer(new BigDecimal("10.25"));
+           ArrowBuf rightBuf = toBuffer(new BigDecimal("-3.5"))) {
+        Assert.assertTrue(DecimalUtils.addOrSubtractLongDecimals(false, leftBuf.memoryAddress(), 2,
+          rightBuf.memoryAddress(), 1, 2, result.memoryAddress()));
+        Assert.assertTrue(DecimalUtils.multiplyLongDecimals(leftBuf.memoryAddress(), 2,
+          rightBuf.memoryAddress(), 1, 2, result.memoryAddress()));
+        Assert.assertEquals(new BigDecimal("-35.88"),
+          DecimalUtility.getBigDecimalFromArrowBuf(result, 0, 2, DecimalVector.TYPE_WIDTH));
+      }
+    }
+  }
+
+  @Test
+  public void testDoubleFromLEBytes() {
+    final byte[] valBuf = new byte[DecimalUtils.DECIMAL_WIDTH];
+    for (BigDecimal value : LONG_FAST_PATH_VALUES) {
+      try (ArrowBuf buf = toBuffer(value)) {
+        Assert.assertEquals(value.doubleValue(),
+          DecimalUtils.getDoubleFromLEBytes(buf.memoryAddress(), valBuf, value.scale()), 0);
+        Assert.assertEquals(value, DecimalUtils.getBigDecimalFromLEBytes(buf.memoryAddress(), valBuf, value.scale()));
+      }
+    }
+  }
 }
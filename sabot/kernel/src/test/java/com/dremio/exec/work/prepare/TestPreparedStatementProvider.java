@@ -16,6 +16,7 @@
 package com.dremio.exec.work.prepare;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.sql.Date;
@@ -157,6 +158,19 @@ public class TestPreparedStatementProvider extends BaseTestQuery {
   }
 
   /* Helper method which creates a prepared statement for given query. */
+  /**
+   * Functions such as RAND() are evaluated when planning, so the plan of the statement must not be reused.
+   */
+  @Test
+  public void nonCacheablePlanNotReused() throws Exception {
+    PreparedStatement preparedStatement =
+        createPrepareStmt("SELECT RAND() AS r FROM cp.\"region.json\" LIMIT 1", false, null);
+
+    final String first = getResultString(testPreparedStatement(preparedStatement.getServerHandle()), ",");
+    final String second = getResultString(testPreparedStatement(preparedStatement.getServerHandle()), ",");
+    assertNotEquals(first, second);
+  }
+
   private static PreparedStatement createPrepareStmt(String query, boolean expectFailure, ErrorType errorType) throws Exception {
     CreatePreparedStatementResp resp = client.createPreparedStatement(query).get();
 
@@ -58,6 +58,7 @@ import com.dremio.exec.work.user.LocalUserUtil;
 import com.dremio.options.OptionManager;
 import com.dremio.proto.model.attempts.AttemptReason;
 import com.dremio.sabot.op.aggregate.hash.HashAggOperator;
+import com.dremio.sabot.op.sender.broadcast.BroadcastOperator;
 import com.dremio.sabot.rpc.user.QueryDataBatch;
 import com.google.common.collect.Sets;
 
@@ -247,6 +248,28 @@ public class TestQueryReAttempt extends BaseTestQuery {
     assertEquals(AttemptReason.NONE, attemptHandler.isRecoverable(new ReAttemptContext(id, userException, false, true)));
   }
 
+  @Test
+  public void testBroadcastLimitExceeded() {
+    OptionManager options = Mockito.mock(OptionManager.class);
+    ReAttemptHandler attemptHandler = new ExternalAttemptHandler(options);
+    AttemptId id = new AttemptId();
+
+    final UserException otherRetry = UserException.retryAttemptError().build(NoOutputLogger.INSTANCE);
+    assertEquals(AttemptReason.NONE, attemptHandler.isRecoverable(new ReAttemptContext(id, otherRetry, false, false)));
+
+    final UserException broadcastLimit = UserException.retryAttemptError()
+      .addContext(BroadcastOperator.RECORD_LIMIT_EXCEEDED_MSG)
+      .build(NoOutputLogger.INSTANCE);
+    assertEquals(AttemptReason.BROADCAST_LIMIT_EXCEEDED,
+      attemptHandler.isRecoverable(new ReAttemptContext(id, broadcastLimit, false, false)));
+    assertTrue(attemptHandler.hasBroadcastLimitExceeded());
+
+    // broadcast joins are disabled from now on, there is nothing left to recover from
+    attemptHandler.newAttempt();
+    assertEquals(AttemptReason.NONE,
+      attemptHandler.isRecoverable(new ReAttemptContext(id.nextAttempt(), broadcastLimit, false, false)));
+  }
+
   private void assertBatchCanBeLoaded(QueryWritableBatch batch, List<ValueVector> original) throws Exception {
     RpcOutcomeListener<GeneralRPCProtos.Ack> listener = Mockito.mock(RpcOutcomeListener.class);
 
@@ -26,6 +26,7 @@ import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.LongPredicate;
 
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.vector.BigIntVector;
@@ -211,27 +212,32 @@ public class CustomGeneratorWithSV2 implements Generator {
   }
 
   public Fixtures.Table getExpectedTable() {
-    if (totalSelectedRows == 0) {
-      return null;
-    }
+    return getExpectedTable(value -> true);
+  }
 
-    final DataRow[] rows = new DataRow[totalSelectedRows];
-    int idx = 0;
+  /**
+   * @param bigIntFilter predicate on the BIGINT value of the selected rows to keep
+   * @return the selected rows that match the predicate, null if there is none
+   */
+  public Fixtures.Table getExpectedTable(LongPredicate bigIntFilter) {
+    final List<DataRow> rows = new ArrayList<>();
     for (int i = 0; i < intValues.size(); i++) {
-      if (!selectedBitSet.get(i)) {
+      if (!selectedBitSet.get(i) || !bigIntFilter.test(longValues.get(i))) {
         continue;
       }
 
-      rows[idx] = tr(
+      rows.add(tr(
         bitValues.get(i),
         intValues.get(i) == null ? NULL_INT : intValues.get(i),
         longValues.get(i),
         decimalValues.get(i),
         stringValues.get(i),
-        listValues.get(i));
-      ++idx;
+        listValues.get(i)));
+    }
+    if (rows.isEmpty()) {
+      return null;
     }
-    return t(th("BIT", "INT", "BIGINT", "DECIMAL", "STRING", "LIST"), rows);
+    return t(th("BIT", "INT", "BIGINT", "DECIMAL", "STRING", "LIST"), rows.toArray(new DataRow[0]));
   }
 
   @Override
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.exec;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.dremio.exec.proto.CoordExecRPC.ExecutorQueryProfile;
+import com.dremio.exec.proto.CoordExecRPC.FragmentStatus;
+import com.dremio.exec.proto.CoordExecRPC.NodeQueryStatus;
+import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
+import com.dremio.exec.proto.ExecProtos.FragmentHandle;
+import com.dremio.exec.proto.UserBitShared.FragmentState;
+import com.dremio.exec.proto.UserBitShared.MinorFragmentProfile;
+import com.dremio.exec.proto.UserBitShared.OperatorProfile;
+import com.dremio.exec.proto.UserBitShared.QueryId;
+import com.dremio.exec.proto.UserBitShared.StreamProfile;
+import com.dremio.service.coordinator.ClusterCoordinator;
+import com.dremio.service.jobtelemetry.client.JobTelemetryExecutorClient;
+import com.dremio.service.maestroservice.MaestroClient;
+import com.google.common.util.concurrent.Futures;
+import com.google.protobuf.Empty;
+
+/**
+ * Tests for {@link MaestroProxyQueryTracker}
+ */
+public class TestMaestroProxyQueryTracker {
+  private static final QueryId QUERY_ID = QueryId.newBuilder().setPart1(1).setPart2(2).build();
+  private static final NodeEndpoint ENDPOINT = NodeEndpoint.newBuilder().setAddress("localhost").setFabricPort(1).build();
+
+  private JobTelemetryExecutorClient telemetryClient;
+  private MaestroProxyQueryTracker tracker;
+
+  @Before
+  public void setup() {
+    final QueryTicket queryTicket = mock(QueryTicket.class);
+    when(queryTicket.getStatus()).thenReturn(NodeQueryStatus.getDefaultInstance());
+    telemetryClient = mock(JobTelemetryExecutorClient.class);
+    when(telemetryClient.putExecutorProfile(any(ExecutorQueryProfile.class)))
+      .thenReturn(Futures.immediateFuture(Empty.getDefaultInstance()));
+
+    tracker = new MaestroProxyQueryTracker(QUERY_ID, ENDPOINT, 1000, mock(ScheduledThreadPoolExecutor.class),
+      mock(ClusterCoordinator.class));
+    assertTrue(tracker.tryStart(queryTicket, ENDPOINT, mock(MaestroClient.class), telemetryClient));
+  }
+
+  @Test
+  public void testRefreshWithoutProgressIsNotSent() {
+    tracker.refreshFragmentStatus(status(10, 1));
+    assertTrue(tracker.sendQueryProfile().isPresent());
+
+    // the status reporter refreshed the fragment, which did not make progress
+    tracker.refreshFragmentStatus(status(10, 2));
+    assertFalse(tracker.sendQueryProfile().isPresent());
+
+    tracker.refreshFragmentStatus(status(20, 3));
+    assertTrue(tracker.sendQueryProfile().isPresent());
+    verify(telemetryClient, times(2)).putExecutorProfile(any(ExecutorQueryProfile.class));
+  }
+
+  @Test
+  public void testProfileIsSentAgainAfterFailure() {
+    when(telemetryClient.putExecutorProfile(any(ExecutorQueryProfile.class)))
+      .thenReturn(Futures.immediateFailedFuture(new RuntimeException("unreachable")))
+      .thenReturn(Futures.immediateFuture(Empty.getDefaultInstance()));
+
+    tracker.refreshFragmentStatus(status(10, 1));
+    assertTrue(tracker.sendQueryProfile().isPresent());
+
+    // the first send failed, so the same progress is sent again
+    tracker.refreshFragmentStatus(status(10, 2));
+    assertTrue(tracker.sendQueryProfile().isPresent());
+
+    tracker.refreshFragmentStatus(status(10, 3));
+    assertFalse(tracker.sendQueryProfile().isPresent());
+    verify(telemetryClient, times(2)).putExecutorProfile(any(ExecutorQueryProfile.class));
+  }
+
+  private static FragmentStatus status(long records, long lastUpdate) {
+    return FragmentStatus.newBuilder()
+      .setHandle(FragmentHandle.newBuilder()
+        .setQueryId(QUERY_ID)
+        .setMajorFragmentId(1)
+        .setMinorFragmentId(0))
+      .setProfile(MinorFragmentProfile.newBuilder()
+        .setState(FragmentState.RUNNING)
+        .setMinorFragmentId(0)
+        .setLastUpdate(lastUpdate)
+        .addOperatorProfile(OperatorProfile.newBuilder()
+          .addInputProfile(StreamProfile.newBuilder().setRecords(records))))
+      .build();
+  }
+}
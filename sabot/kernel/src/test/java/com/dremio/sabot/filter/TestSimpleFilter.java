@@ -26,16 +26,23 @@ import org.junit.Assert;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import com.dremio.common.expression.FunctionCall;
 import com.dremio.common.expression.LogicalExpression;
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.common.expression.ValueExpressions;
 import com.dremio.exec.physical.config.Filter;
 import com.dremio.exec.proto.UserBitShared.ExpressionSplitInfo;
 import com.dremio.exec.record.VectorAccessible;
 import com.dremio.exec.util.BatchPrinter;
 import com.dremio.sabot.BaseTestOperator;
+import com.dremio.sabot.CustomGeneratorWithSV2;
+import com.dremio.sabot.CustomGeneratorWithSV2.SelectionVariant;
 import com.dremio.sabot.Fixtures.Table;
 import com.dremio.sabot.Generator;
 import com.dremio.sabot.exec.context.OperatorStats;
 import com.dremio.sabot.op.filter.FilterOperator;
+import com.dremio.sabot.op.filter.FilterStats;
+import com.google.common.collect.ImmutableList;
 
 import io.airlift.tpch.GenerationDefinition.TpchTable;
 import io.airlift.tpch.TpchGenerator;
@@ -61,6 +68,27 @@ public class TestSimpleFilter extends BaseTestOperator {
     validateSingle(f, FilterOperator.class, input, output);
   }
 
+  @Test
+  public void selectionVectorInput() throws Exception {
+    try (CustomGeneratorWithSV2 generator = new CustomGeneratorWithSV2(200, getTestAllocator(), SelectionVariant.SELECT_ALTERNATE)) {
+      // keeps all the records selected by the input
+      Filter f = new Filter(PROPS, null, new FunctionCall("greater_than_or_equal_to",
+        ImmutableList.of(SchemaPath.getSimplePath("BIGINT"), ValueExpressions.getBigInt(0))), 1f);
+      OperatorStats stats = validateSingle(f, FilterOperator.class, generator, generator.getExpectedTable(), 15);
+      Assert.assertEquals(1, stats.getLongStat(FilterStats.Metric.SELECTED_COLUMNS_COPIED));
+    }
+  }
+
+  @Test
+  public void selectionVectorInputWithPredicate() throws Exception {
+    try (CustomGeneratorWithSV2 generator = new CustomGeneratorWithSV2(200, getTestAllocator(), SelectionVariant.SELECT_ALTERNATE)) {
+      // drops some of the records selected by the input, so that both selection vectors are combined
+      Filter f = new Filter(PROPS, null, new FunctionCall("less_than",
+        ImmutableList.of(SchemaPath.getSimplePath("BIGINT"), ValueExpressions.getBigInt(100))), 1f);
+      validateSingle(f, FilterOperator.class, generator, generator.getExpectedTable(value -> value < 100), 15);
+    }
+  }
+
   @Test
   public void simpleFilter2() throws Exception {
 
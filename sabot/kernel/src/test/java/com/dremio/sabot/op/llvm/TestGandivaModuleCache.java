@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.sabot.op.llvm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.arrow.gandiva.exceptions.GandivaException;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.junit.Test;
+
+import com.google.protobuf.ByteString;
+
+public class TestGandivaModuleCache {
+
+  private static final Schema SCHEMA = new Schema(Collections.singletonList(
+    Field.nullable("a", new ArrowType.Int(32, true))));
+
+  private static GandivaModuleCache.Key key(String expr) {
+    return new GandivaModuleCache.Key(false, SCHEMA, Collections.singletonList(ByteString.copyFromUtf8(expr)), true, true);
+  }
+
+  private static final class Module implements AutoCloseable {
+    private boolean closed;
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+  }
+
+  @Test
+  public void testSharedModule() throws Exception {
+    final GandivaModuleCache cache = new GandivaModuleCache();
+    final AtomicInteger builds = new AtomicInteger();
+
+    final GandivaModuleCache.Lease<Module> first = cache.acquire(key("a + 1"), 10, () -> {
+      builds.incrementAndGet();
+      return new Module();
+    });
+    final GandivaModuleCache.Lease<Module> second = cache.acquire(key("a + 1"), 10, () -> {
+      builds.incrementAndGet();
+      return new Module();
+    });
+
+    assertEquals(1, builds.get());
+    assertFalse(first.isCacheHit());
+    assertTrue(second.isCacheHit());
+    assertSame(first.get(), second.get());
+
+    // cached modules stay open once released
+    first.close();
+    second.close();
+    assertFalse(first.get().closed);
+
+    // keys differing only by options are distinct
+    final GandivaModuleCache.Key noOptimize =
+      new GandivaModuleCache.Key(false, SCHEMA, Collections.singletonList(ByteString.copyFromUtf8("a + 1")), false, true);
+    try (GandivaModuleCache.Lease<Module> third = cache.acquire(noOptimize, 10, Module::new)) {
+      assertFalse(third.isCacheHit());
+    }
+  }
+
+  @Test
+  public void testEvictionWaitsForRelease() throws Exception {
+    final GandivaModuleCache cache = new GandivaModuleCache();
+
+    final GandivaModuleCache.Lease<Module> inUse = cache.acquire(key("a + 1"), 1, Module::new);
+    final GandivaModuleCache.Lease<Module> unused = cache.acquire(key("a + 2"), 1, Module::new);
+    unused.close();
+    assertEquals(1, cache.size());
+
+    // the evicted module is closed once the last lease on it is released
+    assertFalse(inUse.get().closed);
+    inUse.close();
+    assertTrue(inUse.get().closed);
+
+    // evicting an unused module closes it right away
+    cache.acquire(key("a + 3"), 1, Module::new).close();
+    assertTrue(unused.get().closed);
+  }
+
+  @Test
+  public void testFailedBuild() throws Exception {
+    final GandivaModuleCache cache = new GandivaModuleCache();
+    try {
+      cache.acquire(key("a + 1"), 10, () -> {
+        throw new GandivaException("failed");
+      });
+      fail();
+    } catch (GandivaException e) {
+      assertEquals("failed", e.getMessage());
+    }
+
+    assertEquals(0, cache.size());
+    try (GandivaModuleCache.Lease<Module> lease = cache.acquire(key("a + 1"), 10, Module::new)) {
+      assertFalse(lease.isCacheHit());
+    }
+  }
+
+  @Test
+  public void testDisabled() throws Exception {
+    final GandivaModuleCache cache = new GandivaModuleCache();
+    final GandivaModuleCache.Lease<Module> lease = cache.acquire(key("a + 1"), 0, Module::new);
+    assertEquals(0, cache.size());
+    lease.close();
+    assertTrue(lease.get().closed);
+  }
+}
@@ -15,6 +15,8 @@
  */
 package com.dremio.sabot.project;
 
+import static com.dremio.sabot.Fixtures.NULL_BIGINT;
+import static com.dremio.sabot.Fixtures.NULL_BOOLEAN;
 import static com.dremio.sabot.Fixtures.t;
 import static com.dremio.sabot.Fixtures.th;
 import static com.dremio.sabot.Fixtures.tr;
@@ -24,16 +26,26 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 
+import org.apache.arrow.vector.types.pojo.Field;
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.dremio.common.expression.FieldReference;
+import com.dremio.common.expression.SchemaPath;
+import com.dremio.common.expression.SupportedEngines;
+import com.dremio.common.logical.data.NamedExpression;
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.physical.config.Project;
 import com.dremio.exec.proto.UserBitShared;
 import com.dremio.sabot.BaseTestOperator;
+import com.dremio.sabot.CustomGeneratorWithSV2;
+import com.dremio.sabot.CustomGeneratorWithSV2.SelectionVariant;
 import com.dremio.sabot.Fixtures.Table;
 import com.dremio.sabot.exec.context.OperatorStats;
 import com.dremio.sabot.op.project.ProjectOperator;
+import com.dremio.sabot.op.project.ProjectorStats;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 
 import io.airlift.tpch.GenerationDefinition.TpchTable;
 import io.airlift.tpch.TpchGenerator;
@@ -83,6 +95,136 @@ public class TestProject extends BaseTestOperator {
     validateSingle(conf, ProjectOperator.class, TpchTable.REGION, 0.1, expected);
   }
 
+  @Test
+  public void javaProjectionWhileCompiling() throws Exception {
+    Project conf = new Project(PROPS, null, Arrays.asList(
+      n("r_regionkey + r_regionkey", "sum"),
+      n("case when r_regionkey > 2 then r_regionkey * 10 else 0 end", "c")));
+    final Table expected = t(
+      th("sum", "c"),
+      tr(0L, 0L),
+      tr(2L, 0L),
+      tr(4L, 0L),
+      tr(6L, 30L),
+      tr(8L, 40L)
+    );
+
+    try (AutoCloseable java = with(ExecConstants.QUERY_EXEC_OPTION, SupportedEngines.CodeGenOption.Java.name());
+         AutoCloseable async = with(ExecConstants.CODE_GEN_ASYNC_COMPILE_ENABLED, true)) {
+      // one record per batch, so that the first batches are interpreted while the projector is compiled
+      validateSingle(conf, ProjectOperator.class, TpchGenerator.singleGenerator(TpchTable.REGION, 0.1, getTestAllocator()), expected, 1);
+    }
+  }
+
+  @Test
+  public void sharedSubExpressions() throws Exception {
+    Project conf = new Project(PROPS, null, Arrays.asList(
+      n("(r_regionkey * 3 + 1) * 2", "a"),
+      n("(r_regionkey * 3 + 1) * 5", "b")));
+    final Table expected = t(
+      th("a", "b"),
+      tr(2L, 5L),
+      tr(8L, 20L),
+      tr(14L, 35L),
+      tr(20L, 50L),
+      tr(26L, 65L)
+    );
+
+    try (AutoCloseable java = with(ExecConstants.QUERY_EXEC_OPTION, SupportedEngines.CodeGenOption.Java.name())) {
+      OperatorStats stats = validateSingle(conf, ProjectOperator.class, TpchGenerator.singleGenerator(TpchTable.REGION, 0.1, getTestAllocator()), expected, 2);
+      // r_regionkey * 3 + 1 is evaluated once, by a split read by both expressions
+      Assert.assertEquals(3, stats.getProfile(true).getDetails().getSplitInfosList().size());
+      Assert.assertEquals(1, stats.getLongStat(ProjectorStats.Metric.SHARED_SPLITS));
+    }
+  }
+
+  @Test
+  public void bulkEvaluation() throws Exception {
+    Project conf = new Project(PROPS, null, Arrays.asList(
+      n("r_regionkey * 2 + 1", "a"),
+      n("r_regionkey > 2", "b"),
+      n("cast(r_regionkey as double) / 2", "c")));
+    final Table expected = t(
+      th("a", "b", "c"),
+      tr(1L, false, 0.0d),
+      tr(3L, false, 0.5d),
+      tr(5L, false, 1.0d),
+      tr(7L, true, 1.5d),
+      tr(9L, true, 2.0d)
+    );
+
+    try (AutoCloseable java = with(ExecConstants.QUERY_EXEC_OPTION, SupportedEngines.CodeGenOption.Java.name())) {
+      try (AutoCloseable bulk = with(ExecConstants.CODE_GEN_BULK_EVAL_ENABLED, true)) {
+        OperatorStats stats = validateSingle(conf, ProjectOperator.class, TpchGenerator.singleGenerator(TpchTable.REGION, 0.1, getTestAllocator()), expected, 3);
+        Assert.assertEquals(3, stats.getLongStat(ProjectorStats.Metric.BULK_SPLITS));
+      }
+      OperatorStats stats = validateSingle(conf, ProjectOperator.class, TpchGenerator.singleGenerator(TpchTable.REGION, 0.1, getTestAllocator()), expected, 3);
+      Assert.assertEquals(0, stats.getLongStat(ProjectorStats.Metric.BULK_SPLITS));
+    }
+  }
+
+  @Test
+  public void bulkEvaluationWithNulls() throws Exception {
+    Project conf = new Project(PROPS, null, Arrays.asList(
+      n("a + b", "sum"),
+      n("a * b", "product"),
+      n("a > b", "greater")));
+    final Table input = t(
+      th("a", "b"),
+      tr(1L, 10L),
+      tr(2L, NULL_BIGINT),
+      tr(NULL_BIGINT, 3L),
+      tr(4L, 3L),
+      tr(5L, 3L),
+      tr(6L, NULL_BIGINT),
+      tr(7L, 3L),
+      tr(NULL_BIGINT, 3L),
+      tr(9L, 3L),
+      tr(10L, 3L),
+      tr(11L, NULL_BIGINT)
+    );
+    final Table expected = t(
+      th("sum", "product", "greater"),
+      tr(11L, 10L, false),
+      tr(NULL_BIGINT, NULL_BIGINT, NULL_BOOLEAN),
+      tr(NULL_BIGINT, NULL_BIGINT, NULL_BOOLEAN),
+      tr(7L, 12L, true),
+      tr(8L, 15L, true),
+      tr(NULL_BIGINT, NULL_BIGINT, NULL_BOOLEAN),
+      tr(10L, 21L, true),
+      tr(NULL_BIGINT, NULL_BIGINT, NULL_BOOLEAN),
+      tr(12L, 27L, true),
+      tr(13L, 30L, true),
+      tr(NULL_BIGINT, NULL_BIGINT, NULL_BOOLEAN)
+    );
+
+    try (AutoCloseable java = with(ExecConstants.QUERY_EXEC_OPTION, SupportedEngines.CodeGenOption.Java.name())) {
+      // batches of 11 and 5 records end in the middle of a validity byte
+      for (int batchSize : new int[] {11, 5}) {
+        try (AutoCloseable bulk = with(ExecConstants.CODE_GEN_BULK_EVAL_ENABLED, true)) {
+          OperatorStats stats = validateSingle(conf, ProjectOperator.class, input.toGenerator(getTestAllocator()), expected, batchSize);
+          Assert.assertEquals(3, stats.getLongStat(ProjectorStats.Metric.BULK_SPLITS));
+        }
+        OperatorStats stats = validateSingle(conf, ProjectOperator.class, input.toGenerator(getTestAllocator()), expected, batchSize);
+        Assert.assertEquals(0, stats.getLongStat(ProjectorStats.Metric.BULK_SPLITS));
+      }
+    }
+  }
+
+  @Test
+  public void selectionVectorInput() throws Exception {
+    try (CustomGeneratorWithSV2 generator = new CustomGeneratorWithSV2(200, getTestAllocator(), SelectionVariant.SELECT_ALTERNATE)) {
+      final List<NamedExpression> exprs = Lists.newArrayList();
+      for (Field field : generator.getSchema()) {
+        exprs.add(new NamedExpression(SchemaPath.getSimplePath(field.getName()), new FieldReference(field.getName())));
+      }
+      Project conf = new Project(PROPS, null, exprs);
+      OperatorStats stats = validateSingle(conf, ProjectOperator.class, generator, generator.getExpectedTable(), 15);
+      // only the selected records are copied, without a SelectionVectorRemover
+      Assert.assertEquals(exprs.size(), stats.getLongStat(ProjectorStats.Metric.SELECTED_COLUMNS_COPIED));
+    }
+  }
+
   @Test
   public void optimisationInProject() throws Exception {
     StringBuilder sb = new StringBuilder();
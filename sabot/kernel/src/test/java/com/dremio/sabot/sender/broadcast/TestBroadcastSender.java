@@ -15,9 +15,14 @@
  */
 package com.dremio.sabot.sender.broadcast;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Arrays;
@@ -28,10 +33,12 @@ import org.junit.Test;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
+import com.dremio.common.exceptions.UserException;
 import com.dremio.exec.physical.config.BroadcastSender;
 import com.dremio.exec.planner.fragment.EndpointsIndex;
 import com.dremio.exec.proto.CoordExecRPC.MinorFragmentIndexEndpoint;
 import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
+import com.dremio.exec.proto.UserBitShared.DremioPBError.ErrorType;
 import com.dremio.exec.record.BatchSchema;
 import com.dremio.exec.record.FragmentWritableBatch;
 import com.dremio.exec.record.SchemaBuilder;
@@ -88,6 +95,33 @@ public class TestBroadcastSender extends BaseTestOperator {
     }
   }
 
+  @Test
+  public void checkRecordLimit() throws Exception {
+    EndpointsIndex endpointsIndex = new EndpointsIndex(
+      Arrays.asList(NodeEndpoint.newBuilder().setAddress("a").setFabricPort(1).build())
+    );
+
+    BroadcastSender sender = new BroadcastSender(PROPS, getSchema(), null, 1,
+        Arrays.asList(MinorFragmentIndexEndpoint.newBuilder().setMinorFragmentId(1).setEndpointIndex(0).build()),
+        10
+    );
+
+    final AccountingExecTunnel tunnel = mock(AccountingExecTunnel.class);
+    final TunnelProvider provider = mock(TunnelProvider.class);
+    when(provider.getExecTunnel(any(NodeEndpoint.class))).thenReturn(tunnel);
+
+    try(BroadcastOperator op = newOperator(BroadcastOperator.class, sender, DEFAULT_BATCH, endpointsIndex, provider);
+        TpchGenerator g = TpchGenerator.singleGenerator(TpchTable.NATION, 0.1, getTestAllocator());){
+      op.setup(g.getOutput());
+      op.consumeData(g.next(DEFAULT_BATCH));
+      fail("broadcasting more records than the limit should fail");
+    } catch (UserException e) {
+      assertEquals(ErrorType.RETRY_ATTEMPT_ERROR, e.getErrorType());
+      assertTrue(e.getContextStrings().contains(BroadcastOperator.RECORD_LIMIT_EXCEEDED_MSG));
+    }
+    verify(tunnel, never()).sendRecordBatch(any(FragmentWritableBatch.class));
+  }
+
   public BatchSchema getSchema() {
     SchemaBuilder builder = BatchSchema.newBuilder()
       .addField(new Field("n_nationKey", true, MinorType.BIGINT.getType(), null))
@@ -24,6 +24,7 @@ import static org.mockito.Mockito.when;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.apache.arrow.vector.IntVector;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -36,10 +37,13 @@ import com.dremio.exec.planner.fragment.EndpointsIndex;
 import com.dremio.exec.proto.CoordExecRPC.MinorFragmentIndexEndpoint;
 import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
 import com.dremio.exec.record.FragmentWritableBatch;
+import com.dremio.exec.record.VectorContainer;
 import com.dremio.sabot.BaseTestOperator;
 import com.dremio.sabot.CustomGenerator;
+import com.dremio.sabot.exec.context.OperatorStats;
 import com.dremio.sabot.exec.rpc.AccountingExecTunnel;
 import com.dremio.sabot.exec.rpc.TunnelProvider;
+import com.dremio.sabot.op.sender.partition.PartitionSenderOperator.Metric;
 import com.dremio.sabot.op.sender.partition.vectorized.VectorizedPartitionSenderOperator;
 
 import io.netty.buffer.ByteBuf;
@@ -103,6 +107,82 @@ public class TestVectorizedPartitionSender extends BaseTestOperator {
     assertEquals(NUM_ROWS, sum);
   }
 
+  @Test
+  public void testNoHeavyHitters() throws Exception {
+    final int[] rowCountPerFragment = new int[NUM_FRAGMENTS];
+    VectorizedPartitionSenderOperator op = newSender(rowCountPerFragment);
+    op.setup(generator.getOutput());
+    op.getOperatorContext().getStats().startProcessing();
+    op.consumeData(generator.next(DEFAULT_BATCH));
+    op.noMoreToConsume();
+
+    final OperatorStats stats = op.getOperatorContext().getStats();
+    assertEquals(NUM_ROWS, stats.getLongStat(Metric.SKEW_SAMPLED_RECORDS));
+    assertEquals(0, stats.getLongStat(Metric.HEAVY_HITTERS));
+    assertEquals(0, stats.getLongStat(Metric.SPREAD_RECORDS));
+  }
+
+  @Test
+  public void testSkewedPartitions() throws Exception {
+    final int[] rowCountPerFragment = new int[NUM_FRAGMENTS];
+    VectorizedPartitionSenderOperator op = newSender(rowCountPerFragment);
+    op.setup(generator.getOutput());
+    op.getOperatorContext().getStats().startProcessing();
+
+    final int records = generator.next(DEFAULT_BATCH);
+    final IntVector hashes = ((VectorContainer) generator.getOutput()).addOrGet(CustomGenerator.ID);
+    // 1/2 of the rows share the same key, 1/4 of the rows have a null key and the others have distinct keys
+    for (int i = 0; i < records; i++) {
+      if (i % 4 == 0) {
+        hashes.setNull(i);
+      } else if (i % 2 == 1) {
+        hashes.set(i, 7);
+      } else {
+        hashes.set(i, 1000 + i);
+      }
+    }
+    op.consumeData(records);
+    op.noMoreToConsume();
+
+    final OperatorStats stats = op.getOperatorContext().getStats();
+    assertEquals(NUM_ROWS - NUM_ROWS / 4, stats.getLongStat(Metric.SKEW_SAMPLED_RECORDS));
+    assertEquals(1, stats.getLongStat(Metric.HEAVY_HITTERS));
+    assertEquals(66, stats.getLongStat(Metric.TOP_KEY_PERCENT));
+    assertEquals(NUM_ROWS / 4, stats.getLongStat(Metric.SPREAD_RECORDS));
+
+    // rows with a null key are evenly spread, on top of the skewed and the remaining rows
+    int sum = 0;
+    for (int i = 0; i < NUM_FRAGMENTS; i++) {
+      assert (rowCountPerFragment[i] >= NUM_ROWS / 4 / NUM_FRAGMENTS);
+      sum += rowCountPerFragment[i];
+    }
+    assertEquals(NUM_ROWS, sum);
+  }
+
+  private VectorizedPartitionSenderOperator newSender(final int[] rowCountPerFragment) throws Exception {
+    HashPartitionSender sender = new HashPartitionSender(PROPS, generator.getSchema(), null, 1, getIndexEndpoints(), f(CustomGenerator.ID.getName()));
+
+    final AccountingExecTunnel tunnel = mock(AccountingExecTunnel.class);
+    doAnswer(new Answer<Void>(){
+      @Override
+      public Void answer(InvocationOnMock invocation) throws Throwable {
+        final FragmentWritableBatch batch = (FragmentWritableBatch) invocation.getArguments()[0];
+        for (int fragId : batch.getHeader().getReceivingMinorFragmentIdList()) {
+          rowCountPerFragment[fragId] += batch.getRecordCount();
+        }
+        for(ByteBuf b : batch.getBuffers()){
+          b.release();
+        }
+        return null;
+      }}).when(tunnel).sendRecordBatch(any(FragmentWritableBatch.class));
+
+    final TunnelProvider provider = mock(TunnelProvider.class);
+    when(provider.getExecTunnel(any(NodeEndpoint.class))).thenReturn(tunnel);
+
+    return newOperator(VectorizedPartitionSenderOperator.class, sender, DEFAULT_BATCH,
+      new EndpointsIndex(getEndpoints()), provider);
+  }
+
   public List<MinorFragmentIndexEndpoint> getIndexEndpoints() {
     List<MinorFragmentIndexEndpoint> l = new ArrayList<>();
     for (int i = 0; i < NUM_FRAGMENTS; i++) {
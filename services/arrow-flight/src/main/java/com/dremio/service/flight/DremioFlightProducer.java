@@ -33,9 +33,12 @@ import org.apache.arrow.flight.Result;
 import org.apache.arrow.flight.Ticket;
 import org.apache.arrow.memory.BufferAllocator;
 
+import com.dremio.exec.store.CatalogService;
 import com.dremio.exec.work.protector.UserWorker;
 import com.dremio.options.OptionManager;
 import com.dremio.sabot.rpc.user.UserSession;
+import com.dremio.service.flight.client.properties.DremioFlightClientProperties;
+import com.dremio.service.flight.impl.FlightIngestManager;
 import com.dremio.service.flight.impl.FlightPreparedStatement;
 import com.dremio.service.flight.impl.FlightWorkManager;
 import com.dremio.service.flight.impl.FlightWorkManager.RunQueryResponseHandlerFactory;
@@ -44,20 +47,25 @@ import com.google.protobuf.InvalidProtocolBufferException;
 /**
  * A FlightProducer implementation which exposes Dremio's catalog and produces results from SQL queries.
  */
-public class DremioFlightProducer implements FlightProducer {
+public class DremioFlightProducer implements FlightProducer, AutoCloseable {
   private final FlightWorkManager flightWorkManager;
+  private final FlightIngestManager flightIngestManager;
   private final Location location;
   private final DremioFlightSessionsManager sessionsManager;
   private final BufferAllocator allocator;
+  private final Provider<OptionManager> optionManagerProvider;
 
   public DremioFlightProducer(Location location, DremioFlightSessionsManager sessionsManager,
-                              Provider<UserWorker> workerProvider, Provider<OptionManager> optionManagerProvider,
+                              Provider<UserWorker> workerProvider, Provider<CatalogService> catalogServiceProvider,
+                              Provider<OptionManager> optionManagerProvider,
                               BufferAllocator allocator, RunQueryResponseHandlerFactory runQueryResponseHandlerFactory) {
     this.location = location;
     this.sessionsManager = sessionsManager;
     this.allocator = allocator;
+    this.optionManagerProvider = optionManagerProvider;
 
     flightWorkManager = new FlightWorkManager(workerProvider, optionManagerProvider, runQueryResponseHandlerFactory);
+    flightIngestManager = new FlightIngestManager(workerProvider, catalogServiceProvider, optionManagerProvider);
   }
 
   @Override
@@ -86,12 +94,27 @@ public class DremioFlightProducer implements FlightProducer {
     final UserSession session = sessionsManager.getUserSession(callContext.peerIdentity(), headers);
     final FlightPreparedStatement flightPreparedStatement = flightWorkManager
       .createPreparedStatement(flightDescriptor, callContext::isCancelled, session);
-    return flightPreparedStatement.getFlightInfo(location);
+    final int endpointCount = DremioFlightClientProperties.getResultEndpoints(headers,
+      (int) optionManagerProvider.get().getOption(DremioFlightServiceOptions.MAX_RESULT_ENDPOINTS));
+    if (endpointCount <= 1) {
+      return flightPreparedStatement.getFlightInfo(location);
+    }
+    final String streamId = flightWorkManager.createPartitionedQuery(endpointCount, allocator, session);
+    return flightPreparedStatement.getFlightInfo(location, streamId, endpointCount);
   }
 
   @Override
   public Runnable acceptPut(CallContext callContext, FlightStream flightStream, StreamListener<PutResult> streamListener) {
-    throw CallStatus.UNIMPLEMENTED.withDescription("acceptPut is unimplemented").toRuntimeException();
+    final CallHeaders headers = retrieveHeadersFromCallContext(callContext);
+    final UserSession session = sessionsManager.getUserSession(callContext.peerIdentity(), headers);
+    return () -> {
+      try {
+        flightIngestManager.ingest(flightStream, session, callContext::isCancelled);
+        streamListener.onCompleted();
+      } catch (RuntimeException e) {
+        streamListener.onError(e);
+      }
+    };
   }
 
   @Override
@@ -104,6 +127,11 @@ public class DremioFlightProducer implements FlightProducer {
     throw CallStatus.UNIMPLEMENTED.withDescription("listActions is unimplemented").toRuntimeException();
   }
 
+  @Override
+  public void close() throws Exception {
+    flightWorkManager.close();
+  }
+
   /**
    * Helper method to retrieve CallHeaders from the CallContext.
    *
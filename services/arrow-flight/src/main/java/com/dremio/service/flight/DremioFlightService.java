@@ -87,6 +87,7 @@ public class DremioFlightService implements Service {
 
   private DremioFlightSessionsManager dremioFlightSessionsManager;
 
+  private DremioFlightProducer producer;
   private volatile FlightServer server;
   private BufferAllocator allocator;
 
@@ -136,11 +137,13 @@ public class DremioFlightService implements Service {
     final String wildcardAddress = new InetSocketAddress(port).getHostName();
     final Location location = getLocation(wildcardAddress, port);
 
+    producer = new DremioFlightProducer(location, dremioFlightSessionsManager, userWorkerProvider,
+      () -> sabotContextProvider.get().getCatalogService(), optionManagerProvider, allocator,
+      runQueryResponseHandlerFactory);
     FlightServer.Builder builder = FlightServer.builder()
       .location(location)
       .allocator(allocator)
-      .producer(new DremioFlightProducer(location, dremioFlightSessionsManager, userWorkerProvider,
-        optionManagerProvider, allocator, runQueryResponseHandlerFactory));
+      .producer(producer);
 
     builder.middleware(FlightServerMiddleware.Key.of(FLIGHT_CLIENT_PROPERTIES_MIDDLEWARE),
       new ServerHeaderMiddleware.Factory());
@@ -173,7 +176,8 @@ public class DremioFlightService implements Service {
   @Override
   public void close() throws Exception {
     logger.info("Stopping Flight Service");
-    AutoCloseables.close(server, allocator, dremioFlightSessionsManager);
+    // the producer releases the batches buffered for the partitions before the allocator is closed
+    AutoCloseables.close(server, producer, allocator, dremioFlightSessionsManager);
     logger.info("Stopped Flight Service");
   }
 
@@ -36,4 +36,24 @@ public interface DremioFlightServiceOptions {
     new TypeValidators.PositiveLongValidator(
       "flight.client.readiness.timeout.millis", 900000L, 5000L
     );
+
+  // Maximum number of endpoints over which a client can ask for the results of a query to be spread, with the
+  // result_endpoints header of getFlightInfo. Default to 16.
+  TypeValidators.RangeLongValidator MAX_RESULT_ENDPOINTS =
+    new TypeValidators.RangeLongValidator("flight.results.endpoints.max", 1, 64, 16);
+
+  // Number of batches buffered for each endpoint of a query whose results are spread over several endpoints, so that
+  // the clients can read the endpoints one after the other. Default to 16.
+  TypeValidators.PositiveLongValidator RESULT_ENDPOINT_BUFFERED_BATCHES =
+    new TypeValidators.PositiveLongValidator("flight.results.endpoint.buffered_batches", 1024, 16);
+
+  // Number of records of the batches put by clients staged per file before they are inserted into the target table.
+  // The files are read in parallel by the insert. Default to 1000000.
+  TypeValidators.PositiveLongValidator PUT_RECORDS_PER_FILE =
+    new TypeValidators.PositiveLongValidator("flight.put.records_per_file", Integer.MAX_VALUE, 1000000);
+
+  // Maximum size in bytes of the batches a client can put in a single call, which are staged in the scratch source
+  // before they are inserted. Default to 1GB.
+  TypeValidators.PositiveLongValidator PUT_MAX_BYTES =
+    new TypeValidators.PositiveLongValidator("flight.put.max_bytes", Long.MAX_VALUE, 1L << 30);
 }
@@ -22,6 +22,7 @@ import java.util.Locale;
 import java.util.Set;
 
 import org.apache.arrow.flight.CallHeaders;
+import org.apache.arrow.flight.CallStatus;
 
 import com.dremio.exec.proto.UserProtos;
 import com.dremio.sabot.rpc.user.UserSession;
@@ -31,6 +32,11 @@ import com.google.common.collect.ImmutableSet;
  * Class with accepted Dremio Flight client property constants.
  */
 public final class DremioFlightClientProperties {
+  /**
+   * Header of getFlightInfo asking for the results of the query to be spread over the given number of endpoints.
+   */
+  public static final String RESULT_ENDPOINTS = "result_endpoints";
+
   public static final Set<String> SUPPORTED_FLIGHT_CLIENT_USER_SESSION_PROPERTIES =
     ImmutableSet.of(
       UserSession.ROUTING_TAG,
@@ -83,6 +89,37 @@ public final class DremioFlightClientProperties {
     });
   }
 
+  /**
+   * Returns the number of endpoints over which the client asked for the results of its query to be spread.
+   *
+   * @param callHeaders CallHeaders to parse the number of endpoints from.
+   * @param maxEndpoints the maximum number of endpoints.
+   * @return the number of endpoints requested, at most maxEndpoints, or 1 if the client did not ask for several.
+   */
+  public static int getResultEndpoints(CallHeaders callHeaders, int maxEndpoints) {
+    if (callHeaders == null) {
+      return 1;
+    }
+
+    for (String key : callHeaders.keys()) {
+      if (key.toLowerCase(Locale.ROOT).equals(RESULT_ENDPOINTS)) {
+        final String value = callHeaders.get(key);
+        try {
+          final int endpoints = Integer.parseInt(value.trim());
+          if (endpoints >= 1) {
+            return Math.min(endpoints, maxEndpoints);
+          }
+        } catch (NumberFormatException e) {
+          // reported below
+        }
+        throw CallStatus.INVALID_ARGUMENT
+          .withDescription(String.format("Invalid %s header: %s.", RESULT_ENDPOINTS, value))
+          .toRuntimeException();
+      }
+    }
+    return 1;
+  }
+
   /**
    * Helper method to create a Property with the given key and value pair.
    *
@@ -0,0 +1,322 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.flight.impl;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import javax.inject.Provider;
+
+import org.apache.arrow.flight.CallStatus;
+import org.apache.arrow.flight.FlightDescriptor;
+import org.apache.arrow.flight.FlightStream;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+
+import com.dremio.common.exceptions.UserException;
+import com.dremio.common.utils.SqlUtils;
+import com.dremio.common.utils.protos.ExternalIdHelper;
+import com.dremio.common.utils.protos.QueryWritableBatch;
+import com.dremio.exec.catalog.Catalog;
+import com.dremio.exec.catalog.DremioTable;
+import com.dremio.exec.catalog.MetadataRequestOptions;
+import com.dremio.exec.expr.TypeHelper;
+import com.dremio.exec.proto.GeneralRPCProtos;
+import com.dremio.exec.proto.UserBitShared;
+import com.dremio.exec.proto.UserBitShared.SerializedField;
+import com.dremio.exec.proto.UserProtos;
+import com.dremio.exec.rpc.Acks;
+import com.dremio.exec.rpc.RpcOutcomeListener;
+import com.dremio.exec.store.CatalogService;
+import com.dremio.exec.store.SchemaConfig;
+import com.dremio.exec.store.dfs.FileSystemPlugin;
+import com.dremio.exec.store.easy.arrow.ArrowFileBatchWriter;
+import com.dremio.exec.store.easy.arrow.ArrowFormatPluginConfig;
+import com.dremio.exec.work.foreman.TerminationListenerRegistry;
+import com.dremio.exec.work.protector.UserRequest;
+import com.dremio.exec.work.protector.UserResult;
+import com.dremio.exec.work.protector.UserWorker;
+import com.dremio.io.file.FileSystem;
+import com.dremio.io.file.Path;
+import com.dremio.options.OptionManager;
+import com.dremio.sabot.rpc.user.UserSession;
+import com.dremio.service.flight.DremioFlightServiceOptions;
+import com.dremio.service.flight.error.mapping.DremioFlightErrorMapper;
+import com.dremio.service.flight.protector.CancellableUserResponseHandler;
+import com.dremio.service.namespace.NamespaceKey;
+import com.google.common.collect.ImmutableList;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Manager class for ingesting the Arrow batches uploaded to the Flight service into tables.
+ *
+ * The batches are staged as Arrow files in a directory of the internal {@link #STAGING_SOURCE} source, which an INSERT
+ * INTO query then writes to the target table, in parallel and committing once. The staging directory is dropped
+ * afterwards. Internal sources are hidden from the queries of users, so only the queries of the ingestion can read the
+ * staged batches. The size of the batches uploaded in a call is bounded by
+ * {@link DremioFlightServiceOptions#PUT_MAX_BYTES}.
+ */
+public class FlightIngestManager {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(FlightIngestManager.class);
+
+  /**
+   * Name of the internal source in which the uploaded batches are staged.
+   */
+  public static final String STAGING_SOURCE = "__flightStaging";
+
+  private static final String STAGING_PREFIX = "flight_put_";
+
+  private final Provider<UserWorker> workerProvider;
+  private final Provider<CatalogService> catalogServiceProvider;
+  private final Provider<OptionManager> optionManagerProvider;
+
+  public FlightIngestManager(Provider<UserWorker> workerProvider,
+                             Provider<CatalogService> catalogServiceProvider,
+                             Provider<OptionManager> optionManagerProvider) {
+    this.workerProvider = workerProvider;
+    this.catalogServiceProvider = catalogServiceProvider;
+    this.optionManagerProvider = optionManagerProvider;
+  }
+
+  /**
+   * Inserts the batches of the stream into the table named by the path of its descriptor.
+   *
+   * @param stream             The batches uploaded by the client.
+   * @param userSession        The session for the user which made the request.
+   * @param isRequestCancelled A supplier to evaluate if the client cancelled the request.
+   */
+  public void ingest(FlightStream stream, UserSession userSession, Supplier<Boolean> isRequestCancelled) {
+    final List<String> target = getTarget(stream.getDescriptor(), userSession);
+    // the queries of the ingestion read the staging source, but the target was resolved as the user sees sources
+    final UserSession stagingSession = UserSession.Builder.newBuilder(userSession)
+      .exposeInternalSources(true)
+      .build();
+
+    final FileSystemPlugin<?> staging = catalogServiceProvider.get().getSource(STAGING_SOURCE);
+    final FileSystem fs = staging.getSystemUserFS();
+    final String stagingName = STAGING_PREFIX + UUID.randomUUID().toString().replace('-', '_');
+    final Path stagingDir = staging.getConfig().getPath().resolve(stagingName);
+
+    boolean submitted = false;
+    try {
+      final long recordCount = stage(stream, fs, stagingDir);
+      if (recordCount == 0) {
+        return;
+      }
+
+      submitted = true;
+      runQuery(String.format("INSERT INTO %s SELECT * FROM %s", SqlUtils.quotedCompound(target),
+        SqlUtils.quotedCompound(ImmutableList.of(STAGING_SOURCE, stagingName))), stagingSession, isRequestCancelled);
+    } catch (IOException e) {
+      throw CallStatus.INTERNAL
+        .withCause(e)
+        .withDescription("Failed to stage the uploaded batches: " + e.getMessage())
+        .toRuntimeException();
+    } finally {
+      dropStagingDir(submitted, fs, stagingDir, stagingName, stagingSession);
+    }
+  }
+
+  /**
+   * Writes the batches of the stream to Arrow files in the staging directory, starting a new file every
+   * {@link DremioFlightServiceOptions#PUT_RECORDS_PER_FILE} records so that the files are read in parallel.
+   * Fails once the batches exceed {@link DremioFlightServiceOptions#PUT_MAX_BYTES}.
+   *
+   * @return the number of records staged
+   */
+  private long stage(FlightStream stream, FileSystem fs, Path stagingDir) throws IOException {
+    final OptionManager optionManager = optionManagerProvider.get();
+    final long recordsPerFile = optionManager.getOption(DremioFlightServiceOptions.PUT_RECORDS_PER_FILE);
+    final long maxBytes = optionManager.getOption(DremioFlightServiceOptions.PUT_MAX_BYTES);
+    final String extension = ArrowFormatPluginConfig.DEFAULT_EXTENSIONS.get(0);
+
+    final VectorSchemaRoot root = stream.getRoot();
+    final ImmutableList.Builder<SerializedField> fields = ImmutableList.builder();
+    for (FieldVector vector : root.getFieldVectors()) {
+      fields.add(TypeHelper.getMetadata(vector));
+    }
+
+    fs.mkdirs(stagingDir);
+    long recordCount = 0;
+    long byteCount = 0;
+    int nextFileIndex = 0;
+    ArrowFileBatchWriter writer = null;
+    try {
+      while (stream.next()) {
+        final int batchRecordCount = root.getRowCount();
+        if (batchRecordCount == 0) {
+          continue;
+        }
+        for (FieldVector vector : root.getFieldVectors()) {
+          byteCount += vector.getBufferSize();
+        }
+        if (byteCount > maxBytes) {
+          throw CallStatus.INVALID_ARGUMENT
+            .withDescription(String.format("The uploaded batches exceed the limit of %d bytes set by %s.", maxBytes,
+              DremioFlightServiceOptions.PUT_MAX_BYTES.getOptionName()))
+            .toRuntimeException();
+        }
+        if (writer == null) {
+          writer = new ArrowFileBatchWriter(fs, stagingDir.resolve(String.format("%d.%s", nextFileIndex++, extension)),
+            fields.build());
+        }
+        writer.write(root.getFieldVectors(), batchRecordCount);
+        recordCount += batchRecordCount;
+
+        if (writer.getRecordCount() >= recordsPerFile) {
+          writer.close();
+          writer = null;
+        }
+      }
+    } finally {
+      if (writer != null) {
+        writer.close();
+      }
+    }
+    return recordCount;
+  }
+
+  private void runQuery(String sql, UserSession userSession, Supplier<Boolean> isRequestCancelled) {
+    final UserBitShared.ExternalId externalId = ExternalIdHelper.generateExternalId();
+    final UserRequest userRequest =
+      new UserRequest(UserProtos.RpcType.RUN_QUERY,
+        UserProtos.RunQuery.newBuilder()
+          .setType(UserBitShared.QueryType.SQL)
+          .setPriority(UserProtos.QueryPriority.newBuilder()
+            .setWorkloadType(UserBitShared.WorkloadType.FLIGHT)
+            .setWorkloadClass(UserBitShared.WorkloadClass.GENERAL))
+          .setSource(UserProtos.SubmissionSource.FLIGHT)
+          .setPlan(sql)
+          .build());
+
+    final IngestResponseHandler responseHandler =
+      new IngestResponseHandler(externalId, userSession, workerProvider, isRequestCancelled);
+    workerProvider.get().submitWork(externalId, userSession, responseHandler, userRequest,
+      TerminationListenerRegistry.NOOP);
+    responseHandler.get();
+  }
+
+  private void dropStagingDir(boolean submitted, FileSystem fs, Path stagingDir, String stagingName,
+                              UserSession userSession) {
+    if (submitted) {
+      // the staging directory was promoted to a dataset if the query read it, and must leave the namespace too
+      try {
+        runQuery(String.format("DROP TABLE %s", SqlUtils.quotedCompound(ImmutableList.of(STAGING_SOURCE, stagingName))),
+          userSession, () -> false);
+      } catch (Exception e) {
+        logger.debug("Failure while dropping staging table {}", stagingName, e);
+      }
+    }
+    // the query may have failed before promoting the directory, in which case dropping the table deleted nothing
+    try {
+      fs.delete(stagingDir, true);
+    } catch (Exception e) {
+      logger.warn("Failure while deleting staging directory {}", stagingDir, e);
+    }
+  }
+
+  /**
+   * Resolves the table named by the path of the descriptor in the catalog of the user, which hides internal sources.
+   *
+   * @return the full path of the target table
+   */
+  private List<String> getTarget(FlightDescriptor descriptor, UserSession userSession) {
+    if (descriptor.isCommand() || descriptor.getPath().isEmpty()) {
+      throw CallStatus.INVALID_ARGUMENT
+        .withDescription("FlightDescriptor of a put must be a Path naming the target table.")
+        .toRuntimeException();
+    }
+
+    final Catalog catalog = catalogServiceProvider.get().getCatalog(MetadataRequestOptions.of(
+      SchemaConfig.newBuilder(userSession.getCredentials().getUserName())
+        .defaultSchema(userSession.getDefaultSchemaPath())
+        .optionManager(userSession.getOptions())
+        .build()));
+    final DremioTable table;
+    try {
+      table = catalog.getTable(new NamespaceKey(descriptor.getPath()));
+    } catch (UserException e) {
+      throw DremioFlightErrorMapper.toFlightRuntimeException(e);
+    }
+    if (table == null) {
+      throw CallStatus.NOT_FOUND
+        .withDescription(String.format("Table %s not found.", SqlUtils.quotedCompound(descriptor.getPath())))
+        .toRuntimeException();
+    }
+    return table.getPath().getPathComponents();
+  }
+
+  /**
+   * The UserResponseHandler that waits for the completion of the queries run by an ingestion.
+   */
+  private static final class IngestResponseHandler extends CancellableUserResponseHandler<Void> {
+
+    private IngestResponseHandler(UserBitShared.ExternalId externalId,
+                                  UserSession userSession,
+                                  Provider<UserWorker> workerProvider,
+                                  Supplier<Boolean> isRequestCancelled) {
+      super(externalId, userSession, workerProvider, isRequestCancelled);
+    }
+
+    @Override
+    public void sendData(RpcOutcomeListener<GeneralRPCProtos.Ack> outcomeListener, QueryWritableBatch result) {
+      // the summary of the written files is of no use to the client
+      final ByteBuf[] buffers = result.getBuffers();
+      if (buffers != null) {
+        for (ByteBuf buffer : buffers) {
+          buffer.release();
+        }
+      }
+      outcomeListener.success(Acks.OK, null);
+    }
+
+    @Override
+    public void completed(UserResult result) {
+      switch (result.getState()) {
+        case COMPLETED:
+          getCompletableFuture().complete(null);
+          break;
+        case FAILED:
+          getCompletableFuture().completeExceptionally(
+            DremioFlightErrorMapper.toFlightRuntimeException(result.getException()));
+          break;
+        case CANCELED:
+          final Exception canceledException = result.getException();
+          getCompletableFuture().completeExceptionally(
+            CallStatus.CANCELLED
+              .withCause(canceledException)
+              .withDescription(canceledException.getMessage())
+              .toRuntimeException());
+          break;
+
+        case STARTING:
+        case RUNNING:
+        case NO_LONGER_USED_1:
+        case ENQUEUED:
+        default:
+          getCompletableFuture().completeExceptionally(
+            CallStatus.INTERNAL
+              .withCause(new IllegalStateException())
+              .withDescription("Internal Error: Invalid ingestion state.")
+              .toRuntimeException());
+          break;
+      }
+    }
+  }
+}
@@ -51,6 +51,19 @@ public class FlightPreparedStatement {
    * @return The FlightInfo.
    */
   public FlightInfo getFlightInfo(Location location) {
+    return getFlightInfo(location, null, 1);
+  }
+
+  /**
+   * Returns a FlightInfo for the PreparedStatement which a given instance manages, with the results spread over
+   * several endpoints. The endpoints share a single execution of the query, each streaming a share of its batches.
+   *
+   * @param location      The server location.
+   * @param streamId      The id of the execution shared by the endpoints.
+   * @param endpointCount The number of endpoints.
+   * @return The FlightInfo.
+   */
+  public FlightInfo getFlightInfo(Location location, String streamId, int endpointCount) {
     final UserProtos.CreatePreparedStatementArrowResp createPreparedStatementResp = responseHandler.get();
     final Schema schema = buildSchema(createPreparedStatementResp.getPreparedStatement().getArrowSchema());
 
@@ -59,10 +72,24 @@ public class FlightPreparedStatement {
       .setHandle(createPreparedStatementResp.getPreparedStatement().getServerHandle())
       .build();
 
-    final Ticket ticket = new Ticket(preparedStatementTicketContent.toByteArray());
+    if (endpointCount <= 1) {
+      final Ticket ticket = new Ticket(preparedStatementTicketContent.toByteArray());
+
+      final FlightEndpoint flightEndpoint = new FlightEndpoint(ticket, location);
+      return new FlightInfo(schema, flightDescriptor, ImmutableList.of(flightEndpoint), -1, -1);
+    }
 
-    final FlightEndpoint flightEndpoint = new FlightEndpoint(ticket, location);
-    return new FlightInfo(schema, flightDescriptor, ImmutableList.of(flightEndpoint), -1, -1);
+    final ImmutableList.Builder<FlightEndpoint> flightEndpoints = ImmutableList.builder();
+    for (int partition = 0; partition < endpointCount; partition++) {
+      final Ticket ticket = new Ticket(preparedStatementTicketContent.toBuilder()
+        .setStreamId(streamId)
+        .setPartition(partition)
+        .setPartitionCount(endpointCount)
+        .build()
+        .toByteArray());
+      flightEndpoints.add(new FlightEndpoint(ticket, location));
+    }
+    return new FlightInfo(schema, flightDescriptor, flightEndpoints.build(), -1, -1);
   }
 
   /**
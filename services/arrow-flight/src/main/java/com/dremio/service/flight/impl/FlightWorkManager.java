@@ -16,6 +16,10 @@
 package com.dremio.service.flight.impl;
 
 import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 import javax.inject.Provider;
@@ -25,6 +29,9 @@ import org.apache.arrow.flight.FlightDescriptor;
 import org.apache.arrow.flight.FlightProducer;
 import org.apache.arrow.memory.BufferAllocator;
 
+import com.dremio.common.AutoCloseables;
+import com.dremio.common.concurrent.CloseableSchedulerThreadPool;
+import com.dremio.common.concurrent.NamedThreadFactory;
 import com.dremio.common.utils.protos.ExternalIdHelper;
 import com.dremio.exec.proto.UserBitShared;
 import com.dremio.exec.proto.UserProtos;
@@ -39,16 +46,38 @@ import com.dremio.service.flight.TicketContent;
 import com.dremio.service.flight.impl.RunQueryResponseHandler.BackpressureHandlingResponseHandler;
 import com.dremio.service.flight.impl.RunQueryResponseHandler.BasicResponseHandler;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 /**
  * Manager class for submitting jobs to a UserWorker and optionally returning the appropriate Dremio Flight
  * Server container to use the outcome of the submitted job.
  */
-public class FlightWorkManager {
+public class FlightWorkManager implements AutoCloseable {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(FlightWorkManager.class);
+
+  private static final long PARTITIONED_QUERY_EXPIRATION_MINUTES = 10;
+  private static final long PARTITIONED_QUERY_CLEANUP_MINUTES = 1;
 
   private final Provider<UserWorker> workerProvider;
   private final Provider<OptionManager> optionManagerProvider;
   private final RunQueryResponseHandlerFactory runQueryResponseHandlerFactory;
+  // queries whose results are spread over several endpoints, by stream id, until all their partitions are streamed;
+  // the partitions whose client did not call getStream in time are dropped
+  private final Cache<String, PartitionedRunQueryResponseHandler> partitionedQueries = CacheBuilder.newBuilder()
+    .expireAfterWrite(PARTITIONED_QUERY_EXPIRATION_MINUTES, TimeUnit.MINUTES)
+    .<String, PartitionedRunQueryResponseHandler>removalListener(notification -> {
+      if (notification.wasEvicted()) {
+        notification.getValue().expire();
+      }
+    })
+    .build();
+  // streams the partitions of the queries whose results are spread over several endpoints
+  private final ExecutorService partitionExecutor = Executors.newCachedThreadPool(
+    new NamedThreadFactory("flight-partition-"));
+  // the cache only evicts the expired queries when it is accessed, so expire them even if no query comes in
+  private final CloseableSchedulerThreadPool partitionCleaner = new CloseableSchedulerThreadPool(
+    "flight-partition-cleaner-", 1);
 
   public FlightWorkManager(Provider<UserWorker> workerProvider,
                            Provider<OptionManager> optionManagerProvider,
@@ -56,6 +85,8 @@ public class FlightWorkManager {
     this.workerProvider = workerProvider;
     this.optionManagerProvider = optionManagerProvider;
     this.runQueryResponseHandlerFactory = runQueryResponseHandlerFactory;
+    partitionCleaner.scheduleWithFixedDelay(partitionedQueries::cleanUp, PARTITIONED_QUERY_CLEANUP_MINUTES,
+      PARTITIONED_QUERY_CLEANUP_MINUTES, TimeUnit.MINUTES);
   }
 
   /**
@@ -90,8 +121,65 @@ public class FlightWorkManager {
 
   public void runPreparedStatement(TicketContent.PreparedStatementTicket ticket, FlightProducer.ServerStreamListener listener,
                                    BufferAllocator allocator, UserSession userSession) {
+    if (ticket.getPartitionCount() > 1) {
+      runPartitionedPreparedStatement(ticket, listener, allocator, userSession);
+      return;
+    }
 
     final UserBitShared.ExternalId runExternalId = ExternalIdHelper.generateExternalId();
+    final UserResponseHandler responseHandler = runQueryResponseHandlerFactory.getHandler(runExternalId, userSession,
+      workerProvider, optionManagerProvider, listener, allocator);
+    submitPreparedStatement(ticket, runExternalId, responseHandler, userSession);
+  }
+
+  /**
+   * Registers the execution shared by the endpoints of a query whose results are spread over several endpoints.
+   *
+   * @param partitionCount The number of endpoints.
+   * @param allocator      The allocator of the batches buffered for the endpoints.
+   * @param userSession    The session for the user which made the request.
+   * @return The stream id of the tickets of the endpoints.
+   */
+  public String createPartitionedQuery(int partitionCount, BufferAllocator allocator, UserSession userSession) {
+    final OptionManager optionManager = optionManagerProvider.get();
+    final String streamId = UUID.randomUUID().toString();
+    partitionedQueries.put(streamId, new PartitionedRunQueryResponseHandler(ExternalIdHelper.generateExternalId(),
+      userSession.getCredentials().getUserName(), partitionCount, allocator,
+      (int) optionManager.getOption(DremioFlightServiceOptions.RESULT_ENDPOINT_BUFFERED_BATCHES),
+      optionManager.getOption(DremioFlightServiceOptions.CLIENT_READINESS_TIMEOUT_MILLIS), partitionExecutor));
+    return streamId;
+  }
+
+  /**
+   * Streams a partition of the results of a prepared statement spread over several endpoints. The query is
+   * submitted when the first partition is requested, and its batches are shared among the partitions.
+   */
+  private void runPartitionedPreparedStatement(TicketContent.PreparedStatementTicket ticket,
+                                               FlightProducer.ServerStreamListener listener,
+                                               BufferAllocator allocator, UserSession userSession) {
+    final String userName = userSession.getCredentials().getUserName();
+    final PartitionedRunQueryResponseHandler partitionedHandler = partitionedQueries.getIfPresent(ticket.getStreamId());
+    if (partitionedHandler == null) {
+      // never submit the query again for a ticket whose partitions were all streamed, or which expired
+      throw CallStatus.NOT_FOUND.withDescription("The results of the ticket expired or were already streamed.")
+        .toRuntimeException();
+    }
+
+    final UserBitShared.ExternalId runExternalId = partitionedHandler.getRunExternalId();
+    final boolean allAttached = partitionedHandler.attach(ticket.getPartition(), userName, listener,
+      () -> runQueryResponseHandlerFactory.getHandler(runExternalId, userSession, workerProvider, optionManagerProvider,
+        listener, allocator));
+    if (allAttached) {
+      partitionedQueries.invalidate(ticket.getStreamId());
+    }
+    if (partitionedHandler.markSubmitted()) {
+      submitPreparedStatement(ticket, runExternalId, partitionedHandler, userSession);
+    }
+  }
+
+  private void submitPreparedStatement(TicketContent.PreparedStatementTicket ticket,
+                                       UserBitShared.ExternalId runExternalId,
+                                       UserResponseHandler responseHandler, UserSession userSession) {
     final UserRequest userRequest =
       new UserRequest(UserProtos.RpcType.RUN_QUERY,
         UserProtos.RunQuery.newBuilder()
@@ -103,12 +191,22 @@ public class FlightWorkManager {
           .setPreparedStatementHandle(ticket.getHandle())
           .build());
 
-    final UserResponseHandler responseHandler = runQueryResponseHandlerFactory.getHandler(runExternalId, userSession,
-      workerProvider, optionManagerProvider, listener, allocator);
-
     workerProvider.get().submitWork(runExternalId, userSession, responseHandler, userRequest, TerminationListenerRegistry.NOOP);
   }
 
+  /**
+   * Drops the partitions that were not streamed yet, as when their query expires, and stops streaming the others.
+   */
+  @Override
+  public void close() throws Exception {
+    AutoCloseables.close(partitionCleaner);
+    for (PartitionedRunQueryResponseHandler partitionedHandler : partitionedQueries.asMap().values()) {
+      partitionedHandler.expire();
+    }
+    partitionedQueries.invalidateAll();
+    CloseableSchedulerThreadPool.close(partitionExecutor, logger);
+  }
+
   @VisibleForTesting
   static String getQuery(FlightDescriptor descriptor) {
     if (!descriptor.isCommand()) {
@@ -0,0 +1,402 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.flight.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.apache.arrow.flight.CallStatus;
+import org.apache.arrow.flight.FlightProducer;
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.types.SerializedFieldHelper;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+import com.dremio.common.utils.protos.QueryWritableBatch;
+import com.dremio.exec.proto.GeneralRPCProtos;
+import com.dremio.exec.proto.UserBitShared;
+import com.dremio.exec.rpc.Acks;
+import com.dremio.exec.rpc.RpcException;
+import com.dremio.exec.rpc.RpcOutcomeListener;
+import com.dremio.exec.work.protector.UserResponseHandler;
+import com.dremio.exec.work.protector.UserResult;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.NettyArrowBuf;
+
+/**
+ * The UserResponseHandler of a query whose results are spread over the endpoints of its FlightInfo.
+ * <p>
+ * Each endpoint streams a partition of the results, through the UserResponseHandler created when its client calls
+ * getStream. The batches of the query are handed in turn to the partitions which have room for them: each partition
+ * buffers a bounded number of batches, which its own thread streams once its client called getStream. A client which
+ * reads slowly, or which did not call getStream yet, therefore only holds back its own partition, and clients can
+ * read the endpoints one after the other. The query waits only when the buffers of all the partitions are full.
+ * <p>
+ * Buffered batches are copied to the allocator of the Flight service, so that the query can acknowledge them and
+ * complete while they are still waiting for their client. Partitions which got no batch are started with an empty
+ * batch before completing, so that all the clients get the schema.
+ */
+class PartitionedRunQueryResponseHandler implements UserResponseHandler {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(PartitionedRunQueryResponseHandler.class);
+
+  private final UserBitShared.ExternalId runExternalId;
+  private final String userName;
+  private final BufferAllocator allocator;
+  private final int maxBufferedBatches;
+  private final long sendTimeoutMillis;
+  private final Executor executor;
+  private final List<Partition> partitions;
+  private final AtomicBoolean submitted = new AtomicBoolean();
+
+  // guards the state of the partitions, the result and the failure
+  private final Object lock = new Object();
+  private int attachedPartitions;
+  private UserResult result;
+  private RpcException failure;
+
+  private int nextPartition;
+  private volatile Schema schema;
+
+  /**
+   * @param runExternalId      The id of the query.
+   * @param userName           The user who started the query.
+   * @param partitionCount     The number of partitions of the results.
+   * @param allocator          The allocator of the buffered batches.
+   * @param maxBufferedBatches The number of batches buffered by each partition.
+   * @param sendTimeoutMillis  How long a batch waits when the buffers of all the partitions are full.
+   * @param executor           Runs the threads streaming the partitions.
+   */
+  PartitionedRunQueryResponseHandler(UserBitShared.ExternalId runExternalId, String userName, int partitionCount,
+                                     BufferAllocator allocator, int maxBufferedBatches, long sendTimeoutMillis,
+                                     Executor executor) {
+    this.runExternalId = runExternalId;
+    this.userName = userName;
+    this.allocator = allocator;
+    this.maxBufferedBatches = maxBufferedBatches;
+    this.sendTimeoutMillis = sendTimeoutMillis;
+    this.executor = executor;
+    this.partitions = new ArrayList<>(partitionCount);
+    for (int i = 0; i < partitionCount; i++) {
+      partitions.add(new Partition(i));
+    }
+  }
+
+  UserBitShared.ExternalId getRunExternalId() {
+    return runExternalId;
+  }
+
+  /**
+   * Attaches the stream of a partition, and starts streaming its batches.
+   *
+   * @param partition       The partition streamed.
+   * @param userName        The user requesting the stream, who must be the user who started the query.
+   * @param clientListener  The listener of the stream.
+   * @param handlerSupplier Creates the UserResponseHandler streaming the partition to the listener.
+   * @return true if all the partitions are now attached.
+   */
+  boolean attach(int partition, String userName, FlightProducer.ServerStreamListener clientListener,
+                 Supplier<UserResponseHandler> handlerSupplier) {
+    if (!this.userName.equals(userName)) {
+      throw CallStatus.UNAUTHORIZED.withDescription("The ticket belongs to another user.").toRuntimeException();
+    }
+    if (partition < 0 || partition >= partitions.size()) {
+      throw CallStatus.INVALID_ARGUMENT.withDescription("Invalid partition in ticket.").toRuntimeException();
+    }
+    final Partition attached = partitions.get(partition);
+    final boolean allAttached;
+    synchronized (lock) {
+      if (attached.handler != null) {
+        throw CallStatus.ALREADY_EXISTS.withDescription("The partition of the ticket is already streamed.").toRuntimeException();
+      }
+      if (attached.dropped) {
+        throw CallStatus.NOT_FOUND.withDescription("The results of the ticket expired.").toRuntimeException();
+      }
+      attached.clientListener = clientListener;
+      attached.handler = handlerSupplier.get();
+      allAttached = ++attachedPartitions == partitions.size();
+    }
+    executor.execute(attached::stream);
+    return allAttached;
+  }
+
+  /**
+   * @return true the first time it is called, when the query should be submitted.
+   */
+  boolean markSubmitted() {
+    return submitted.compareAndSet(false, true);
+  }
+
+  /**
+   * Drops the partitions whose client did not call getStream in time, and fails the query if it is still running.
+   */
+  void expire() {
+    synchronized (lock) {
+      for (Partition partition : partitions) {
+        if (partition.handler == null) {
+          partition.drop();
+          if (result == null && failure == null) {
+            failure = new RpcException(
+              String.format("Timeout while waiting for the client to stream partition %d.", partition.index));
+          }
+        }
+      }
+      lock.notifyAll();
+    }
+  }
+
+  @Override
+  public void sendData(RpcOutcomeListener<GeneralRPCProtos.Ack> outcomeListener, QueryWritableBatch result) {
+    if (schema == null) {
+      schema = new Schema(result.getHeader().getDef().getFieldList().stream()
+        .map(SerializedFieldHelper::create)
+        .collect(Collectors.toList()));
+    }
+
+    final QueryWritableBatch batch;
+    try {
+      batch = copy(result);
+    } catch (RuntimeException e) {
+      outcomeListener.failed(new RpcException("Failure while buffering the results of the query.", e));
+      return;
+    }
+
+    final RpcException error;
+    try {
+      error = buffer(batch);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      release(batch);
+      outcomeListener.interrupted(e);
+      return;
+    }
+    if (error != null) {
+      release(batch);
+      outcomeListener.failed(error);
+      return;
+    }
+    outcomeListener.success(Acks.OK, null);
+  }
+
+  /**
+   * Buffers the batch in the next partition with room for it, waiting for room if the buffers of all the partitions
+   * are full.
+   *
+   * @return the reason why the batch could not be buffered, or null if it was.
+   */
+  private RpcException buffer(QueryWritableBatch batch) throws InterruptedException {
+    final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+    synchronized (lock) {
+      while (failure == null) {
+        for (int i = 0; i < partitions.size(); i++) {
+          final Partition partition = partitions.get((nextPartition + i) % partitions.size());
+          if (!partition.dropped && partition.batches.size() < maxBufferedBatches) {
+            nextPartition = (partition.index + 1) % partitions.size();
+            partition.batches.add(batch);
+            lock.notifyAll();
+            return null;
+          }
+        }
+
+        final long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        if (remainingMillis <= 0) {
+          return new RpcException("Timeout while waiting for the clients to read the partitions of the results.");
+        }
+        lock.wait(remainingMillis);
+      }
+      return failure;
+    }
+  }
+
+  @Override
+  public void completed(UserResult result) {
+    synchronized (lock) {
+      this.result = result;
+      if (result.getState() != UserBitShared.QueryResult.QueryState.COMPLETED) {
+        // the clients get the error of the query instead of the rest of the results
+        for (Partition partition : partitions) {
+          partition.releaseBatches();
+        }
+      }
+      // partitions not attached yet are completed when their client calls getStream
+      lock.notifyAll();
+    }
+  }
+
+  private QueryWritableBatch copy(QueryWritableBatch result) {
+    final ByteBuf[] buffers = result.getBuffers();
+    if (buffers == null || buffers.length == 0) {
+      return result;
+    }
+
+    try {
+      final ArrowBuf copy = allocator.buffer(result.getByteCount());
+      try {
+        long index = 0;
+        for (ByteBuf buffer : buffers) {
+          copy.setBytes(index, buffer.nioBuffer());
+          index += buffer.readableBytes();
+        }
+        return new QueryWritableBatch(result.getHeader(), NettyArrowBuf.unwrapBuffer(copy));
+      } catch (RuntimeException e) {
+        copy.close();
+        throw e;
+      }
+    } finally {
+      release(result);
+    }
+  }
+
+  private static void release(QueryWritableBatch result) {
+    if (result.getBuffers() != null) {
+      for (ByteBuf buffer : result.getBuffers()) {
+        buffer.release();
+      }
+    }
+  }
+
+  /**
+   * A partition of the results, and its stream once its client called getStream.
+   */
+  private final class Partition {
+    private final int index;
+    private final Queue<QueryWritableBatch> batches = new ArrayDeque<>();
+    private FlightProducer.ServerStreamListener clientListener;
+    private UserResponseHandler handler;
+    private boolean dropped;
+    private boolean started;
+
+    private Partition(int index) {
+      this.index = index;
+    }
+
+    /**
+     * Streams the batches of the partition as they are buffered, until the query completes.
+     */
+    private void stream() {
+      try {
+        while (true) {
+          final QueryWritableBatch batch;
+          final UserResult queryResult;
+          synchronized (lock) {
+            while (batches.isEmpty() && result == null) {
+              lock.wait();
+            }
+            batch = batches.poll();
+            queryResult = result;
+            // the partition has room for another batch
+            lock.notifyAll();
+          }
+
+          if (batch == null) {
+            complete(queryResult);
+            return;
+          }
+
+          started = true;
+          final SendOutcome outcome = new SendOutcome();
+          handler.sendData(outcome, batch);
+          if (outcome.failure != null) {
+            fail(outcome.failure);
+            return;
+          }
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        synchronized (lock) {
+          drop();
+        }
+        clientListener.error(CallStatus.INTERNAL.withDescription("Interrupted while streaming the results.")
+          .toRuntimeException());
+      }
+    }
+
+    /**
+     * Stops streaming the partition, and fails the query with the error of its stream.
+     */
+    private void fail(RpcException e) throws InterruptedException {
+      logger.debug("Failure while streaming partition {} of the results", index, e);
+      final UserResult queryResult;
+      synchronized (lock) {
+        drop();
+        if (failure == null) {
+          failure = e;
+        }
+        lock.notifyAll();
+        while (result == null) {
+          lock.wait();
+        }
+        queryResult = result;
+      }
+      complete(queryResult.getState() == UserBitShared.QueryResult.QueryState.COMPLETED
+        ? queryResult.withException(e) : queryResult);
+    }
+
+    private void complete(UserResult queryResult) {
+      if (started || schema == null || queryResult.getState() != UserBitShared.QueryResult.QueryState.COMPLETED) {
+        handler.completed(queryResult);
+        return;
+      }
+      try (VectorSchemaRoot root = VectorSchemaRoot.create(schema, allocator)) {
+        clientListener.start(root);
+        handler.completed(queryResult);
+      }
+    }
+
+    // called while holding the lock
+    private void drop() {
+      dropped = true;
+      releaseBatches();
+    }
+
+    // called while holding the lock
+    private void releaseBatches() {
+      QueryWritableBatch batch;
+      while ((batch = batches.poll()) != null) {
+        release(batch);
+      }
+    }
+  }
+
+  /**
+   * Records the failure of sending a batch to the client of a partition.
+   */
+  private static final class SendOutcome implements RpcOutcomeListener<GeneralRPCProtos.Ack> {
+    private RpcException failure;
+
+    @Override
+    public void failed(RpcException ex) {
+      failure = ex;
+    }
+
+    @Override
+    public void success(GeneralRPCProtos.Ack value, ByteBuf buffer) {
+    }
+
+    @Override
+    public void interrupted(InterruptedException e) {
+      failure = new RpcException("Interrupted while streaming the results.", e);
+    }
+  }
+}
@@ -20,14 +20,20 @@ import static org.junit.Assert.assertTrue;
 
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import org.apache.arrow.flight.CallHeaders;
+import org.apache.arrow.flight.CallOption;
+import org.apache.arrow.flight.ErrorFlightMetadata;
 import org.apache.arrow.flight.FlightClient;
 import org.apache.arrow.flight.FlightDescriptor;
+import org.apache.arrow.flight.FlightEndpoint;
 import org.apache.arrow.flight.FlightInfo;
 import org.apache.arrow.flight.FlightRuntimeException;
 import org.apache.arrow.flight.FlightStatusCode;
 import org.apache.arrow.flight.FlightStream;
+import org.apache.arrow.flight.HeaderCallOption;
 import org.apache.arrow.vector.FieldVector;
 import org.apache.arrow.vector.VarCharVector;
 import org.apache.arrow.vector.VectorSchemaRoot;
@@ -38,6 +44,8 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import com.dremio.service.flight.client.properties.DremioFlightClientProperties;
+
 /**
  * Test functionality of the FlightClient communicating to the Flight endpoint.
  */
@@ -160,6 +168,32 @@ public abstract class AbstractTestFlightServer extends BaseFlightQueryTest {
     assertEquals(TOTAL_ROWS_SELECT_QUERY_10K, actualStringResults.size());
   }
 
+  @Test
+  public void testDataRetrievalFor10kRowsOverEndpointsReadSequentially() throws Exception {
+    // Arrange
+    final FlightClientUtils.FlightClientWrapper wrapper = getFlightClientWrapper();
+    final CallHeaders headers = new ErrorFlightMetadata();
+    headers.insert(DremioFlightClientProperties.RESULT_ENDPOINTS, "3");
+
+    // Act
+    final FlightInfo flightInfo = wrapper.getClient().getInfo(toFlightDescriptor(SELECT_QUERY_10K),
+      callOptions(wrapper, new HeaderCallOption(headers)));
+    long rowCount = 0;
+    // each endpoint is read until the end before the next one is requested
+    for (FlightEndpoint endpoint : flightInfo.getEndpoints()) {
+      try (FlightStream stream = wrapper.getClient().getStream(endpoint.getTicket(), callOptions(wrapper))) {
+        while (stream.next()) {
+          rowCount += stream.getRoot().getRowCount();
+        }
+        stream.getRoot().clear();
+      }
+    }
+
+    // Assert
+    assertEquals(3, flightInfo.getEndpoints().size());
+    assertEquals(TOTAL_ROWS_SELECT_QUERY_10K, rowCount);
+  }
+
   @Test
   public void testDirectCommandWithExplainPlanRetrieval() throws Exception {
     // Act
@@ -209,6 +243,15 @@ public abstract class AbstractTestFlightServer extends BaseFlightQueryTest {
       wrapper.getClient().getInfo(toFlightDescriptor(query), wrapper.getTokenCallOption());
   }
 
+  private static CallOption[] callOptions(FlightClientUtils.FlightClientWrapper wrapper, CallOption... options) {
+    if (DremioFlightService.FLIGHT_LEGACY_AUTH_MODE.equals(wrapper.getAuthMode())) {
+      return options;
+    }
+    final CallOption[] withToken = Arrays.copyOf(options, options.length + 1);
+    withToken[options.length] = wrapper.getTokenCallOption();
+    return withToken;
+  }
+
   private FlightStream executeQuery(FlightClientUtils.FlightClientWrapper wrapper, String query) {
     // Assumption is that we have exactly one endpoint returned.
     return (DremioFlightService.FLIGHT_LEGACY_AUTH_MODE.equals(wrapper.getAuthMode()))?
@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.flight;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.arrow.flight.AsyncPutListener;
+import org.apache.arrow.flight.FlightClient;
+import org.apache.arrow.flight.FlightDescriptor;
+import org.apache.arrow.flight.FlightRuntimeException;
+import org.apache.arrow.flight.FlightStatusCode;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.dremio.exec.catalog.CatalogServiceImpl;
+import com.dremio.exec.store.CatalogService;
+import com.dremio.exec.store.dfs.InternalFileConf;
+import com.dremio.exec.store.dfs.SchemaMutability;
+import com.dremio.service.flight.impl.FlightIngestManager;
+import com.dremio.service.flight.impl.FlightWorkManager;
+import com.dremio.service.namespace.source.proto.SourceConfig;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Tests inserting the batches put to the Flight service into a table.
+ */
+public class TestFlightIngest extends BaseFlightQueryTest {
+  private static final String TABLE = "flight_ingest";
+  private static final Schema SCHEMA = new Schema(ImmutableList.of(
+    Field.nullable("id", new ArrowType.Int(32, true)),
+    Field.nullable("name", ArrowType.Utf8.INSTANCE)));
+
+  private static File stagingDir;
+  private static AutoCloseable iceberg;
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    setupBaseFlightQueryTest(
+      false,
+      true,
+      "flight.endpoint.port",
+      FlightWorkManager.RunQueryResponseHandlerFactory.DEFAULT);
+
+    // the uploaded batches are staged in an internal source, which the test cluster does not have
+    stagingDir = new File(getDfsTestTmpSchemaLocation(), "flight_staging");
+    stagingDir.mkdirs();
+    final SourceConfig c = new SourceConfig();
+    final InternalFileConf conf = new InternalFileConf();
+    conf.connection = "file:///";
+    conf.path = stagingDir.getAbsolutePath();
+    conf.mutability = SchemaMutability.USER_TABLE;
+    c.setConnectionConf(conf);
+    c.setName(FlightIngestManager.STAGING_SOURCE);
+    c.setMetadataPolicy(CatalogService.NEVER_REFRESH_POLICY_WITH_AUTO_PROMOTE);
+    ((CatalogServiceImpl) getSabotContext().getCatalogService()).getSystemUserCatalog().createSource(c);
+
+    iceberg = enableIcebergTables();
+    test("CREATE TABLE dfs_test." + TABLE + " (id INT, name VARCHAR)");
+  }
+
+  @AfterClass
+  public static void cleanup() throws Exception {
+    test("DROP TABLE dfs_test." + TABLE);
+    iceberg.close();
+  }
+
+  @Test
+  public void testPutBatchesAreInserted() throws Exception {
+    put(0, 3);
+    put(3, 2);
+
+    testBuilder()
+      .unOrdered()
+      .sqlQuery("SELECT id, name FROM dfs_test." + TABLE)
+      .baselineColumns("id", "name")
+      .baselineValues(0, "name0")
+      .baselineValues(1, "name1")
+      .baselineValues(2, "name2")
+      .baselineValues(3, "name3")
+      .baselineValues(4, "name4")
+      .go();
+
+    // the staging directories are dropped once the batches are inserted
+    assertArrayEquals(new String[0], stagingDir.list());
+  }
+
+  @Test
+  public void testPutOverMaxBytesIsRejected() throws Exception {
+    try (AutoCloseable ignored = setSystemOptionWithAutoReset(
+      DremioFlightServiceOptions.PUT_MAX_BYTES.getOptionName(), "1")) {
+      put(100, 1);
+      fail("Expected the put to exceed the maximum size.");
+    } catch (FlightRuntimeException e) {
+      assertEquals(FlightStatusCode.INVALID_ARGUMENT, e.status().code());
+    }
+
+    testBuilder()
+      .unOrdered()
+      .sqlQuery("SELECT count(*) AS c FROM dfs_test." + TABLE + " WHERE id >= 100")
+      .baselineColumns("c")
+      .baselineValues(0L)
+      .go();
+    assertArrayEquals(new String[0], stagingDir.list());
+  }
+
+  @Test
+  public void testFailedInsertDeletesStagedBatches() throws Exception {
+    // the batches have no column matching the table, so the insert fails after they were staged
+    final Schema schema = new Schema(ImmutableList.of(Field.nullable("other", ArrowType.Utf8.INSTANCE)));
+    final FlightClientUtils.FlightClientWrapper wrapper = getFlightClientWrapper();
+    try (VectorSchemaRoot root = VectorSchemaRoot.create(schema, wrapper.getAllocator())) {
+      final VarCharVector others = (VarCharVector) root.getVector("other");
+      root.allocateNew();
+      others.setSafe(0, "other".getBytes(StandardCharsets.UTF_8));
+      root.setRowCount(1);
+
+      put(FlightDescriptor.path("dfs_test", TABLE), root);
+      fail("Expected the insert to fail.");
+    } catch (FlightRuntimeException e) {
+      assertNotEquals(FlightStatusCode.OK, e.status().code());
+    }
+
+    assertArrayEquals(new String[0], stagingDir.list());
+  }
+
+  @Test
+  public void testPutToInternalSourceIsRejected() throws Exception {
+    try {
+      put(FlightDescriptor.path(FlightIngestManager.STAGING_SOURCE, "flight_put_target"), 100, 1);
+      fail("Expected the internal source to be hidden from the user.");
+    } catch (FlightRuntimeException e) {
+      assertEquals(FlightStatusCode.NOT_FOUND, e.status().code());
+    }
+    assertArrayEquals(new String[0], stagingDir.list());
+  }
+
+  private void put(int start, int count) {
+    put(FlightDescriptor.path("dfs_test", TABLE), start, count);
+  }
+
+  private void put(FlightDescriptor descriptor, int start, int count) {
+    final FlightClientUtils.FlightClientWrapper wrapper = getFlightClientWrapper();
+    try (VectorSchemaRoot root = VectorSchemaRoot.create(SCHEMA, wrapper.getAllocator())) {
+      final IntVector ids = (IntVector) root.getVector("id");
+      final VarCharVector names = (VarCharVector) root.getVector("name");
+      root.allocateNew();
+      for (int i = 0; i < count; i++) {
+        ids.setSafe(i, start + i);
+        names.setSafe(i, ("name" + (start + i)).getBytes(StandardCharsets.UTF_8));
+      }
+      root.setRowCount(count);
+
+      put(descriptor, root);
+    }
+  }
+
+  private void put(FlightDescriptor descriptor, VectorSchemaRoot root) {
+    final FlightClientUtils.FlightClientWrapper wrapper = getFlightClientWrapper();
+    final FlightClient.ClientStreamListener listener = (wrapper.getTokenCallOption() == null) ?
+      wrapper.getClient().startPut(descriptor, root, new AsyncPutListener()) :
+      wrapper.getClient().startPut(descriptor, root, new AsyncPutListener(), wrapper.getTokenCallOption());
+    listener.putNext();
+    listener.completed();
+    listener.getResult();
+  }
+}
@@ -17,12 +17,14 @@ package com.dremio.service.flight.client.properties;
 
 import static com.dremio.service.flight.client.properties.DremioFlightClientProperties.applyClientPropertiesToUserSessionBuilder;
 import static com.dremio.service.flight.client.properties.DremioFlightClientProperties.applyMutableClientProperties;
+import static com.dremio.service.flight.client.properties.DremioFlightClientProperties.getResultEndpoints;
 import static org.junit.Assert.assertEquals;
 
 import java.util.Arrays;
 
 import org.apache.arrow.flight.CallHeaders;
 import org.apache.arrow.flight.ErrorFlightMetadata;
+import org.apache.arrow.flight.FlightRuntimeException;
 import org.junit.Test;
 
 import com.dremio.exec.proto.UserProtos;
@@ -176,4 +178,23 @@ public class TestDremioFlightClientProperties {
   public void testBuildWithClientPropertiesWithNullUserSessionAndHeaders() {
     applyClientPropertiesToUserSessionBuilder(null, null);
   }
+
+  @Test
+  public void testGetResultEndpoints() {
+    final CallHeaders incomingHeaders = new ErrorFlightMetadata();
+    assertEquals(1, getResultEndpoints(incomingHeaders, 16));
+    assertEquals(1, getResultEndpoints(null, 16));
+
+    incomingHeaders.insert(DremioFlightClientProperties.RESULT_ENDPOINTS, "4");
+    assertEquals(4, getResultEndpoints(incomingHeaders, 16));
+    // capped by the maximum number of endpoints
+    assertEquals(2, getResultEndpoints(incomingHeaders, 2));
+  }
+
+  @Test(expected = FlightRuntimeException.class)
+  public void testGetResultEndpointsWithInvalidValue() {
+    final CallHeaders incomingHeaders = new ErrorFlightMetadata();
+    incomingHeaders.insert(DremioFlightClientProperties.RESULT_ENDPOINTS, "0");
+    getResultEndpoints(incomingHeaders, 16);
+  }
 }
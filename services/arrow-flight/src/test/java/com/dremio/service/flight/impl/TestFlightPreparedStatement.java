@@ -185,6 +185,31 @@ public class TestFlightPreparedStatement {
     assertEquals(expected, actual);
   }
 
+  @Test
+  public void testGetFlightInfoMultipleEndpoints() throws Exception {
+    // Arrange
+    when(mockHandler.get()).thenReturn(response);
+    final FlightPreparedStatement flightPreparedStatement = new FlightPreparedStatement(flightDescriptor, command, mockHandler);
+
+    // Act
+    final FlightInfo actual = flightPreparedStatement.getFlightInfo(mockLocation, "stream", 3);
+
+    // Assert
+    assertEquals(schema, actual.getSchema());
+    assertEquals(3, actual.getEndpoints().size());
+    for (int i = 0; i < 3; i++) {
+      final FlightEndpoint endpoint = actual.getEndpoints().get(i);
+      final TicketContent.PreparedStatementTicket ticket =
+        TicketContent.PreparedStatementTicket.parseFrom(endpoint.getTicket().getBytes());
+      assertEquals(command, ticket.getQuery());
+      assertEquals(preparedStatementHandle, ticket.getHandle());
+      assertEquals("stream", ticket.getStreamId());
+      assertEquals(i, ticket.getPartition());
+      assertEquals(3, ticket.getPartitionCount());
+      assertEquals(ImmutableList.of(mockLocation), endpoint.getLocations());
+    }
+  }
+
   private static class TestException extends Exception {
     public TestException(String message) {
       super(message);
@@ -16,15 +16,29 @@
 package com.dremio.service.flight.impl;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import java.nio.charset.StandardCharsets;
 
 import org.apache.arrow.flight.FlightDescriptor;
+import org.apache.arrow.flight.FlightProducer;
 import org.apache.arrow.flight.FlightRuntimeException;
+import org.apache.arrow.flight.FlightStatusCode;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import com.dremio.exec.proto.UserBitShared;
+import com.dremio.exec.work.protector.UserWorker;
+import com.dremio.options.OptionManager;
+import com.dremio.sabot.rpc.user.UserSession;
+import com.dremio.service.flight.DremioFlightServiceOptions;
+import com.dremio.service.flight.TicketContent;
+
 /**
  * Tests for FlightWorkManager.
  */
@@ -81,4 +95,35 @@ public class TestFlightWorkManager {
     // Assert
     assertEquals(expected, actual);
   }
+
+  @Test
+  public void testCloseDropsPartitionedQueries() throws Exception {
+    final OptionManager optionManager = mock(OptionManager.class);
+    when(optionManager.getOption(DremioFlightServiceOptions.RESULT_ENDPOINT_BUFFERED_BATCHES)).thenReturn(16L);
+    when(optionManager.getOption(DremioFlightServiceOptions.CLIENT_READINESS_TIMEOUT_MILLIS)).thenReturn(1000L);
+    final UserWorker worker = mock(UserWorker.class);
+    final UserSession userSession = UserSession.Builder.newBuilder()
+      .withCredentials(UserBitShared.UserCredentials.newBuilder().setUserName("user").build())
+      .build();
+
+    try (BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE)) {
+      final FlightWorkManager workManager = new FlightWorkManager(() -> worker, () -> optionManager,
+        FlightWorkManager.RunQueryResponseHandlerFactory.DEFAULT);
+      final String streamId = workManager.createPartitionedQuery(2, allocator, userSession);
+      workManager.close();
+
+      // the query is no longer submitted when a partition is requested
+      try {
+        workManager.runPreparedStatement(TicketContent.PreparedStatementTicket.newBuilder()
+            .setStreamId(streamId)
+            .setPartition(0)
+            .setPartitionCount(2)
+            .build(),
+          mock(FlightProducer.ServerStreamListener.class), allocator, userSession);
+        fail("Expected the partitioned query to be dropped.");
+      } catch (FlightRuntimeException e) {
+        assertEquals(FlightStatusCode.NOT_FOUND, e.status().code());
+      }
+    }
+  }
 }
@@ -0,0 +1,245 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.flight.impl;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.arrow.flight.FlightProducer;
+import org.apache.arrow.flight.FlightRuntimeException;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.dremio.common.utils.protos.QueryWritableBatch;
+import com.dremio.exec.proto.GeneralRPCProtos;
+import com.dremio.exec.proto.UserBitShared;
+import com.dremio.exec.rpc.RpcException;
+import com.dremio.exec.rpc.RpcOutcomeListener;
+import com.dremio.exec.work.protector.UserResponseHandler;
+import com.dremio.exec.work.protector.UserResult;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Tests for PartitionedRunQueryResponseHandler.
+ */
+public class TestPartitionedRunQueryResponseHandler {
+  private static final String USER = "user";
+  private static final long VERIFY_TIMEOUT_MILLIS = 10000;
+
+  private BufferAllocator allocator;
+  private ExecutorService executor;
+
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  @Before
+  public void setup() {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+    executor = Executors.newCachedThreadPool();
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+    allocator.close();
+  }
+
+  private PartitionedRunQueryResponseHandler createHandler(int partitionCount, int maxBufferedBatches,
+                                                           long sendTimeoutMillis) {
+    return new PartitionedRunQueryResponseHandler(UserBitShared.ExternalId.getDefaultInstance(), USER, partitionCount,
+      allocator, maxBufferedBatches, sendTimeoutMillis, executor);
+  }
+
+  private static QueryWritableBatch batch() {
+    return new QueryWritableBatch(UserBitShared.QueryData.newBuilder()
+      .setRowCount(1)
+      .setDef(UserBitShared.RecordBatchDef.newBuilder().setRecordCount(1))
+      .build());
+  }
+
+  private static UserResult completedResult() {
+    final UserResult result = mock(UserResult.class);
+    when(result.getState()).thenReturn(UserBitShared.QueryResult.QueryState.COMPLETED);
+    return result;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static RpcOutcomeListener<GeneralRPCProtos.Ack> outcomeListener() {
+    return mock(RpcOutcomeListener.class);
+  }
+
+  @Test
+  public void testBatchesAreSpreadOverPartitions() {
+    // Arrange
+    final PartitionedRunQueryResponseHandler handler = createHandler(2, 16, 5000);
+    final FlightProducer.ServerStreamListener listener0 = mock(FlightProducer.ServerStreamListener.class);
+    final FlightProducer.ServerStreamListener listener1 = mock(FlightProducer.ServerStreamListener.class);
+    final UserResponseHandler handler0 = mock(UserResponseHandler.class);
+    final UserResponseHandler handler1 = mock(UserResponseHandler.class);
+    assertFalse(handler.attach(0, USER, listener0, () -> handler0));
+    assertTrue(handler.attach(1, USER, listener1, () -> handler1));
+    final UserResult result = completedResult();
+    final RpcOutcomeListener<GeneralRPCProtos.Ack> outcomeListener = outcomeListener();
+
+    // Act
+    handler.sendData(outcomeListener, batch());
+    handler.sendData(outcomeListener, batch());
+    handler.sendData(outcomeListener, batch());
+    handler.completed(result);
+
+    // Assert
+    verify(outcomeListener, times(3)).success(any(GeneralRPCProtos.Ack.class), any(ByteBuf.class));
+    verify(handler0, timeout(VERIFY_TIMEOUT_MILLIS).times(2)).sendData(any(RpcOutcomeListener.class), any(QueryWritableBatch.class));
+    verify(handler1, timeout(VERIFY_TIMEOUT_MILLIS).times(1)).sendData(any(RpcOutcomeListener.class), any(QueryWritableBatch.class));
+    verify(handler0, timeout(VERIFY_TIMEOUT_MILLIS)).completed(result);
+    verify(handler1, timeout(VERIFY_TIMEOUT_MILLIS)).completed(result);
+    verify(listener0, never()).start(any(VectorSchemaRoot.class));
+    verify(listener1, never()).start(any(VectorSchemaRoot.class));
+  }
+
+  @Test
+  public void testSequentialReader() {
+    // Arrange
+    final PartitionedRunQueryResponseHandler handler = createHandler(2, 2, 5000);
+    final UserResponseHandler handler0 = mock(UserResponseHandler.class);
+    final UserResponseHandler handler1 = mock(UserResponseHandler.class);
+    final UserResult result = completedResult();
+    final RpcOutcomeListener<GeneralRPCProtos.Ack> outcomeListener = outcomeListener();
+
+    // Act
+    // the client reads the first partition until the end before calling getStream for the second one
+    handler.attach(0, USER, mock(FlightProducer.ServerStreamListener.class), () -> handler0);
+    for (int i = 0; i < 10; i++) {
+      handler.sendData(outcomeListener, batch());
+    }
+    handler.completed(result);
+    verify(handler0, timeout(VERIFY_TIMEOUT_MILLIS)).completed(result);
+    handler.attach(1, USER, mock(FlightProducer.ServerStreamListener.class), () -> handler1);
+
+    // Assert
+    verify(outcomeListener, times(10)).success(any(GeneralRPCProtos.Ack.class), any(ByteBuf.class));
+    verify(outcomeListener, never()).failed(any(RpcException.class));
+    // the second partition only buffered the batches it had room for
+    verify(handler0, times(8)).sendData(any(RpcOutcomeListener.class), any(QueryWritableBatch.class));
+    verify(handler1, timeout(VERIFY_TIMEOUT_MILLIS).times(2)).sendData(any(RpcOutcomeListener.class), any(QueryWritableBatch.class));
+    verify(handler1, timeout(VERIFY_TIMEOUT_MILLIS)).completed(result);
+  }
+
+  @Test
+  public void testPartitionsWithoutBatchesAreStarted() {
+    // Arrange
+    final PartitionedRunQueryResponseHandler handler = createHandler(2, 16, 5000);
+    final FlightProducer.ServerStreamListener listener0 = mock(FlightProducer.ServerStreamListener.class);
+    final FlightProducer.ServerStreamListener listener1 = mock(FlightProducer.ServerStreamListener.class);
+    final UserResponseHandler handler0 = mock(UserResponseHandler.class);
+    final UserResponseHandler handler1 = mock(UserResponseHandler.class);
+    handler.attach(0, USER, listener0, () -> handler0);
+    final UserResult result = completedResult();
+
+    // Act
+    handler.sendData(outcomeListener(), batch());
+    handler.completed(result);
+    // the client of the second partition calls getStream after the query completed
+    handler.attach(1, USER, listener1, () -> handler1);
+
+    // Assert
+    verify(handler0, timeout(VERIFY_TIMEOUT_MILLIS)).completed(result);
+    verify(listener0, never()).start(any(VectorSchemaRoot.class));
+    verify(listener1, timeout(VERIFY_TIMEOUT_MILLIS)).start(any(VectorSchemaRoot.class));
+    verify(handler1, timeout(VERIFY_TIMEOUT_MILLIS)).completed(result);
+  }
+
+  @Test
+  public void testSendDataTimesOutWhenAllPartitionsAreFull() {
+    // Arrange
+    final PartitionedRunQueryResponseHandler handler = createHandler(2, 1, 10);
+    final RpcOutcomeListener<GeneralRPCProtos.Ack> outcomeListener = outcomeListener();
+
+    // Act
+    handler.sendData(outcomeListener, batch());
+    handler.sendData(outcomeListener, batch());
+    handler.sendData(outcomeListener, batch());
+
+    // Assert
+    verify(outcomeListener, times(2)).success(any(GeneralRPCProtos.Ack.class), any(ByteBuf.class));
+    verify(outcomeListener).failed(any(RpcException.class));
+  }
+
+  @Test
+  public void testExpiredPartitionsFailQuery() {
+    // Arrange
+    final PartitionedRunQueryResponseHandler handler = createHandler(2, 16, 5000);
+    final RpcOutcomeListener<GeneralRPCProtos.Ack> outcomeListener = outcomeListener();
+    handler.attach(0, USER, mock(FlightProducer.ServerStreamListener.class), () -> mock(UserResponseHandler.class));
+
+    // Act
+    handler.expire();
+    handler.sendData(outcomeListener, batch());
+
+    // Assert
+    verify(outcomeListener).failed(any(RpcException.class));
+    thrown.expect(FlightRuntimeException.class);
+    thrown.expectMessage("The results of the ticket expired.");
+    handler.attach(1, USER, mock(FlightProducer.ServerStreamListener.class), () -> mock(UserResponseHandler.class));
+  }
+
+  @Test
+  public void testAttachByOtherUser() {
+    // Arrange
+    thrown.expect(FlightRuntimeException.class);
+    thrown.expectMessage("The ticket belongs to another user.");
+    final PartitionedRunQueryResponseHandler handler = createHandler(2, 16, 5000);
+
+    // Act
+    handler.attach(0, "other", mock(FlightProducer.ServerStreamListener.class), () -> mock(UserResponseHandler.class));
+  }
+
+  @Test
+  public void testAttachTwice() {
+    // Arrange
+    thrown.expect(FlightRuntimeException.class);
+    thrown.expectMessage("The partition of the ticket is already streamed.");
+    final PartitionedRunQueryResponseHandler handler = createHandler(2, 16, 5000);
+    handler.attach(1, USER, mock(FlightProducer.ServerStreamListener.class), () -> mock(UserResponseHandler.class));
+
+    // Act
+    handler.attach(1, USER, mock(FlightProducer.ServerStreamListener.class), () -> mock(UserResponseHandler.class));
+  }
+
+  @Test
+  public void testMarkSubmitted() {
+    final PartitionedRunQueryResponseHandler handler = createHandler(2, 16, 5000);
+    assertTrue(handler.markSubmitted());
+    assertFalse(handler.markSubmitted());
+  }
+}
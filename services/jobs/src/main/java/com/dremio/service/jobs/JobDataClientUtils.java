@@ -154,6 +154,45 @@ public final class JobDataClientUtils {
     }
   }
 
+  /**
+   * Wait for the stored results of the Job to hold the given number of records, or for the final Job state
+   * if they never do. Use this method to read the first rows of a Job before it completes.
+   *
+   * @return true if the Job reached its final state, false if it is still running and may still fail
+   */
+  public static boolean waitForStoredRecords(JobsService jobsService, final JobId jobId, final long records) {
+    final SettableFuture<Boolean> settableFuture = SettableFuture.create();
+
+    jobsService.getJobsClient()
+        .getAsyncStub()
+        .subscribeToJobEvents(JobsProtoUtil.toBuf(jobId), new StreamObserver<JobEvent>() {
+          @Override
+          public void onNext(JobEvent value) {
+            if (value.getEventCase() == JobEvent.EventCase.FINAL_JOB_SUMMARY) {
+              settableFuture.set(true);
+            } else if (value.hasProgressJobSummary() && value.getProgressJobSummary().getStoredRecords() >= records) {
+              settableFuture.set(false);
+            }
+          }
+
+          @Override
+          public void onError(Throwable t) {
+            settableFuture.setException(t);
+          }
+
+          @Override
+          public void onCompleted() {
+          }
+        });
+
+    try {
+      return settableFuture.get();
+    } catch (Exception e) {
+      Throwables.throwIfUnchecked(e);
+      throw new RuntimeException(e);
+    }
+  }
+
   /**
    * Wait for the final Job state. This corresponds to Job#isCompleted, which means the
    * Job may be successful, cancelled, or failed. Use this method sparingly, prefer
@@ -41,14 +41,13 @@ public class JobDataImpl implements JobData {
 
   @Override
   public JobDataFragment range(int offset, int limit) {
-    loadIfNecessary();
+    // (the loader waits for the records it needs)
     checkNotClosed();
     return new JobDataFragmentImpl(dataLoader.load(offset, limit), offset, jobId);
   }
 
   @Override
   public JobDataFragment truncate(int maxRows) {
-    loadIfNecessary();
     checkNotClosed();
     return new JobDataFragmentImpl(dataLoader.load(0, maxRows), 0, jobId);
   }
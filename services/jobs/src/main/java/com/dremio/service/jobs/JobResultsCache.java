@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.jobs;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import com.dremio.common.exceptions.UserException;
+import com.dremio.exec.catalog.Catalog;
+import com.dremio.exec.catalog.DremioTable;
+import com.dremio.service.job.SubmitJobRequest;
+import com.dremio.service.job.proto.JobId;
+import com.dremio.service.job.proto.QueryType;
+import com.dremio.service.jobs.metadata.proto.QueryMetadata;
+import com.dremio.service.namespace.NamespaceKey;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Caches the completed jobs whose stored results can be served again to identical queries.
+ *
+ * Queries are identified by their sql, context, user, query type and engine. The results of a job are reused as long as
+ * the entry of the job did not expire and every dataset and view read by the job still has the tag it had when the job
+ * was planned: refreshing the metadata of a dataset or changing the definition of a view changes its tag, and
+ * invalidates the entries of the jobs which read it. The datasets are looked up as the user of the query, so an entry is
+ * not served anymore once the user cannot read one of its datasets.
+ */
+class JobResultsCache {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(JobResultsCache.class);
+
+  private final Cache<Key, CachedJob> entries;
+  private final Function<String, Catalog> userCatalogs;
+  private final Predicate<JobId> resultsAvailable;
+
+  /**
+   * @param userCatalogs catalog of a user, holding the current tags of the datasets the user can read
+   * @param resultsAvailable whether the results of a job can still be loaded
+   * @param maxEntries maximum number of cached jobs
+   * @param ttlSeconds time after which an entry expires
+   */
+  JobResultsCache(Function<String, Catalog> userCatalogs, Predicate<JobId> resultsAvailable, long maxEntries,
+                  long ttlSeconds) {
+    this.userCatalogs = userCatalogs;
+    this.resultsAvailable = resultsAvailable;
+    this.entries = CacheBuilder.newBuilder()
+      .maximumSize(maxEntries)
+      .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+      .build();
+  }
+
+  /**
+   * @return the key of the query of the request, or null if the results of the query cannot be cached
+   */
+  static Key newKey(SubmitJobRequest request, QueryType queryType) {
+    switch (queryType) {
+      case UI_RUN:
+      case UI_PREVIEW:
+      case REST:
+        return new Key(request.getSqlQuery().getSql(), request.getSqlQuery().getContextList(), request.getUsername(),
+          queryType, request.getSqlQuery().getEngineName());
+      default:
+        // downloads, reflections and internal queries always run
+        return null;
+    }
+  }
+
+  /**
+   * @return the job whose results answer the query, or null if there is none
+   */
+  CachedJob get(Key key) {
+    final CachedJob cachedJob = entries.getIfPresent(key);
+    if (cachedJob == null) {
+      return null;
+    }
+    if (!isValid(cachedJob, userCatalogs.apply(key.username))) {
+      entries.invalidate(key);
+      return null;
+    }
+    return cachedJob;
+  }
+
+  /**
+   * Caches the job which answered the query.
+   *
+   * @param metadata metadata of the query, as sent to the listeners of the job
+   * @param datasetTags tags of the datasets and views read by the job, when the job was planned
+   */
+  void put(Key key, JobId jobId, QueryMetadata metadata, Map<NamespaceKey, String> datasetTags) {
+    if (datasetTags.isEmpty()) {
+      return;
+    }
+    entries.put(key, new CachedJob(jobId, metadata, datasetTags));
+  }
+
+  @VisibleForTesting
+  long size() {
+    entries.cleanUp();
+    return entries.size();
+  }
+
+  /**
+   * @param catalog catalog of the user of the query
+   */
+  private boolean isValid(CachedJob cachedJob, Catalog catalog) {
+    for (Map.Entry<NamespaceKey, String> tag : cachedJob.datasetTags.entrySet()) {
+      final DremioTable table;
+      try {
+        table = catalog.getTable(tag.getKey());
+      } catch (UserException e) {
+        logger.debug("Dataset {} read by job {} cannot be read anymore", tag.getKey(), cachedJob.jobId.getId(), e);
+        return false;
+      }
+      if (table == null || table.getDatasetConfig() == null
+        || !tag.getValue().equals(table.getDatasetConfig().getTag())) {
+        return false;
+      }
+    }
+    return resultsAvailable.test(cachedJob.jobId);
+  }
+
+  /**
+   * Identifies the queries whose results are the same when their datasets do not change.
+   */
+  static final class Key {
+    private final String sql;
+    private final List<String> context;
+    private final String username;
+    private final QueryType queryType;
+    private final String engineName;
+
+    private Key(String sql, List<String> context, String username, QueryType queryType, String engineName) {
+      this.sql = sql;
+      this.context = ImmutableList.copyOf(context);
+      this.username = username;
+      this.queryType = queryType;
+      this.engineName = engineName;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final Key key = (Key) o;
+      return sql.equals(key.sql)
+        && context.equals(key.context)
+        && username.equals(key.username)
+        && queryType == key.queryType
+        && Objects.equals(engineName, key.engineName);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(sql, context, username, queryType, engineName);
+    }
+  }
+
+  /**
+   * A completed job whose results can be served again.
+   */
+  static final class CachedJob {
+    private final JobId jobId;
+    private final QueryMetadata metadata;
+    private final Map<NamespaceKey, String> datasetTags;
+
+    private CachedJob(JobId jobId, QueryMetadata metadata, Map<NamespaceKey, String> datasetTags) {
+      this.jobId = jobId;
+      this.metadata = metadata;
+      this.datasetTags = datasetTags;
+    }
+
+    JobId getJobId() {
+      return jobId;
+    }
+
+    QueryMetadata getMetadata() {
+      return metadata;
+    }
+  }
+}
@@ -33,6 +33,7 @@ import com.dremio.datastore.api.LegacyIndexedStore;
 import com.dremio.exec.proto.CoordinationProtos.NodeEndpoint;
 import com.dremio.exec.record.RecordBatchHolder;
 import com.dremio.exec.store.JobResultsStoreConfig;
+import com.dremio.exec.store.easy.arrow.ArrowFileBatchCache;
 import com.dremio.exec.store.easy.arrow.ArrowFileMetadata;
 import com.dremio.exec.store.easy.arrow.ArrowFileMetadataValidator;
 import com.dremio.exec.store.easy.arrow.ArrowFileReader;
@@ -56,11 +57,15 @@ import com.google.common.collect.Sets;
 public class JobResultsStore implements Service {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(JobResultsStore.class);
 
+  // size of the batches kept in memory for the next pages of the same results
+  private static final long BATCH_CACHE_BYTES = Long.getLong("dremio.jobs.results.batch_cache_bytes", 64L * 1024 * 1024);
+
   private final String storageName;
   private final Path jobStoreLocation;
   private final FileSystem dfs;
   private final BufferAllocator allocator;
   private final LegacyIndexedStore<JobId, JobResult> store;
+  private final ArrowFileBatchCache batchCache = new ArrowFileBatchCache(BATCH_CACHE_BYTES);
 
   public JobResultsStore(
       final JobResultsStoreConfig resultsStoreConfig,
@@ -94,7 +99,17 @@ public class JobResultsStore implements Service {
     return jobStoreLocation.resolve(Iterables.getLast(outputTablePath));
   }
 
+  /**
+   * Deletes the results of the given job.
+   *
+   * The results of a job served from the results of an earlier job are left in place: they belong to the earlier job,
+   * and are deleted with it.
+   */
   public boolean cleanup(JobId jobId) {
+    if (!ownsOutputTable(jobId)) {
+      logger.debug("Job {} reads the results of another job, not deleting them", jobId.getId());
+      return true;
+    }
     final Path jobOutputDir = getJobOutputDir(jobId);
     try {
       if (doesQueryResultsDirExists(jobOutputDir, jobId)) {
@@ -118,6 +133,20 @@ public class JobResultsStore implements Service {
     }
   }
 
+  /**
+   * Whether the output table of the job was written by the job itself, and is named after its last attempt.
+   */
+  private boolean ownsOutputTable(JobId jobId) {
+    final JobResult jobResult = store.get(jobId);
+    if (jobResult == null || jobResult.getAttemptsList() == null || jobResult.getAttemptsList().isEmpty()) {
+      return true;
+    }
+    final JobAttempt lastAttempt = jobResult.getAttemptsList().get(jobResult.getAttemptsList().size() - 1);
+    final List<String> outputTable = lastAttempt.getInfo().getOutputTableList();
+    return outputTable == null || outputTable.isEmpty() || lastAttempt.getAttemptId() == null
+      || lastAttempt.getAttemptId().equals(Iterables.getLast(outputTable));
+  }
+
   protected static JobInfo getLastAttempt(JobResult jobResult) {
     return jobResult.getAttemptsList().get(jobResult.getAttemptsList().size() - 1).getInfo();
   }
@@ -236,7 +265,7 @@ public class JobResultsStore implements Service {
                                                     BufferAllocator allocator,
                                                     long fileOffset,
                                                     long fileLimit) throws IOException {
-    try(ArrowFileReader fileReader = new ArrowFileReader(dfs, jobOutputDir, arrowFileMetadata, allocator)) {
+    try(ArrowFileReader fileReader = new ArrowFileReader(dfs, jobOutputDir, arrowFileMetadata, allocator, batchCache)) {
       return fileReader.read(fileOffset, fileLimit);
     }
   }
@@ -441,7 +441,8 @@ public final class JobsServiceUtil {
       .setSpilled(lastJobAttemptInfo.getSpillJobDetails() != null)
       .setSql(lastJobAttemptInfo.getSql())
       .setNumAttempts(job.getAttempts().size())
-      .setRecordCount(job.getRecordCount());
+      .setRecordCount(job.getRecordCount())
+      .setStoredRecords(getStoredRecords(lastJobAttemptInfo.getResultMetadataList()));
 
     if (lastJobAttempt.getStats() != null && lastJobAttempt.getStats().getIsOutputLimited() != null) {
       jobSummaryBuilder.setOutputLimited(lastJobAttempt.getStats().getIsOutputLimited());
@@ -488,6 +489,21 @@ public final class JobsServiceUtil {
     return jobSummaryBuilder.build();
   }
 
+  /**
+   * @return number of records in the result files written so far
+   */
+  static long getStoredRecords(List<ArrowFileMetadata> resultMetadata) {
+    if (resultMetadata == null) {
+      return 0;
+    }
+    long storedRecords = 0;
+    // (not iterated, as files are added while the job is running)
+    for (int i = 0; i < resultMetadata.size(); i++) {
+      storedRecords += resultMetadata.get(i).getRecordCount();
+    }
+    return storedRecords;
+  }
+
   static JobDetails toJobDetails(Job job, boolean provideResultInfo) {
     final JobDetails.Builder jobDetailsBuilder = JobDetails.newBuilder();
     int numAttempts = job.getAttempts().size();
@@ -109,6 +109,9 @@ import com.dremio.datastore.api.LegacyStoreBuildingFactory;
 import com.dremio.datastore.format.Format;
 import com.dremio.datastore.indexed.IndexKey;
 import com.dremio.exec.ExecConstants;
+import com.dremio.exec.catalog.CatalogUtil;
+import com.dremio.exec.catalog.DremioTable;
+import com.dremio.exec.catalog.MetadataRequestOptions;
 import com.dremio.exec.planner.PlannerPhase;
 import com.dremio.exec.planner.RootSchemaFinder;
 import com.dremio.exec.planner.acceleration.DremioMaterialization;
@@ -143,7 +146,9 @@ import com.dremio.exec.rpc.RpcOutcomeListener;
 import com.dremio.exec.server.JobResultInfoProvider;
 import com.dremio.exec.server.SimpleJobRunner;
 import com.dremio.exec.server.options.SessionOptionManager;
+import com.dremio.exec.store.CatalogService;
 import com.dremio.exec.store.JobResultsStoreConfig;
+import com.dremio.exec.store.SchemaConfig;
 import com.dremio.exec.store.easy.arrow.ArrowFileFormat;
 import com.dremio.exec.store.easy.arrow.ArrowFileMetadata;
 import com.dremio.exec.store.easy.arrow.ArrowFileReader;
@@ -232,6 +237,8 @@ import com.google.common.base.Joiner;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
@@ -289,6 +296,7 @@ public class LocalJobsService implements Service, JobResultInfoProvider, SimpleJ
   private final Provider<CoordinationProtos.NodeEndpoint> nodeEndpointProvider;
   private final Provider<Collection<CoordinationProtos.NodeEndpoint>> jobServiceInstances;
   private final Provider<NamespaceService> namespaceServiceProvider;
+  private final Provider<CatalogService> catalogServiceProvider;
   private final Provider<OptionManager> optionManagerProvider;
   private final Provider<AccelerationManager> accelerationManagerProvider;
   private final Provider<CoordTunnelCreator> coordTunnelCreator;
@@ -304,6 +312,9 @@ public class LocalJobsService implements Service, JobResultInfoProvider, SimpleJ
   private NamespaceService namespaceService;
   private String storageName;
   private JobResultsStore jobResultsStore;
+  private JobResultsCache jobResultsCache;
+  private long jobResultsCacheTtlMillis;
+  private Cache<JobId, Job> recentJobs;
   private Cancellable jobResultsCleanupTask;
   private Cancellable jobProfilesCleanupTask;
   private Cancellable abandonLocalJobsTask;
@@ -328,6 +339,7 @@ public class LocalJobsService implements Service, JobResultInfoProvider, SimpleJ
       final Provider<CoordinationProtos.NodeEndpoint> nodeEndpointProvider,
       final Provider<Collection<CoordinationProtos.NodeEndpoint>> jobServiceInstances,
       final Provider<NamespaceService> namespaceServiceProvider,
+      final Provider<CatalogService> catalogServiceProvider,
       final Provider<OptionManager> optionManagerProvider,
       final Provider<AccelerationManager> accelerationManagerProvider,
       final Provider<SchedulerService> schedulerService,
@@ -348,6 +360,7 @@ public class LocalJobsService implements Service, JobResultInfoProvider, SimpleJ
     this.nodeEndpointProvider = nodeEndpointProvider;
     this.jobServiceInstances = jobServiceInstances;
     this.namespaceServiceProvider = namespaceServiceProvider;
+    this.catalogServiceProvider = catalogServiceProvider;
     this.optionManagerProvider = optionManagerProvider;
     this.accelerationManagerProvider = accelerationManagerProvider;
     this.coordTunnelCreator = coordTunnelCreator;
@@ -397,6 +410,21 @@ public class LocalJobsService implements Service, JobResultInfoProvider, SimpleJ
 
     final OptionManager optionManager = optionManagerProvider.get();
 
+    // results of earlier jobs served again to identical queries
+    final long jobResultsCacheTtlSeconds = optionManager.getOption(ExecConstants.JOB_RESULTS_CACHE_TTL_SECONDS);
+    this.jobResultsCache = new JobResultsCache(
+      username -> catalogServiceProvider.get().getCatalog(
+        MetadataRequestOptions.of(SchemaConfig.newBuilder(username).build())),
+      this::hasCachedResults,
+      optionManager.getOption(ExecConstants.JOB_RESULTS_CACHE_MAX_ENTRIES), jobResultsCacheTtlSeconds);
+    this.jobResultsCacheTtlMillis = TimeUnit.SECONDS.toMillis(jobResultsCacheTtlSeconds);
+
+    // finished jobs, whose status is still polled by the clients which submitted them
+    this.recentJobs = CacheBuilder.newBuilder()
+      .maximumSize(optionManager.getOption(ExecConstants.JOBS_RECENT_MAX_ENTRIES))
+      .expireAfterWrite(optionManager.getOption(ExecConstants.JOBS_RECENT_TTL_SECONDS), TimeUnit.SECONDS)
+      .build();
+
     // job results
     final long maxJobResultsAgeInDays = optionManager.getOption(ExecConstants.RESULTS_MAX_AGE_IN_DAYS);
 
@@ -617,10 +645,24 @@ public class LocalJobsService implements Service, JobResultInfoProvider, SimpleJ
             .setExposeInternalSources(QueryTypeUtils.isInternal(queryType))
             .setSubstitutionSettings(JobsProtoUtil.toPojo(jobRequest.getMaterializationSettings().getSubstitutionSettings()))
             .setEngineName(jobRequest.getSqlQuery().getEngineName())
+            // previews are read as soon as their first rows are stored
+            .setEarlyFirstBatch(enableLeafLimits)
             .build();
 
-    // (3) register listener
-    final QueryListener jobObserver = new QueryListener(job, eventObserver, planTransformationListener);
+    // (3) serve the results of an identical earlier job if none of the datasets it read changed
+    final JobResultsCache.Key resultsCacheKey =
+      optionManagerProvider.get().getOption(ExecConstants.JOB_RESULTS_CACHE_ENABLED)
+        ? JobResultsCache.newKey(jobRequest, queryType) : null;
+    if (resultsCacheKey != null) {
+      final JobResultsCache.CachedJob cachedJob = jobResultsCache.get(resultsCacheKey);
+      if (cachedJob != null) {
+        completeWithCachedResults(job, cachedJob, eventObserver);
+        return;
+      }
+    }
+
+    // (4) register listener
+    final QueryListener jobObserver = new QueryListener(job, eventObserver, planTransformationListener, resultsCacheKey);
     storeJob(job);
     runningJobs.put(jobId, jobObserver);
 
@@ -644,7 +686,7 @@ public class LocalJobsService implements Service, JobResultInfoProvider, SimpleJ
           .build();
     }
 
-    // (4) submit the job
+    // (5) submit the job
     try {
       queryExecutor.get()
         .submitLocalQuery(externalId, jobObserver, queryRequest, isPrepare, config, jobRequest.getRunInSameThread());
@@ -690,6 +732,75 @@ public class LocalJobsService implements Service, JobResultInfoProvider, SimpleJ
     }
   }
 
+  /**
+   * Completes a job with the stored results of an earlier job, without running its query.
+   * The output table of the job is the one of the earlier job, so that its results are loaded from the same files.
+   * The files still belong to the earlier job: cleaning up the results of this job leaves them in place, and while the
+   * cache is enabled the results of every job are kept for the time to live of the cache on top of their maximum age,
+   * so that the jobs served from them keep their results for the maximum age too.
+   */
+  private void completeWithCachedResults(Job job, JobResultsCache.CachedJob cachedJob,
+                                         JobEventCollatingObserver eventObserver) {
+    final JobId cachedJobId = cachedJob.getJobId();
+    final JobResult cachedResult = store.get(cachedJobId);
+    final JobAttempt cachedAttempt = cachedResult.getAttemptsList().get(cachedResult.getAttemptsList().size() - 1);
+    final JobInfo cachedInfo = cachedAttempt.getInfo();
+    logger.debug("Serving job {} with the results of job {}", job.getJobId().getId(), cachedJobId.getId());
+
+    final JobAttempt jobAttempt = job.getJobAttempt();
+    final AttemptId attemptId = new AttemptId(JobsServiceUtil.getJobIdAsExternalId(job.getJobId()), 0);
+    jobAttempt.getInfo()
+      .setFinishTime(System.currentTimeMillis())
+      .setOutputTableList(jobResultsStore.getOutputTablePath(cachedJobId))
+      .setResultMetadataList(cachedInfo.getResultMetadataList())
+      .setBatchSchema(cachedInfo.getBatchSchema())
+      .setParentsList(cachedInfo.getParentsList())
+      .setGrandParentsList(cachedInfo.getGrandParentsList())
+      .setFieldOriginsList(cachedInfo.getFieldOriginsList())
+      .setScanPathsList(cachedInfo.getScanPathsList())
+      .setSourceNamesList(cachedInfo.getSourceNamesList());
+    jobAttempt
+      .setAttemptId(AttemptIdUtils.toString(attemptId))
+      .setStats(cachedAttempt.getStats())
+      .setState(JobState.COMPLETED);
+    job.setCompleted(true);
+    job.setData(jobResultsStore.get(job.getJobId()));
+    storeJob(job);
+
+    final QueryProfile profile = QueryProfile.newBuilder()
+      .setQuery(jobAttempt.getInfo().getSql())
+      .setUser(jobAttempt.getInfo().getUser())
+      .setId(attemptId.toQueryId())
+      .setState(QueryState.COMPLETED)
+      .setStart(jobAttempt.getInfo().getStartTime())
+      .setEnd(jobAttempt.getInfo().getFinishTime())
+      .setCommandPoolWaitMillis(0)
+      .setDremioVersion(DremioVersionInfo.getVersion())
+      .build();
+    try {
+      jobTelemetryServiceStub.putQueryTailProfile(PutTailProfileRequest.newBuilder()
+        .setQueryId(attemptId.toQueryId())
+        .setProfile(profile)
+        .build());
+    } catch (Exception e) {
+      logger.warn("Failed to store the profile of job {}", job.getJobId().getId(), e);
+    }
+
+    eventObserver.onQueryMetadata(JobEvent.newBuilder()
+      .setQueryMetadata(cachedJob.getMetadata())
+      .build());
+    eventObserver.onFinalJobSummary(JobEvent.newBuilder()
+      .setFinalJobSummary(JobsServiceUtil.toJobSummary(job))
+      .build());
+    eventObserver.onCompleted();
+    logQuerySummary(job);
+  }
+
+  private boolean hasCachedResults(JobId jobId) {
+    final JobResult jobResult = store.get(jobId);
+    return jobResult != null && jobResult.getCompleted() && jobResultsStore.jobOutputDirectoryExists(jobId);
+  }
+
   /**
    * Validates JobRequest
    */
@@ -860,6 +971,10 @@ public class LocalJobsService implements Service, JobResultInfoProvider, SimpleJ
       if (listener != null) {
         return listener.getJob();
       }
+      final Job recentJob = recentJobs.getIfPresent(jobId);
+      if (recentJob != null) {
+        return recentJob;
+      }
     }
 
     final Job job = getJobFromStore(jobId);
@@ -1264,6 +1379,7 @@ public class LocalJobsService implements Service, JobResultInfoProvider, SimpleJ
     private final JobEventCollatingObserver eventObserver;
     private final PlanTransformationListener planTransformationListener;
     private final boolean isInternal;
+    private final JobResultsCache.Key resultsCacheKey;
     private final ExternalListenerManager listeners = new ExternalListenerManager();
     private final CountDownLatch completionLatch = new CountDownLatch(1);
     private final DeferredException exception = new DeferredException();
@@ -1279,6 +1395,7 @@ public class LocalJobsService implements Service, JobResultInfoProvider, SimpleJ
       this.eventObserver = null;
       this.planTransformationListener = null;
       this.isInternal = false;
+      this.resultsCacheKey = null;
       this.job.setIsInternal(false);
       setupJobData();
       this.sessionOptionManager = sessionOptionManager;
@@ -1287,7 +1404,8 @@ public class LocalJobsService implements Service, JobResultInfoProvider, SimpleJ
     private QueryListener(
         Job job,
         JobEventCollatingObserver eventObserver,
-        PlanTransformationListener planTransformationListener
+        PlanTransformationListener planTransformationListener,
+        JobResultsCache.Key resultsCacheKey
     ) {
       this.job = job;
       externalId = JobsServiceUtil.getJobIdAsExternalId(job.getJobId());
@@ -1295,6 +1413,7 @@ public class LocalJobsService implements Service, JobResultInfoProvider, SimpleJ
       this.eventObserver = Preconditions.checkNotNull(eventObserver, "eventObserver cannot be null");
       this.planTransformationListener = Preconditions.checkNotNull(planTransformationListener, "statusListener cannot be null");
       isInternal = true;
+      this.resultsCacheKey = resultsCacheKey;
       this.job.setIsInternal(true);
       setupJobData();
     }
@@ -1381,6 +1500,10 @@ public class LocalJobsService implements Service, JobResultInfoProvider, SimpleJ
         // includes a call to storeJob()
         addAttemptToJob(job, state, profile, ex);
 
+        if (state == QueryState.COMPLETED) {
+          cacheResults();
+        }
+
       } catch (Exception e) {
         exception.addException(e);
       }
@@ -1428,6 +1551,18 @@ public class LocalJobsService implements Service, JobResultInfoProvider, SimpleJ
 
       logQuerySummary(job);
     }
+
+    private void cacheResults() {
+      final Map<NamespaceKey, String> datasetTags = attemptObserver.datasetTags;
+      final List<ArrowFileMetadata> resultMetadata = job.getJobAttempt().getInfo().getResultMetadataList();
+      if (resultsCacheKey == null || !attemptObserver.resultsCacheable || datasetTags == null
+        || attemptObserver.queryMetadataEvent == null || attemptObserver.getException() != null
+        || resultMetadata == null || resultMetadata.isEmpty()) {
+        return;
+      }
+      jobResultsCache.put(resultsCacheKey, job.getJobId(), attemptObserver.queryMetadataEvent.getQueryMetadata(),
+        datasetTags);
+    }
   }
 
   private void logQuerySummary(Job job) {
@@ -1491,6 +1626,15 @@ public class LocalJobsService implements Service, JobResultInfoProvider, SimpleJ
 
     @Override
     public RecordBatches load(int offset, int limit) {
+      // the first rows of a running job are served as soon as the files holding them are stored
+      final JobResult runningJob = completionLatch.getCount() > 0 ? store.get(id) : null;
+      if (runningJob != null && !runningJob.getAttemptsList().isEmpty()) {
+        final JobAttempt lastAttempt = runningJob.getAttemptsList().get(runningJob.getAttemptsList().size() - 1);
+        if (JobsServiceUtil.getStoredRecords(lastAttempt.getInfo().getResultMetadataList()) >= (long) offset + limit) {
+          return jobResultsStore.loadJobData(id, runningJob, offset, limit);
+        }
+      }
+
       try {
         completionLatch.await();
       } catch (InterruptedException ex) {
@@ -1559,13 +1703,29 @@ public class LocalJobsService implements Service, JobResultInfoProvider, SimpleJ
 
   @VisibleForTesting
   void storeJob(Job job) {
-    store.put(job.getJobId(), job.toJobResult(job));
+    final JobResult jobResult = job.toJobResult(job);
+    store.put(job.getJobId(), jobResult);
+    updateRecentJob(job.getJobId(), jobResult);
   }
 
   void recordJobResult(StoreJobResultRequest request) {
     final JobId jobId = JobsProtoUtil.toStuff(request.getJobId());
     final JobResult jobResult = JobsServiceUtil.toJobResult(request);
     store.put(jobId, jobResult);
+    updateRecentJob(jobId, jobResult);
+  }
+
+  /**
+   * Keeps a copy of the stored job in memory once it is completed, so that polling its status does not read the store.
+   * Like a job read from the store, the copy shares no state with the running job and loads its results from the
+   * results store.
+   */
+  private void updateRecentJob(JobId jobId, JobResult jobResult) {
+    if (Boolean.TRUE.equals(jobResult.getCompleted())) {
+      recentJobs.put(jobId, new Job(jobId, ProtostuffUtil.copy(jobResult), jobResultsStore));
+    } else {
+      recentJobs.invalidate(jobId);
+    }
   }
 
   /**
@@ -1584,6 +1744,10 @@ public class LocalJobsService implements Service, JobResultInfoProvider, SimpleJ
     private final AccelerationDetailsPopulator detailsPopulator;
     private final ExternalListenerManager externalListenerManager;
     private JoinPreAnalyzer joinPreAnalyzer;
+    // tags of the datasets read by the query, null if the query read a table without tag
+    private volatile Map<NamespaceKey, String> datasetTags;
+    private volatile boolean resultsCacheable;
+    private volatile JobEvent queryMetadataEvent;
 
     JobResultListener(AttemptId attemptId, Job job, BufferAllocator allocator,
                       JobEventCollatingObserver eventObserver, PlanTransformationListener planTransformationListener,
@@ -1804,9 +1968,10 @@ public class LocalJobsService implements Service, JobResultInfoProvider, SimpleJ
         }
 
         storeJob(job);
-        eventObserver.onQueryMetadata(JobEvent.newBuilder()
+        queryMetadataEvent = JobEvent.newBuilder()
             .setQueryMetadata(JobsProtoUtil.toBuf(metadata))
-            .build());
+            .build();
+        eventObserver.onQueryMetadata(queryMetadataEvent);
         externalListenerManager.metadataAvailable(JobsProtoUtil.toBuf(metadata));
       }catch(Exception ex){
         exception.addException(ex);
@@ -1853,6 +2018,16 @@ public class LocalJobsService implements Service, JobResultInfoProvider, SimpleJ
       joinPreAnalyzer = JoinPreAnalyzer.prepare(prel);
     }
 
+    @Override
+    public void tablesCollected(Iterable<DremioTable> tables) {
+      datasetTags = CatalogUtil.getDatasetTags(tables);
+    }
+
+    @Override
+    public void planResultsCacheable(boolean cacheable) {
+      resultsCacheable = cacheable;
+    }
+
     @Override
     public void attemptCompletion(UserResult result) {
       try {
@@ -1899,6 +2074,10 @@ public class LocalJobsService implements Service, JobResultInfoProvider, SimpleJ
             job.getJobAttempt().getInfo().getResultMetadataList().add(ArrowFileReader.toBean(metadata));
           }
           storeJob(job);
+          // readers may be waiting for the first rows of the job
+          if (externalListenerManager != null) {
+            externalListenerManager.queryProgressed(JobsServiceUtil.toJobSummary(job));
+          }
         }
       } catch (Exception ex) {
         exception.addException(ex);
@@ -2138,6 +2317,8 @@ public class LocalJobsService implements Service, JobResultInfoProvider, SimpleJ
 
     @Override
     public void go(AttemptId attemptId) {
+      // the job is deleted from the store once its profiles are
+      recentJobs.invalidate(JobsServiceUtil.getExternalIdAsJobId(attemptId.getExternalId()));
       jobTelemetryServiceStub
         .deleteProfile(
           DeleteProfileRequest.newBuilder()
@@ -2231,6 +2412,10 @@ public class LocalJobsService implements Service, JobResultInfoProvider, SimpleJ
       final long maxAgeInMillis = optionManager.getOption(ExecConstants.DEBUG_RESULTS_MAX_AGE_IN_MILLISECONDS);
       long maxAgeInDays = optionManager.getOption(ExecConstants.RESULTS_MAX_AGE_IN_DAYS);
       long jobResultsMaxAgeInMillis = (maxAgeInDays * ONE_DAY_IN_MILLIS) + maxAgeInMillis;
+      if (optionManager.getOption(ExecConstants.JOB_RESULTS_CACHE_ENABLED)) {
+        // jobs are served from the results of a job for at most the time to live of the cache after it completed
+        jobResultsMaxAgeInMillis += jobResultsCacheTtlMillis;
+      }
       long cutOffTime = System.currentTimeMillis() - jobResultsMaxAgeInMillis;
       if (maxAgeInDays != DISABLE_CLEANUP_VALUE) {
         cleanupJobs(cutOffTime);
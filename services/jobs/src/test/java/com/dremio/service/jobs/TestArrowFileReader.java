@@ -22,6 +22,7 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.notNull;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -54,6 +55,7 @@ import org.junit.rules.TemporaryFolder;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
+import com.dremio.exec.ExecConstants;
 import com.dremio.exec.hadoop.HadoopFileSystem;
 import com.dremio.exec.physical.base.OpProps;
 import com.dremio.exec.proto.ExecProtos.FragmentHandle;
@@ -67,11 +69,13 @@ import com.dremio.exec.store.RecordWriter.WriteStatsListener;
 import com.dremio.exec.store.dfs.FileSystemPlugin;
 import com.dremio.exec.store.dfs.easy.EasyFormatPlugin;
 import com.dremio.exec.store.dfs.easy.EasyWriter;
+import com.dremio.exec.store.easy.arrow.ArrowFileBatchCache;
 import com.dremio.exec.store.easy.arrow.ArrowFileFormat;
 import com.dremio.exec.store.easy.arrow.ArrowFileMetadata;
 import com.dremio.exec.store.easy.arrow.ArrowFileReader;
 import com.dremio.exec.store.easy.arrow.ArrowFormatPluginConfig;
 import com.dremio.exec.store.easy.arrow.ArrowRecordWriter;
+import com.dremio.options.OptionManager;
 import com.dremio.sabot.exec.context.OperatorContext;
 import com.dremio.test.AllocatorRule;
 import com.dremio.test.DremioTest;
@@ -344,6 +348,80 @@ public class TestArrowFileReader extends DremioTest {
     }
   }
 
+  @Test
+  public void readingCachedBatches() throws Exception {
+    List<VectorContainer> containers = Lists.newArrayList();
+    try (final BufferAllocator allocator = allocatorRule.newAllocator("test-arrow-file-reader", 0, Long.MAX_VALUE)) {
+      containers.add(createBatch(5, testBitVector(allocator), testVarCharVector(allocator)));
+      containers.add(createBatch(5, testBitVector(allocator), testVarCharVector(allocator)));
+
+      final Path basePath = new Path(dateGenFolder.getRoot().getPath());
+      final ArrowFileMetadata metadata = writeArrowFile(containers.toArray(new VectorContainer[2]));
+      final ArrowFileBatchCache batchCache = new ArrowFileBatchCache(1024 * 1024);
+      try (ArrowFileReader reader = new ArrowFileReader(HadoopFileSystem.getLocal(FS_CONF),
+          com.dremio.io.file.Path.of(basePath.toUri()), metadata, allocator, batchCache)) {
+        releaseBatches(getRecords(reader, 2, 6, allocator));
+      }
+
+      // the next pages are read from the cache, without the file
+      HadoopFileSystem.getLocal(FS_CONF).delete(com.dremio.io.file.Path.of(basePath.toUri()).resolve(metadata.getPath()), false);
+      try (ArrowFileReader reader = new ArrowFileReader(HadoopFileSystem.getLocal(FS_CONF),
+          com.dremio.io.file.Path.of(basePath.toUri()), metadata, allocator, batchCache)) {
+        List<RecordBatchHolder> batchHolders = getRecords(reader, 4, 3, allocator);
+        assertEquals(2, batchHolders.size());
+
+        verifyBatchHolder(batchHolders.get(0), 4, 5);
+        verifyBatchHolder(batchHolders.get(1), 0, 2);
+
+        VectorContainer batchContainer = batchHolders.get(1).getData().getContainer();
+        assertEquals(TEST_BIT_VALUES.subList(0, 2), getBitValues(batchContainer, 0, 2));
+        assertEquals(TEST_VARCHAR_VALUES.subList(0, 2), getVarCharValues(batchContainer, 0, 2));
+
+        releaseBatches(batchHolders);
+      }
+    } finally {
+      for (VectorContainer container : containers) {
+        container.clear();
+      }
+    }
+  }
+
+  @Test
+  public void writingFirstBatchEarly() throws Exception {
+    List<VectorContainer> containers = Lists.newArrayList();
+    try (final BufferAllocator allocator = allocatorRule.newAllocator("test-arrow-file-reader", 0, Long.MAX_VALUE)) {
+      containers.add(createBatch(5, testBitVector(allocator), testVarCharVector(allocator)));
+      containers.add(createBatch(5, testBitVector(allocator), testVarCharVector(allocator)));
+      containers.add(createBatch(5, testBitVector(allocator), testVarCharVector(allocator)));
+
+      // the first batch is reported in a file of its own, before the next batches are written
+      final List<ArrowFileMetadata> files = writeArrowFiles(true, containers.toArray(new VectorContainer[3]));
+      assertEquals(2, files.size());
+      assertEquals(5L, (long) files.get(0).getRecordCount());
+      assertEquals(10L, (long) files.get(1).getRecordCount());
+
+      final Path basePath = new Path(dateGenFolder.getRoot().getPath());
+      try (ArrowFileReader reader = new ArrowFileReader(HadoopFileSystem.getLocal(FS_CONF),
+          com.dremio.io.file.Path.of(basePath.toUri()), files.get(1), allocator)) {
+        List<RecordBatchHolder> batchHolders = getRecords(reader, 3, 4, allocator);
+        assertEquals(2, batchHolders.size());
+
+        verifyBatchHolder(batchHolders.get(0), 3, 5);
+        verifyBatchHolder(batchHolders.get(1), 0, 2);
+
+        VectorContainer batchContainer = batchHolders.get(1).getData().getContainer();
+        assertEquals(TEST_BIT_VALUES.subList(0, 2), getBitValues(batchContainer, 0, 2));
+        assertEquals(TEST_VARCHAR_VALUES.subList(0, 2), getVarCharValues(batchContainer, 0, 2));
+
+        releaseBatches(batchHolders);
+      }
+    } finally {
+      for (VectorContainer container : containers) {
+        container.clear();
+      }
+    }
+  }
+
   @Test
   public void writeAndReadEmptyListVectors() throws Exception {
     try (final BufferAllocator allocator = allocatorRule.newAllocator("test-arrow-file-reader", 0, Long.MAX_VALUE);
@@ -510,8 +588,18 @@ public class TestArrowFileReader extends DremioTest {
 
   /** Helper method that write the given batches to a file with given name and returns the file metadata */
   private ArrowFileMetadata writeArrowFile(VectorContainer... batches) throws Exception {
+    final List<ArrowFileMetadata> files = writeArrowFiles(false, batches);
+    assertEquals(1, files.size());
+    return files.get(0);
+  }
+
+  /** Helper method that write the given batches to files and returns the metadata of the files */
+  private List<ArrowFileMetadata> writeArrowFiles(boolean earlyFirstBatch, VectorContainer... batches) throws Exception {
     OperatorContext opContext = getOperatorContext();
     when(opContext.getFragmentHandle()).thenReturn(FragmentHandle.newBuilder().setMajorFragmentId(2323).setMinorFragmentId(234234).build());
+    final OptionManager options = mock(OptionManager.class);
+    when(options.getOption(ExecConstants.JOB_RESULTS_EARLY_FIRST_BATCH)).thenReturn(earlyFirstBatch);
+    when(opContext.getOptions()).thenReturn(options);
 
     final EasyWriter writerConf = mock(EasyWriter.class);
     when(writerConf.getLocation()).thenReturn(dateGenFolder.getRoot().toString());
@@ -553,22 +641,25 @@ public class TestArrowFileReader extends DremioTest {
 
     writer.close();
 
-    verify(outputEntryListener, times(1)).recordsWritten(recordWrittenCaptor.capture(),
+    verify(outputEntryListener, atLeastOnce()).recordsWritten(recordWrittenCaptor.capture(),
       fileSizeCaptor.capture(), pathCaptor.capture(), metadataCaptor.capture(),
       partitionCaptor.capture(), icebergMetadataCaptor.capture(), any());
     verify(writeStatsListener, times(batches.length)).bytesWritten(bytesWrittenCaptor.capture());
 
     Path path = new Path(dateGenFolder.getRoot().getPath());
     FileSystem fs = path.getFileSystem(FS_CONF);
-    for (FileStatus file : fs.listStatus(path)) {
-      assertEquals(Long.valueOf(fileSizeCaptor.getValue()), Long.valueOf(file.getLen()));
-    }
+    final List<ArrowFileMetadata> files = new ArrayList<>();
+    for (int i = 0; i < pathCaptor.getAllValues().size(); i++) {
+      FileStatus file = fs.getFileStatus(new Path(pathCaptor.getAllValues().get(i)));
+      assertEquals(fileSizeCaptor.getAllValues().get(i), Long.valueOf(file.getLen()));
 
-    ArrowFileMetadata arrowFileMetadata =
-      ArrowFileReader.toBean(ArrowFileFormat.ArrowFileMetadata.parseFrom(metadataCaptor.getValue()));
+      ArrowFileMetadata arrowFileMetadata =
+        ArrowFileReader.toBean(ArrowFileFormat.ArrowFileMetadata.parseFrom(metadataCaptor.getAllValues().get(i)));
 
-    assertArrowFileMetadata(arrowFileMetadata);
-    return arrowFileMetadata;
+      assertArrowFileMetadata(arrowFileMetadata);
+      files.add(arrowFileMetadata);
+    }
+    return files;
   }
 
   public void assertArrowFileMetadata(ArrowFileMetadata arrowFileMetadata) {
@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.jobs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.dremio.common.exceptions.UserException;
+import com.dremio.exec.catalog.Catalog;
+import com.dremio.exec.catalog.CatalogUtil;
+import com.dremio.exec.catalog.DremioTable;
+import com.dremio.exec.store.NamespaceTable;
+import com.dremio.service.job.SqlQuery;
+import com.dremio.service.job.SubmitJobRequest;
+import com.dremio.service.job.proto.JobId;
+import com.dremio.service.job.proto.QueryType;
+import com.dremio.service.jobs.metadata.proto.QueryMetadata;
+import com.dremio.service.namespace.NamespaceKey;
+import com.dremio.service.namespace.dataset.proto.DatasetConfig;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Unit tests for {@link JobResultsCache}
+ */
+public class TestJobResultsCache {
+  private static final NamespaceKey DATASET = new NamespaceKey(Arrays.asList("source", "table"));
+  private static final JobId JOB_ID = new JobId("job");
+
+  private final Set<JobId> jobsWithResults = new HashSet<>();
+  private final Map<String, Catalog> catalogs = new HashMap<>();
+  private Catalog catalog;
+  private JobResultsCache cache;
+
+  @Before
+  public void setup() throws Exception {
+    catalog = mock(Catalog.class);
+    catalogs.put("user", catalog);
+    catalogs.put("other", mock(Catalog.class));
+    setTag(DATASET, "1");
+    jobsWithResults.add(JOB_ID);
+    cache = new JobResultsCache(catalogs::get, jobsWithResults::contains, 10, 600);
+  }
+
+  private void setTag(NamespaceKey key, String tag) {
+    final DremioTable table = mock(DremioTable.class);
+    when(table.getDatasetConfig()).thenReturn(new DatasetConfig()
+      .setFullPathList(key.getPathComponents())
+      .setTag(tag));
+    when(catalog.getTable(key)).thenReturn(table);
+  }
+
+  private static JobResultsCache.Key key(String sql, String user, QueryType queryType) {
+    return JobResultsCache.newKey(SubmitJobRequest.newBuilder()
+      .setSqlQuery(SqlQuery.newBuilder().setSql(sql).addContext("space"))
+      .setUsername(user)
+      .build(), queryType);
+  }
+
+  @Test
+  public void testKey() {
+    assertEquals(key("select * from t", "user", QueryType.UI_RUN), key("select * from t", "user", QueryType.UI_RUN));
+    assertNotEquals(key("select * from t", "user", QueryType.UI_RUN), key("select * from t", "other", QueryType.UI_RUN));
+    assertNotEquals(key("select * from t", "user", QueryType.UI_RUN), key("select * from t", "user", QueryType.UI_PREVIEW));
+    assertNull(key("select * from t", "user", QueryType.UI_EXPORT));
+    assertNull(key("select * from t", "user", QueryType.ACCELERATOR_CREATE));
+  }
+
+  @Test
+  public void testCachedJobIsServed() {
+    final JobResultsCache.Key key = key("select * from t", "user", QueryType.UI_RUN);
+    cache.put(key, JOB_ID, QueryMetadata.getDefaultInstance(), ImmutableMap.of(DATASET, "1"));
+
+    assertEquals(JOB_ID, cache.get(key).getJobId());
+    assertNull(cache.get(key("select * from t", "other", QueryType.UI_RUN)));
+  }
+
+  @Test
+  public void testChangedDatasetInvalidatesJob() throws Exception {
+    final JobResultsCache.Key key = key("select * from t", "user", QueryType.UI_RUN);
+    cache.put(key, JOB_ID, QueryMetadata.getDefaultInstance(), ImmutableMap.of(DATASET, "1"));
+    setTag(DATASET, "2");
+
+    assertNull(cache.get(key));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testDeletedDatasetInvalidatesJob() throws Exception {
+    final JobResultsCache.Key key = key("select * from t", "user", QueryType.UI_RUN);
+    cache.put(key, JOB_ID, QueryMetadata.getDefaultInstance(), ImmutableMap.of(DATASET, "1"));
+    when(catalog.getTable(DATASET)).thenReturn(null);
+
+    assertNull(cache.get(key));
+  }
+
+  @Test
+  public void testRevokedAccessInvalidatesJob() {
+    final JobResultsCache.Key key = key("select * from t", "user", QueryType.UI_RUN);
+    cache.put(key, JOB_ID, QueryMetadata.getDefaultInstance(), ImmutableMap.of(DATASET, "1"));
+    when(catalog.getTable(DATASET)).thenThrow(UserException.permissionError().message("no access").buildSilently());
+
+    assertNull(cache.get(key));
+  }
+
+  @Test
+  public void testDeletedResultsInvalidateJob() {
+    final JobResultsCache.Key key = key("select * from t", "user", QueryType.UI_RUN);
+    cache.put(key, JOB_ID, QueryMetadata.getDefaultInstance(), ImmutableMap.of(DATASET, "1"));
+    jobsWithResults.clear();
+
+    assertNull(cache.get(key));
+  }
+
+  @Test
+  public void testJobsWithoutDatasetsAreNotCached() {
+    final JobResultsCache.Key key = key("select 1", "user", QueryType.UI_RUN);
+    cache.put(key, JOB_ID, QueryMetadata.getDefaultInstance(), ImmutableMap.of());
+
+    assertNull(cache.get(key));
+  }
+
+  @Test
+  public void testDatasetTags() {
+    final NamespaceTable table = mock(NamespaceTable.class);
+    when(table.getDatasetConfig()).thenReturn(new DatasetConfig()
+      .setFullPathList(DATASET.getPathComponents())
+      .setTag("1"));
+    final Map<NamespaceKey, String> tags = CatalogUtil.getDatasetTags(Arrays.<DremioTable>asList(table));
+    assertEquals(ImmutableMap.of(DATASET, "1"), tags);
+
+    // tables which are not datasets of the namespace, such as system tables
+    assertNull(CatalogUtil.getDatasetTags(Arrays.asList(table, mock(DremioTable.class))));
+  }
+}
@@ -33,6 +33,7 @@ import org.mockito.stubbing.Answer;
 
 import com.dremio.datastore.api.LegacyKVStoreProvider;
 import com.dremio.exec.proto.CoordinationProtos;
+import com.dremio.exec.store.CatalogService;
 import com.dremio.exec.store.JobResultsStoreConfig;
 import com.dremio.exec.store.sys.accel.AccelerationManager;
 import com.dremio.exec.work.protector.ForemenTool;
@@ -64,6 +65,7 @@ public class TestLocalJobsService {
   @Mock private CoordinationProtos.NodeEndpoint nodeEndpoint;
   private Collection<CoordinationProtos.NodeEndpoint> nodeEndpoints = new HashSet<>();
   @Mock private NamespaceService namespaceService;
+  @Mock private CatalogService catalogService;
   @Mock private OptionManager optionManager;
   @Mock private AccelerationManager accelerationManager;
   @Mock private SchedulerService schedulerService;
@@ -88,6 +90,7 @@ public class TestLocalJobsService {
       () -> nodeEndpoint,
       () -> nodeEndpoints,
       () -> namespaceService,
+      () -> catalogService,
       () -> optionManager,
       () -> accelerationManager,
       () -> schedulerService,
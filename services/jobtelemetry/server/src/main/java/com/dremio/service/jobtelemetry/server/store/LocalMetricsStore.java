@@ -33,10 +33,13 @@ import com.google.common.cache.CacheBuilder;
 
 /**
  * Implementation of metrics store, keeps all metrics in-memory.
+ *
+ * The metrics of each executor are updated in place, so that the cost of an update does not grow with the number of
+ * executors running the query; the map of all executors is only built when the metrics are read.
  */
 public class LocalMetricsStore implements MetricsStore, Service {
   private static final Logger LOGGER = LoggerFactory.getLogger(LocalMetricsStore.class);
-  private Map<String, QueryProgressMetricsMap> map = new ConcurrentHashMap<>();
+  private Map<String, Map<String, CoordExecRPC.QueryProgressMetrics>> map = new ConcurrentHashMap<>();
   private Cache<UserBitShared.QueryId, Boolean> deletedQueryIds = CacheBuilder.newBuilder()
     .expireAfterWrite(5, TimeUnit.MINUTES)
     .build();
@@ -53,25 +56,32 @@ public class LocalMetricsStore implements MetricsStore, Service {
   }
 
   @Override
-  public synchronized void put(
+  public void put(
     UserBitShared.QueryId queryId, String nodeEndPoint,
     CoordExecRPC.QueryProgressMetrics queryNodeProgressMetrics) {
 
-    if (deletedQueryIds.asMap().containsKey(queryId)) {
-      return;
-    }
-
-    QueryProgressMetricsMap metrics =
-      QueryProgressMetricsMap.newBuilder()
-        .mergeFrom(get(queryId).orElse(QueryProgressMetricsMap.getDefaultInstance()))
-        .putMetricsMap(nodeEndPoint, queryNodeProgressMetrics)
-        .build();
-    map.put(queryIdToString(queryId), metrics);
+    // checked while holding the entry of the query, so that a concurrent delete cannot be undone
+    map.compute(queryIdToString(queryId), (key, nodeMetrics) -> {
+      if (deletedQueryIds.asMap().containsKey(queryId)) {
+        return nodeMetrics;
+      }
+      if (nodeMetrics == null) {
+        nodeMetrics = new ConcurrentHashMap<>();
+      }
+      nodeMetrics.put(nodeEndPoint, queryNodeProgressMetrics);
+      return nodeMetrics;
+    });
   }
 
   @Override
   public Optional<QueryProgressMetricsMap> get(UserBitShared.QueryId queryId) {
-    return Optional.ofNullable(map.get(queryIdToString(queryId)));
+    final Map<String, CoordExecRPC.QueryProgressMetrics> nodeMetrics = map.get(queryIdToString(queryId));
+    if (nodeMetrics == null) {
+      return Optional.empty();
+    }
+    return Optional.of(QueryProgressMetricsMap.newBuilder()
+      .putAllMetricsMap(nodeMetrics)
+      .build());
   }
 
   @Override
@@ -178,7 +178,7 @@ public class LocalProfileStore implements ProfileStore {
   }
 
   /**
-   * Creator for full profiles kvstore.
+   * Creator for full profiles kvstore. The details of the profiles are stored compressed.
    */
   public static final class KVProfileStoreCreator implements LegacyKVStoreCreationFunction<AttemptId, UserBitShared.QueryProfile> {
     @Override
@@ -189,7 +189,10 @@ public class LocalProfileStore implements ProfileStore {
         .keyFormat(Format.wrapped(AttemptId.class, AttemptIdUtils::toString,
           AttemptIdUtils::fromString,
           Format.ofString()))
-        .valueFormat(Format.ofProtobuf(UserBitShared.QueryProfile.class))
+        .valueFormat(Format.wrapped(UserBitShared.QueryProfile.class,
+          ProfileCompressor::compress,
+          ProfileCompressor::decompress,
+          Format.ofProtobuf(UserBitShared.QueryProfile.class)))
         .build();
     }
   }
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.jobtelemetry.server.store;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import com.dremio.datastore.DatastoreException;
+import com.dremio.exec.proto.UserBitShared.QueryProfile;
+import com.google.protobuf.ByteString;
+
+/**
+ * Compresses the bulk of the full profiles kept in the kvstore.
+ *
+ * The plans and the fragment, node and phase profiles, which make up most of the profile of a big query, are moved
+ * into a single deflated field of the stored profile. The summary fields stay as they are, so stored profiles keep
+ * their format and profiles stored uncompressed by earlier versions are read unchanged.
+ */
+final class ProfileCompressor {
+
+  private ProfileCompressor() {
+  }
+
+  /**
+   * @return the profile as it is stored, with its details compressed
+   */
+  static QueryProfile compress(QueryProfile profile) {
+    if (profile.hasCompressedDetails()) {
+      return profile;
+    }
+
+    final QueryProfile.Builder details = QueryProfile.newBuilder()
+      .addAllFragmentProfile(profile.getFragmentProfileList())
+      .addAllNodeProfile(profile.getNodeProfileList())
+      .addAllPlanPhases(profile.getPlanPhasesList());
+    if (profile.hasPlan()) {
+      details.setPlan(profile.getPlan());
+    }
+    if (profile.hasJsonPlan()) {
+      details.setJsonPlan(profile.getJsonPlan());
+    }
+
+    final ByteString.Output compressed = ByteString.newOutput();
+    final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try (OutputStream out = new DeflaterOutputStream(compressed, deflater)) {
+      details.build().writeTo(out);
+    } catch (IOException e) {
+      throw new DatastoreException("Failed to compress profile", e);
+    } finally {
+      deflater.end();
+    }
+
+    return profile.toBuilder()
+      .clearFragmentProfile()
+      .clearNodeProfile()
+      .clearPlanPhases()
+      .clearPlan()
+      .clearJsonPlan()
+      .setCompressedDetails(compressed.toByteString())
+      .build();
+  }
+
+  /**
+   * @return the stored profile, with its details decompressed
+   */
+  static QueryProfile decompress(QueryProfile profile) {
+    if (!profile.hasCompressedDetails()) {
+      return profile;
+    }
+
+    try (InputStream in = new InflaterInputStream(profile.getCompressedDetails().newInput())) {
+      return profile.toBuilder()
+        .clearCompressedDetails()
+        .mergeFrom(QueryProfile.parseFrom(in))
+        .build();
+    } catch (IOException e) {
+      throw new DatastoreException("Failed to decompress profile", e);
+    }
+  }
+}
@@ -115,6 +115,19 @@ public abstract class AbstractTestMetricsStore {
     metricsStore.delete(queryId2);
   }
 
+  @Test
+  public void testPutAfterDelete() {
+    final String node1 = "qd1nm1";
+
+    // late updates of a deleted query are dropped.
+    metricsStore.put(queryId1, node1,
+      QueryProgressMetrics.newBuilder().setRowsProcessed(10).build());
+    metricsStore.delete(queryId1);
+    metricsStore.put(queryId1, node1,
+      QueryProgressMetrics.newBuilder().setRowsProcessed(20).build());
+    assertTrue(!metricsStore.get(queryId1).isPresent());
+  }
+
   @Test
   public void testNonExistentQuery() {
     assertTrue(!metricsStore.get(queryIdUnknown).isPresent());
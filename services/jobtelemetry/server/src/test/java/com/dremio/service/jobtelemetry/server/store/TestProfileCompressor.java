@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2017-2019 Dremio Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dremio.service.jobtelemetry.server.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.dremio.exec.proto.UserBitShared;
+import com.dremio.exec.proto.UserBitShared.QueryProfile;
+
+/**
+ * Tests for {@link ProfileCompressor}.
+ */
+public class TestProfileCompressor {
+
+  private static QueryProfile newProfile() {
+    final QueryProfile.Builder builder = QueryProfile.newBuilder()
+      .setQuery("select * from t")
+      .setPlan("PLAN_VALUE")
+      .setState(UserBitShared.QueryResult.QueryState.COMPLETED)
+      .setTotalFragments(100);
+    for (int i = 0; i < 100; i++) {
+      builder.addFragmentProfile(UserBitShared.MajorFragmentProfile.newBuilder()
+        .setMajorFragmentId(i)
+        .addMinorFragmentProfile(UserBitShared.MinorFragmentProfile.newBuilder()
+          .setMinorFragmentId(0)
+          .setState(UserBitShared.FragmentState.FINISHED)
+          .addOperatorProfile(UserBitShared.OperatorProfile.newBuilder()
+            .setOperatorId(i)
+            .setProcessNanos(1000L * i))));
+    }
+    return builder.build();
+  }
+
+  @Test
+  public void testRoundTrip() {
+    final QueryProfile profile = newProfile();
+    final QueryProfile compressed = ProfileCompressor.compress(profile);
+
+    assertTrue(compressed.hasCompressedDetails());
+    assertEquals(0, compressed.getFragmentProfileCount());
+    assertFalse(compressed.hasPlan());
+    assertTrue(compressed.getSerializedSize() < profile.getSerializedSize());
+    // summary fields are readable without decompressing
+    assertEquals(profile.getQuery(), compressed.getQuery());
+    assertEquals(profile.getState(), compressed.getState());
+
+    assertEquals(profile, ProfileCompressor.decompress(compressed));
+  }
+
+  @Test
+  public void testUncompressedProfile() {
+    // profiles stored by earlier versions are not compressed
+    final QueryProfile profile = newProfile();
+    assertEquals(profile, ProfileCompressor.decompress(profile));
+  }
+}